@@ -52,6 +52,7 @@ import org.wso2.carbon.user.core.UserRealm;
 import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTreeCache;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -313,6 +314,8 @@ public class ApplicationMgtUtil {
         } catch (RegistryException e) {
             throw new IdentityApplicationManagementException("Error while renaming permission node "
                     + oldName + "to " + newName, e);
+        } finally {
+            clearUIPermissionTreeCache();
         }
     }
 
@@ -386,6 +389,8 @@ public class ApplicationMgtUtil {
         } catch (Exception e) {
             throw new IdentityApplicationManagementException("Error while storing permissions for application " +
                     applicationName, e);
+        } finally {
+            clearUIPermissionTreeCache();
         }
     }
 
@@ -441,10 +446,22 @@ public class ApplicationMgtUtil {
 
         } catch (RegistryException e) {
             throw new IdentityApplicationManagementException("Error while storing permissions", e);
+        } finally {
+            clearUIPermissionTreeCache();
         }
 
     }
 
+    /**
+     * Clear the cached application permissions of the tenant after the application permissions are changed, so the
+     * UI permission tree is read again from the registry.
+     */
+    private static void clearUIPermissionTreeCache() {
+
+        UIPermissionTreeCache.getInstance().invalidateApplicationPermissions(
+                CarbonContext.getThreadLocalCarbonContext().getTenantId());
+    }
+
     private static void addPermission(String applicationNode, ApplicationPermission[] permissions, Registry
             tenantGovReg) throws RegistryException {
 
@@ -569,6 +586,8 @@ public class ApplicationMgtUtil {
 
         } catch (RegistryException e) {
             throw new IdentityApplicationManagementException("Error while storing permissions", e);
+        } finally {
+            clearUIPermissionTreeCache();
         }
     }
 
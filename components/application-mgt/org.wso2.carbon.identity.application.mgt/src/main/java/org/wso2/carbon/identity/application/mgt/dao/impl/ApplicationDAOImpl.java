@@ -69,7 +69,10 @@ import org.wso2.carbon.identity.application.mgt.dao.IdentityProviderDAO;
 import org.wso2.carbon.identity.application.mgt.dao.PaginatableFilterableApplicationDAO;
 import org.wso2.carbon.identity.application.mgt.internal.ApplicationManagementServiceComponent;
 import org.wso2.carbon.identity.application.mgt.internal.ApplicationManagementServiceComponentHolder;
+import org.wso2.carbon.identity.core.CertificateCache;
 import org.wso2.carbon.identity.core.CertificateRetrievingException;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCache;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCacheKey;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
@@ -475,12 +478,21 @@ public class ApplicationDAOImpl extends AbstractApplicationDAOImpl implements Pa
             throws IdentityApplicationManagementException {
 
         int applicationId = serviceProvider.getApplicationID();
+        // The certificate is updated or removed along with the application, so the cached certificate is
+        // invalidated once the transaction is committed.
+        String certificateReferenceId = getCertificateReferenceID(serviceProvider.getSpProperties());
         Connection connection = IdentityDatabaseUtil.getDBConnection(true);
         try {
             deleteApplicationConfigurations(connection, serviceProvider, applicationId);
             addApplicationConfigurations(connection, serviceProvider, tenantDomain);
 
             IdentityDatabaseUtil.commitTransaction(connection);
+            int tenantID = IdentityTenantUtil.getTenantId(tenantDomain);
+            if (certificateReferenceId != null) {
+                CertificateCache.getInstance().invalidate(tenantID, CertificateCache.Type.DATABASE,
+                        certificateReferenceId);
+            }
+            clearSAMLServiceProviderCache(serviceProvider, tenantID);
         } catch (SQLException | UserStoreException e) {
             IdentityDatabaseUtil.rollbackTransaction(connection);
             throw new IdentityApplicationManagementException("Failed to update application id: " + applicationId, e);
@@ -722,6 +734,31 @@ public class ApplicationDAOImpl extends AbstractApplicationDAOImpl implements Pa
         }
     }
 
+    /**
+     * Remove the cached SAML service providers of the application, which hold the certificate of the application.
+     * Should be called once the application is committed, so that the service providers are not cached again with
+     * the old certificate.
+     *
+     * @param serviceProvider Service provider.
+     * @param tenantID        Tenant id of the service provider.
+     */
+    private void clearSAMLServiceProviderCache(ServiceProvider serviceProvider, int tenantID) {
+
+        InboundAuthenticationConfig inboundAuthenticationConfig = serviceProvider.getInboundAuthenticationConfig();
+        if (inboundAuthenticationConfig == null ||
+                inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs() == null) {
+            return;
+        }
+        for (InboundAuthenticationRequestConfig authRequest :
+                inboundAuthenticationConfig.getInboundAuthenticationRequestConfigs()) {
+            if ("samlsso".equalsIgnoreCase(authRequest.getInboundAuthType()) &&
+                    StringUtils.isNotBlank(authRequest.getInboundAuthKey())) {
+                SAMLSSOServiceProviderCache.getInstance().clearCacheEntry(
+                        new SAMLSSOServiceProviderCacheKey(authRequest.getInboundAuthKey(), tenantID));
+            }
+        }
+    }
+
     /**
      * Returns the certificate reference ID from the given service provider properties.
      *
@@ -4550,6 +4587,7 @@ public class ApplicationDAOImpl extends AbstractApplicationDAOImpl implements Pa
 
             addApplicationConfigurations(connection, application, tenantDomain);
             IdentityDatabaseUtil.commitTransaction(connection);
+            clearSAMLServiceProviderCache(application, IdentityTenantUtil.getTenantId(tenantDomain));
             return resourceId;
         } catch (SQLException | UserStoreException e) {
             log.error("Error while creating the application with name: " + application.getApplicationName()
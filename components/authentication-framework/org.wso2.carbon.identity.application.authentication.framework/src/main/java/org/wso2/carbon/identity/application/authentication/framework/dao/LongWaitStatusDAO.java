@@ -28,6 +28,24 @@ public interface LongWaitStatusDAO {
     void addWaitStatus(int tenantId, String waitKey, LongWaitStatus status, Timestamp createdTime, Timestamp
             expireTime) throws FrameworkException;
 
+    /**
+     * Update the status of a wait. The default implementation replaces the stored wait status, hence the given
+     * status should carry the tenant id, and the created and expire times of the wait.
+     *
+     * @param waitKey wait key
+     * @param status  new status of the wait
+     * @throws FrameworkException if the status cannot be updated
+     */
+    default void updateWaitStatus(String waitKey, LongWaitStatus status) throws FrameworkException {
+
+        if (status.getCreatedTime() == null || status.getExpireTime() == null) {
+            throw new FrameworkException("Created and expire times of the wait are required to update the status " +
+                    "of the wait with key:" + waitKey);
+        }
+        removeWaitStatus(waitKey);
+        addWaitStatus(status.getTenantId(), waitKey, status, status.getCreatedTime(), status.getExpireTime());
+    }
+
     void removeWaitStatus(String waitKey) throws FrameworkException;
 
     LongWaitStatus getWaitStatus(String waitKey) throws FrameworkException;
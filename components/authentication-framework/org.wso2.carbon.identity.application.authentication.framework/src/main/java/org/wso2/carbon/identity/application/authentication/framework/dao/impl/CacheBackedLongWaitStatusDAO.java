@@ -50,6 +50,16 @@ public class CacheBackedLongWaitStatusDAO implements LongWaitStatusDAO {
         }
     }
 
+    public void updateWaitStatus(String waitKey, LongWaitStatus status) throws FrameworkException {
+
+        waitStatusDAO.updateWaitStatus(waitKey, status);
+
+        // Update the cache, so the other nodes do not keep serving the previous status.
+        LongWaitResultCacheKey cacheKey = new LongWaitResultCacheKey(waitKey);
+        LongWaitResultCacheEntry cacheEntry = new LongWaitResultCacheEntry(status);
+        LongWaitResultCache.getInstance().addToCache(cacheKey, cacheEntry);
+    }
+
     public void removeWaitStatus(String waitKey) throws FrameworkException {
 
         waitStatusDAO.removeWaitStatus(waitKey);
@@ -34,6 +34,25 @@ import java.sql.Timestamp;
 public class LongWaitStatusDAOImpl implements LongWaitStatusDAO {
     private static final Log log = LogFactory.getLog(LongWaitStatusDAOImpl.class);
 
+    private static final String SQL_DELETE_EXPIRED_WAIT_STATUS_MYSQL =
+            "DELETE FROM IDN_AUTH_WAIT_STATUS WHERE EXPIRE_TIME < ? LIMIT %d";
+    private static final String SQL_DELETE_EXPIRED_WAIT_STATUS_MSSQL =
+            "DELETE TOP (%d) FROM IDN_AUTH_WAIT_STATUS WHERE EXPIRE_TIME < ?";
+    private static final String SQL_DELETE_EXPIRED_WAIT_STATUS_POSTGRESQL = "DELETE FROM IDN_AUTH_WAIT_STATUS WHERE " +
+            "ID IN (SELECT ID FROM IDN_AUTH_WAIT_STATUS WHERE EXPIRE_TIME < ? LIMIT %d)";
+    private static final String SQL_DELETE_EXPIRED_WAIT_STATUS_DB2SQL = "DELETE FROM IDN_AUTH_WAIT_STATUS WHERE " +
+            "ID IN (SELECT ID FROM IDN_AUTH_WAIT_STATUS WHERE EXPIRE_TIME < ? FETCH FIRST %d ROWS ONLY)";
+    private static final String SQL_DELETE_EXPIRED_WAIT_STATUS_ORACLE =
+            "DELETE FROM IDN_AUTH_WAIT_STATUS WHERE EXPIRE_TIME < ? AND ROWNUM <= %d";
+    private static final String SQL_COUNT_WAIT_STATUS = "SELECT COUNT(*) FROM IDN_AUTH_WAIT_STATUS";
+
+    private static final String MYSQL_DATABASE = "MySQL";
+    private static final String H2_DATABASE = "H2";
+    private static final String DB2_DATABASE = "DB2";
+    private static final String MS_SQL_DATABASE = "MS SQL";
+    private static final String MICROSOFT_DATABASE = "Microsoft";
+    private static final String POSTGRESQL_DATABASE = "PostgreSQL";
+
     public void addWaitStatus(int tenantId, String waitKey, LongWaitStatus status, Timestamp createdTime, Timestamp
             expireTime) throws FrameworkException {
 
@@ -66,6 +85,33 @@ public class LongWaitStatusDAOImpl implements LongWaitStatusDAO {
         }
     }
 
+    public void updateWaitStatus(String waitKey, LongWaitStatus status) throws FrameworkException {
+
+        String query = "UPDATE IDN_AUTH_WAIT_STATUS SET WAIT_STATUS=? WHERE LONG_WAIT_KEY=?";
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+
+            try (PreparedStatement updatePrepStmt = connection.prepareStatement(query)) {
+                if (LongWaitStatus.Status.WAITING == status.getStatus()) {
+                    updatePrepStmt.setString(1, "1");
+                } else {
+                    updatePrepStmt.setString(1, "0");
+                }
+                updatePrepStmt.setString(2, waitKey);
+                updatePrepStmt.execute();
+                if (log.isDebugEnabled()) {
+                    log.debug("Updated wait status for wait key: " + waitKey + " to: " + status.getStatus());
+                }
+                IdentityDatabaseUtil.commitTransaction(connection);
+            } catch (SQLException e) {
+                IdentityDatabaseUtil.rollbackTransaction(connection);
+                throw new FrameworkException("Error while updating wait status with key:" + waitKey, e);
+            }
+        } catch (SQLException e) {
+            throw new FrameworkException("Error while updating wait status with key:" + waitKey, e);
+        }
+    }
+
     public void removeWaitStatus(String waitKey) throws FrameworkException {
 
         String query = "DELETE FROM IDN_AUTH_WAIT_STATUS WHERE LONG_WAIT_KEY=?";
@@ -90,7 +136,7 @@ public class LongWaitStatusDAOImpl implements LongWaitStatusDAO {
 
     public LongWaitStatus getWaitStatus(String waitKey) throws FrameworkException {
 
-        String query = "SELECT WAIT_STATUS FROM IDN_AUTH_WAIT_STATUS WHERE LONG_WAIT_KEY=?";
+        String query = "SELECT WAIT_STATUS, EXPIRE_TIME FROM IDN_AUTH_WAIT_STATUS WHERE LONG_WAIT_KEY=?";
 
         LongWaitStatus longWaitStatus = new LongWaitStatus();
 
@@ -110,6 +156,7 @@ public class LongWaitStatusDAOImpl implements LongWaitStatusDAO {
                         }else {
                             longWaitStatus.setStatus(LongWaitStatus.Status.COMPLETED);
                         }
+                        longWaitStatus.setExpireTime(resultSet.getTimestamp("EXPIRE_TIME"));
                     } else {
                         longWaitStatus.setStatus(LongWaitStatus.Status.UNKNOWN);
                         if (log.isDebugEnabled()) {
@@ -128,4 +175,78 @@ public class LongWaitStatusDAOImpl implements LongWaitStatusDAO {
         }
         return longWaitStatus;
     }
+
+    /**
+     * Remove the wait statuses which expired before the given time. The rows are deleted in chunks of the given size,
+     * committing each chunk, so a large backlog of expired rows does not hold a long running transaction.
+     *
+     * @param expiredBefore wait statuses which expired before this time are removed
+     * @param chunkSize     maximum number of rows deleted in a single transaction
+     * @return number of removed wait statuses
+     * @throws FrameworkException if the wait statuses cannot be removed
+     */
+    public int removeExpiredWaitStatuses(Timestamp expiredBefore, int chunkSize) throws FrameworkException {
+
+        int totalDeletedCount = 0;
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection()) {
+            String query = String.format(getDBSpecificExpiredWaitStatusRemovalQuery(connection), chunkSize);
+            if (log.isDebugEnabled()) {
+                log.debug("DB query for removing expired wait statuses: " + query);
+            }
+            boolean deleteCompleted = false;
+            while (!deleteCompleted) {
+                try (PreparedStatement deletePrepStmt = connection.prepareStatement(query)) {
+                    deletePrepStmt.setTimestamp(1, expiredBefore);
+                    int deletedCount = deletePrepStmt.executeUpdate();
+                    // Commit the chunk deletion.
+                    IdentityDatabaseUtil.commitTransaction(connection);
+                    deleteCompleted = deletedCount < chunkSize;
+                    totalDeletedCount += deletedCount;
+                    if (log.isDebugEnabled()) {
+                        log.debug("Removed " + deletedCount + " expired wait statuses.");
+                    }
+                } catch (SQLException e) {
+                    IdentityDatabaseUtil.rollbackTransaction(connection);
+                    throw new FrameworkException("Error while removing wait statuses expired before: " +
+                            expiredBefore, e);
+                }
+            }
+        } catch (SQLException e) {
+            throw new FrameworkException("Error while removing wait statuses expired before: " + expiredBefore, e);
+        }
+        return totalDeletedCount;
+    }
+
+    /**
+     * Get the number of stored wait statuses.
+     *
+     * @return number of wait statuses
+     * @throws FrameworkException if the wait statuses cannot be counted
+     */
+    public int getWaitStatusCount() throws FrameworkException {
+
+        try (Connection connection = IdentityDatabaseUtil.getDBConnection(false)) {
+            try (PreparedStatement countPrepStmt = connection.prepareStatement(SQL_COUNT_WAIT_STATUS);
+                 ResultSet resultSet = countPrepStmt.executeQuery()) {
+                return resultSet.next() ? resultSet.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new FrameworkException("Error while counting the wait statuses.", e);
+        }
+    }
+
+    private String getDBSpecificExpiredWaitStatusRemovalQuery(Connection connection) throws SQLException {
+
+        String driverName = connection.getMetaData().getDriverName();
+        if (driverName.contains(MYSQL_DATABASE) || driverName.contains(H2_DATABASE)) {
+            return SQL_DELETE_EXPIRED_WAIT_STATUS_MYSQL;
+        } else if (connection.getMetaData().getDatabaseProductName().contains(DB2_DATABASE)) {
+            return SQL_DELETE_EXPIRED_WAIT_STATUS_DB2SQL;
+        } else if (driverName.contains(MS_SQL_DATABASE) || driverName.contains(MICROSOFT_DATABASE)) {
+            return SQL_DELETE_EXPIRED_WAIT_STATUS_MSSQL;
+        } else if (driverName.contains(POSTGRESQL_DATABASE)) {
+            return SQL_DELETE_EXPIRED_WAIT_STATUS_POSTGRESQL;
+        }
+        return SQL_DELETE_EXPIRED_WAIT_STATUS_ORACLE;
+    }
 }
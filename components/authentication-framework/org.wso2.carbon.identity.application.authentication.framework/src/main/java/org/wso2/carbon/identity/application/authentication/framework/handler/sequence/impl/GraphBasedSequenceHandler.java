@@ -470,6 +470,7 @@ public class GraphBasedSequenceHandler extends DefaultStepBasedSequenceHandler i
         if (longWaitStatus == null || longWaitStatus.getStatus() == LongWaitStatus.Status.UNKNOWN) {
             //This is a initiation of long wait
             longWaitStatus = new LongWaitStatus();
+            longWaitStatus.setStatus(LongWaitStatus.Status.WAITING);
             int tenantId = IdentityTenantUtil.getTenantId(context.getTenantDomain());
             longWaitStatusStoreService.addWait(tenantId, context.getContextIdentifier(), longWaitStatus);
             isWaiting = callExternalSystem(request, response, context, sequenceConfig, longWaitNode);
@@ -518,6 +519,18 @@ public class GraphBasedSequenceHandler extends DefaultStepBasedSequenceHandler i
         handle(request, response, context);
     }
 
+    private void completeLongWait(AuthenticationContext context) {
+
+        LongWaitStatusStoreService longWaitStatusStoreService =
+                FrameworkServiceDataHolder.getInstance().getLongWaitStatusStoreService();
+        try {
+            longWaitStatusStoreService.completeWait(context.getContextIdentifier());
+        } catch (FrameworkException e) {
+            log.error("Error while updating the status of the wait: " + context.getContextIdentifier() + ". The " +
+                    "status is only updated on this node. ", e);
+        }
+    }
+
     private boolean callExternalSystem(HttpServletRequest request, HttpServletResponse response,
                                        AuthenticationContext context, SequenceConfig sequenceConfig,
                                        LongWaitNode longWaitNode) throws FrameworkException {
@@ -533,6 +546,8 @@ public class GraphBasedSequenceHandler extends DefaultStepBasedSequenceHandler i
                     FrameworkConstants.JSAttributes.JS_CALL_AND_WAIT_STATUS, result);
             authenticationContext.setProperty(
                     FrameworkConstants.JSAttributes.JS_CALL_AND_WAIT_DATA, data);
+            // The wait is completed only after the outcome is set, as the completion lets the flow continue.
+            completeLongWait(authenticationContext);
 
             if (!promptOnLongWait()) {
                 synchronized (context) {
@@ -75,6 +75,7 @@ import org.wso2.carbon.identity.application.authentication.framework.services.Po
 import org.wso2.carbon.identity.application.authentication.framework.servlet.CommonAuthenticationServlet;
 import org.wso2.carbon.identity.application.authentication.framework.servlet.LoginContextServlet;
 import org.wso2.carbon.identity.application.authentication.framework.servlet.LongWaitStatusServlet;
+import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusCleanUpService;
 import org.wso2.carbon.identity.application.authentication.framework.store.LongWaitStatusStoreService;
 import org.wso2.carbon.identity.application.authentication.framework.store.SessionDataStore;
 import org.wso2.carbon.identity.application.authentication.framework.util.FrameworkConstants;
@@ -101,6 +102,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import javax.servlet.Servlet;
 
 import static org.wso2.carbon.identity.application.authentication.framework.util.FrameworkUtils.promptOnLongWait;
@@ -126,6 +128,7 @@ public class FrameworkServiceComponent {
     private HttpService httpService;
     private ConsentMgtPostAuthnHandler consentMgtPostAuthnHandler = new ConsentMgtPostAuthnHandler();
     private String requireCode;
+    private LongWaitStatusCleanUpService longWaitStatusCleanUpService;
 
     public static RealmService getRealmService() {
 
@@ -296,10 +299,29 @@ public class FrameworkServiceComponent {
             }
         }
 
+        long maxWaitAge = LongWaitStatusStoreService.DEFAULT_MAX_WAIT_AGE;
+        String maxWaitAgeString = IdentityUtil.getProperty("AdaptiveAuth.LongWaitMaxAge");
+        if (maxWaitAgeString != null) {
+            try {
+                maxWaitAge = TimeUnit.MINUTES.toMillis(Long.parseLong(maxWaitAgeString.trim()));
+            } catch (NumberFormatException e) {
+                log.error("Error while parsing long wait max age : " + maxWaitAgeString, e);
+            }
+        }
+
         LongWaitStatusStoreService longWaitStatusStoreService =
-                new LongWaitStatusStoreService(cacheBackedDao, connectionTimeout);
+                new LongWaitStatusStoreService(cacheBackedDao, connectionTimeout, maxWaitAge);
         dataHolder.setLongWaitStatusStoreService(longWaitStatusStoreService);
 
+        if (!Boolean.FALSE.toString().equalsIgnoreCase(IdentityUtil.getProperty("AdaptiveAuth.LongWaitCleanUp" +
+                ".Enable"))) {
+            long cleanUpPeriod = getLongWaitCleanUpProperty("CleanUpPeriod", 60);
+            longWaitStatusCleanUpService = new LongWaitStatusCleanUpService(daoImpl, cleanUpPeriod / 4,
+                    cleanUpPeriod, getLongWaitCleanUpProperty("CleanUpTimeout", 15),
+                    (int) getLongWaitCleanUpProperty("DeleteChunkSize", 10000));
+            longWaitStatusCleanUpService.activateCleanUp();
+        }
+
         // Registering JIT, association and domain handler as post authentication handler
         PostAuthenticationHandler postJITProvisioningHandler = JITProvisioningPostAuthenticationHandler.getInstance();
         bundleContext.registerService(PostAuthenticationHandler.class.getName(), postJITProvisioningHandler, null);
@@ -332,6 +354,9 @@ public class FrameworkServiceComponent {
 
         FrameworkServiceDataHolder.getInstance().setBundleContext(null);
         SessionDataStore.getInstance().stopService();
+        if (longWaitStatusCleanUpService != null) {
+            longWaitStatusCleanUpService.deactivateCleanUp();
+        }
     }
 
     @Reference(
@@ -748,6 +773,19 @@ public class FrameworkServiceComponent {
         FrameworkServiceDataHolder.getInstance().setFederatedAssociationManager(null);
     }
 
+    private long getLongWaitCleanUpProperty(String name, long defaultValue) {
+
+        String value = IdentityUtil.getProperty("AdaptiveAuth.LongWaitCleanUp." + name);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                log.error("Error while parsing long wait cleanup " + name + " : " + value, e);
+            }
+        }
+        return defaultValue;
+    }
+
     private AuthenticatorConfig getAuthenticatorConfig(String name) {
 
         AuthenticatorConfig authConfig = FileBasedConfigurationBuilder.getInstance().getAuthenticatorBean(name);
@@ -19,6 +19,7 @@
 package org.wso2.carbon.identity.application.authentication.framework.model;
 
 import java.io.Serializable;
+import java.sql.Timestamp;
 
 /**
  * Object holding long wait status.
@@ -30,6 +31,9 @@ public class LongWaitStatus implements Serializable {
     }
 
     private Status status;
+    private int tenantId;
+    private Timestamp createdTime;
+    private Timestamp expireTime;
 
     public Status getStatus() {
 
@@ -40,4 +44,37 @@ public class LongWaitStatus implements Serializable {
 
         this.status = status;
     }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public void setTenantId(int tenantId) {
+
+        this.tenantId = tenantId;
+    }
+
+    public Timestamp getCreatedTime() {
+
+        return createdTime;
+    }
+
+    public void setCreatedTime(Timestamp createdTime) {
+
+        this.createdTime = createdTime;
+    }
+
+    /**
+     * @return time after which a wait which has not completed is treated as expired, or null if it is not known
+     */
+    public Timestamp getExpireTime() {
+
+        return expireTime;
+    }
+
+    public void setExpireTime(Timestamp expireTime) {
+
+        this.expireTime = expireTime;
+    }
 }
@@ -35,6 +35,12 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+/**
+ * Serves the status of a long wait to the browser.
+ * <p>
+ * The status is read through the {@link LongWaitStatusStoreService}, which serves the waits started on this node from
+ * memory and falls back to the database for the waits started on the other nodes.
+ */
 public class LongWaitStatusServlet extends HttpServlet {
 
     private static final long serialVersionUID = -3714283612680472526L;
@@ -98,6 +104,12 @@ public class LongWaitStatusServlet extends HttpServlet {
             }
         }
 
+        writeResponse(response, longWaitResponse);
+    }
+
+    private void writeResponse(HttpServletResponse response, LongWaitStatusResponse longWaitResponse)
+            throws IOException {
+
         response.setContentType(FrameworkConstants.ContentTypes.TYPE_APPLICATION_JSON);
         String json = new Gson().toJson(longWaitResponse);
         try (PrintWriter out = response.getWriter()) {
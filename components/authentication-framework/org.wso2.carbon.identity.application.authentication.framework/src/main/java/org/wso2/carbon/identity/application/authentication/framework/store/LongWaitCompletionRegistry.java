@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process registry of the long waits started on this node. It lets the status of these waits be served from
+ * memory, instead of polling the wait status from the database.
+ */
+public class LongWaitCompletionRegistry {
+
+    private final Map<String, Wait> waits = new ConcurrentHashMap<>();
+    private final long maxWaitAge;
+    private volatile long lastPurgeTime;
+
+    /**
+     * @param maxWaitAge time in milliseconds after which a wait which is never removed is dropped from the registry
+     */
+    public LongWaitCompletionRegistry(long maxWaitAge) {
+
+        this.maxWaitAge = maxWaitAge;
+    }
+
+    /**
+     * Register a long wait started on this node.
+     *
+     * @param waitKey wait key
+     * @param status  status the wait was started with
+     */
+    public void register(String waitKey, LongWaitStatus status) {
+
+        long now = System.currentTimeMillis();
+        waits.put(waitKey, new Wait(now, status));
+        if (now - lastPurgeTime > maxWaitAge) {
+            lastPurgeTime = now;
+            purge(now);
+        }
+    }
+
+    /**
+     * Get the status of a long wait started on this node.
+     *
+     * @param waitKey wait key
+     * @return status of the wait, or null if the wait was not started on this node or was dropped from the registry
+     */
+    public LongWaitStatus.Status getStatus(String waitKey) {
+
+        Wait wait = waits.get(waitKey);
+        if (wait == null) {
+            return null;
+        }
+        return wait.completed ? LongWaitStatus.Status.COMPLETED : LongWaitStatus.Status.WAITING;
+    }
+
+    /**
+     * Get the status a long wait started on this node was registered with.
+     *
+     * @param waitKey wait key
+     * @return registered status of the wait, or null if the wait was not started on this node or was dropped from the
+     * registry
+     */
+    public LongWaitStatus getRegisteredStatus(String waitKey) {
+
+        Wait wait = waits.get(waitKey);
+        if (wait == null) {
+            return null;
+        }
+        return wait.registeredStatus;
+    }
+
+    /**
+     * Mark the long wait as completed.
+     *
+     * @param waitKey wait key
+     * @return false if the wait was not started on this node
+     */
+    public boolean complete(String waitKey) {
+
+        Wait wait = waits.get(waitKey);
+        if (wait == null) {
+            return false;
+        }
+        wait.completed = true;
+        return true;
+    }
+
+    /**
+     * Remove the long wait.
+     *
+     * @param waitKey wait key
+     */
+    public void remove(String waitKey) {
+
+        waits.remove(waitKey);
+    }
+
+    private void purge(long now) {
+
+        // Dropped waits are not completed. Their status is read from the database afterwards.
+        Iterator<Map.Entry<String, Wait>> iterator = waits.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().getValue().createdTime > maxWaitAge) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Wait {
+
+        private final long createdTime;
+        private final LongWaitStatus registeredStatus;
+        private volatile boolean completed;
+
+        private Wait(long createdTime, LongWaitStatus registeredStatus) {
+
+            this.createdTime = createdTime;
+            this.registeredStatus = registeredStatus;
+        }
+    }
+}
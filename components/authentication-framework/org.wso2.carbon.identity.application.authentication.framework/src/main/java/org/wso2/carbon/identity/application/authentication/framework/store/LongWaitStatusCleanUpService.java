@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.application.authentication.framework.dao.impl.LongWaitStatusDAOImpl;
+import org.wso2.carbon.identity.application.authentication.framework.exception.FrameworkException;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Database cleanup of the long wait statuses. Timer task is running for pre-defined period to remove the wait
+ * statuses of the abandoned flows, which are never removed once their wait completes.
+ * <p>
+ * A wait status is only removed once it has been expired for longer than the cleanup timeout, so the waits which are
+ * still running past their expiry time are not affected. The number of removed and remaining wait statuses of the
+ * runs is kept as metrics of the cleanup, which are exposed as an MBean named {@value #OBJECT_NAME} while the
+ * cleanup is active.
+ */
+public final class LongWaitStatusCleanUpService implements LongWaitStatusCleanUpServiceMBean {
+
+    private static final int NUM_THREADS = 1;
+    private static final String OBJECT_NAME = "org.wso2.carbon.identity:type=LongWaitStatusCleanUp";
+    private static final Log log = LogFactory.getLog(LongWaitStatusCleanUpService.class);
+    private final LongWaitStatusDAOImpl statusDAO;
+    private final long initialDelay;
+    private final long delayBetweenRuns;
+    private final long cleanUpTimeout;
+    private final int deleteChunkSize;
+    private final AtomicLong totalPurgedCount = new AtomicLong();
+    private final AtomicLong lastPurgedCount = new AtomicLong();
+    private final AtomicLong remainingCount = new AtomicLong(-1);
+    private ScheduledExecutorService scheduler;
+    private ObjectName objectName;
+
+    /**
+     * @param statusDAO        DAO of the wait statuses
+     * @param initialDelay     delay before the first run, in minutes
+     * @param delayBetweenRuns delay between the runs, in minutes
+     * @param cleanUpTimeout   time in minutes a wait status should be expired for to be removed
+     * @param deleteChunkSize  maximum number of wait statuses removed in a single transaction
+     */
+    public LongWaitStatusCleanUpService(LongWaitStatusDAOImpl statusDAO, long initialDelay, long delayBetweenRuns,
+                                        long cleanUpTimeout, int deleteChunkSize) {
+
+        this.statusDAO = statusDAO;
+        this.initialDelay = initialDelay;
+        this.delayBetweenRuns = delayBetweenRuns;
+        this.cleanUpTimeout = cleanUpTimeout;
+        this.deleteChunkSize = deleteChunkSize > 0 ? deleteChunkSize : 1;
+    }
+
+    /**
+     * Start running the cleanup task periodically and register the metrics of the cleanup as an MBean.
+     */
+    public synchronized void activateCleanUp() {
+
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newScheduledThreadPool(NUM_THREADS);
+        scheduler.scheduleWithFixedDelay(this::cleanUp, initialDelay, delayBetweenRuns, TimeUnit.MINUTES);
+        registerMBean();
+    }
+
+    /**
+     * Stop running the cleanup task and unregister the MBean of the metrics.
+     */
+    public synchronized void deactivateCleanUp() {
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        unregisterMBean();
+    }
+
+    /**
+     * Remove the wait statuses which have been expired for longer than the cleanup timeout.
+     *
+     * @return number of removed wait statuses
+     */
+    public int cleanUp() {
+
+        return cleanUp(System.currentTimeMillis());
+    }
+
+    int cleanUp(long currentTime) {
+
+        log.debug("Start running the long wait status cleanup task.");
+        Timestamp expiredBefore = new Timestamp(currentTime - TimeUnit.MINUTES.toMillis(cleanUpTimeout));
+        int purgedCount = 0;
+        try {
+            purgedCount = statusDAO.removeExpiredWaitStatuses(expiredBefore, deleteChunkSize);
+            lastPurgedCount.set(purgedCount);
+            totalPurgedCount.addAndGet(purgedCount);
+            remainingCount.set(statusDAO.getWaitStatusCount());
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Removed %d long wait statuses expired before %s. %d long wait statuses " +
+                        "remain.", purgedCount, expiredBefore, remainingCount.get()));
+            }
+        } catch (FrameworkException e) {
+            log.error("Error while removing the long wait statuses expired before: " + expiredBefore, e);
+        }
+        log.debug("Stop running the long wait status cleanup task.");
+        return purgedCount;
+    }
+
+    /**
+     * @return number of wait statuses removed by all the runs
+     */
+    @Override
+    public long getTotalPurgedCount() {
+
+        return totalPurgedCount.get();
+    }
+
+    /**
+     * @return number of wait statuses removed by the last successful run
+     */
+    @Override
+    public long getLastPurgedCount() {
+
+        return lastPurgedCount.get();
+    }
+
+    /**
+     * @return number of wait statuses remaining after the last successful run, or -1 if there has been none
+     */
+    @Override
+    public long getRemainingCount() {
+
+        return remainingCount.get();
+    }
+
+    private void registerMBean() {
+
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            log.error("Error while registering the MBean of the long wait status cleanup.", e);
+        }
+    }
+
+    private void unregisterMBean() {
+
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.error("Error while unregistering the MBean " + objectName, e);
+        }
+        objectName = null;
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+/**
+ * Management interface of the metrics of the long wait status cleanup.
+ */
+public interface LongWaitStatusCleanUpServiceMBean {
+
+    /**
+     * @return number of wait statuses removed by all the runs
+     */
+    long getTotalPurgedCount();
+
+    /**
+     * @return number of wait statuses removed by the last successful run
+     */
+    long getLastPurgedCount();
+
+    /**
+     * @return number of wait statuses remaining after the last successful run, or -1 if there has been none
+     */
+    long getRemainingCount();
+}
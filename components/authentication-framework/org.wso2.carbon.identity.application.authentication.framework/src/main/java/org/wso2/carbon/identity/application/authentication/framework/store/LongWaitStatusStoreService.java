@@ -27,33 +27,115 @@ import java.util.Date;
 
 /**
  * The service holds long wait status.
+ * <p>
+ * The waits started on this node are also tracked in a {@link LongWaitCompletionRegistry}, so their status is served
+ * without reading the database. The database is only read for the waits started on other nodes of the cluster.
+ * A wait which is still waiting after the max wait age is treated as expired, since the node which started it may
+ * never complete it.
  */
 public class LongWaitStatusStoreService {
 
+    public static final long DEFAULT_MAX_WAIT_AGE = 15 * 60 * 1000L;
+
     private LongWaitStatusDAO statusDAO;
     private int connectionTimeout;
+    private long maxWaitAge;
+    private LongWaitCompletionRegistry completionRegistry;
 
     public LongWaitStatusStoreService(LongWaitStatusDAO statusDAO, int connectionTimeout) {
 
+        this(statusDAO, connectionTimeout, DEFAULT_MAX_WAIT_AGE);
+    }
+
+    /**
+     * @param statusDAO         wait status DAO
+     * @param connectionTimeout connection timeout in milliseconds
+     * @param maxWaitAge        time in milliseconds after which a wait which is not completed is treated as expired
+     */
+    public LongWaitStatusStoreService(LongWaitStatusDAO statusDAO, int connectionTimeout, long maxWaitAge) {
+
         this.statusDAO = statusDAO;
         this.connectionTimeout = connectionTimeout;
+        this.maxWaitAge = maxWaitAge;
+        this.completionRegistry = new LongWaitCompletionRegistry(maxWaitAge);
     }
 
     public void addWait(int tenantId, String sessionId, LongWaitStatus longWaitStatus) throws FrameworkException {
 
         Date now = new Date();
         Timestamp createdTime = new Timestamp(now.getTime());
-        Timestamp expireTime = new Timestamp(now.getTime() + connectionTimeout);
+        Timestamp expireTime = new Timestamp(now.getTime() + Math.max(connectionTimeout, maxWaitAge));
+        longWaitStatus.setTenantId(tenantId);
+        longWaitStatus.setCreatedTime(createdTime);
+        longWaitStatus.setExpireTime(expireTime);
         statusDAO.addWaitStatus(tenantId, sessionId, longWaitStatus, createdTime, expireTime);
+        completionRegistry.register(sessionId, longWaitStatus);
     }
 
     public LongWaitStatus getWait(String sessionId) throws FrameworkException {
 
-        return statusDAO.getWaitStatus(sessionId);
+        LongWaitStatus.Status localStatus = completionRegistry.getStatus(sessionId);
+        if (localStatus != null) {
+            LongWaitStatus longWaitStatus = new LongWaitStatus();
+            longWaitStatus.setStatus(localStatus);
+            return longWaitStatus;
+        }
+        LongWaitStatus longWaitStatus = statusDAO.getWaitStatus(sessionId);
+        if (longWaitStatus != null && longWaitStatus.getStatus() == LongWaitStatus.Status.WAITING
+                && isExpired(longWaitStatus)) {
+            // The node which started the wait did not complete it in time, and may have gone down. The wait is
+            // reported as completed so the waiting flow ends, without the outcome of the wait.
+            LongWaitStatus expiredStatus = new LongWaitStatus();
+            expiredStatus.setStatus(LongWaitStatus.Status.COMPLETED);
+            expiredStatus.setExpireTime(longWaitStatus.getExpireTime());
+            return expiredStatus;
+        }
+        return longWaitStatus;
+    }
+
+    /**
+     * Mark the wait as completed on this node and update the status for the other nodes.
+     *
+     * @param sessionId wait key
+     * @throws FrameworkException if the status cannot be updated
+     */
+    public void completeWait(String sessionId) throws FrameworkException {
+
+        LongWaitStatus longWaitStatus = new LongWaitStatus();
+        longWaitStatus.setStatus(LongWaitStatus.Status.COMPLETED);
+        LongWaitStatus registeredStatus = completionRegistry.getRegisteredStatus(sessionId);
+        if (registeredStatus != null) {
+            longWaitStatus.setTenantId(registeredStatus.getTenantId());
+            longWaitStatus.setCreatedTime(registeredStatus.getCreatedTime());
+            longWaitStatus.setExpireTime(registeredStatus.getExpireTime());
+        }
+        try {
+            statusDAO.updateWaitStatus(sessionId, longWaitStatus);
+        } finally {
+            completionRegistry.complete(sessionId);
+        }
     }
 
     public void removeWait(String sessionId) throws FrameworkException {
 
-        statusDAO.removeWaitStatus(sessionId);
+        try {
+            statusDAO.removeWaitStatus(sessionId);
+        } finally {
+            completionRegistry.remove(sessionId);
+        }
+    }
+
+    private boolean isExpired(LongWaitStatus longWaitStatus) {
+
+        Timestamp expireTime = longWaitStatus.getExpireTime();
+        return expireTime != null && expireTime.getTime() < System.currentTimeMillis();
+    }
+
+    /**
+     * @return registry of the waits started on this node
+     */
+    public LongWaitCompletionRegistry getCompletionRegistry() {
+
+        return completionRegistry;
     }
 }
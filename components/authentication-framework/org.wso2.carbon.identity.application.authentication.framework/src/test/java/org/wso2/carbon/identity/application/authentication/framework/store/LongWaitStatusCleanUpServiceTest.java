@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.dao.impl.LongWaitStatusDAOImpl;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.powermock.api.mockito.PowerMockito.doNothing;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.spy;
+import static org.powermock.api.mockito.PowerMockito.when;
+
+/**
+ * Test class that includes unit tests of LongWaitStatusCleanUpService.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class})
+@PowerMockIgnore({"javax.xml.*", "javax.management.*"})
+public class LongWaitStatusCleanUpServiceTest extends DataStoreBaseTest {
+
+    private static final String DB_NAME = "LONG_WAIT_STATUS";
+    private static final long CURRENT_TIME = 1500000000000L;
+    private static final int EXPIRED_COUNT = 1000000;
+    private static final int RECENTLY_EXPIRED_COUNT = 100;
+    private static final int WAITING_COUNT = 100;
+    private static final long CLEANUP_TIMEOUT = 15;
+
+    @BeforeClass
+    public void setUp() throws Exception {
+
+        initH2DB(DB_NAME, getDatabaseScriptFilePath("long_wait_status_h2.sql"));
+        try (Connection connection = getConnection(DB_NAME)) {
+            // Abandoned waits which expired a day ago.
+            insertWaitStatuses(connection, "expired-", EXPIRED_COUNT, CURRENT_TIME - TimeUnit.DAYS.toMillis(1));
+            // Waits which expired within the cleanup timeout, which may still be running.
+            insertWaitStatuses(connection, "recently-expired-", RECENTLY_EXPIRED_COUNT,
+                    CURRENT_TIME - TimeUnit.MINUTES.toMillis(CLEANUP_TIMEOUT - 1));
+            insertWaitStatuses(connection, "waiting-", WAITING_COUNT, CURRENT_TIME + TimeUnit.MINUTES.toMillis(1));
+        }
+    }
+
+    @AfterClass
+    public void tearDown() throws Exception {
+
+        closeH2DB(DB_NAME);
+    }
+
+    @Test
+    public void testExpiredWaitStatusesArePurgedInChunks() throws Exception {
+
+        try (Connection connection = getConnection(DB_NAME)) {
+            mockIdentityDataBaseUtilConnection(connection);
+            LongWaitStatusCleanUpService cleanUpService = new LongWaitStatusCleanUpService(
+                    new LongWaitStatusDAOImpl(), 0, 60, CLEANUP_TIMEOUT, 50000);
+
+            Assert.assertEquals(cleanUpService.cleanUp(CURRENT_TIME), EXPIRED_COUNT);
+            Assert.assertEquals(cleanUpService.getLastPurgedCount(), EXPIRED_COUNT);
+            Assert.assertEquals(cleanUpService.getRemainingCount(), RECENTLY_EXPIRED_COUNT + WAITING_COUNT);
+
+            Assert.assertEquals(cleanUpService.cleanUp(CURRENT_TIME), 0);
+            Assert.assertEquals(cleanUpService.getTotalPurgedCount(), EXPIRED_COUNT);
+            Assert.assertEquals(cleanUpService.getRemainingCount(), RECENTLY_EXPIRED_COUNT + WAITING_COUNT);
+
+            // Once the cleanup timeout passes, the recently expired waits are purged as well.
+            Assert.assertEquals(cleanUpService.cleanUp(CURRENT_TIME + TimeUnit.MINUTES.toMillis(2)),
+                    RECENTLY_EXPIRED_COUNT);
+            Assert.assertEquals(cleanUpService.getRemainingCount(), WAITING_COUNT);
+        }
+    }
+
+    @Test
+    public void testMetricsAreRegisteredWhileCleanUpIsActive() throws Exception {
+
+        LongWaitStatusCleanUpService cleanUpService = new LongWaitStatusCleanUpService(
+                new LongWaitStatusDAOImpl(), 60, 60, CLEANUP_TIMEOUT, 50000);
+        ObjectName objectName = new ObjectName("org.wso2.carbon.identity:type=LongWaitStatusCleanUp");
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+        cleanUpService.activateCleanUp();
+        try {
+            Assert.assertEquals(mBeanServer.getAttribute(objectName, "TotalPurgedCount"), 0L);
+            Assert.assertEquals(mBeanServer.getAttribute(objectName, "RemainingCount"), -1L);
+        } finally {
+            cleanUpService.deactivateCleanUp();
+        }
+        Assert.assertFalse(mBeanServer.isRegistered(objectName));
+    }
+
+    private void insertWaitStatuses(Connection connection, String keyPrefix, int count, long expireTime)
+            throws SQLException {
+
+        String query = "INSERT INTO IDN_AUTH_WAIT_STATUS (TENANT_ID, LONG_WAIT_KEY, WAIT_STATUS, TIME_CREATED, " +
+                "EXPIRE_TIME) SELECT -1234, CONCAT(?, X), '1', ?, ? FROM SYSTEM_RANGE(1, " + count + ")";
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, keyPrefix);
+            statement.setTimestamp(2, new Timestamp(expireTime - TimeUnit.SECONDS.toMillis(5)));
+            statement.setTimestamp(3, new Timestamp(expireTime));
+            statement.executeUpdate();
+        }
+    }
+
+    private void mockIdentityDataBaseUtilConnection(Connection connection) throws SQLException {
+
+        Connection connection1 = spy(connection);
+        doNothing().when(connection1).close();
+        mockStatic(IdentityDatabaseUtil.class);
+        when(IdentityDatabaseUtil.getDBConnection()).thenReturn(connection1);
+        when(IdentityDatabaseUtil.getDBConnection(false)).thenReturn(connection1);
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.application.authentication.framework.store;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.application.authentication.framework.dao.LongWaitStatusDAO;
+import org.wso2.carbon.identity.application.authentication.framework.model.LongWaitStatus;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the completion of the long waits through {@link LongWaitStatusStoreService}.
+ */
+public class LongWaitStatusStoreServiceTest {
+
+    private static final int WAITER_COUNT = 5000;
+
+    private CountingLongWaitStatusDAO statusDAO;
+    private LongWaitStatusStoreService storeService;
+
+    @BeforeMethod
+    public void setUp() {
+
+        statusDAO = new CountingLongWaitStatusDAO();
+        storeService = new LongWaitStatusStoreService(statusDAO, 5000);
+    }
+
+    @Test
+    public void testConcurrentWaitersReadLocalStatusWithoutDatabase() throws Exception {
+
+        for (int i = 0; i < WAITER_COUNT; i++) {
+            storeService.addWait(-1234, "wait-" + i, createStatus(LongWaitStatus.Status.WAITING));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        List<Future<?>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITER_COUNT; i++) {
+            final String waitKey = "wait-" + i;
+            waiters.add(executor.submit(() -> {
+                Assert.assertEquals(storeService.getWait(waitKey).getStatus(), LongWaitStatus.Status.WAITING);
+                storeService.completeWait(waitKey);
+                Assert.assertEquals(storeService.getWait(waitKey).getStatus(), LongWaitStatus.Status.COMPLETED);
+                return null;
+            }));
+        }
+        for (Future<?> waiter : waiters) {
+            waiter.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Each completion updates the status once for the other nodes, and the waiters never read the database.
+        Assert.assertEquals(statusDAO.reads.get(), 0);
+        Assert.assertEquals(statusDAO.updates.get(), WAITER_COUNT);
+    }
+
+    @Test
+    public void testRemovedWaitIsReadFromDatabase() throws Exception {
+
+        storeService.addWait(-1234, "wait", createStatus(LongWaitStatus.Status.WAITING));
+        storeService.completeWait("wait");
+        storeService.removeWait("wait");
+
+        Assert.assertNull(storeService.getCompletionRegistry().getStatus("wait"));
+        storeService.getWait("wait");
+        Assert.assertEquals(statusDAO.reads.get(), 1);
+    }
+
+    @Test
+    public void testExpiredWaitIsNotReportedCompleted() throws Exception {
+
+        LongWaitCompletionRegistry completionRegistry = new LongWaitCompletionRegistry(1);
+        completionRegistry.register("expired-wait", createStatus(LongWaitStatus.Status.WAITING));
+        Thread.sleep(10);
+        completionRegistry.register("wait", createStatus(LongWaitStatus.Status.WAITING));
+
+        Assert.assertNull(completionRegistry.getStatus("expired-wait"));
+        Assert.assertFalse(completionRegistry.complete("expired-wait"));
+        Assert.assertEquals(completionRegistry.getStatus("wait"), LongWaitStatus.Status.WAITING);
+    }
+
+    @Test
+    public void testWaitOfOtherNodeIsReadFromDatabase() throws Exception {
+
+        Assert.assertEquals(storeService.getWait("remote-wait").getStatus(), LongWaitStatus.Status.WAITING);
+        Assert.assertEquals(statusDAO.reads.get(), 1);
+        Assert.assertNull(storeService.getCompletionRegistry().getStatus("remote-wait"));
+    }
+
+    @Test
+    public void testExpiredWaitOfOtherNodeIsReportedCompleted() throws Exception {
+
+        LongWaitStatus remoteStatus = createStatus(LongWaitStatus.Status.WAITING);
+        remoteStatus.setExpireTime(new Timestamp(System.currentTimeMillis() - 1000));
+        statusDAO.remoteStatus = remoteStatus;
+
+        Assert.assertEquals(storeService.getWait("remote-wait").getStatus(), LongWaitStatus.Status.COMPLETED);
+    }
+
+    @Test
+    public void testWaitIsExpiredAfterMaxWaitAge() throws Exception {
+
+        InMemoryLongWaitStatusDAO inMemoryDAO = new InMemoryLongWaitStatusDAO();
+        LongWaitStatusStoreService localStoreService = new LongWaitStatusStoreService(inMemoryDAO, 5000,
+                TimeUnit.MINUTES.toMillis(30));
+        localStoreService.addWait(-1234, "wait", createStatus(LongWaitStatus.Status.WAITING));
+
+        LongWaitStatus storedStatus = inMemoryDAO.statuses.get("wait");
+        Assert.assertEquals(storedStatus.getExpireTime().getTime() - storedStatus.getCreatedTime().getTime(),
+                TimeUnit.MINUTES.toMillis(30));
+    }
+
+    @Test
+    public void testDefaultUpdateReplacesWaitStatus() throws Exception {
+
+        InMemoryLongWaitStatusDAO inMemoryDAO = new InMemoryLongWaitStatusDAO();
+        LongWaitStatusStoreService localStoreService = new LongWaitStatusStoreService(inMemoryDAO, 5000);
+        localStoreService.addWait(-1234, "wait", createStatus(LongWaitStatus.Status.WAITING));
+        LongWaitStatus waitingStatus = inMemoryDAO.statuses.get("wait");
+
+        localStoreService.completeWait("wait");
+
+        LongWaitStatus completedStatus = inMemoryDAO.statuses.get("wait");
+        Assert.assertEquals(completedStatus.getStatus(), LongWaitStatus.Status.COMPLETED);
+        Assert.assertEquals(completedStatus.getTenantId(), -1234);
+        Assert.assertEquals(completedStatus.getCreatedTime(), waitingStatus.getCreatedTime());
+        Assert.assertEquals(completedStatus.getExpireTime(), waitingStatus.getExpireTime());
+        Assert.assertEquals(inMemoryDAO.removes.get(), 1);
+    }
+
+    private static LongWaitStatus createStatus(LongWaitStatus.Status status) {
+
+        LongWaitStatus longWaitStatus = new LongWaitStatus();
+        longWaitStatus.setStatus(status);
+        return longWaitStatus;
+    }
+
+    private static class CountingLongWaitStatusDAO implements LongWaitStatusDAO {
+
+        private final AtomicInteger reads = new AtomicInteger();
+        private final AtomicInteger updates = new AtomicInteger();
+        private volatile LongWaitStatus remoteStatus;
+
+        @Override
+        public void addWaitStatus(int tenantId, String waitKey, LongWaitStatus status, Timestamp createdTime,
+                                  Timestamp expireTime) {
+
+        }
+
+        @Override
+        public void updateWaitStatus(String waitKey, LongWaitStatus status) {
+
+            updates.incrementAndGet();
+        }
+
+        @Override
+        public void removeWaitStatus(String waitKey) {
+
+        }
+
+        @Override
+        public LongWaitStatus getWaitStatus(String waitKey) {
+
+            reads.incrementAndGet();
+            if (remoteStatus != null) {
+                return remoteStatus;
+            }
+            return createStatus(LongWaitStatus.Status.WAITING);
+        }
+    }
+
+    /**
+     * Wait status DAO which does not implement the update, so the default update of {@link LongWaitStatusDAO} is used.
+     */
+    private static class InMemoryLongWaitStatusDAO implements LongWaitStatusDAO {
+
+        private final Map<String, LongWaitStatus> statuses = new ConcurrentHashMap<>();
+        private final AtomicInteger removes = new AtomicInteger();
+
+        @Override
+        public void addWaitStatus(int tenantId, String waitKey, LongWaitStatus status, Timestamp createdTime,
+                                  Timestamp expireTime) {
+
+            LongWaitStatus storedStatus = createStatus(status.getStatus());
+            storedStatus.setTenantId(tenantId);
+            storedStatus.setCreatedTime(createdTime);
+            storedStatus.setExpireTime(expireTime);
+            statuses.put(waitKey, storedStatus);
+        }
+
+        @Override
+        public void removeWaitStatus(String waitKey) {
+
+            removes.incrementAndGet();
+            statuses.remove(waitKey);
+        }
+
+        @Override
+        public LongWaitStatus getWaitStatus(String waitKey) {
+
+            return statuses.get(waitKey);
+        }
+    }
+}
@@ -397,6 +397,8 @@ CREATE TABLE IF NOT EXISTS IDN_AUTH_WAIT_STATUS (
   PRIMARY KEY (ID),
   CONSTRAINT IDN_AUTH_WAIT_STATUS_KEY UNIQUE (LONG_WAIT_KEY));
 
+CREATE INDEX IDX_IDN_AUTH_WAIT_STATUS_EXP ON IDN_AUTH_WAIT_STATUS (EXPIRE_TIME);
+
 CREATE TABLE IF NOT EXISTS IDP (
 			ID INTEGER AUTO_INCREMENT,
 			TENANT_ID INTEGER,
@@ -0,0 +1,11 @@
+CREATE TABLE IF NOT EXISTS IDN_AUTH_WAIT_STATUS (
+  ID              INTEGER AUTO_INCREMENT NOT NULL,
+  TENANT_ID       INTEGER                NOT NULL,
+  LONG_WAIT_KEY   VARCHAR(255)           NOT NULL,
+  WAIT_STATUS     CHAR(1) NOT NULL DEFAULT '1',
+  TIME_CREATED    TIMESTAMP DEFAULT 0,
+  EXPIRE_TIME     TIMESTAMP DEFAULT 0,
+  PRIMARY KEY (ID),
+  CONSTRAINT IDN_AUTH_WAIT_STATUS_KEY UNIQUE (LONG_WAIT_KEY));
+
+CREATE INDEX IDX_IDN_AUTH_WAIT_STATUS_EXP ON IDN_AUTH_WAIT_STATUS (EXPIRE_TIME);
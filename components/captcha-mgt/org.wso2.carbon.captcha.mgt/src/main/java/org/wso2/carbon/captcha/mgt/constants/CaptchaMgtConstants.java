@@ -32,6 +32,9 @@ public class CaptchaMgtConstants {
     public static final String CAPTCHA_TEXT_PROPERTY_KEY = "captcha-text";
     public static final String CAPTCHA_PATH_PROPERTY_KEY = "captcha-path";
     public static final int CAPTCHA_IMG_TIMEOUT_MIN = 20;
+    // Captchas are stored in bucket collections by their creation minute, so expired captchas are removed by bucket.
+    public static final long CAPTCHA_BUCKET_WIDTH_MS = 60 * 1000L;
+    public static final String CAPTCHA_SECRET_KEY_SEPARATOR = "_";
     public static final String CAPTCHA_ERROR_MSG = "Captcha validation failed.";
 
 }
@@ -25,6 +25,7 @@ import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
+import org.wso2.carbon.captcha.mgt.util.CaptchaReaper;
 import org.wso2.carbon.captcha.mgt.util.CaptchaUtil;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.service.RegistryService;
@@ -58,6 +59,7 @@ public class CaptchaMgtServiceComponent {
     protected void activate(ComponentContext context) {
 
         try {
+            CaptchaReaper.getInstance().start();
             CaptchaUtil.setAnonAccessToCaptchaImages();
             if (log.isDebugEnabled()) {
                 log.debug("*************Captcha Management component is activated.**************");
@@ -70,6 +72,7 @@ public class CaptchaMgtServiceComponent {
     @Deactivate
     protected void deactivate(ComponentContext context) {
 
+        CaptchaReaper.getInstance().stop();
         log.debug("******* Captcha Management bundle is deactivated ******* ");
     }
 
@@ -0,0 +1,174 @@
+/*
+ *  Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.captcha.mgt.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.captcha.mgt.constants.CaptchaMgtConstants;
+import org.wso2.carbon.captcha.mgt.internal.CaptchaMgtServiceComponent;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * CaptchaReaper - Removes the expired captchas from the registry.
+ * <p>
+ * A single background thread removes the captcha buckets which have expired, periodically and when requested through
+ * {@link #requestReap()}. At most one requested reap is pending at a time, and requests made shortly after a reap has
+ * completed are ignored.
+ */
+public class CaptchaReaper {
+
+    private static final Log log = LogFactory.getLog(CaptchaReaper.class);
+    private static final CaptchaReaper instance = new CaptchaReaper();
+    private static final Pattern BUCKET_NAME_PATTERN = Pattern.compile("\\d+");
+
+    private final AtomicBoolean reapPending = new AtomicBoolean(false);
+    private volatile long lastReapTime;
+    private ScheduledExecutorService scheduler;
+
+    private CaptchaReaper() {
+    }
+
+    public static CaptchaReaper getInstance() {
+        return instance;
+    }
+
+    /**
+     * Start reaping the expired captchas periodically.
+     */
+    public synchronized void start() {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "CaptchaReaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runReap, CaptchaMgtConstants.CAPTCHA_BUCKET_WIDTH_MS,
+                CaptchaMgtConstants.CAPTCHA_BUCKET_WIDTH_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop reaping the expired captchas.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Request a reap of the expired captchas in the background. The request is ignored if a reap is already pending,
+     * or if one has completed within the bucket width, as no bucket could have expired since.
+     */
+    public void requestReap() {
+        if (System.currentTimeMillis() - lastReapTime < CaptchaMgtConstants.CAPTCHA_BUCKET_WIDTH_MS ||
+                !reapPending.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            if (scheduler == null) {
+                reapPending.set(false);
+                return;
+            }
+            scheduler.execute(this::runReap);
+        }
+    }
+
+    private void runReap() {
+        try {
+            reap();
+        } finally {
+            lastReapTime = System.currentTimeMillis();
+            reapPending.set(false);
+        }
+    }
+
+    private void reap() {
+        //  Captchas are stored in the super tenant registry.
+        PrivilegedCarbonContext.startTenantFlow();
+        try {
+            PrivilegedCarbonContext context = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            context.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+            context.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+            Registry superTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
+                    MultitenantConstants.SUPER_TENANT_ID);
+            long expiryTime = System.currentTimeMillis() - CaptchaMgtConstants.CAPTCHA_IMG_TIMEOUT_MIN * 60 * 1000L;
+            reapCollection(superTenantRegistry, CaptchaMgtConstants.CAPTCHA_DETAILS_PATH, expiryTime);
+            reapCollection(superTenantRegistry, CaptchaMgtConstants.CAPTCHA_IMAGES_PATH, expiryTime);
+        } catch (RegistryException e) {
+            String msg = "Error in cleaning old captchas.";
+            log.error(msg, e);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private void reapCollection(Registry registry, String path, long expiryTime) throws RegistryException {
+        if (!registry.resourceExists(path)) {
+            return;
+        }
+        Resource collection = registry.get(path);
+        if (!(collection instanceof Collection)) {
+            return;
+        }
+        for (String childPath : ((Collection) collection).getChildren()) {
+            String name = childPath.substring(childPath.lastIndexOf(RegistryConstants.PATH_SEPARATOR) + 1);
+            if (BUCKET_NAME_PATTERN.matcher(name).matches()) {
+                // Every captcha of the bucket was created before the end of the bucket.
+                if (Long.parseLong(name) + CaptchaMgtConstants.CAPTCHA_BUCKET_WIDTH_MS <= expiryTime) {
+                    registry.delete(childPath);
+                    if (log.isDebugEnabled()) {
+                        log.debug("Removed the expired captcha bucket: " + childPath);
+                    }
+                }
+            } else if (CaptchaMgtConstants.CAPTCHA_DETAILS_PATH.equals(path)) {
+                reapUnbucketedCaptcha(registry, childPath, expiryTime);
+            }
+        }
+    }
+
+    /**
+     * Remove a captcha stored before the captchas were bucketed, if it has expired.
+     */
+    private void reapUnbucketedCaptcha(Registry registry, String recordPath, long expiryTime)
+            throws RegistryException {
+        Resource resource = registry.get(recordPath);
+        if (resource.getCreatedTime().getTime() <= expiryTime) {
+            String imagePath = resource.getProperty(CaptchaMgtConstants.CAPTCHA_PATH_PROPERTY_KEY);
+            if (imagePath != null && registry.resourceExists(imagePath)) {
+                registry.delete(imagePath);
+            }
+            registry.delete(recordPath);
+        }
+    }
+}
@@ -27,7 +27,6 @@ import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.captcha.mgt.beans.CaptchaInfoBean;
 import org.wso2.carbon.captcha.mgt.constants.CaptchaMgtConstants;
 import org.wso2.carbon.captcha.mgt.internal.CaptchaMgtServiceComponent;
-import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.registry.core.*;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.session.UserRegistry;
@@ -35,13 +34,11 @@ import org.wso2.carbon.registry.core.utils.AccessControlConstants;
 import org.wso2.carbon.user.core.AuthorizationManager;
 import org.wso2.carbon.user.core.UserRealm;
 import org.wso2.carbon.user.core.UserStoreException;
-import org.wso2.carbon.utils.CarbonUtils;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.util.Date;
+import java.io.ByteArrayOutputStream;
 import java.util.Properties;
 import java.util.UUID;
 
@@ -52,54 +49,14 @@ public class CaptchaUtil {
     private static final Log log = LogFactory.getLog(CaptchaUtil.class);
 
     /**
-     * Clean the old captcha's from the registry.
+     * Clean the old captcha's from the registry. The expired captchas are removed in the background by the
+     * {@link CaptchaReaper}, so this only requests a reap.
      *
      * @throws Exception RegistryException, if cleaning the captcha's fail in middle.
      */
     public static void cleanOldCaptchas() throws Exception {
         // we will clean captchas older than 20mins
-        new Thread() {
-            public void run() {
-                //  As this is a util method. setting the  super tenant
-                PrivilegedCarbonContext context = PrivilegedCarbonContext.getThreadLocalCarbonContext();
-                context.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
-                context.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
-                try {
-                    Registry superTenantRegistry =
-                            CaptchaMgtServiceComponent.getConfigSystemRegistry(
-                                    MultitenantConstants.SUPER_TENANT_ID);
-                    if (!superTenantRegistry.resourceExists(
-                            CaptchaMgtConstants.CAPTCHA_DETAILS_PATH)) {
-                        return;  // resource doesn't exist in the superTenantRegistry. just return.
-                    }
-                    CollectionImpl c = (CollectionImpl) superTenantRegistry.get(
-                            CaptchaMgtConstants.CAPTCHA_DETAILS_PATH);
-                    String[] childPaths = c.getChildren();
-                    for (String childPath : childPaths) {
-                        Resource resource = superTenantRegistry.get(childPath);
-                        long createdTime = resource.getCreatedTime().getTime();
-                        long currentTime = new Date().getTime();
-
-                        // if the current time exceeds the given life time. Set as 20 mins currently.
-                        if (currentTime >= createdTime +
-                                CaptchaMgtConstants.CAPTCHA_IMG_TIMEOUT_MIN * 60 * 1000) {
-                            // just remove the image files
-                            String imagePath = resource.getProperty(
-                                    CaptchaMgtConstants.CAPTCHA_PATH_PROPERTY_KEY);
-                            // deleting the captcha image
-                            superTenantRegistry.delete(imagePath);
-
-                            // delete the registry entry
-                            superTenantRegistry.delete(childPath);
-                        }
-
-                    }
-                } catch (RegistryException e) {
-                    String msg = "Error in cleaning old captchas.";
-                    log.error(msg, e);
-                }
-            }
-        }.start();
+        CaptchaReaper.getInstance().requestReap();
     }
 
     /**
@@ -109,8 +66,7 @@ public class CaptchaUtil {
      * @throws Exception RegistryException
      */
     public static void cleanCaptcha(String secretKey) throws Exception {
-        String recordPath = CaptchaMgtConstants.CAPTCHA_DETAILS_PATH +
-                RegistryConstants.PATH_SEPARATOR + secretKey;
+        String recordPath = getRecordPath(secretKey);
         Registry superTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
                 MultitenantConstants.SUPER_TENANT_ID);
         Resource resource = superTenantRegistry.get(recordPath);
@@ -134,8 +90,12 @@ public class CaptchaUtil {
      *                   Exceptions in generating the captcha are thrown as they are.
      */
     public static CaptchaInfoBean generateCaptchaImage() throws Exception {
-        String randomSecretKey = UUID.randomUUID().toString();  //random string for the captcha.
-        String imagePath = CaptchaMgtConstants.CAPTCHA_IMAGES_PATH +
+        // captchas are stored in the bucket of their creation minute, which is prefixed to the secret key.
+        long currentTime = System.currentTimeMillis();
+        String bucket = String.valueOf(currentTime - currentTime % CaptchaMgtConstants.CAPTCHA_BUCKET_WIDTH_MS);
+        String randomSecretKey = bucket + CaptchaMgtConstants.CAPTCHA_SECRET_KEY_SEPARATOR +
+                UUID.randomUUID().toString();  //random string for the captcha.
+        String imagePath = CaptchaMgtConstants.CAPTCHA_IMAGES_PATH + RegistryConstants.PATH_SEPARATOR + bucket +
                 RegistryConstants.PATH_SEPARATOR + randomSecretKey + ".jpg";
 
         Config config = new Config(new Properties());
@@ -144,45 +104,35 @@ public class CaptchaUtil {
 
         BufferedImage image = captchaProducer.createImage(captchaText);
 
-        File tempFile = File.createTempFile("temp-", ".jpg");
-
-        try {
-            ImageIO.write(image, "jpg", tempFile);
-
-            byte[] imageBytes = CarbonUtils.getBytesFromFile(tempFile);
+        ByteArrayOutputStream imageStream = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", imageStream);
+        byte[] imageBytes = imageStream.toByteArray();
 
-            // saving the image
-            Registry superTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
-                    MultitenantConstants.SUPER_TENANT_ID);
-            Resource imageResource = superTenantRegistry.newResource();
-            imageResource.setContent(imageBytes);
-            superTenantRegistry.put(imagePath, imageResource);
+        // saving the image
+        Registry superTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
+                MultitenantConstants.SUPER_TENANT_ID);
+        Resource imageResource = superTenantRegistry.newResource();
+        imageResource.setContent(imageBytes);
+        superTenantRegistry.put(imagePath, imageResource);
 
 
-            // prepare the captcha info bean
-            CaptchaInfoBean captchaInfoBean = new CaptchaInfoBean();
-            captchaInfoBean.setSecretKey(randomSecretKey);   //random generated value as secret key
-            captchaInfoBean.setImagePath("registry" + RegistryConstants.PATH_SEPARATOR + "resource" +
-                    RegistryConstants.CONFIG_REGISTRY_BASE_PATH + imagePath);
+        // prepare the captcha info bean
+        CaptchaInfoBean captchaInfoBean = new CaptchaInfoBean();
+        captchaInfoBean.setSecretKey(randomSecretKey);   //random generated value as secret key
+        captchaInfoBean.setImagePath("registry" + RegistryConstants.PATH_SEPARATOR + "resource" +
+                RegistryConstants.CONFIG_REGISTRY_BASE_PATH + imagePath);
 
-            // now create an entry in the registry on the captcha
-            Resource recordResource = superTenantRegistry.newResource();
-            ((ResourceImpl) recordResource).setVersionableChange(false); // no need to version
-            recordResource.setProperty(CaptchaMgtConstants.CAPTCHA_TEXT_PROPERTY_KEY, captchaText);
-            recordResource.setProperty(CaptchaMgtConstants.CAPTCHA_PATH_PROPERTY_KEY, imagePath);
+        // now create an entry in the registry on the captcha
+        Resource recordResource = superTenantRegistry.newResource();
+        ((ResourceImpl) recordResource).setVersionableChange(false); // no need to version
+        recordResource.setProperty(CaptchaMgtConstants.CAPTCHA_TEXT_PROPERTY_KEY, captchaText);
+        recordResource.setProperty(CaptchaMgtConstants.CAPTCHA_PATH_PROPERTY_KEY, imagePath);
 
-            superTenantRegistry.put(CaptchaMgtConstants.CAPTCHA_DETAILS_PATH +
-                            RegistryConstants.PATH_SEPARATOR + randomSecretKey,
-                    recordResource);
-            if (log.isDebugEnabled()) {
-                log.debug("Successfully generated the captcha image.");
-            }
-            return captchaInfoBean;
-        } finally {
-            if (!tempFile.delete()) {
-                log.warn("Could not delete " + tempFile.getAbsolutePath());
-            }
+        superTenantRegistry.put(getRecordPath(randomSecretKey), recordResource);
+        if (log.isDebugEnabled()) {
+            log.debug("Successfully generated the captcha image.");
         }
+        return captchaInfoBean;
     }
 
     /**
@@ -203,8 +153,7 @@ public class CaptchaUtil {
         }
         String secretKey = captchaInfoBean.getSecretKey();  // gets the random generated secret key.
 
-        String recordPath = CaptchaMgtConstants.CAPTCHA_DETAILS_PATH +
-                RegistryConstants.PATH_SEPARATOR + secretKey;
+        String recordPath = getRecordPath(secretKey);
         Registry superTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
                 MultitenantConstants.SUPER_TENANT_ID);
         if (!superTenantRegistry.resourceExists(recordPath)) {
@@ -258,6 +207,30 @@ public class CaptchaUtil {
         }
     }
 
+    /**
+     * Get the registry path of the captcha record of the secret key. Captchas created before the captchas were
+     * bucketed have no bucket in their secret key, and their records are directly under the captcha details path.
+     *
+     * @param secretKey secret key
+     * @return registry path of the captcha record
+     */
+    private static String getRecordPath(String secretKey) {
+        String recordPath = CaptchaMgtConstants.CAPTCHA_DETAILS_PATH + RegistryConstants.PATH_SEPARATOR;
+        int separatorIndex = secretKey.indexOf(CaptchaMgtConstants.CAPTCHA_SECRET_KEY_SEPARATOR);
+        if (separatorIndex > 0 && isBucket(secretKey.substring(0, separatorIndex))) {
+            recordPath += secretKey.substring(0, separatorIndex) + RegistryConstants.PATH_SEPARATOR;
+        }
+        return recordPath + secretKey;
+    }
+
+    private static boolean isBucket(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (!Character.isDigit(name.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
 
     public static void setAnonAccessToCaptchaImages() throws Exception {
         UserRegistry systemTenantRegistry = CaptchaMgtServiceComponent.getConfigSystemRegistry(
@@ -49,8 +49,12 @@ public class TCPThriftAuthenticationService {
     private final String keyStorePassword;
     private final int clientTimeout;
     private ThriftAuthenticatorService thriftAuthenticatorService;
+    // Created by this service when no authenticator service is given, hence stopped along with it.
+    private ThriftAuthenticatorServiceImpl ownAuthenticatorService;
+    private InMemoryThriftSessionDAO ownSessionDAO;
     private Log log = LogFactory.getLog(TCPThriftAuthenticationService.class);
     private TServer authenticationServer;
+    private final ThriftServerMetrics serverMetrics = new ThriftServerMetrics();
 
     public TCPThriftAuthenticationService(String hostName, int port, String keyStore, String keyStorePassword, int clientTimeout, ThriftAuthenticatorService thriftAuthenticatorService) {
         this.hostName = hostName;
@@ -79,7 +83,9 @@ public class TCPThriftAuthenticationService {
         this.keyStorePassword = SecurityKeyStorePassword;
         this.clientTimeout = 30000;
 
-        this.thriftAuthenticatorService = new ThriftAuthenticatorServiceImpl(null, new InMemoryThriftSessionDAO(), thriftSessionTimeOut);
+        this.ownSessionDAO = new InMemoryThriftSessionDAO(thriftSessionTimeOut);
+        this.ownAuthenticatorService = new ThriftAuthenticatorServiceImpl(null, ownSessionDAO, thriftSessionTimeOut);
+        this.thriftAuthenticatorService = ownAuthenticatorService;
     }
 
     public void start() throws TTransportException, UnknownHostException {
@@ -117,17 +123,57 @@ public class TCPThriftAuthenticationService {
         AuthenticatorService.Processor<AuthenticatorServiceImpl> processor =
                 new AuthenticatorService.Processor<AuthenticatorServiceImpl>(
                         new AuthenticatorServiceImpl(thriftAuthenticatorService));
+        // bound the worker threads, as each open client connection holds a worker thread
+        int minWorkerThreads = readWorkerThreads(ThriftAuthenticationConstants.MIN_WORKER_THREADS,
+                ThriftAuthenticationConstants.DEFAULT_MIN_WORKER_THREADS);
+        int maxWorkerThreads = Math.max(minWorkerThreads, readWorkerThreads(
+                ThriftAuthenticationConstants.MAX_WORKER_THREADS,
+                ThriftAuthenticationConstants.DEFAULT_MAX_WORKER_THREADS));
         authenticationServer = new TThreadPoolServer(
-                new TThreadPoolServer.Args(serverTransport).processor(processor));
+                new TThreadPoolServer.Args(serverTransport).processor(processor)
+                        .minWorkerThreads(minWorkerThreads).maxWorkerThreads(maxWorkerThreads));
+        authenticationServer.setServerEventHandler(serverMetrics);
+        serverMetrics.register("ThriftAuthentication");
         Thread thread = new Thread(new ServerRunnable(authenticationServer));
         if (log.isDebugEnabled()) {
-            log.debug("Thrift Authentication Service started at ssl://" + hostName + ":" + port);
+            log.debug("Thrift Authentication Service started at ssl://" + hostName + ":" + port + " with "
+                    + minWorkerThreads + " to " + maxWorkerThreads + " worker threads");
         }
         thread.start();
     }
 
     public void stop() {
-        authenticationServer.stop();
+        if (authenticationServer != null) {
+            authenticationServer.stop();
+        }
+        if (ownAuthenticatorService != null) {
+            ownAuthenticatorService.shutdown();
+        }
+        if (ownSessionDAO != null) {
+            ownSessionDAO.shutdown();
+        }
+        serverMetrics.unregister();
+        if (log.isDebugEnabled()) {
+            log.debug("Thrift Authentication Service stopped. " + serverMetrics);
+        }
+    }
+
+    private int readWorkerThreads(String configElementName, int defaultValue) {
+        OMElement workerThreadsElement = ThriftAuthenticationConfigParser.getInstance()
+                .getConfigElement(configElementName);
+        if (workerThreadsElement != null && StringUtils.isNotBlank(workerThreadsElement.getText())) {
+            try {
+                int workerThreads = Integer.parseInt(workerThreadsElement.getText().trim());
+                if (workerThreads > 0) {
+                    return workerThreads;
+                }
+            } catch (NumberFormatException e) {
+                // use the default value below
+            }
+            log.error("Invalid value for " + configElementName + " in Thrift Authentication Service config, " +
+                    "hence using the default: " + defaultValue);
+        }
+        return defaultValue;
     }
 
     public boolean isAuthenticated(String sessionId) {
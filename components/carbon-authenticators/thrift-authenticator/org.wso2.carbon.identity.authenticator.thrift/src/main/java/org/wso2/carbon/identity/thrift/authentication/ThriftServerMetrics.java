@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.thrift.authentication;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.server.ServerContext;
+import org.apache.thrift.server.TServerEventHandler;
+import org.apache.thrift.transport.TTransport;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Thrift server event handler which keeps connection and request counts of a thrift server. The counts are exposed
+ * as an MBean named {@value #OBJECT_NAME_PREFIX} followed by the server name, once the metrics are registered.
+ */
+public class ThriftServerMetrics implements TServerEventHandler, ThriftServerMetricsMBean {
+
+    private static final Log log = LogFactory.getLog(ThriftServerMetrics.class);
+
+    private static final String OBJECT_NAME_PREFIX = "org.wso2.carbon.identity:type=ThriftServer,name=";
+
+    private final AtomicLong activeConnections = new AtomicLong();
+    private final AtomicLong totalConnections = new AtomicLong();
+    private final AtomicLong processedRequests = new AtomicLong();
+    private ObjectName objectName;
+
+    /**
+     * Register the metrics as an MBean. An MBean already registered with the same server name is replaced.
+     *
+     * @param serverName name of the thrift server
+     */
+    public synchronized void register(String serverName) {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME_PREFIX + serverName);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(name)) {
+                mBeanServer.unregisterMBean(name);
+            }
+            mBeanServer.registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            log.error("Error while registering the metrics MBean of thrift server " + serverName, e);
+        }
+    }
+
+    /**
+     * Unregister the MBean of the metrics, if it is registered.
+     */
+    public synchronized void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            log.error("Error while unregistering the metrics MBean " + objectName, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public void preServe() {
+        // Nothing to record before the server starts serving.
+    }
+
+    @Override
+    public ServerContext createContext(TProtocol input, TProtocol output) {
+        activeConnections.incrementAndGet();
+        totalConnections.incrementAndGet();
+        return null;
+    }
+
+    @Override
+    public void deleteContext(ServerContext serverContext, TProtocol input, TProtocol output) {
+        activeConnections.decrementAndGet();
+    }
+
+    @Override
+    public void processContext(ServerContext serverContext, TTransport inputTransport, TTransport outputTransport) {
+        processedRequests.incrementAndGet();
+    }
+
+    @Override
+    public long getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    @Override
+    public long getTotalConnections() {
+        return totalConnections.get();
+    }
+
+    @Override
+    public long getProcessedRequests() {
+        return processedRequests.get();
+    }
+
+    @Override
+    public String toString() {
+        return "active connections: " + getActiveConnections() + ", total connections: " + getTotalConnections()
+                + ", processed requests: " + getProcessedRequests();
+    }
+}
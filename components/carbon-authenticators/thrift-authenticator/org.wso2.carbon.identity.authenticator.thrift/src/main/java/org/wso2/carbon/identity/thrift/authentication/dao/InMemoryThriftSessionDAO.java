@@ -15,61 +15,283 @@
  */
 package org.wso2.carbon.identity.thrift.authentication.dao;
 
+import org.apache.axiom.om.OMElement;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.thrift.authentication.internal.util.ThriftAuthenticationConfigParser;
+import org.wso2.carbon.identity.thrift.authentication.internal.util.ThriftAuthenticationConstants;
 import org.wso2.carbon.utils.ThriftSession;
 
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Class to manipulate thrift session info in memory.
+ * <p>
+ * Sessions are kept in the order of their last access through this store, so the least recently used session is
+ * evicted once the store is full, and expired sessions are found at the head of the order. A background reaper
+ * removes the expired sessions periodically. A session removal listener is told about the evicted and expired sessions,
+ * so that the copies of the sessions kept by the user of the store are removed as well.
  */
 public class InMemoryThriftSessionDAO implements ThriftSessionDAO {
 
-    private ConcurrentMap<String, ThriftSession> thriftSessionMap = new ConcurrentHashMap<String, ThriftSession>();
+    private static final Log log = LogFactory.getLog(InMemoryThriftSessionDAO.class);
+
+    // Insertion ordered, and sessions are re-inserted on access, so the eldest entry is the least recently used one.
+    private final LinkedHashMap<String, SessionEntry> thriftSessionMap;
+    private final long sessionTimeout;
+    private final AtomicLong expiredSessionCount = new AtomicLong();
+    private final AtomicLong evictedSessionCount = new AtomicLong();
+    private ScheduledExecutorService reaper;
+    private volatile Consumer<String> sessionRemovalListener;
 
     public InMemoryThriftSessionDAO() {
+        this(getConfigValue(ThriftAuthenticationConstants.THRIFT_SESSION_TIMEOUT,
+                ThriftAuthenticationConstants.DEFAULT_THRIFT_SESSION_TIMEOUT));
+    }
 
+    /**
+     * @param sessionTimeout session timeout in milli seconds, which should be the timeout used by the authenticator
+     *                       service the store is used with
+     */
+    public InMemoryThriftSessionDAO(long sessionTimeout) {
+        this(sessionTimeout, (int) getConfigValue(ThriftAuthenticationConstants.MAX_IN_MEMORY_SESSIONS,
+                ThriftAuthenticationConstants.DEFAULT_MAX_IN_MEMORY_SESSIONS),
+                getConfigValue(ThriftAuthenticationConstants.IN_MEMORY_SESSION_REAPER_INTERVAL,
+                        ThriftAuthenticationConstants.DEFAULT_IN_MEMORY_SESSION_REAPER_INTERVAL));
     }
 
+    /**
+     * @param sessionTimeout  session timeout in milli seconds
+     * @param maxSessions     maximum number of sessions kept, the least recently used session is evicted beyond this
+     * @param reaperInterval  interval in milli seconds at which expired sessions are removed. If not positive, expired
+     *                        sessions are only removed by {@link #removeExpiredSessions()} calls.
+     */
+    public InMemoryThriftSessionDAO(long sessionTimeout, final int maxSessions, long reaperInterval) {
+        this.sessionTimeout = sessionTimeout;
+        this.thriftSessionMap = new LinkedHashMap<String, SessionEntry>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SessionEntry> eldest) {
+                if (size() > maxSessions) {
+                    evictedSessionCount.incrementAndGet();
+                    if (log.isDebugEnabled()) {
+                        log.debug("Evicted the least recently used thrift session: " + eldest.getKey());
+                    }
+                    notifySessionRemoval(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (reaperInterval > 0) {
+            reaper = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ThriftSessionReaper");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            reaper.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        removeExpiredSessions();
+                    } catch (RuntimeException e) {
+                        log.error("Error while removing expired thrift sessions.", e);
+                    }
+                }
+            }, reaperInterval, reaperInterval, TimeUnit.MILLISECONDS);
+        }
+    }
 
     @Override
     public List<ThriftSession> getAllSessions() {
-        return new ArrayList<ThriftSession>(thriftSessionMap.values());
+        long now = System.currentTimeMillis();
+        synchronized (thriftSessionMap) {
+            List<ThriftSession> sessions = new ArrayList<ThriftSession>(thriftSessionMap.size());
+            for (SessionEntry entry : thriftSessionMap.values()) {
+                if (!entry.isExpired(now, sessionTimeout)) {
+                    sessions.add(entry.session);
+                }
+            }
+            return sessions;
+        }
     }
 
     @Override
     public boolean isSessionExisting(String sessionId) {
-        return thriftSessionMap.containsKey(sessionId);
+        synchronized (thriftSessionMap) {
+            return thriftSessionMap.containsKey(sessionId);
+        }
     }
 
     @Override
     public void addSession(ThriftSession session) {
-        thriftSessionMap.put(session.getSessionId(), session);
+        synchronized (thriftSessionMap) {
+            thriftSessionMap.remove(session.getSessionId());
+            thriftSessionMap.put(session.getSessionId(), new SessionEntry(session));
+        }
     }
 
     @Override
     public void removeSession(String sessionId) {
-        thriftSessionMap.remove(sessionId);
-
+        synchronized (thriftSessionMap) {
+            thriftSessionMap.remove(sessionId);
+        }
     }
 
     @Override
     public void updateLastAccessTime(String sessionId, long lastAccessTime) {
-        ThriftSession thriftSession = thriftSessionMap.get(sessionId);
-        if (thriftSession != null) {
-            thriftSession.setLastAccess(lastAccessTime);
+        synchronized (thriftSessionMap) {
+            SessionEntry entry = thriftSessionMap.remove(sessionId);
+            if (entry != null) {
+                entry.session.setLastAccess(lastAccessTime);
+                entry.indexedLastAccess = lastAccessTime;
+                thriftSessionMap.put(sessionId, entry);
+            }
         }
     }
 
     @Override
     public ThriftSession getSession(String sessionId) {
-        return thriftSessionMap.get(sessionId);
+        synchronized (thriftSessionMap) {
+            SessionEntry entry = thriftSessionMap.get(sessionId);
+            return entry != null ? entry.session : null;
+        }
     }
 
     @Override
     public ThriftSessionDAO getInstance() {
         return this;
     }
+
+    /**
+     * Remove the expired sessions. Sessions are walked from the least recently used one and the walk stops at the
+     * first live session. Sessions whose last access time was updated directly on the session object are moved to
+     * the end of the order instead.
+     *
+     * @return number of removed sessions
+     */
+    public int removeExpiredSessions() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        synchronized (thriftSessionMap) {
+            List<String> reindexed = new ArrayList<String>();
+            Iterator<Map.Entry<String, SessionEntry>> iterator = thriftSessionMap.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, SessionEntry> mapEntry = iterator.next();
+                SessionEntry entry = mapEntry.getValue();
+                if (entry.isExpired(now, sessionTimeout)) {
+                    iterator.remove();
+                    notifySessionRemoval(mapEntry.getKey());
+                    removed++;
+                } else if (entry.session.getLastAccess() != entry.indexedLastAccess) {
+                    reindexed.add(mapEntry.getKey());
+                } else {
+                    break;
+                }
+            }
+            for (String sessionId : reindexed) {
+                updateLastAccessTime(sessionId, thriftSessionMap.get(sessionId).session.getLastAccess());
+            }
+        }
+        expiredSessionCount.addAndGet(removed);
+        if (log.isDebugEnabled()) {
+            log.debug("Removed " + removed + " expired thrift sessions. " + this);
+        }
+        return removed;
+    }
+
+    /**
+     * Set the listener which is called with the id of each session the store evicts or removes on expiry. The
+     * listener is called holding the lock of the store, so it should not call back into the store.
+     *
+     * @param sessionRemovalListener listener to be called, or null to remove the listener
+     */
+    public void setSessionRemovalListener(Consumer<String> sessionRemovalListener) {
+        this.sessionRemovalListener = sessionRemovalListener;
+    }
+
+    /**
+     * Stop the background removal of expired sessions.
+     */
+    public void shutdown() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    /**
+     * @return number of sessions currently kept
+     */
+    public int getLiveSessionCount() {
+        synchronized (thriftSessionMap) {
+            return thriftSessionMap.size();
+        }
+    }
+
+    /**
+     * @return number of sessions removed since they expired
+     */
+    public long getExpiredSessionCount() {
+        return expiredSessionCount.get();
+    }
+
+    /**
+     * @return number of sessions evicted since the store was full
+     */
+    public long getEvictedSessionCount() {
+        return evictedSessionCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "live sessions: " + getLiveSessionCount() + ", expired sessions: " + getExpiredSessionCount()
+                + ", evicted sessions: " + getEvictedSessionCount();
+    }
+
+    private void notifySessionRemoval(String sessionId) {
+        Consumer<String> listener = sessionRemovalListener;
+        if (listener != null) {
+            listener.accept(sessionId);
+        }
+    }
+
+    private static long getConfigValue(String name, long defaultValue) {
+        OMElement element = ThriftAuthenticationConfigParser.getInstance().getConfigElement(name);
+        if (element != null) {
+            try {
+                return Long.parseLong(element.getText().trim());
+            } catch (NumberFormatException e) {
+                log.error("Error in loading " + name + " hence using the default: " + defaultValue, e);
+            }
+        }
+        return defaultValue;
+    }
+
+    private static class SessionEntry {
+
+        private final ThriftSession session;
+        // Last access time of the session when it was put at its place in the order.
+        private long indexedLastAccess;
+
+        private SessionEntry(ThriftSession session) {
+            this.session = session;
+            this.indexedLastAccess = session.getLastAccess();
+        }
+
+        private boolean isExpired(long now, long sessionTimeout) {
+            return now - session.getLastAccess() >= sessionTimeout;
+        }
+    }
 }
@@ -19,6 +19,7 @@ import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.utils.ThriftSession;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Interface to manipulate thrift session info in database.
@@ -36,6 +37,20 @@ public interface ThriftSessionDAO {
     void updateLastAccessTime(String sessionId, long lastAccessTime)
             throws IdentityException;
 
+    /**
+     * Update the last access times of the given sessions. Sessions which no longer exist are ignored.
+     *
+     * @param lastAccessTimes last access times by session id
+     * @throws IdentityException if the last access times could not be updated
+     */
+    default void updateLastAccessTimes(Map<String, Long> lastAccessTimes) throws IdentityException {
+        for (Map.Entry<String, Long> entry : lastAccessTimes.entrySet()) {
+            if (isSessionExisting(entry.getKey())) {
+                updateLastAccessTime(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     ThriftSession getSession(String sessionId) throws IdentityException;
 
     ThriftSessionDAO getInstance();
@@ -30,6 +30,7 @@ import org.wso2.carbon.identity.thrift.authentication.AuthenticatorServlet;
 import org.wso2.carbon.identity.thrift.authentication.TCPThriftAuthenticationService;
 import org.wso2.carbon.identity.thrift.authentication.ThriftAuthenticatorService;
 import org.wso2.carbon.identity.thrift.authentication.dao.DBThriftSessionDAO;
+import org.wso2.carbon.identity.thrift.authentication.dao.InMemoryThriftSessionDAO;
 import org.wso2.carbon.identity.thrift.authentication.dao.ThriftSessionDAO;
 import org.wso2.carbon.identity.thrift.authentication.internal.generatedCode.AuthenticatorService;
 import org.wso2.carbon.identity.thrift.authentication.internal.util.HostAddressFinder;
@@ -66,6 +67,10 @@ public class ThriftAuthenticationServiceComponent {
 
     private TCPThriftAuthenticationService TCPThriftAuthenticationService;
 
+    private ThriftAuthenticatorServiceImpl thriftAuthenticatorServiceImpl;
+
+    private ThriftSessionDAO thriftSessionDAO;
+
     public static int readPortOffset() {
         return CarbonUtils.getPortFromServerConfig(ThriftAuthenticationConstants.CARBON_CONFIG_PORT_OFFSET_NODE) + 1;
     }
@@ -73,15 +78,6 @@ public class ThriftAuthenticationServiceComponent {
     @Activate
     protected void activate(ComponentContext compCtx) {
         try {
-            // configure ThriftSessionDAO
-            ThriftSessionDAO thriftSessionDAO;
-            try {
-                OMElement thriftSessionDAOElement = ThriftAuthenticationConfigParser.getInstance().getConfigElement("ThriftSessionDAO");
-                thriftSessionDAO = ((ThriftSessionDAO) Class.forName(thriftSessionDAOElement.getText()).newInstance()).getInstance();
-            } catch (Throwable throwable) {
-                log.error("Error in loading ThriftSessionDAO hence using default org.wso2.carbon.identity.thrift.authentication.dao.DBThriftSessionDAO, ", throwable);
-                thriftSessionDAO = new DBThriftSessionDAO();
-            }
             // configure thriftSessionTimeout in ms
             long thriftSessionTimeout;
             try {
@@ -89,10 +85,50 @@ public class ThriftAuthenticationServiceComponent {
                 thriftSessionTimeout = Long.parseLong(thriftSessionTimeoutElement.getText());
             } catch (Throwable throwable) {
                 log.error("Error in loading ThriftSessionTimeout hence using the default: 30min, ", throwable);
-                thriftSessionTimeout = 60000L * 30;
+                thriftSessionTimeout = ThriftAuthenticationConstants.DEFAULT_THRIFT_SESSION_TIMEOUT;
+            }
+            // configure ThriftSessionDAO
+            try {
+                OMElement thriftSessionDAOElement = ThriftAuthenticationConfigParser.getInstance().getConfigElement("ThriftSessionDAO");
+                Class<?> thriftSessionDAOClass = Class.forName(thriftSessionDAOElement.getText().trim());
+                if (InMemoryThriftSessionDAO.class.equals(thriftSessionDAOClass)) {
+                    // expire the in memory sessions with the same timeout as the authenticator service
+                    thriftSessionDAO = new InMemoryThriftSessionDAO(thriftSessionTimeout);
+                } else {
+                    thriftSessionDAO = ((ThriftSessionDAO) thriftSessionDAOClass.newInstance()).getInstance();
+                }
+            } catch (Throwable throwable) {
+                log.error("Error in loading ThriftSessionDAO hence using default org.wso2.carbon.identity.thrift.authentication.dao.DBThriftSessionDAO, ", throwable);
+                thriftSessionDAO = new DBThriftSessionDAO();
+            }
+            // configure how far the stored last access time may fall behind, as a fraction of the session timeout
+            double lastAccessTimeUpdateThreshold = ThriftAuthenticationConstants.DEFAULT_LAST_ACCESS_TIME_UPDATE_THRESHOLD;
+            OMElement updateThresholdElement = ThriftAuthenticationConfigParser.getInstance()
+                    .getConfigElement(ThriftAuthenticationConstants.LAST_ACCESS_TIME_UPDATE_THRESHOLD);
+            if (updateThresholdElement != null) {
+                try {
+                    lastAccessTimeUpdateThreshold = Double.parseDouble(updateThresholdElement.getText());
+                } catch (NumberFormatException e) {
+                    log.error("Error in loading LastAccessTimeUpdateThreshold hence using the default: "
+                            + lastAccessTimeUpdateThreshold, e);
+                }
+            }
+            // configure the interval in ms at which last access times are written to the session store
+            long lastAccessTimeFlushInterval = ThriftAuthenticationConstants.DEFAULT_LAST_ACCESS_TIME_FLUSH_INTERVAL;
+            OMElement flushIntervalElement = ThriftAuthenticationConfigParser.getInstance()
+                    .getConfigElement(ThriftAuthenticationConstants.LAST_ACCESS_TIME_FLUSH_INTERVAL);
+            if (flushIntervalElement != null) {
+                try {
+                    lastAccessTimeFlushInterval = Long.parseLong(flushIntervalElement.getText());
+                } catch (NumberFormatException e) {
+                    log.error("Error in loading LastAccessTimeFlushInterval hence using the default: "
+                            + lastAccessTimeFlushInterval + "ms", e);
+                }
             }
             // get an instance of this to register as an osgi service
-            ThriftAuthenticatorServiceImpl thriftAuthenticatorServiceImpl = new ThriftAuthenticatorServiceImpl(getRealmServiceInstance(), thriftSessionDAO, thriftSessionTimeout);
+            thriftAuthenticatorServiceImpl = new ThriftAuthenticatorServiceImpl(getRealmServiceInstance(),
+                    thriftSessionDAO, thriftSessionTimeout, lastAccessTimeUpdateThreshold,
+                    lastAccessTimeFlushInterval);
             // register as an osgi service
             thriftAuthenticationService = compCtx.getBundleContext().registerService(ThriftAuthenticatorService.class.getName(), thriftAuthenticatorServiceImpl, null);
             // register AuthenticatorServiceImpl as a thrift service.
@@ -110,6 +146,12 @@ public class ThriftAuthenticationServiceComponent {
         if (TCPThriftAuthenticationService != null) {
             TCPThriftAuthenticationService.stop();
         }
+        if (thriftAuthenticatorServiceImpl != null) {
+            thriftAuthenticatorServiceImpl.shutdown();
+        }
+        if (thriftSessionDAO instanceof InMemoryThriftSessionDAO) {
+            ((InMemoryThriftSessionDAO) thriftSessionDAO).shutdown();
+        }
         compCtx.getBundleContext().ungetService(thriftAuthenticationService.getReference());
     }
 
@@ -17,7 +17,6 @@
  */
 package org.wso2.carbon.identity.thrift.authentication.internal;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.base.MultitenantConstants;
@@ -25,6 +24,7 @@ import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.services.util.CarbonAuthenticationUtil;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.thrift.authentication.ThriftAuthenticatorService;
+import org.wso2.carbon.identity.thrift.authentication.dao.InMemoryThriftSessionDAO;
 import org.wso2.carbon.identity.thrift.authentication.dao.ThriftSessionDAO;
 import org.wso2.carbon.identity.thrift.authentication.internal.generatedCode.AuthenticationException;
 import org.wso2.carbon.user.api.UserRealm;
@@ -34,10 +34,13 @@ import org.wso2.carbon.utils.ServerConstants;
 import org.wso2.carbon.utils.ThriftSession;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is a utility class that performs authentication related functionality
@@ -51,12 +54,59 @@ public class ThriftAuthenticatorServiceImpl implements ThriftAuthenticatorServic
     private RealmService realmService;
     private Map<String, ThriftSession> authenticatedSessions =
             new ConcurrentHashMap<String, ThriftSession>();
+    // last access times as known to the session store, and the ones waiting to be written to it
+    private Map<String, Long> persistedLastAccessTimes = new ConcurrentHashMap<String, Long>();
+    private Map<String, Long> pendingLastAccessTimes = new ConcurrentHashMap<String, Long>();
+    // how far the stored last access time may fall behind before it is updated, in milli seconds
+    private long lastAccessTimeUpdateThreshold;
+    private ScheduledExecutorService lastAccessTimeFlushScheduler;
     private ThriftSessionDAO thriftSessionDAO;
 
     public ThriftAuthenticatorServiceImpl(RealmService realmService, ThriftSessionDAO thriftSessionDAO, long thriftSessionTimeOut) {
+        this(realmService, thriftSessionDAO, thriftSessionTimeOut, 0, 0);
+    }
+
+    /**
+     * @param realmService                  realm service
+     * @param thriftSessionDAO              thrift session store
+     * @param thriftSessionTimeOut          session timeout in milli seconds
+     * @param lastAccessTimeUpdateThreshold fraction of the session timeout the stored last access time may fall
+     *                                      behind before it is updated
+     * @param lastAccessTimeFlushInterval   interval in milli seconds at which last access times are written to the
+     *                                      session store and expired sessions are evicted. If not positive, last
+     *                                      access times are written as soon as they exceed the threshold.
+     */
+    public ThriftAuthenticatorServiceImpl(RealmService realmService, ThriftSessionDAO thriftSessionDAO,
+                                          long thriftSessionTimeOut, double lastAccessTimeUpdateThreshold,
+                                          long lastAccessTimeFlushInterval) {
         this.realmService = realmService;
         setThriftSessionTimeOut(thriftSessionTimeOut);
         this.thriftSessionDAO = thriftSessionDAO.getInstance();
+        if (this.thriftSessionDAO instanceof InMemoryThriftSessionDAO) {
+            // The in memory store is the only store of the sessions, so the sessions it evicts are forgotten here too.
+            ((InMemoryThriftSessionDAO) this.thriftSessionDAO).setSessionRemovalListener(this::forgetThriftSession);
+        }
+        this.lastAccessTimeUpdateThreshold = (long) (thriftSessionTimeOut * lastAccessTimeUpdateThreshold);
+        if (lastAccessTimeFlushInterval > 0) {
+            lastAccessTimeFlushScheduler = Executors.newSingleThreadScheduledExecutor();
+            lastAccessTimeFlushScheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    flushLastAccessTimes();
+                    evictExpiredSessions();
+                }
+            }, lastAccessTimeFlushInterval, lastAccessTimeFlushInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Write the pending last access times to the session store and stop the background flushing.
+     */
+    public void shutdown() {
+        if (lastAccessTimeFlushScheduler != null) {
+            lastAccessTimeFlushScheduler.shutdownNow();
+        }
+        flushLastAccessTimes();
     }
 
     private void addThriftSession(ThriftSession thriftSession) throws IdentityException {
@@ -65,11 +115,14 @@ public class ThriftAuthenticatorServiceImpl implements ThriftAuthenticatorServic
         //add to database
         ThriftSessionDAO sessionDAO = this.thriftSessionDAO.getInstance();
         sessionDAO.addSession(thriftSession);
+        persistedLastAccessTimes.put(thriftSession.getSessionId(), thriftSession.getLastAccess());
     }
 
     private void removeThriftSession(String thriftSessionId) throws IdentityException {
         //remove from cache
         authenticatedSessions.remove(thriftSessionId);
+        persistedLastAccessTimes.remove(thriftSessionId);
+        pendingLastAccessTimes.remove(thriftSessionId);
         //remove from db
         ThriftSessionDAO sessionDAO = this.thriftSessionDAO.getInstance();
         sessionDAO.removeSession(thriftSessionId);
@@ -167,91 +220,38 @@ public class ThriftAuthenticatorServiceImpl implements ThriftAuthenticatorServic
         if (sessionId == null) {
             return false;
         }
-        //if cache empty, try to populate from db
-        if (authenticatedSessions.isEmpty()) {
+        //if session id existing and valid in cache, update last access time and return it.
+        ThriftSession thriftSessionInCache = authenticatedSessions.get(sessionId);
+        if (thriftSessionInCache != null && isSessionValid(thriftSessionInCache)) {
             try {
-                populateSessionsFromDB();
+                updateLastAccessTime(thriftSessionInCache);
             } catch (IdentityException e) {
-                String error = "Error while populating thrift sessions from cache";
-                log.error(error, e);
-            } catch (Exception e) {
-                String error = "Error while populating thrift sessions from cache";
+                String error = "Error in calling on success admin login for the thrift session.";
                 log.error(error, e);
             }
+            return true;
         }
-        //if cache not empty, check if session id existing and valid, if so, update last access time and return it.
-        if (!authenticatedSessions.isEmpty()) {
-            ThriftSessionDAO sessionDAO = this.thriftSessionDAO.getInstance();
-            if (authenticatedSessions.containsKey(sessionId)) {
-                ThriftSession thriftSessionInCache = authenticatedSessions.get(sessionId);
-                if (isSessionValid(thriftSessionInCache)) {
-                    //update the last access time in cache and d
-                    long lastAccessTime = System.currentTimeMillis();
-                    (authenticatedSessions.get(sessionId)).setLastAccess(lastAccessTime);
-                    try {
-                        //if carbon context in the thrift session is not initialized, should do that now.
-                        onSuccessLogin(thriftSessionInCache);
-                        //put the thrift session filled with carbon context info
-                        authenticatedSessions.put(sessionId, thriftSessionInCache);
-                        sessionDAO.updateLastAccessTime(sessionId, lastAccessTime);
-                    } catch (IdentityException e) {
-                        String error = "Error while updating last access time in DB";
-                        log.error(error, e);
-                    } catch (Exception e) {
-                        String error = "Error in calling on success admin login for the thrift session.";
-                        log.error(error, e);
-                    }
-                    return true;
-                } else {
-                    //if not valid in cache, check if valid in db
-                    try {
-                        ThriftSession thriftSession = sessionDAO.getSession(sessionId);
-                        if (isSessionValid(thriftSession)) {
-                            //update cache and return true
-                            thriftSession.setLastAccess(System.currentTimeMillis());
-                            onSuccessLogin(thriftSession);
-                            authenticatedSessions.put(thriftSession.getSessionId(), thriftSession);
-                            sessionDAO.updateLastAccessTime(sessionId, thriftSession.getLastAccess());
-                            return true;
-                        } else {
-                            //remove from cache and db and return false
-                            removeThriftSession(sessionId);
-                            return false;
-                        }
-                    } catch (IdentityException e) {
-                        String error = "Error while obtaining thrift session from database.";
-                        log.error(error, e);
-                    } catch (Exception e) {
-                        String error = "Error in calling on success admin login for the thrift session.";
-                        log.error(error, e);
-                    }
-                }
-            } else {
-                //if session id not found, check in db as well, if exist in db, populate cache
-                try {
-                    if (sessionDAO.isSessionExisting(sessionId)) {
-                        ThriftSession thriftSession = sessionDAO.getSession(sessionId);
-                        if (isSessionValid(thriftSession)) {
-                            thriftSession.setLastAccess(System.currentTimeMillis());
-                            onSuccessLogin(thriftSession);
-                            authenticatedSessions.put(thriftSession.getSessionId(), thriftSession);
-                            sessionDAO.updateLastAccessTime(sessionId, thriftSession.getLastAccess());
-                            return true;
-                        } else {
-                            sessionDAO.removeSession(sessionId);
-                            return false;
-                        }
-                    }
-                } catch (IdentityException e) {
-                    String error = "Error while obtaining thrift session from database.";
-                    log.error(error, e);
-                } catch (Exception e) {
-                    String error = "Error in calling on success admin login for the thrift session obtained from DB.";
-                    log.error(error, e);
-                }
+        //if not found or not valid in cache, check in db as well, as it may have been accessed through another node
+        ThriftSessionDAO sessionDAO = this.thriftSessionDAO.getInstance();
+        try {
+            if (!sessionDAO.isSessionExisting(sessionId)) {
+                forgetThriftSession(sessionId);
+                return false;
             }
+            ThriftSession thriftSession = sessionDAO.getSession(sessionId);
+            if (!isSessionValid(thriftSession)) {
+                //remove from cache and db and return false
+                removeThriftSession(sessionId);
+                return false;
+            }
+            persistedLastAccessTimes.put(sessionId, thriftSession.getLastAccess());
+            authenticatedSessions.put(sessionId, thriftSession);
+            updateLastAccessTime(thriftSession);
+            return true;
+        } catch (IdentityException e) {
+            String error = "Error while obtaining thrift session from database.";
+            log.error(error, e);
         }
-
         return false;
     }
 
@@ -269,20 +269,77 @@ public class ThriftAuthenticatorServiceImpl implements ThriftAuthenticatorServic
         return (System.currentTimeMillis() - thriftSession.getLastAccess()) < getThriftSessionTimeOut();
     }
 
-    private void populateSessionsFromDB() throws Exception {
-        //first clear the cache
-        if (!authenticatedSessions.isEmpty()) {
-            authenticatedSessions.clear();
+    /**
+     * Update the last access time of the session in cache and mark it to be written to the session store, once the
+     * stored value falls behind by more than the update threshold.
+     */
+    private void updateLastAccessTime(ThriftSession thriftSession) throws IdentityException {
+        String sessionId = thriftSession.getSessionId();
+        long lastAccessTime = System.currentTimeMillis();
+        thriftSession.setLastAccess(lastAccessTime);
+        Long persistedLastAccessTime = persistedLastAccessTimes.get(sessionId);
+        if (persistedLastAccessTime == null ||
+                lastAccessTime - persistedLastAccessTime > lastAccessTimeUpdateThreshold) {
+            pendingLastAccessTimes.put(sessionId, lastAccessTime);
+            if (lastAccessTimeFlushScheduler == null) {
+                flushLastAccessTimes();
+            }
         }
-        //get all sessions from db
-        ThriftSessionDAO sessionDAO = this.thriftSessionDAO.getInstance();
-        List<ThriftSession> thriftSessions = sessionDAO.getAllSessions();
-        //add to cache
-        if (CollectionUtils.isNotEmpty(thriftSessions)) {
-            for (ThriftSession thriftSession : thriftSessions) {
-                authenticatedSessions.put(thriftSession.getSessionId(), thriftSession);
+        //if carbon context in the thrift session is not initialized, should do that now.
+        onSuccessLogin(thriftSession);
+    }
+
+    /**
+     * Write the pending last access times to the session store in a single batch.
+     */
+    private void flushLastAccessTimes() {
+        if (pendingLastAccessTimes.isEmpty()) {
+            return;
+        }
+        Map<String, Long> lastAccessTimes = new HashMap<String, Long>();
+        for (Map.Entry<String, Long> entry : pendingLastAccessTimes.entrySet()) {
+            // keep the entry if it was updated meanwhile, so the newer value gets written by the next flush
+            if (pendingLastAccessTimes.remove(entry.getKey(), entry.getValue())) {
+                lastAccessTimes.put(entry.getKey(), entry.getValue());
             }
         }
+        try {
+            this.thriftSessionDAO.getInstance().updateLastAccessTimes(lastAccessTimes);
+            for (Map.Entry<String, Long> entry : lastAccessTimes.entrySet()) {
+                if (authenticatedSessions.containsKey(entry.getKey())) {
+                    persistedLastAccessTimes.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Updated last access time of " + lastAccessTimes.size() + " thrift sessions.");
+            }
+        } catch (Exception e) {
+            log.error("Error while updating last access time of thrift sessions in DB", e);
+            for (Map.Entry<String, Long> entry : lastAccessTimes.entrySet()) {
+                if (authenticatedSessions.containsKey(entry.getKey())) {
+                    pendingLastAccessTimes.merge(entry.getKey(), entry.getValue(), Math::max);
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove the sessions expired in cache. They are kept in db, since they may still be accessed through another
+     * node, and are removed from db once found to be expired there as well.
+     */
+    private void evictExpiredSessions() {
+        for (Map.Entry<String, ThriftSession> entry : authenticatedSessions.entrySet()) {
+            if (!isSessionValid(entry.getValue()) && authenticatedSessions.remove(entry.getKey(), entry.getValue())) {
+                persistedLastAccessTimes.remove(entry.getKey());
+                pendingLastAccessTimes.remove(entry.getKey());
+            }
+        }
+    }
+
+    private void forgetThriftSession(String thriftSessionId) {
+        authenticatedSessions.remove(thriftSessionId);
+        persistedLastAccessTimes.remove(thriftSessionId);
+        pendingLastAccessTimes.remove(thriftSessionId);
     }
 
     private void callOnSuccessAdminLogin(ThriftSession session) throws Exception {
@@ -31,6 +31,20 @@ public class ThriftAuthenticationConstants {
     public static final String CARBON_CONFIG_PORT_OFFSET_NODE = "Ports.Offset";
     public static final String CLIENT_TIMEOUT = "ClientTimeout";
     public static final int DEFAULT_CLIENT_TIMEOUT = 30000;
+    public static final String MIN_WORKER_THREADS = "MinWorkerThreads";
+    public static final int DEFAULT_MIN_WORKER_THREADS = 5;
+    public static final String MAX_WORKER_THREADS = "MaxWorkerThreads";
+    public static final int DEFAULT_MAX_WORKER_THREADS = 500;
+    public static final String LAST_ACCESS_TIME_UPDATE_THRESHOLD = "LastAccessTimeUpdateThreshold";
+    public static final double DEFAULT_LAST_ACCESS_TIME_UPDATE_THRESHOLD = 0.1;
+    public static final String LAST_ACCESS_TIME_FLUSH_INTERVAL = "LastAccessTimeFlushInterval";
+    public static final long DEFAULT_LAST_ACCESS_TIME_FLUSH_INTERVAL = 10000;
+    public static final String THRIFT_SESSION_TIMEOUT = "ThriftSessionTimeout";
+    public static final long DEFAULT_THRIFT_SESSION_TIMEOUT = 60000L * 30;
+    public static final String MAX_IN_MEMORY_SESSIONS = "MaxInMemorySessions";
+    public static final long DEFAULT_MAX_IN_MEMORY_SESSIONS = 10000;
+    public static final String IN_MEMORY_SESSION_REAPER_INTERVAL = "InMemorySessionReaperInterval";
+    public static final long DEFAULT_IN_MEMORY_SESSION_REAPER_INTERVAL = 60000;
 
     public static final String THRIFT_SESSION_CACHE_ID = "THRIFT_SESSION_CACHE_ID";
 
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.thrift.authentication.internal;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.core.services.util.CarbonAuthenticationUtil;
+import org.wso2.carbon.identity.thrift.authentication.dao.InMemoryThriftSessionDAO;
+import org.wso2.carbon.user.core.UserRealm;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.user.core.tenant.TenantManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Tests for the sessions of {@link ThriftAuthenticatorServiceImpl} kept in {@link InMemoryThriftSessionDAO}.
+ */
+@PrepareForTest({CarbonAuthenticationUtil.class, PrivilegedCarbonContext.class})
+public class ThriftAuthenticatorServiceImplTest extends PowerMockTestCase {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin";
+    private static final int MAX_SESSIONS = 3;
+
+    private InMemoryThriftSessionDAO sessionDAO;
+    private ThriftAuthenticatorServiceImpl authenticatorService;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockStatic(CarbonAuthenticationUtil.class);
+        mockStatic(PrivilegedCarbonContext.class);
+        when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(mock(PrivilegedCarbonContext.class));
+
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.isExistingUser(USERNAME)).thenReturn(true);
+        when(userStoreManager.authenticate(USERNAME, PASSWORD)).thenReturn(true);
+        UserRealm userRealm = mock(UserRealm.class);
+        when(userRealm.getUserStoreManager()).thenReturn(userStoreManager);
+        TenantManager tenantManager = mock(TenantManager.class);
+        when(tenantManager.getTenantId(anyString())).thenReturn(-1234);
+        RealmService realmService = mock(RealmService.class);
+        when(realmService.getTenantManager()).thenReturn(tenantManager);
+        when(realmService.getTenantUserRealm(anyInt())).thenReturn(userRealm);
+
+        sessionDAO = new InMemoryThriftSessionDAO(TimeUnit.MINUTES.toMillis(30), MAX_SESSIONS, 0);
+        authenticatorService = new ThriftAuthenticatorServiceImpl(realmService, sessionDAO,
+                TimeUnit.MINUTES.toMillis(30));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        authenticatorService.shutdown();
+        sessionDAO.shutdown();
+    }
+
+    @Test
+    public void testEvictedSessionIsRejected() throws Exception {
+
+        List<String> sessionIds = new ArrayList<>();
+        for (int i = 0; i < MAX_SESSIONS + 2; i++) {
+            sessionIds.add(authenticatorService.authenticate(USERNAME, PASSWORD));
+        }
+
+        assertEquals(sessionDAO.getLiveSessionCount(), MAX_SESSIONS);
+        assertEquals(sessionDAO.getEvictedSessionCount(), 2);
+        for (int i = 0; i < 2; i++) {
+            String evictedSessionId = sessionIds.get(i);
+            assertNull(authenticatorService.getSessionInfo(evictedSessionId), "Evicted session is still served");
+            assertFalse(authenticatorService.isAuthenticated(evictedSessionId), "Evicted session was accepted");
+        }
+        for (int i = 2; i < sessionIds.size(); i++) {
+            assertNotNull(authenticatorService.getSessionInfo(sessionIds.get(i)));
+        }
+    }
+
+    @Test
+    public void testExpiredSessionIsForgotten() throws Exception {
+
+        String sessionId = authenticatorService.authenticate(USERNAME, PASSWORD);
+        authenticatorService.getSessionInfo(sessionId).setLastAccess(0);
+
+        assertEquals(sessionDAO.removeExpiredSessions(), 1);
+        assertNull(authenticatorService.getSessionInfo(sessionId), "Expired session is still served");
+        assertFalse(authenticatorService.isAuthenticated(sessionId), "Expired session was accepted");
+    }
+}
@@ -23,11 +23,13 @@ import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.consent.mgt.core.ConsentManager;
 import org.wso2.carbon.consent.mgt.core.exception.ConsentManagementException;
 import org.wso2.carbon.consent.mgt.core.model.ReceiptListResponse;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.base.IdentityRuntimeException;
 import org.wso2.carbon.identity.consent.mgt.IdentityConsentMgtUtils;
 import org.wso2.carbon.identity.consent.mgt.internal.IdentityConsentDataHolder;
 import org.wso2.carbon.identity.core.bean.context.MessageContext;
 import org.wso2.carbon.identity.core.handler.InitConfig;
+import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
 import org.wso2.carbon.identity.event.IdentityEventConstants;
 import org.wso2.carbon.identity.event.IdentityEventException;
 import org.wso2.carbon.identity.event.bean.IdentityEventMessageContext;
@@ -37,10 +39,13 @@ import org.wso2.carbon.user.core.UserCoreConstants;
 import org.wso2.carbon.user.core.UserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-
-import static org.wso2.carbon.identity.core.util.LambdaExceptionUtils.rethrowConsumer;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Deletes Consents issued against a particular user when a user is deleted from the system.
@@ -51,6 +56,10 @@ public class ConsentDeletionUserEventHandler extends AbstractEventHandler {
     private int consentSearchLimit = 100;
     private static final String HANDLER_NAME = "user.consent.delete";
     private static final String SEARCH_LIMIT_PROPERTY = HANDLER_NAME + ".receipt.search.limit";
+    private static final String ASYNC_PROPERTY = HANDLER_NAME + ".async";
+    private static final String ASYNC_POOL_SIZE_PROPERTY = HANDLER_NAME + ".async.pool.size";
+    private static final int DEFAULT_ASYNC_POOL_SIZE = 4;
+    private volatile ExecutorService deletionExecutor;
 
     /**
      * Overridden to check the configuration for this listener enabling and also to check whether globally consent
@@ -78,7 +87,8 @@ public class ConsentDeletionUserEventHandler extends AbstractEventHandler {
     }
 
     /**
-     * Consent search limit is configurable and the config is read from identity-event.properties file.
+     * Consent search limit and the asynchronous deletion are configurable and the config is read from
+     * identity-event.properties file. The executor of a previous initialization is shut down.
      *
      * @param configuration
      * @throws IdentityRuntimeException
@@ -94,6 +104,24 @@ public class ConsentDeletionUserEventHandler extends AbstractEventHandler {
             log.error("Configured receipt.search.limit cannot be parsed as an integer. " +
                     "Hence using default value: " + consentSearchLimit);
         }
+        shutdown();
+        if (Boolean.parseBoolean(this.configs.getModuleProperties().getProperty(ASYNC_PROPERTY))) {
+            int poolSize = DEFAULT_ASYNC_POOL_SIZE;
+            String asyncPoolSize = this.configs.getModuleProperties().getProperty(ASYNC_POOL_SIZE_PROPERTY);
+            if (asyncPoolSize != null) {
+                try {
+                    poolSize = Integer.parseInt(asyncPoolSize);
+                } catch (NumberFormatException e) {
+                    log.error("Configured async.pool.size cannot be parsed as an integer. " +
+                            "Hence using default value: " + DEFAULT_ASYNC_POOL_SIZE);
+                }
+            }
+            this.deletionExecutor = Executors.newFixedThreadPool(Math.max(poolSize, 1), runnable -> {
+                Thread thread = new Thread(runnable, "ConsentDeletionUserEventHandler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
     }
 
     /**
@@ -127,23 +155,103 @@ public class ConsentDeletionUserEventHandler extends AbstractEventHandler {
             log.debug(String.format("Deleting consents for user: %s , in tenant domain :%s",
                     usernameWithUserStoreDomain, tenantDomain));
         }
-        ConsentManager consentManager = IdentityConsentDataHolder.getInstance().getPrivilegedConsentManager();
+        ExecutorService executor = deletionExecutor;
+        if (executor == null) {
+            deleteReceipts(usernameWithUserStoreDomain, tenantDomain);
+            return;
+        }
         try {
-            List<ReceiptListResponse> receiptListResponses = consentManager.searchReceipts(consentSearchLimit, 0,
-                    usernameWithUserStoreDomain, null, "*", null);
+            deleteReceiptsAsync(executor, usernameWithUserStoreDomain, tenantDomain);
+        } catch (RejectedExecutionException e) {
+            // The executor has been shut down, hence the receipts are deleted in this thread.
+            deleteReceipts(usernameWithUserStoreDomain, tenantDomain);
+        }
+    }
+
+    /**
+     * Shut down the executor which deletes the receipts in the background, if the asynchronous deletion is enabled.
+     * The deletions which are already submitted are still completed.
+     */
+    public void shutdown() {
+
+        ExecutorService executor = deletionExecutor;
+        deletionExecutor = null;
+        if (executor != null) {
+            executor.shutdown();
             if (log.isDebugEnabled()) {
-                log.debug(String.format("Found %d receipts issued for user: %s, in tenant domain: %s",
-                        receiptListResponses.size(), usernameWithUserStoreDomain, tenantDomain));
+                log.debug("Shut down the consent deletion executor.");
+            }
+        }
+    }
+
+    private void deleteReceiptsAsync(ExecutorService executor, String usernameWithUserStoreDomain,
+                                     String tenantDomain) {
+
+        // Receipts are deleted in the background, in the tenant of the deleted user.
+        executor.execute(() -> {
+            PrivilegedCarbonContext.startTenantFlow();
+            try {
+                PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+                carbonContext.setTenantDomain(tenantDomain);
+                carbonContext.setTenantId(IdentityTenantUtil.getTenantId(tenantDomain));
+                deleteReceipts(usernameWithUserStoreDomain, tenantDomain);
+            } catch (IdentityEventException | RuntimeException e) {
+                log.error("Error while deleting consents for user " + usernameWithUserStoreDomain + " in tenant " +
+                        "domain: " + tenantDomain, e);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
             }
-            receiptListResponses.forEach(rethrowConsumer(receiptListResponse -> {
+        });
+    }
+
+    /**
+     * Delete all the receipts issued for a user. The receipts are searched a page at a time until there are none
+     * left, since the deleted receipts are no longer returned by the search.
+     *
+     * @param usernameWithUserStoreDomain Username of the user, with the user store domain.
+     * @param tenantDomain                Tenant domain of the user.
+     * @throws IdentityEventException If a receipt cannot be searched or deleted.
+     */
+    void deleteReceipts(String usernameWithUserStoreDomain, String tenantDomain)
+            throws IdentityEventException {
+
+        ConsentManager consentManager = IdentityConsentDataHolder.getInstance().getPrivilegedConsentManager();
+        Set<String> deletedReceiptIds = new HashSet<>();
+        try {
+            List<ReceiptListResponse> receiptListResponses;
+            do {
+                receiptListResponses = consentManager.searchReceipts(consentSearchLimit, 0,
+                        usernameWithUserStoreDomain, null, "*", null);
                 if (log.isDebugEnabled()) {
-                    log.debug(String.format("Deleting receipt with ID : %s, issued for application %s",
-                            receiptListResponse.getConsentReceiptId(), receiptListResponse.getSpDisplayName()));
+                    log.debug(String.format("Found %d receipts issued for user: %s, in tenant domain: %s",
+                            receiptListResponses.size(), usernameWithUserStoreDomain, tenantDomain));
+                }
+                boolean deleted = false;
+                for (ReceiptListResponse receiptListResponse : receiptListResponses) {
+                    if (!deletedReceiptIds.add(receiptListResponse.getConsentReceiptId())) {
+                        continue;
+                    }
+                    if (log.isDebugEnabled()) {
+                        log.debug(String.format("Deleting receipt with ID : %s, issued for application %s",
+                                receiptListResponse.getConsentReceiptId(), receiptListResponse.getSpDisplayName()));
+                    }
+                    consentManager.deleteReceipt(receiptListResponse.getConsentReceiptId());
+                    deleted = true;
                 }
-                consentManager.deleteReceipt(receiptListResponse.getConsentReceiptId());
-            }));
+                if (!deleted) {
+                    // The search keeps returning receipts which are already deleted. Stop instead of looping.
+                    log.warn(String.format("Receipts deleted for user: %s, in tenant domain: %s are still " +
+                            "returned by the search.", usernameWithUserStoreDomain, tenantDomain));
+                    break;
+                }
+            } while (receiptListResponses.size() >= consentSearchLimit);
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Deleted %d receipts issued for user: %s, in tenant domain: %s",
+                        deletedReceiptIds.size(), usernameWithUserStoreDomain, tenantDomain));
+            }
         } catch (ConsentManagementException e) {
-            throw new IdentityEventException("Error while deleting consents for user " + userName, e);
+            throw new IdentityEventException("Error while deleting consents for user " + usernameWithUserStoreDomain,
+                    e);
         }
     }
 
@@ -23,6 +23,7 @@ import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -49,13 +50,15 @@ import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 public class IdentityConsentServiceComponent {
 
     private static final Log log = LogFactory.getLog(IdentityConsentServiceComponent.class);
+    private ConsentDeletionUserEventHandler consentDeletionUserEventHandler;
 
     @Activate
     protected void activate(ComponentContext ctxt) {
 
         try {
+            consentDeletionUserEventHandler = new ConsentDeletionUserEventHandler();
             ctxt.getBundleContext().registerService(AbstractEventHandler.class.getName(),
-                    new ConsentDeletionUserEventHandler(), null);
+                    consentDeletionUserEventHandler, null);
             ctxt.getBundleContext().registerService(ApplicationMgtListener.class.getName(),
                     new ConsentDeletionAppMgtListener(), null);
             ctxt.getBundleContext().registerService(TenantMgtListener.class.getName(), new TenantConsentMgtListener()
@@ -67,6 +70,18 @@ public class IdentityConsentServiceComponent {
         }
     }
 
+    @Deactivate
+    protected void deactivate(ComponentContext ctxt) {
+
+        if (consentDeletionUserEventHandler != null) {
+            consentDeletionUserEventHandler.shutdown();
+            consentDeletionUserEventHandler = null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Identity Consent Service Component is deactivated.");
+        }
+    }
+
     @Reference(
             name = "consent.mgt.service",
             service = ConsentManager.class,
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.consent.mgt.handler;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.consent.mgt.core.PrivilegedConsentManager;
+import org.wso2.carbon.consent.mgt.core.model.ReceiptListResponse;
+import org.wso2.carbon.identity.consent.mgt.internal.IdentityConsentDataHolder;
+import org.wso2.carbon.identity.event.bean.ModuleConfiguration;
+import org.wso2.carbon.identity.event.bean.Subscription;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for the deletion of the receipts of a deleted user through {@link ConsentDeletionUserEventHandler}.
+ */
+public class ConsentDeletionUserEventHandlerTest {
+
+    private static final String USERNAME = "PRIMARY/alice";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final int SEARCH_LIMIT = 2;
+
+    private PrivilegedConsentManager consentManager;
+    private ConsentDeletionUserEventHandler handler;
+
+    @BeforeMethod
+    public void setUp() {
+
+        consentManager = mock(PrivilegedConsentManager.class);
+        IdentityConsentDataHolder.getInstance().setPrivilegedConsentManager(consentManager);
+
+        Properties properties = new Properties();
+        properties.setProperty("user.consent.delete.receipt.search.limit", String.valueOf(SEARCH_LIMIT));
+        handler = new ConsentDeletionUserEventHandler();
+        handler.init(new ModuleConfiguration(properties, new ArrayList<Subscription>()));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+
+        handler.shutdown();
+        IdentityConsentDataHolder.getInstance().setPrivilegedConsentManager(null);
+    }
+
+    @Test
+    public void testAllPagesOfReceiptsAreDeleted() throws Exception {
+
+        Set<String> receiptIds = ConcurrentHashMap.newKeySet();
+        for (int i = 0; i < 5; i++) {
+            receiptIds.add("receipt-" + i);
+        }
+        // The search returns a page of the receipts which are not deleted yet.
+        when(consentManager.searchReceipts(anyInt(), anyInt(), eq(USERNAME), anyString(), anyString(),
+                anyString())).thenAnswer(invocation -> {
+            int limit = (Integer) invocation.getArguments()[0];
+            List<ReceiptListResponse> receipts = new ArrayList<>();
+            for (String receiptId : receiptIds) {
+                if (receipts.size() == limit) {
+                    break;
+                }
+                receipts.add(createReceipt(receiptId));
+            }
+            return receipts;
+        });
+        doAnswer(invocation -> receiptIds.remove((String) invocation.getArguments()[0]))
+                .when(consentManager).deleteReceipt(anyString());
+
+        handler.deleteReceipts(USERNAME, TENANT_DOMAIN);
+
+        assertEquals(receiptIds.size(), 0, "Receipts were left undeleted");
+        verify(consentManager, times(5)).deleteReceipt(anyString());
+        verify(consentManager, times(3)).searchReceipts(eq(SEARCH_LIMIT), eq(0), eq(USERNAME), any(String.class),
+                eq("*"), any(String.class));
+    }
+
+    @Test
+    public void testDeletionStopsWhenSearchReturnsDeletedReceipts() throws Exception {
+
+        List<ReceiptListResponse> receipts = new ArrayList<>();
+        receipts.add(createReceipt("receipt-1"));
+        receipts.add(createReceipt("receipt-2"));
+        // The search keeps returning the same receipts, as if they were not deleted.
+        when(consentManager.searchReceipts(anyInt(), anyInt(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(receipts);
+
+        handler.deleteReceipts(USERNAME, TENANT_DOMAIN);
+
+        verify(consentManager, times(1)).deleteReceipt("receipt-1");
+        verify(consentManager, times(1)).deleteReceipt("receipt-2");
+        verify(consentManager, times(2)).searchReceipts(anyInt(), anyInt(), anyString(), anyString(), anyString(),
+                anyString());
+    }
+
+    @Test
+    public void testSearchIsNotRepeatedForPartialPage() throws Exception {
+
+        List<ReceiptListResponse> receipts = new ArrayList<>();
+        receipts.add(createReceipt("receipt-1"));
+        when(consentManager.searchReceipts(anyInt(), anyInt(), anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(receipts);
+
+        handler.deleteReceipts(USERNAME, TENANT_DOMAIN);
+
+        verify(consentManager, times(1)).deleteReceipt("receipt-1");
+        verify(consentManager, times(1)).searchReceipts(anyInt(), anyInt(), anyString(), anyString(), anyString(),
+                anyString());
+    }
+
+    private static ReceiptListResponse createReceipt(String receiptId) {
+
+        ReceiptListResponse receipt = mock(ReceiptListResponse.class);
+        when(receipt.getConsentReceiptId()).thenReturn(receiptId);
+        return receipt;
+    }
+}
@@ -63,4 +63,15 @@ public interface CORSManagementService {
      * @throws CORSManagementServiceException
      */
     void deleteCORSOrigins(String tenantDomain, List<CORSOrigin> corsOrigins) throws CORSManagementServiceException;
+
+    /**
+     * Check whether an Origin is allowed for a tenant. The lookup is served from a precomputed set of normalized
+     * Origins which is rebuilt only when the CORS Origins of the tenant change.
+     *
+     * @param tenantDomain The tenant domain.
+     * @param origin       The Origin to be checked, as sent in the Origin header.
+     * @return {@code true} if the Origin is allowed for the tenant, {@code false} otherwise.
+     * @throws CORSManagementServiceException
+     */
+    boolean isAllowedOrigin(String tenantDomain, String origin) throws CORSManagementServiceException;
 }
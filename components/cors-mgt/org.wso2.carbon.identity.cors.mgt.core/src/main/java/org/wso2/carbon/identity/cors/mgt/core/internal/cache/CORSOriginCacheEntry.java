@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.cors.mgt.core.internal.cache;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Cache entry holding an immutable set of normalized CORS Origins of a tenant.
+ */
+public class CORSOriginCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 6281527311234975912L;
+
+    private final Set<String> origins;
+
+    public CORSOriginCacheEntry(Set<String> origins) {
+
+        this.origins = Collections.unmodifiableSet(new HashSet<>(origins));
+    }
+
+    /**
+     * Check whether the given normalized Origin is in the set.
+     *
+     * @param normalizedOrigin Normalized Origin.
+     * @return {@code true} if the Origin is present, {@code false} otherwise.
+     */
+    public boolean contains(String normalizedOrigin) {
+
+        return origins.contains(normalizedOrigin);
+    }
+
+    public Set<String> getOrigins() {
+
+        return origins;
+    }
+}
@@ -34,6 +34,8 @@ import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceCli
 import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceException;
 import org.wso2.carbon.identity.cors.mgt.core.exception.CORSManagementServiceServerException;
 import org.wso2.carbon.identity.cors.mgt.core.internal.CORSManagementServiceHolder;
+import org.wso2.carbon.identity.cors.mgt.core.internal.cache.CORSOriginCache;
+import org.wso2.carbon.identity.cors.mgt.core.internal.cache.CORSOriginCacheEntry;
 import org.wso2.carbon.identity.cors.mgt.core.internal.function.CORSOriginToAttribute;
 import org.wso2.carbon.identity.cors.mgt.core.internal.function.CORSOriginToResourceAdd;
 import org.wso2.carbon.identity.cors.mgt.core.internal.function.ResourceToCORSOrigin;
@@ -42,11 +44,15 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import static org.wso2.carbon.identity.cors.mgt.core.constant.ErrorMessages.ERROR_CODE_CORS_ADD;
 import static org.wso2.carbon.identity.cors.mgt.core.constant.ErrorMessages.ERROR_CODE_CORS_DELETE;
@@ -66,6 +72,11 @@ public class CORSManagementServiceImpl implements CORSManagementService {
 
     private static final Log log = LogFactory.getLog(CORSManagementServiceImpl.class);
 
+    private static final String HTTP_SCHEME = "http";
+    private static final String HTTPS_SCHEME = "https";
+    private static final int DEFAULT_HTTP_PORT = 80;
+    private static final int DEFAULT_HTTPS_PORT = 443;
+
     @Override
     public List<CORSOrigin> getCORSOrigins(String tenantDomain) throws CORSManagementServiceException {
 
@@ -104,6 +115,7 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         } catch (ConfigurationManagementException | JsonProcessingException e) {
             throw handleServerException(ERROR_CODE_CORS_SET, e, tenantDomain);
         } finally {
+            clearCORSOriginCache(tenantDomain);
             FrameworkUtils.endTenantFlow();
         }
     }
@@ -136,6 +148,7 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         } catch (ConfigurationManagementException | IOException e) {
             throw handleServerException(ERROR_CODE_CORS_ADD, e, tenantDomain);
         } finally {
+            clearCORSOriginCache(tenantDomain);
             FrameworkUtils.endTenantFlow();
         }
     }
@@ -168,10 +181,42 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         } catch (ConfigurationManagementException | IOException e) {
             throw handleServerException(ERROR_CODE_CORS_DELETE, e, tenantDomain);
         } finally {
+            clearCORSOriginCache(tenantDomain);
             FrameworkUtils.endTenantFlow();
         }
     }
 
+    @Override
+    public boolean isAllowedOrigin(String tenantDomain, String origin) throws CORSManagementServiceException {
+
+        String normalizedOrigin = normalizeOrigin(origin);
+        if (normalizedOrigin == null) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Origin: %s of tenant: %s cannot be normalized. Hence not allowed.", origin,
+                        tenantDomain));
+            }
+            return false;
+        }
+
+        CORSOriginCacheEntry cacheEntry = CORSOriginCache.getInstance().getValueFromCache(tenantDomain);
+        if (cacheEntry == null) {
+            if (log.isDebugEnabled()) {
+                log.debug("CORS Origins of tenant: " + tenantDomain + " are not cached. Loading from the store.");
+            }
+            Set<String> normalizedOrigins = new HashSet<>();
+            for (CORSOrigin corsOrigin : getCORSOrigins(tenantDomain)) {
+                String normalizedCORSOrigin = normalizeOrigin(corsOrigin.getUrl());
+                if (normalizedCORSOrigin != null) {
+                    normalizedOrigins.add(normalizedCORSOrigin);
+                }
+            }
+            cacheEntry = new CORSOriginCacheEntry(normalizedOrigins);
+            CORSOriginCache.getInstance().addToCache(tenantDomain, cacheEntry);
+        }
+
+        return cacheEntry.contains(normalizedOrigin);
+    }
+
     /**
      * Retrieve the ConfigurationManager instance from the CORSServiceHolder.
      *
@@ -203,6 +248,54 @@ public class CORSManagementServiceImpl implements CORSManagementService {
         }
     }
 
+    /**
+     * Clear the cached CORS Origins of a tenant.
+     *
+     * @param tenantDomain The tenant domain.
+     */
+    private void clearCORSOriginCache(String tenantDomain) {
+
+        CORSOriginCache.getInstance().clearCacheEntry(tenantDomain);
+    }
+
+    /**
+     * Normalize an Origin to the form {@code scheme://host[:port]} with a lower case scheme and host, and without
+     * the default port of the scheme, so that equivalent Origins map to the same key.
+     *
+     * @param origin Origin to be normalized.
+     * @return The normalized Origin or {@code null} if the Origin cannot be parsed.
+     */
+    private String normalizeOrigin(String origin) {
+
+        if (origin == null || origin.trim().isEmpty()) {
+            return null;
+        }
+
+        URI uri;
+        try {
+            uri = new URI(origin.trim());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        if (uri.getScheme() == null || uri.getHost() == null) {
+            return null;
+        }
+
+        String scheme = uri.getScheme().toLowerCase(Locale.ENGLISH);
+        int port = uri.getPort();
+        if ((HTTP_SCHEME.equals(scheme) && port == DEFAULT_HTTP_PORT) ||
+                (HTTPS_SCHEME.equals(scheme) && port == DEFAULT_HTTPS_PORT)) {
+            port = -1;
+        }
+
+        StringBuilder normalizedOrigin = new StringBuilder(scheme).append("://")
+                .append(uri.getHost().toLowerCase(Locale.ENGLISH));
+        if (port != -1) {
+            normalizedOrigin.append(':').append(port);
+        }
+        return normalizedOrigin.toString();
+    }
+
     /**
      * Validate the tenant domain.
      *
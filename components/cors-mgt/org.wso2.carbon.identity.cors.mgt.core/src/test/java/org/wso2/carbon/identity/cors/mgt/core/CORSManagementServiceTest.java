@@ -48,6 +48,7 @@ import org.wso2.carbon.user.core.tenant.TenantManager;
 
 import java.nio.file.Paths;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -56,6 +57,8 @@ import java.util.stream.Stream;
 import javax.sql.DataSource;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
@@ -191,4 +194,51 @@ public class CORSManagementServiceTest extends PowerMockTestCase {
 
         assertEquals(SAMPLE_ORIGIN_LIST_1.subList(2, SAMPLE_ORIGIN_LIST_1.size()), corsOrigins);
     }
+
+    @Test(priority = 5)
+    public void testIsAllowedOrigin() throws CORSManagementServiceException {
+
+        corsManagementService.setCORSOrigins(SUPER_TENANT_DOMAIN_NAME, SAMPLE_ORIGIN_LIST_1);
+
+        assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://foo.com"));
+        assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "HTTP://Foo.com:80"));
+        assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "https://foobar.com:443"));
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "https://foo.com"));
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://foo.com:8080"));
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "null"));
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, null));
+    }
+
+    @Test(priority = 6)
+    public void testIsAllowedOriginAfterOriginsChange() throws CORSManagementServiceException {
+
+        corsManagementService.setCORSOrigins(SUPER_TENANT_DOMAIN_NAME, SAMPLE_ORIGIN_LIST_1);
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://abc.com"));
+
+        corsManagementService.addCORSOrigins(SUPER_TENANT_DOMAIN_NAME, SAMPLE_ORIGIN_LIST_2);
+        assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://abc.com"));
+
+        corsManagementService.deleteCORSOrigins(SUPER_TENANT_DOMAIN_NAME, SAMPLE_ORIGIN_LIST_2);
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://abc.com"));
+        assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "http://foo.com"));
+    }
+
+    @Test(priority = 7)
+    public void testIsAllowedOriginWithLargeOriginList() throws CORSManagementServiceException {
+
+        int originCount = 5000;
+        List<CORSOrigin> origins = new ArrayList<>(originCount);
+        for (int i = 0; i < originCount; i++) {
+            String url = "https://app" + i + ".example.com";
+            origins.add(new CORSOrigin(String.valueOf(url.hashCode()), url));
+        }
+        corsManagementService.setCORSOrigins(SUPER_TENANT_DOMAIN_NAME, origins);
+
+        for (int i = 0; i < originCount; i++) {
+            assertTrue(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME,
+                    "https://app" + i + ".example.com"));
+        }
+        assertFalse(corsManagementService.isAllowedOrigin(SUPER_TENANT_DOMAIN_NAME, "https://app" + originCount +
+                ".example.com"));
+    }
 }
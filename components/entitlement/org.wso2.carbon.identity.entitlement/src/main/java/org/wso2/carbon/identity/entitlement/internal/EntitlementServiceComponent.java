@@ -46,6 +46,7 @@ import org.wso2.carbon.identity.entitlement.thrift.ThriftConfigConstants;
 import org.wso2.carbon.identity.entitlement.thrift.ThriftEntitlementServiceImpl;
 import org.wso2.carbon.identity.notification.mgt.NotificationSender;
 import org.wso2.carbon.identity.thrift.authentication.ThriftAuthenticatorService;
+import org.wso2.carbon.identity.thrift.authentication.ThriftServerMetrics;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.service.RegistryService;
@@ -80,6 +81,8 @@ public class EntitlementServiceComponent {
     private static NotificationSender notificationSender;
     private ThriftAuthenticatorService thriftAuthenticationService;
     private ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ThriftServerMetrics thriftServerMetrics = new ThriftServerMetrics();
+    private TServer thriftEntitlementServer;
 
     /**
      *
@@ -312,6 +315,14 @@ public class EntitlementServiceComponent {
      */
     @Deactivate
     protected void deactivate(ComponentContext ctxt) {
+        if (thriftEntitlementServer != null) {
+            thriftEntitlementServer.stop();
+            thriftEntitlementServer = null;
+            thriftServerMetrics.unregister();
+            if (log.isDebugEnabled()) {
+                log.debug("Thrift entitlement service stopped. " + thriftServerMetrics);
+            }
+        }
         if (log.isDebugEnabled()) {
             log.debug("Identity Entitlement bundle is deactivated");
         }
@@ -432,9 +443,19 @@ public class EntitlementServiceComponent {
                 EntitlementService.Processor processor = new EntitlementService.Processor(
                         new ThriftEntitlementServiceImpl());
 
+                // bound the worker threads, as each open client connection holds a worker thread
+                int minWorkerThreads = readThriftWorkerThreads(ThriftConfigConstants.PARAM_MIN_WORKER_THREADS,
+                        ThriftConfigConstants.DEFAULT_MIN_WORKER_THREADS);
+                int maxWorkerThreads = Math.max(minWorkerThreads, readThriftWorkerThreads(
+                        ThriftConfigConstants.PARAM_MAX_WORKER_THREADS,
+                        ThriftConfigConstants.DEFAULT_MAX_WORKER_THREADS));
+
                 //TODO: have to decide on the protocol.
                 TServer server = new TThreadPoolServer(new TThreadPoolServer.Args(serverTransport).
-                        processor(processor));
+                        processor(processor).minWorkerThreads(minWorkerThreads).maxWorkerThreads(maxWorkerThreads));
+                server.setServerEventHandler(thriftServerMetrics);
+                thriftServerMetrics.register("ThriftEntitlement");
+                thriftEntitlementServer = server;
                 //TServer server = new TThreadPoolServer(new TThreadPoolServer.Args())
 /*
                 TServer server = new TThreadPoolServer(processor, serverTransport,
@@ -443,7 +464,8 @@ public class EntitlementServiceComponent {
                 executor.submit(serverThread);
 
                 if (log.isDebugEnabled()) {
-                    log.debug("Started thrift entitlement service at port:" + receivePort);
+                    log.debug("Started thrift entitlement service at port:" + receivePort + " with "
+                            + minWorkerThreads + " to " + maxWorkerThreads + " worker threads");
                 }
             }
 
@@ -461,6 +483,25 @@ public class EntitlementServiceComponent {
 
     }
 
+    /**
+     * Read a worker thread count of the thrift entitlement service from identity.xml.
+     */
+    private int readThriftWorkerThreads(String property, int defaultValue) {
+        String value = IdentityUtil.getProperty(property);
+        if (StringUtils.isNotBlank(value)) {
+            try {
+                int workerThreads = Integer.parseInt(value.trim());
+                if (workerThreads > 0) {
+                    return workerThreads;
+                }
+            } catch (NumberFormatException e) {
+                // use the default value below
+            }
+            log.error("Invalid value for " + property + ", hence using the default: " + defaultValue);
+        }
+        return defaultValue;
+    }
+
     /**
      * Read the port from identity.xml which is overridden by carbon.xml to facilitating
      * multiple servers at a time.
@@ -30,4 +30,10 @@ public class ThriftConfigConstants {
             "EntitlementSettings.ThirftBasedEntitlementConfig.KeyStore.Password";
     public static final String PARAM_HOST_NAME =
             "EntitlementSettings.ThirftBasedEntitlementConfig.ThriftHostName";
+    public static final String PARAM_MIN_WORKER_THREADS =
+            "EntitlementSettings.ThirftBasedEntitlementConfig.MinWorkerThreads";
+    public static final String PARAM_MAX_WORKER_THREADS =
+            "EntitlementSettings.ThirftBasedEntitlementConfig.MaxWorkerThreads";
+    public static final int DEFAULT_MIN_WORKER_THREADS = 5;
+    public static final int DEFAULT_MAX_WORKER_THREADS = 500;
 }
@@ -23,6 +23,7 @@ import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.functions.library.mgt.dao.FunctionLibraryDAO;
+import org.wso2.carbon.identity.functions.library.mgt.dao.impl.CacheBackedFunctionLibraryDAO;
 import org.wso2.carbon.identity.functions.library.mgt.dao.impl.FunctionLibraryDAOImpl;
 import org.wso2.carbon.identity.functions.library.mgt.exception.FunctionLibraryManagementException;
 import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
@@ -68,7 +69,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
 
         validateInputs(functionLibrary);
         evaluateScript(functionLibrary);
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
 
         if (functionLibraryDAO.isFunctionLibraryExists(functionLibrary.getFunctionLibraryName(), tenantDomain)) {
             throw FunctionLibraryExceptionManagementUtil.handleClientException(
@@ -88,7 +89,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
     @Override
     public List<FunctionLibrary> listFunctionLibraries(String tenantDomain) throws FunctionLibraryManagementException {
 
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
         return functionLibraryDAO.listFunctionLibraries(tenantDomain);
     }
 
@@ -96,7 +97,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
     public FunctionLibrary getFunctionLibrary(String functionLibraryName, String tenantDomain)
             throws FunctionLibraryManagementException {
 
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
         return functionLibraryDAO.getFunctionLibrary(functionLibraryName, tenantDomain);
     }
 
@@ -104,7 +105,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
     public void deleteFunctionLibrary(String functionLibraryName, String tenantDomain)
             throws FunctionLibraryManagementException {
 
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
         functionLibraryDAO.deleteFunctionLibrary(functionLibraryName, tenantDomain);
     }
 
@@ -115,7 +116,7 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
 
         validateInputs(functionLibrary);
         evaluateScript(functionLibrary);
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
 
         if (!functionLibrary.getFunctionLibraryName().equals(oldFunctionLibraryName) &&
                 functionLibraryDAO.isFunctionLibraryExists(functionLibrary.getFunctionLibraryName(), tenantDomain)) {
@@ -137,10 +138,15 @@ public class FunctionLibraryManagementServiceImpl implements FunctionLibraryMana
     public boolean isFunctionLibraryExists(String functionLibraryName, String tenantDomain)
             throws FunctionLibraryManagementException {
 
-        FunctionLibraryDAO functionLibraryDAO = new FunctionLibraryDAOImpl();
+        FunctionLibraryDAO functionLibraryDAO = getFunctionLibraryDAO();
         return functionLibraryDAO.isFunctionLibraryExists(functionLibraryName, tenantDomain);
     }
 
+    private FunctionLibraryDAO getFunctionLibraryDAO() {
+
+        return new CacheBackedFunctionLibraryDAO(new FunctionLibraryDAOImpl());
+    }
+
     /**
      * Check for required attributes.
      *
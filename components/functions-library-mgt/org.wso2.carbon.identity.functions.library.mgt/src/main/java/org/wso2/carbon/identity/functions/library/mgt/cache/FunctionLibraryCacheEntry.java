@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.functions.library.mgt.cache;
+
+import org.wso2.carbon.identity.application.common.cache.CacheEntry;
+import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
+
+/**
+ * Cache entry which is kept in the function library cache.
+ */
+public class FunctionLibraryCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = -2870521783622941876L;
+
+    private String functionLibraryName;
+    private String description;
+    private String functionLibraryScript;
+
+    public FunctionLibraryCacheEntry(FunctionLibrary functionLibrary) {
+
+        this.functionLibraryName = functionLibrary.getFunctionLibraryName();
+        this.description = functionLibrary.getDescription();
+        this.functionLibraryScript = functionLibrary.getFunctionLibraryScript();
+    }
+
+    /**
+     * Get the cached function library. A new instance is returned, so the callers cannot modify the cached one.
+     *
+     * @return Function library
+     */
+    public FunctionLibrary getFunctionLibrary() {
+
+        FunctionLibrary functionLibrary = new FunctionLibrary();
+        functionLibrary.setFunctionLibraryName(functionLibraryName);
+        functionLibrary.setDescription(description);
+        functionLibrary.setFunctionLibraryScript(functionLibraryScript);
+        return functionLibrary;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.functions.library.mgt.cache;
+
+import org.wso2.carbon.identity.application.common.cache.CacheKey;
+
+import java.util.Objects;
+
+/**
+ * Cache key for lookup function library from the cache. Function libraries are scoped to their tenant.
+ */
+public class FunctionLibraryCacheKey extends CacheKey {
+
+    private static final long serialVersionUID = 4218376049832159217L;
+
+    private String functionLibraryName;
+    private String tenantDomain;
+
+    public FunctionLibraryCacheKey(String functionLibraryName, String tenantDomain) {
+
+        this.functionLibraryName = functionLibraryName;
+        this.tenantDomain = tenantDomain;
+    }
+
+    public String getFunctionLibraryName() {
+
+        return functionLibraryName;
+    }
+
+    public String getTenantDomain() {
+
+        return tenantDomain;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        if (!super.equals(o)) {
+            return false;
+        }
+
+        FunctionLibraryCacheKey that = (FunctionLibraryCacheKey) o;
+        return Objects.equals(functionLibraryName, that.functionLibraryName) &&
+                Objects.equals(tenantDomain, that.tenantDomain);
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = super.hashCode();
+        result = 31 * result + Objects.hashCode(functionLibraryName);
+        result = 31 * result + Objects.hashCode(tenantDomain);
+        return result;
+    }
+}
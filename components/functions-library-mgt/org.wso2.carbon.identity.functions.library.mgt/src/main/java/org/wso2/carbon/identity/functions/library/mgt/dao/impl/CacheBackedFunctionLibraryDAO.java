@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.functions.library.mgt.dao.impl;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheEntry;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheKey;
+import org.wso2.carbon.identity.functions.library.mgt.dao.FunctionLibraryDAO;
+import org.wso2.carbon.identity.functions.library.mgt.exception.FunctionLibraryManagementException;
+import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
+
+import java.util.List;
+
+/**
+ * Cache backed function library DAO. The function libraries are cached per tenant by their name, and the cache entry
+ * of a function library is cleared whenever it is created, updated or deleted.
+ */
+public class CacheBackedFunctionLibraryDAO implements FunctionLibraryDAO {
+
+    private static final Log log = LogFactory.getLog(CacheBackedFunctionLibraryDAO.class);
+
+    private FunctionLibraryDAO functionLibraryDAO;
+    private FunctionLibraryCache functionLibraryCache;
+
+    public CacheBackedFunctionLibraryDAO(FunctionLibraryDAO functionLibraryDAO) {
+
+        this.functionLibraryDAO = functionLibraryDAO;
+        this.functionLibraryCache = FunctionLibraryCache.getInstance();
+    }
+
+    @Override
+    public void createFunctionLibrary(FunctionLibrary functionLibrary, String tenantDomain)
+            throws FunctionLibraryManagementException {
+
+        try {
+            functionLibraryDAO.createFunctionLibrary(functionLibrary, tenantDomain);
+        } finally {
+            clearCacheEntry(functionLibrary.getFunctionLibraryName(), tenantDomain);
+        }
+    }
+
+    @Override
+    public FunctionLibrary getFunctionLibrary(String functionLibraryName, String tenantDomain)
+            throws FunctionLibraryManagementException {
+
+        FunctionLibraryCacheKey cacheKey = new FunctionLibraryCacheKey(functionLibraryName, tenantDomain);
+        FunctionLibraryCacheEntry cacheEntry = functionLibraryCache.getValueFromCache(cacheKey);
+        if (cacheEntry != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Function library: " + functionLibraryName + " of tenant: " + tenantDomain +
+                        " is loaded from the cache.");
+            }
+            return cacheEntry.getFunctionLibrary();
+        }
+
+        FunctionLibrary functionLibrary = functionLibraryDAO.getFunctionLibrary(functionLibraryName, tenantDomain);
+        if (functionLibrary != null) {
+            functionLibraryCache.addToCache(cacheKey, new FunctionLibraryCacheEntry(functionLibrary));
+        }
+        return functionLibrary;
+    }
+
+    @Override
+    public List<FunctionLibrary> listFunctionLibraries(String tenantDomain) throws FunctionLibraryManagementException {
+
+        return functionLibraryDAO.listFunctionLibraries(tenantDomain);
+    }
+
+    @Override
+    public void updateFunctionLibrary(String oldFunctionLibName, FunctionLibrary functionLibrary, String tenantDomain)
+            throws FunctionLibraryManagementException {
+
+        try {
+            functionLibraryDAO.updateFunctionLibrary(oldFunctionLibName, functionLibrary, tenantDomain);
+        } finally {
+            clearCacheEntry(oldFunctionLibName, tenantDomain);
+            clearCacheEntry(functionLibrary.getFunctionLibraryName(), tenantDomain);
+        }
+    }
+
+    @Override
+    public void deleteFunctionLibrary(String functionLibraryName, String tenantDomain)
+            throws FunctionLibraryManagementException {
+
+        try {
+            functionLibraryDAO.deleteFunctionLibrary(functionLibraryName, tenantDomain);
+        } finally {
+            clearCacheEntry(functionLibraryName, tenantDomain);
+        }
+    }
+
+    @Override
+    public boolean isFunctionLibraryExists(String functionLibraryName, String tenantDomain)
+            throws FunctionLibraryManagementException {
+
+        return functionLibraryDAO.isFunctionLibraryExists(functionLibraryName, tenantDomain);
+    }
+
+    private void clearCacheEntry(String functionLibraryName, String tenantDomain) {
+
+        functionLibraryCache.clearCacheEntry(new FunctionLibraryCacheKey(functionLibraryName, tenantDomain));
+        if (log.isDebugEnabled()) {
+            log.debug("Cleared the cache entry of the function library: " + functionLibraryName + " of tenant: " +
+                    tenantDomain);
+        }
+    }
+}
@@ -22,8 +22,10 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache;
 import org.wso2.carbon.identity.functions.library.mgt.dao.impl.FunctionLibraryDAOImpl;
 import org.wso2.carbon.identity.functions.library.mgt.exception.FunctionLibraryManagementException;
 import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
@@ -39,13 +41,21 @@ import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
 import static org.wso2.carbon.identity.functions.library.mgt.FunctionLibraryMgtUtil.isRegexValidated;
 
-@PrepareForTest({FunctionLibraryManagementServiceImpl.class})
+@PrepareForTest({FunctionLibraryManagementServiceImpl.class, FunctionLibraryCache.class})
 public class FunctionLibraryManagementServiceTest extends PowerMockIdentityBaseTest {
 
     private static final String SAMPLE_TENANT_DOMAIN = "carbon.super";
     private static final String SAMPLE_TENANT_DOMAIN2 = "abc.com";
     private static final Log log = LogFactory.getLog(FunctionLibraryManagementServiceTest.class);
 
+    @BeforeMethod
+    public void setUp() {
+
+        // Function libraries are always loaded from the mocked DAO.
+        PowerMockito.mockStatic(FunctionLibraryCache.class);
+        when(FunctionLibraryCache.getInstance()).thenReturn(PowerMockito.mock(FunctionLibraryCache.class));
+    }
+
     @DataProvider(name = "createFunctionLibraryDataProvider")
     public Object[][] createFunctionLibraryData() {
 
@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.functions.library.mgt.dao.impl;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCache;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheEntry;
+import org.wso2.carbon.identity.functions.library.mgt.cache.FunctionLibraryCacheKey;
+import org.wso2.carbon.identity.functions.library.mgt.dao.FunctionLibraryDAO;
+import org.wso2.carbon.identity.functions.library.mgt.model.FunctionLibrary;
+import org.wso2.carbon.identity.testutil.powermock.PowerMockIdentityBaseTest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+@PrepareForTest({FunctionLibraryCache.class})
+public class CacheBackedFunctionLibraryDAOTest extends PowerMockIdentityBaseTest {
+
+    private static final String SAMPLE_TENANT_DOMAIN = "carbon.super";
+    private static final String SAMPLE_TENANT_DOMAIN2 = "abc.com";
+    private static final String[] REQUIRED_LIBRARIES = {"sample1", "sample2", "sample3"};
+
+    private Map<FunctionLibraryCacheKey, FunctionLibraryCacheEntry> cacheEntries;
+    private FunctionLibraryDAO functionLibraryDAO;
+    private CacheBackedFunctionLibraryDAO cacheBackedFunctionLibraryDAO;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        cacheEntries = new HashMap<>();
+        FunctionLibraryCache functionLibraryCache = mock(FunctionLibraryCache.class);
+        when(functionLibraryCache.getValueFromCache(any(FunctionLibraryCacheKey.class))).thenAnswer(
+                invocation -> cacheEntries.get(invocation.getArguments()[0]));
+        doAnswer(invocation -> cacheEntries.put((FunctionLibraryCacheKey) invocation.getArguments()[0],
+                (FunctionLibraryCacheEntry) invocation.getArguments()[1]))
+                .when(functionLibraryCache).addToCache(any(FunctionLibraryCacheKey.class),
+                any(FunctionLibraryCacheEntry.class));
+        doAnswer(invocation -> cacheEntries.remove(invocation.getArguments()[0]))
+                .when(functionLibraryCache).clearCacheEntry(any(FunctionLibraryCacheKey.class));
+        mockStatic(FunctionLibraryCache.class);
+        when(FunctionLibraryCache.getInstance()).thenReturn(functionLibraryCache);
+
+        functionLibraryDAO = mock(FunctionLibraryDAO.class);
+        when(functionLibraryDAO.getFunctionLibrary(anyString(), anyString())).thenAnswer(invocation ->
+                createFunctionLibrary((String) invocation.getArguments()[0],
+                        "function " + invocation.getArguments()[0] + "(){}"));
+        cacheBackedFunctionLibraryDAO = new CacheBackedFunctionLibraryDAO(functionLibraryDAO);
+    }
+
+    @Test
+    public void testRequiredLibrariesAreLoadedOnce() throws Exception {
+
+        // Each authentication flow of an adaptive script requiring three libraries loads all of them.
+        for (int i = 0; i < 1000; i++) {
+            for (String libraryName : REQUIRED_LIBRARIES) {
+                FunctionLibrary functionLibrary = cacheBackedFunctionLibraryDAO.getFunctionLibrary(libraryName,
+                        SAMPLE_TENANT_DOMAIN);
+                assertEquals(functionLibrary.getFunctionLibraryScript(), "function " + libraryName + "(){}");
+            }
+        }
+        for (String libraryName : REQUIRED_LIBRARIES) {
+            verify(functionLibraryDAO, times(1)).getFunctionLibrary(libraryName, SAMPLE_TENANT_DOMAIN);
+        }
+    }
+
+    @Test
+    public void testFunctionLibrariesAreCachedPerTenant() throws Exception {
+
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN2);
+
+        verify(functionLibraryDAO, times(1)).getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryDAO, times(1)).getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN2);
+    }
+
+    @Test
+    public void testCachedFunctionLibraryCannotBeModified() throws Exception {
+
+        FunctionLibrary functionLibrary = cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1",
+                SAMPLE_TENANT_DOMAIN);
+        functionLibrary.setFunctionLibraryScript("function modified(){}");
+
+        FunctionLibrary cachedFunctionLibrary = cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1",
+                SAMPLE_TENANT_DOMAIN);
+        assertNotSame(cachedFunctionLibrary, functionLibrary);
+        assertEquals(cachedFunctionLibrary.getFunctionLibraryScript(), "function sample1(){}");
+    }
+
+    @Test
+    public void testUpdateInvalidatesCachedFunctionLibrary() throws Exception {
+
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample2", SAMPLE_TENANT_DOMAIN);
+        FunctionLibrary renamedFunctionLibrary = createFunctionLibrary("sample2", "function renamed(){}");
+        cacheBackedFunctionLibraryDAO.updateFunctionLibrary("sample1", renamedFunctionLibrary,
+                SAMPLE_TENANT_DOMAIN);
+
+        verify(functionLibraryDAO).updateFunctionLibrary("sample1", renamedFunctionLibrary, SAMPLE_TENANT_DOMAIN);
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample2", SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryDAO, times(2)).getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        verify(functionLibraryDAO, times(2)).getFunctionLibrary("sample2", SAMPLE_TENANT_DOMAIN);
+    }
+
+    @Test
+    public void testDeleteInvalidatesCachedFunctionLibrary() throws Exception {
+
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN2);
+        cacheBackedFunctionLibraryDAO.deleteFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+
+        verify(functionLibraryDAO).deleteFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN);
+        when(functionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN)).thenReturn(null);
+        assertNull(cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN));
+        cacheBackedFunctionLibraryDAO.getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN2);
+        verify(functionLibraryDAO, times(1)).getFunctionLibrary("sample1", SAMPLE_TENANT_DOMAIN2);
+    }
+
+    @Test
+    public void testMissingFunctionLibraryIsNotCached() throws Exception {
+
+        when(functionLibraryDAO.getFunctionLibrary("missing", SAMPLE_TENANT_DOMAIN)).thenReturn(null);
+        assertNull(cacheBackedFunctionLibraryDAO.getFunctionLibrary("missing", SAMPLE_TENANT_DOMAIN));
+        assertEquals(cacheEntries.size(), 0);
+    }
+
+    private static FunctionLibrary createFunctionLibrary(String name, String script) {
+
+        FunctionLibrary functionLibrary = new FunctionLibrary();
+        functionLibrary.setFunctionLibraryName(name);
+        functionLibrary.setDescription(name);
+        functionLibrary.setFunctionLibraryScript(script);
+        return functionLibrary;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.cache.BaseCache;
+
+import java.security.cert.X509Certificate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the certificates returned by the {@link CertificateRetriever} implementations, keyed by tenant, retriever
+ * type and certificate identifier. The identifiers of the certificates cached through this node are indexed by
+ * tenant and type, so the certificates of a type of a tenant are invalidated without visiting the other entries.
+ */
+public class CertificateCache extends BaseCache<CertificateCacheKey, X509Certificate> {
+
+    private static final Log log = LogFactory.getLog(CertificateCache.class);
+
+    private static final String CERTIFICATE_CACHE_NAME = "CertificateCache";
+    private static final int DEFAULT_CACHE_TIMEOUT_IN_SECONDS = 900;
+    private static volatile CertificateCache instance;
+
+    /**
+     * Identifiers of the cached certificates, keyed by a cache key without the certificate identifier.
+     */
+    private final ConcurrentMap<CertificateCacheKey, Set<String>> certificateIds = new ConcurrentHashMap<>();
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    CertificateCache() {
+
+        super(CERTIFICATE_CACHE_NAME, DEFAULT_CACHE_TIMEOUT_IN_SECONDS);
+    }
+
+    public static CertificateCache getInstance() {
+
+        if (instance == null) {
+            synchronized (CertificateCache.class) {
+                if (instance == null) {
+                    instance = new CertificateCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get a cached certificate.
+     *
+     * @param tenantId      tenant id
+     * @param type          type of the certificate retriever
+     * @param certificateId identifier of the certificate
+     * @return certificate or null if it is not cached
+     */
+    public X509Certificate get(int tenantId, Type type, String certificateId) {
+
+        if (!isEnabled()) {
+            return null;
+        }
+        X509Certificate certificate = getValueFromCache(new CertificateCacheKey(tenantId, type, certificateId));
+        if (certificate == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return certificate;
+    }
+
+    /**
+     * Add a certificate to the cache.
+     *
+     * @param tenantId      tenant id
+     * @param type          type of the certificate retriever
+     * @param certificateId identifier of the certificate
+     * @param certificate   certificate
+     */
+    public void put(int tenantId, Type type, String certificateId, X509Certificate certificate) {
+
+        if (!isEnabled() || certificate == null) {
+            return;
+        }
+        certificateIds.computeIfAbsent(new CertificateCacheKey(tenantId, type, null),
+                key -> ConcurrentHashMap.newKeySet()).add(certificateId);
+        addToCache(new CertificateCacheKey(tenantId, type, certificateId), certificate);
+    }
+
+    /**
+     * Remove a cached certificate.
+     *
+     * @param tenantId      tenant id
+     * @param type          type of the certificate retriever
+     * @param certificateId identifier of the certificate
+     */
+    public void invalidate(int tenantId, Type type, String certificateId) {
+
+        if (!isEnabled()) {
+            return;
+        }
+        clearCacheEntry(new CertificateCacheKey(tenantId, type, certificateId));
+        Set<String> ids = certificateIds.get(new CertificateCacheKey(tenantId, type, null));
+        if (ids != null) {
+            ids.remove(certificateId);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the cached certificate: " + certificateId + " of type: " + type + " of tenant: "
+                    + tenantId);
+        }
+    }
+
+    /**
+     * Remove all cached certificates of the given type of a tenant.
+     *
+     * @param tenantId tenant id
+     * @param type     type of the certificate retriever
+     */
+    public void invalidate(int tenantId, Type type) {
+
+        if (!isEnabled()) {
+            return;
+        }
+        Set<String> ids = certificateIds.remove(new CertificateCacheKey(tenantId, type, null));
+        if (ids != null) {
+            for (String certificateId : ids) {
+                clearCacheEntry(new CertificateCacheKey(tenantId, type, certificateId));
+            }
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the cached certificates of type: " + type + " of tenant: " + tenantId);
+        }
+    }
+
+    /**
+     * @return number of lookups on this node which returned a cached certificate
+     */
+    public long getHitCount() {
+
+        return hitCount.get();
+    }
+
+    /**
+     * @return number of lookups on this node which did not find a cached certificate
+     */
+    public long getMissCount() {
+
+        return missCount.get();
+    }
+
+    /**
+     * @return ratio of lookups which returned a cached certificate, or 0 if there are no lookups yet
+     */
+    public double getHitRate() {
+
+        long hits = hitCount.get();
+        long lookups = hits + missCount.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Types of certificate retrievers whose certificates are cached.
+     */
+    public enum Type {
+
+        /**
+         * Certificates retrieved by the database identifier, see {@link DatabaseCertificateRetriever}.
+         */
+        DATABASE,
+
+        /**
+         * Certificates retrieved by the alias from the tenant keystore, see {@link KeyStoreCertificateRetriever}.
+         */
+        KEY_STORE
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core;
+
+import java.io.Serializable;
+
+/**
+ * Key of the {@link CertificateCache}, which is the identifier of the certificate along with the type of the
+ * retriever it was read with and the id of the tenant it belongs to.
+ */
+public class CertificateCacheKey implements Serializable {
+
+    private static final long serialVersionUID = -4391712093586287114L;
+
+    private final int tenantId;
+    private final CertificateCache.Type type;
+    private final String certificateId;
+
+    public CertificateCacheKey(int tenantId, CertificateCache.Type type, String certificateId) {
+
+        this.tenantId = tenantId;
+        this.type = type;
+        this.certificateId = certificateId;
+    }
+
+    public int getTenantId() {
+
+        return tenantId;
+    }
+
+    public CertificateCache.Type getType() {
+
+        return type;
+    }
+
+    public String getCertificateId() {
+
+        return certificateId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CertificateCacheKey that = (CertificateCacheKey) o;
+        return tenantId == that.tenantId && type == that.type &&
+                (certificateId != null ? certificateId.equals(that.certificateId) : that.certificateId == null);
+    }
+
+    @Override
+    public int hashCode() {
+
+        int result = tenantId;
+        result = 31 * result + (type != null ? type.hashCode() : 0);
+        result = 31 * result + (certificateId != null ? certificateId.hashCode() : 0);
+        return result;
+    }
+}
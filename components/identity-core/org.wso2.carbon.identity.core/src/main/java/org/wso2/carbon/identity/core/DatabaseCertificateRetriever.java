@@ -49,14 +49,28 @@ public class DatabaseCertificateRetriever implements CertificateRetriever {
 
     /**
      * @param certificateId Database identifier of the certificate.
-     * @param tenant        Tenant where the certificate belongs to. But in this implementation the passed tenant is
-     *                      not considered since the database id is already there.
+     * @param tenant        Tenant where the certificate belongs to. In this implementation the passed tenant is only
+     *                      used to scope the cached certificate since the database id is already there.
      * @return The certificate for the given database identifier.
      * @throws CertificateRetrievingException
      */
     @Override
     public X509Certificate getCertificate(String certificateId, Tenant tenant) throws CertificateRetrievingException {
 
+        CertificateCache certificateCache = CertificateCache.getInstance();
+        X509Certificate certificate = certificateCache.get(tenant.getId(), CertificateCache.Type.DATABASE,
+                certificateId);
+        if (certificate != null) {
+            return certificate;
+        }
+
+        certificate = getCertificateFromDatabase(certificateId);
+        certificateCache.put(tenant.getId(), CertificateCache.Type.DATABASE, certificateId, certificate);
+        return certificate;
+    }
+
+    private X509Certificate getCertificateFromDatabase(String certificateId) throws CertificateRetrievingException {
+
         Connection connection;
         try {
             connection = IdentityDatabaseUtil.getDBConnection(false);
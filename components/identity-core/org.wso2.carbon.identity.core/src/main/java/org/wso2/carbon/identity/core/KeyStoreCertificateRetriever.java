@@ -42,6 +42,13 @@ public class KeyStoreCertificateRetriever implements CertificateRetriever {
     @Override
     public X509Certificate getCertificate(String certificateId, Tenant tenant) throws CertificateRetrievingException {
 
+        CertificateCache certificateCache = CertificateCache.getInstance();
+        X509Certificate cachedCertificate = certificateCache.get(tenant.getId(), CertificateCache.Type.KEY_STORE,
+                certificateId);
+        if (cachedCertificate != null) {
+            return cachedCertificate;
+        }
+
         KeyStoreManager keyStoreManager = KeyStoreManager.getInstance(tenant.getId());
 
         KeyStore keyStore;
@@ -55,6 +62,7 @@ public class KeyStoreCertificateRetriever implements CertificateRetriever {
                 keyStore = keyStoreManager.getPrimaryKeyStore();
             }
             X509Certificate certificate = (X509Certificate) keyStore.getCertificate(certificateId);
+            certificateCache.put(tenant.getId(), CertificateCache.Type.KEY_STORE, certificateId, certificate);
             return certificate;
         } catch (Exception e) {
             String errorMsg = String.format("Error occurred while retrieving the certificate for the alias '%s' " +
@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.cache;
+
+import org.wso2.carbon.caching.impl.CacheImpl;
+import org.wso2.carbon.caching.impl.CachingConstants;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.model.IdentityCacheConfig;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheConfiguration;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+/**
+ * A base class for the cache implementations of the identity core. The caches are configured under the
+ * IdentityApplicationManagementCacheManager in identity.xml. The entries are stored in the super tenant cache, and
+ * removing an entry invalidates it on the other nodes of the cluster as well.
+ *
+ * @param <K> cache key type.
+ * @param <V> cache value type.
+ */
+public class BaseCache<K extends Serializable, V extends Serializable> {
+
+    private static final String CACHE_MANAGER_NAME = "IdentityApplicationManagementCacheManager";
+
+    private final String cacheName;
+    private final int defaultCacheTimeout;
+    private final IdentityCacheConfig identityCacheConfig;
+    private volatile boolean isCacheInitialized;
+
+    public BaseCache(String cacheName) {
+
+        this(cacheName, -1);
+    }
+
+    /**
+     * @param cacheName           name of the cache in identity.xml.
+     * @param defaultCacheTimeout timeout in seconds used when identity.xml does not configure one.
+     */
+    public BaseCache(String cacheName, int defaultCacheTimeout) {
+
+        this.defaultCacheTimeout = defaultCacheTimeout;
+        identityCacheConfig = IdentityUtil.getIdentityCacheConfig(CACHE_MANAGER_NAME, cacheName);
+        if (identityCacheConfig != null && !identityCacheConfig.isDistributed()) {
+            this.cacheName = CachingConstants.LOCAL_CACHE_PREFIX + cacheName;
+        } else {
+            this.cacheName = cacheName;
+        }
+    }
+
+    /**
+     * Add a cache entry.
+     *
+     * @param key   Key which cache entry is indexed.
+     * @param entry Actual object where cache entry is placed.
+     */
+    public void addToCache(K key, V entry) {
+
+        if (!isEnabled() || key == null || entry == null) {
+            return;
+        }
+        try {
+            startSuperTenantFlow();
+            getBaseCache().put(key, entry);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Retrieves a cache entry.
+     *
+     * @param key CacheKey
+     * @return Cached entry, or null if there is no entry for the key.
+     */
+    public V getValueFromCache(K key) {
+
+        if (!isEnabled() || key == null) {
+            return null;
+        }
+        try {
+            startSuperTenantFlow();
+            return getBaseCache().get(key);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Clears a cache entry.
+     *
+     * @param key Key to clear cache.
+     */
+    public void clearCacheEntry(K key) {
+
+        if (!isEnabled() || key == null) {
+            return;
+        }
+        try {
+            startSuperTenantFlow();
+            getBaseCache().remove(key);
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    /**
+     * Remove everything in the cache.
+     */
+    public void clear() {
+
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            startSuperTenantFlow();
+            getBaseCache().removeAll();
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return identityCacheConfig == null || identityCacheConfig.isEnabled();
+    }
+
+    public int getCacheTimeout() {
+
+        if (identityCacheConfig != null && identityCacheConfig.getTimeout() > 0) {
+            return identityCacheConfig.getTimeout();
+        }
+        return defaultCacheTimeout;
+    }
+
+    public int getCapacity() {
+
+        if (identityCacheConfig != null && identityCacheConfig.getCapacity() > 0) {
+            return identityCacheConfig.getCapacity();
+        }
+        return -1;
+    }
+
+    private Cache<K, V> getBaseCache() {
+
+        CacheManager cacheManager = Caching.getCacheManagerFactory().getCacheManager(CACHE_MANAGER_NAME);
+        if (!isCacheInitialized) {
+            synchronized (this) {
+                if (!isCacheInitialized) {
+                    Cache<K, V> cache;
+                    if (getCacheTimeout() > 0) {
+                        cacheManager.removeCache(cacheName);
+                        cache = cacheManager.<K, V>createCacheBuilder(cacheName)
+                                .setExpiry(CacheConfiguration.ExpiryType.ACCESSED,
+                                        new CacheConfiguration.Duration(TimeUnit.SECONDS, getCacheTimeout()))
+                                .setExpiry(CacheConfiguration.ExpiryType.MODIFIED,
+                                        new CacheConfiguration.Duration(TimeUnit.SECONDS, getCacheTimeout()))
+                                .setStoreByValue(false)
+                                .build();
+                    } else {
+                        cache = cacheManager.getCache(cacheName);
+                    }
+                    if (getCapacity() > 0 && cache instanceof CacheImpl) {
+                        ((CacheImpl) cache).setCapacity(getCapacity());
+                    }
+                    isCacheInitialized = true;
+                    return cache;
+                }
+            }
+        }
+        return cacheManager.getCache(cacheName);
+    }
+
+    private static void startSuperTenantFlow() {
+
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+        carbonContext.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+        carbonContext.setTenantDomain(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.cache;
+
+/**
+ * Cache of the SAML service providers read by
+ * {@link org.wso2.carbon.identity.core.dao.SAMLSSOServiceProviderDAO#getServiceProvider(String)}, keyed by the
+ * issuer and the tenant of the service provider.
+ * <p>
+ * The cached service providers are fully loaded, including the tenant domain and the certificate used to validate
+ * the requests. Each caller gets its own copy of the cached service provider.
+ */
+public class SAMLSSOServiceProviderCache
+        extends BaseCache<SAMLSSOServiceProviderCacheKey, SAMLSSOServiceProviderCacheEntry> {
+
+    private static final String SAML_SSO_SERVICE_PROVIDER_CACHE_NAME = "SAMLSSOServiceProviderCache";
+    private static final int DEFAULT_CACHE_TIMEOUT_IN_SECONDS = 900;
+    private static volatile SAMLSSOServiceProviderCache instance;
+
+    private SAMLSSOServiceProviderCache() {
+
+        super(SAML_SSO_SERVICE_PROVIDER_CACHE_NAME, DEFAULT_CACHE_TIMEOUT_IN_SECONDS);
+    }
+
+    public static SAMLSSOServiceProviderCache getInstance() {
+
+        if (instance == null) {
+            synchronized (SAMLSSOServiceProviderCache.class) {
+                if (instance == null) {
+                    instance = new SAMLSSOServiceProviderCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.cache;
+
+import org.wso2.carbon.identity.core.model.SAMLSSOServiceProviderDO;
+
+import java.io.Serializable;
+
+/**
+ * Cache entry which is kept in the {@link SAMLSSOServiceProviderCache}.
+ */
+public class SAMLSSOServiceProviderCacheEntry implements Serializable {
+
+    private static final long serialVersionUID = 5816395727146508317L;
+
+    private final SAMLSSOServiceProviderDO serviceProviderDO;
+
+    public SAMLSSOServiceProviderCacheEntry(SAMLSSOServiceProviderDO serviceProviderDO) {
+
+        this.serviceProviderDO = new SAMLSSOServiceProviderDO(serviceProviderDO);
+    }
+
+    /**
+     * Get the cached service provider. A new instance is returned, so the callers cannot modify the cached one.
+     *
+     * @return service provider
+     */
+    public SAMLSSOServiceProviderDO getServiceProvider() {
+
+        return new SAMLSSOServiceProviderDO(serviceProviderDO);
+    }
+}
@@ -27,6 +27,9 @@ import org.wso2.carbon.identity.core.CertificateRetrievingException;
 import org.wso2.carbon.identity.core.DatabaseCertificateRetriever;
 import org.wso2.carbon.identity.core.IdentityRegistryResources;
 import org.wso2.carbon.identity.core.KeyStoreCertificateRetriever;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCache;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCacheEntry;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCacheKey;
 import org.wso2.carbon.identity.core.model.SAMLSSOServiceProviderDO;
 import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
@@ -314,6 +317,7 @@ public class SAMLSSOServiceProviderDAO extends AbstractDAO<SAMLSSOServiceProvide
             throw IdentityException.error(msg, e);
         } finally {
             commitOrRollbackTransaction(isErrorOccurred);
+            clearServiceProviderCache(serviceProviderDO.getIssuer());
         }
     }
 
@@ -532,6 +536,7 @@ public class SAMLSSOServiceProviderDAO extends AbstractDAO<SAMLSSOServiceProvide
             throw IdentityException.error(msg, e);
         } finally {
             commitOrRollbackTransaction(isErrorOccurred);
+            clearServiceProviderCache(issuer);
         }
     }
 
@@ -547,10 +552,20 @@ public class SAMLSSOServiceProviderDAO extends AbstractDAO<SAMLSSOServiceProvide
         String path = IdentityRegistryResources.SAML_SSO_SERVICE_PROVIDERS + encodePath(issuer);
         SAMLSSOServiceProviderDO serviceProviderDO = null;
 
-        UserRegistry userRegistry = null;
+        UserRegistry userRegistry = (UserRegistry) registry;
+        SAMLSSOServiceProviderCacheKey cacheKey = new SAMLSSOServiceProviderCacheKey(issuer,
+                userRegistry.getTenantId());
+        SAMLSSOServiceProviderCacheEntry cacheEntry = SAMLSSOServiceProviderCache.getInstance()
+                .getValueFromCache(cacheKey);
+        if (cacheEntry != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("SAML2 Service Provider " + issuer + " is found in the cache.");
+            }
+            return cacheEntry.getServiceProvider();
+        }
+
         String tenantDomain = null;
         try {
-            userRegistry = (UserRegistry) registry;
             tenantDomain = IdentityTenantUtil.getRealmService().getTenantManager().getDomain(userRegistry.
                     getTenantId());
             if (registry.resourceExists(path)) {
@@ -580,9 +595,26 @@ public class SAMLSSOServiceProviderDAO extends AbstractDAO<SAMLSSOServiceProvide
             throw IdentityException.error(String.format("An error occurred while getting the " +
                     "application certificate for validating the requests from the issuer '%s'", issuer), e);
         }
+        if (serviceProviderDO != null) {
+            SAMLSSOServiceProviderCache.getInstance().addToCache(cacheKey,
+                    new SAMLSSOServiceProviderCacheEntry(serviceProviderDO));
+        }
         return serviceProviderDO;
     }
 
+    /**
+     * Remove the cached service provider of the issuer, if the registry belongs to a tenant.
+     *
+     * @param issuer Issuer of the service provider, including the issuer qualifier if there is one.
+     */
+    private void clearServiceProviderCache(String issuer) {
+
+        if (registry instanceof UserRegistry) {
+            SAMLSSOServiceProviderCache.getInstance().clearCacheEntry(new SAMLSSOServiceProviderCacheKey(issuer,
+                    ((UserRegistry) registry).getTenantId()));
+        }
+    }
+
     /**
      * Returns the {@link java.security.cert.Certificate} which should used to validate the requests
      * for the given service provider.
@@ -716,6 +748,7 @@ public class SAMLSSOServiceProviderDAO extends AbstractDAO<SAMLSSOServiceProvide
             throw IdentityException.error("Error while adding Service Provider.", e);
         } finally {
             commitOrRollbackTransaction(isErrorOccurred);
+            clearServiceProviderCache(serviceProviderDO.getIssuer());
         }
     }
 
@@ -24,6 +24,7 @@ import org.wso2.carbon.identity.core.util.IdentityUtil;
 
 import java.io.Serializable;
 import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -128,6 +129,68 @@ public class SAMLSSOServiceProviderDO implements Serializable {
         }
     }
 
+    /**
+     * Create a copy of the given service provider. The claims, audiences, recipients and URLs of the service
+     * provider are copied as well, so modifying the copy does not modify the given service provider.
+     *
+     * @param serviceProviderDO service provider to copy
+     */
+    public SAMLSSOServiceProviderDO(SAMLSSOServiceProviderDO serviceProviderDO) {
+        this.tenantDomain = serviceProviderDO.tenantDomain;
+        this.issuer = serviceProviderDO.issuer;
+        this.issuerQualifier = serviceProviderDO.issuerQualifier;
+        this.assertionConsumerUrl = serviceProviderDO.assertionConsumerUrl;
+        this.assertionConsumerUrls = copyOf(serviceProviderDO.assertionConsumerUrls);
+        this.assertionConsumerUrlList = copyOf(serviceProviderDO.assertionConsumerUrlList);
+        this.defaultAssertionConsumerUrl = serviceProviderDO.defaultAssertionConsumerUrl;
+        this.certAlias = serviceProviderDO.certAlias;
+        this.sloResponseURL = serviceProviderDO.sloResponseURL;
+        this.sloRequestURL = serviceProviderDO.sloRequestURL;
+        this.doSingleLogout = serviceProviderDO.doSingleLogout;
+        this.loginPageURL = serviceProviderDO.loginPageURL;
+        this.doSignResponse = serviceProviderDO.doSignResponse;
+        this.doSignAssertions = serviceProviderDO.doSignAssertions;
+        this.attributeConsumingServiceIndex = serviceProviderDO.attributeConsumingServiceIndex;
+        this.requestedClaims = copyOf(serviceProviderDO.requestedClaims);
+        this.requestedClaimsList = copyOf(serviceProviderDO.requestedClaimsList);
+        this.requestedAudiences = copyOf(serviceProviderDO.requestedAudiences);
+        this.requestedAudiencesList = copyOf(serviceProviderDO.requestedAudiencesList);
+        this.requestedRecipients = copyOf(serviceProviderDO.requestedRecipients);
+        this.requestedRecipientsList = copyOf(serviceProviderDO.requestedRecipientsList);
+        this.enableAttributesByDefault = serviceProviderDO.enableAttributesByDefault;
+        this.nameIdClaimUri = serviceProviderDO.nameIdClaimUri;
+        this.nameIDFormat = serviceProviderDO.nameIDFormat;
+        this.isIdPInitSSOEnabled = serviceProviderDO.isIdPInitSSOEnabled;
+        this.idPInitSLOEnabled = serviceProviderDO.idPInitSLOEnabled;
+        this.idpInitSLOReturnToURLs = copyOf(serviceProviderDO.idpInitSLOReturnToURLs);
+        this.idpInitSLOReturnToURLList = copyOf(serviceProviderDO.idpInitSLOReturnToURLList);
+        this.doEnableEncryptedAssertion = serviceProviderDO.doEnableEncryptedAssertion;
+        this.doValidateSignatureInRequests = serviceProviderDO.doValidateSignatureInRequests;
+        this.doValidateSignatureInArtifactResolve = serviceProviderDO.doValidateSignatureInArtifactResolve;
+        this.signingAlgorithmUri = serviceProviderDO.signingAlgorithmUri;
+        this.digestAlgorithmUri = serviceProviderDO.digestAlgorithmUri;
+        this.assertionEncryptionAlgorithmUri = serviceProviderDO.assertionEncryptionAlgorithmUri;
+        this.keyEncryptionAlgorithmUri = serviceProviderDO.keyEncryptionAlgorithmUri;
+        this.signingCertificate = serviceProviderDO.signingCertificate;
+        this.encryptionCertificate = serviceProviderDO.encryptionCertificate;
+        this.x509Certificate = serviceProviderDO.x509Certificate;
+        this.isAssertionQueryRequestProfileEnabled = serviceProviderDO.isAssertionQueryRequestProfileEnabled;
+        this.supportedAssertionQueryRequestTypes = serviceProviderDO.supportedAssertionQueryRequestTypes;
+        this.enableSAML2ArtifactBinding = serviceProviderDO.enableSAML2ArtifactBinding;
+        this.samlECP = serviceProviderDO.samlECP;
+        this.idpEntityIDAlias = serviceProviderDO.idpEntityIDAlias;
+        this.doFrontChannelLogout = serviceProviderDO.doFrontChannelLogout;
+        this.frontChannelLogoutBinding = serviceProviderDO.frontChannelLogoutBinding;
+    }
+
+    private static String[] copyOf(String[] values) {
+        return values != null ? values.clone() : null;
+    }
+
+    private static List<String> copyOf(List<String> values) {
+        return values != null ? new ArrayList<>(values) : null;
+    }
+
     public String getSigningCertificate() {
         return signingCertificate;
     }
@@ -18,6 +18,7 @@
 
 package org.wso2.carbon.identity.core.util;
 
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.base.ServerConfiguration;
@@ -26,11 +27,18 @@ import org.wso2.carbon.identity.base.IdentityException;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.TrustManagerFactory;
 import javax.net.ssl.X509TrustManager;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 import java.security.KeyStore;
+import java.security.MessageDigest;
 import java.security.cert.CertificateException;
 import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.wso2.carbon.identity.core.util.IdentityUtil.PROP_TRUST_STORE_UPDATE_REQUIRED;
 
@@ -38,27 +46,61 @@ import static org.wso2.carbon.identity.core.util.IdentityUtil.PROP_TRUST_STORE_U
 /**
  * Gives a singleton javax.net.ssl.X509TrustManager implementation that uses the default carbon trust store.
  * This will load any changes (addition/removal of certificates) done to the default trust store on the fly.
+ * <p>
+ * The trust store is reloaded when the trust store update flag is set, or when a certificate chain is not trusted
+ * and the trust store file has changed since it was loaded. Untrusted certificate chains check the trust store file
+ * at most once within the minimum reload interval, and only one thread reloads the trust store at a time, so
+ * untrusted peers cannot force the trust store to be loaded on every handshake.
  */
 public class DynamicX509TrustManager implements X509TrustManager {
 
     private static Log log = LogFactory.getLog(DynamicX509TrustManager.class);
-    private X509TrustManager trustManager;
-    private static DynamicX509TrustManager instance;
+    private static volatile DynamicX509TrustManager instance;
 
     //Configuration Options
-    private static final ServerConfiguration config = ServerConfiguration.getInstance();
-    private static final String TRUST_STORE_LOCATION = config.getFirstProperty("Security.TrustStore.Location");
-    private static final String TRUST_STORE_TYPE = config.getFirstProperty("Security.TrustStore.Type");
+    private static final String TRUST_STORE_LOCATION = "Security.TrustStore.Location";
+    private static final String TRUST_STORE_TYPE = "Security.TrustStore.Type";
+    private static final String MIN_RELOAD_INTERVAL = "DynamicTrustManager.MinReloadInterval";
+    private static final long DEFAULT_MIN_RELOAD_INTERVAL_IN_SECONDS = 5;
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final String trustStoreLocation;
+    private final String trustStoreType;
+    private final long minReloadIntervalInMillis;
+    private final Object reloadLock = new Object();
+    private final AtomicLong reloadCount = new AtomicLong();
+    private volatile LoadedTrustStore loadedTrustStore;
+    // Following fields are guarded by the reload lock.
+    private long lastCheckedTime;
+    private long lastModifiedTime;
+    private long fileLength;
 
     private DynamicX509TrustManager() throws Exception {
 
-        setupTrustManager();
+        this(ServerConfiguration.getInstance().getFirstProperty(TRUST_STORE_LOCATION),
+                ServerConfiguration.getInstance().getFirstProperty(TRUST_STORE_TYPE),
+                TimeUnit.SECONDS.toMillis(getConfiguredMinReloadInterval()));
+    }
+
+    DynamicX509TrustManager(String trustStoreLocation, String trustStoreType, long minReloadIntervalInMillis)
+            throws Exception {
+
+        this.trustStoreLocation = trustStoreLocation;
+        this.trustStoreType = trustStoreType;
+        this.minReloadIntervalInMillis = minReloadIntervalInMillis;
+        synchronized (reloadLock) {
+            loadTrustStore(null);
+        }
     }
 
     public static DynamicX509TrustManager getInstance() throws Exception {
 
         if (instance == null) {
-            instance = new DynamicX509TrustManager();
+            synchronized (DynamicX509TrustManager.class) {
+                if (instance == null) {
+                    instance = new DynamicX509TrustManager();
+                }
+            }
         }
         return instance;
     }
@@ -66,7 +108,7 @@ public class DynamicX509TrustManager implements X509TrustManager {
     @Override
     public void checkClientTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
 
-        trustManager.checkClientTrusted(x509Certificates, s);
+        loadedTrustStore.trustManager.checkClientTrusted(x509Certificates, s);
     }
 
     /**
@@ -79,17 +121,27 @@ public class DynamicX509TrustManager implements X509TrustManager {
     @Override
     public void checkServerTrusted(X509Certificate[] x509Certificates, String s) throws CertificateException {
 
+        LoadedTrustStore trustStore = loadedTrustStore;
         try {
             //if changes were made to the trust store, reload the trust store and initialize the trustManager instance.
-            if (Boolean.parseBoolean(System.getProperty(PROP_TRUST_STORE_UPDATE_REQUIRED))) {
-                setupTrustManager();
+            if (isTrustStoreUpdateRequired()) {
+                reloadTrustStore(trustStore, true);
+                trustStore = loadedTrustStore;
             }
-            trustManager.checkServerTrusted(x509Certificates, s);
+            trustStore.trustManager.checkServerTrusted(x509Certificates, s);
         } catch (CertificateException e) {
-            // Reload the truststore once if SSL validation fails.
+            // Reload the truststore once if SSL validation fails, provided that it has changed since it was loaded.
+            boolean isReloaded;
             try {
-                setupTrustManager();
-                trustManager.checkServerTrusted(x509Certificates, s);
+                isReloaded = reloadTrustStore(trustStore, false);
+            } catch (Exception e1) {
+                throw new CertificateException("Certificate validation failed due to " + e1.getCause(), e1);
+            }
+            if (!isReloaded) {
+                throw e;
+            }
+            try {
+                loadedTrustStore.trustManager.checkServerTrusted(x509Certificates, s);
             } catch (Exception e1) {
                 throw new CertificateException("Certificate validation failed due to " + e1.getCause(), e1);
             }
@@ -101,35 +153,137 @@ public class DynamicX509TrustManager implements X509TrustManager {
     @Override
     public X509Certificate[] getAcceptedIssuers() {
 
-        return trustManager.getAcceptedIssuers();
+        return loadedTrustStore.trustManager.getAcceptedIssuers();
     }
 
+    /**
+     * @return number of times the trust store has been loaded from the file
+     */
+    long getReloadCount() {
+
+        return reloadCount.get();
+    }
+
+    /**
+     * Reload the trust store, if it has changed since the given trust store was loaded. Only one thread reloads the
+     * trust store at a time, and the others use the trust store it has loaded.
+     *
+     * @param trustStore trust store which was used to validate the certificate chain
+     * @param isForced   whether the trust store update flag is set, in which case the minimum reload interval does
+     *                   not apply
+     * @return whether a different trust store than the given one is in use
+     * @throws Exception If the trust store cannot be loaded.
+     */
+    private boolean reloadTrustStore(LoadedTrustStore trustStore, boolean isForced) throws Exception {
+
+        synchronized (reloadLock) {
+            if (loadedTrustStore != trustStore) {
+                // Another thread has reloaded the trust store while waiting for the lock.
+                return true;
+            }
+            if (isForced && !isTrustStoreUpdateRequired()) {
+                return false;
+            }
+            long now = System.currentTimeMillis();
+            if (!isForced && now - lastCheckedTime < minReloadIntervalInMillis) {
+                return false;
+            }
+            lastCheckedTime = now;
+            File trustStoreFile = new File(trustStoreLocation);
+            if (!isForced && trustStoreFile.lastModified() == lastModifiedTime &&
+                    trustStoreFile.length() == fileLength) {
+                return false;
+            }
+            loadTrustStore(trustStore);
+            return loadedTrustStore != trustStore;
+        }
+    }
 
     /**
-     * This method reloads the TrustManager by reading the carbon server's default trust store file
+     * This method reloads the TrustManager by reading the carbon server's default trust store file. The trust
+     * store is not parsed again if the content of the file has not changed since the given trust store was loaded.
+     * Should be called holding the reload lock.
      *
+     * @param trustStore trust store currently in use, or null if there is none
      * @throws Exception
      */
-    private void setupTrustManager() throws Exception {
+    private void loadTrustStore(LoadedTrustStore trustStore) throws Exception {
+
+        File trustStoreFile = new File(trustStoreLocation);
+        long modifiedTime = trustStoreFile.lastModified();
+        long length = trustStoreFile.length();
+        byte[] trustStoreContent = readTrustStoreFile(trustStoreFile);
+        byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(trustStoreContent);
+
+        if (trustStore == null || !Arrays.equals(trustStore.digest, digest)) {
+            loadedTrustStore = new LoadedTrustStore(createTrustManager(trustStoreContent), digest);
+            reloadCount.incrementAndGet();
+            if (log.isDebugEnabled()) {
+                log.debug("Loaded the trust store: " + trustStoreLocation);
+            }
+        }
+        lastModifiedTime = modifiedTime;
+        fileLength = length;
+        lastCheckedTime = System.currentTimeMillis();
+        System.setProperty(PROP_TRUST_STORE_UPDATE_REQUIRED, Boolean.FALSE.toString());
+    }
+
+    private byte[] readTrustStoreFile(File trustStoreFile) throws IOException {
+
+        return Files.readAllBytes(trustStoreFile.toPath());
+    }
+
+    private X509TrustManager createTrustManager(byte[] trustStoreContent) throws Exception {
 
         TrustManagerFactory trustManagerFactory =
                 TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
-        KeyStore clientTrustStore = null;
-        try (InputStream trustStoreInputStream = new FileInputStream(TRUST_STORE_LOCATION)) {
+        try (InputStream trustStoreInputStream = new ByteArrayInputStream(trustStoreContent)) {
 
-            clientTrustStore = KeyStore.getInstance(TRUST_STORE_TYPE);
+            KeyStore clientTrustStore = KeyStore.getInstance(trustStoreType);
             clientTrustStore.load(trustStoreInputStream, null);
             trustManagerFactory.init(clientTrustStore);
             TrustManager[] trustManagers = trustManagerFactory.getTrustManagers();
 
             for (TrustManager t : trustManagers) {
                 if (t instanceof X509TrustManager) {
-                    trustManager = (X509TrustManager) t;
-                    System.setProperty(IdentityUtil.PROP_TRUST_STORE_UPDATE_REQUIRED, Boolean.FALSE.toString());
-                    return;
+                    return (X509TrustManager) t;
                 }
             }
             throw new IdentityException("No X509TrustManager in TrustManagerFactory");
         }
     }
+
+    private static boolean isTrustStoreUpdateRequired() {
+
+        return Boolean.parseBoolean(System.getProperty(PROP_TRUST_STORE_UPDATE_REQUIRED));
+    }
+
+    private static long getConfiguredMinReloadInterval() {
+
+        String minReloadInterval = IdentityUtil.getProperty(MIN_RELOAD_INTERVAL);
+        if (StringUtils.isNotBlank(minReloadInterval)) {
+            try {
+                return Long.parseLong(minReloadInterval.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + minReloadInterval + " for " + MIN_RELOAD_INTERVAL + ". Using the " +
+                        "default value: " + DEFAULT_MIN_RELOAD_INTERVAL_IN_SECONDS);
+            }
+        }
+        return DEFAULT_MIN_RELOAD_INTERVAL_IN_SECONDS;
+    }
+
+    /**
+     * Trust manager loaded from the trust store file, along with the digest of the file content it was loaded from.
+     */
+    private static final class LoadedTrustStore {
+
+        private final X509TrustManager trustManager;
+        private final byte[] digest;
+
+        private LoadedTrustStore(X509TrustManager trustManager, byte[] digest) {
+
+            this.trustManager = trustManager;
+            this.digest = digest;
+        }
+    }
 }
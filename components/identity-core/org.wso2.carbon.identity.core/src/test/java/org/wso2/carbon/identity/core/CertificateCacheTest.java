@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.model.IdentityCacheConfig;
+import org.wso2.carbon.identity.core.model.IdentityCacheConfigKey;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+
+import java.security.cert.X509Certificate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.cache.Cache;
+import javax.cache.CacheBuilder;
+import javax.cache.CacheConfiguration;
+import javax.cache.CacheManager;
+import javax.cache.CacheManagerFactory;
+import javax.cache.Caching;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.powermock.api.mockito.PowerMockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+@PrepareForTest({Caching.class, PrivilegedCarbonContext.class, IdentityUtil.class})
+public class CertificateCacheTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = 1;
+
+    private Map<Object, Object> cachedCertificates;
+    private CacheBuilder cacheBuilder;
+
+    @BeforeMethod
+    public void setUp() {
+
+        cachedCertificates = new ConcurrentHashMap<>();
+        Cache cache = mockCache(cachedCertificates);
+        cacheBuilder = mock(CacheBuilder.class);
+        when(cacheBuilder.setExpiry(any(CacheConfiguration.ExpiryType.class), any(CacheConfiguration.Duration.class)))
+                .thenReturn(cacheBuilder);
+        when(cacheBuilder.setStoreByValue(false)).thenReturn(cacheBuilder);
+        when(cacheBuilder.build()).thenReturn(cache);
+        CacheManager cacheManager = mock(CacheManager.class);
+        when(cacheManager.createCacheBuilder(anyString())).thenReturn(cacheBuilder);
+        when(cacheManager.getCache(anyString())).thenReturn(cache);
+        CacheManagerFactory cacheManagerFactory = mock(CacheManagerFactory.class);
+        when(cacheManagerFactory.getCacheManager(anyString())).thenReturn(cacheManager);
+
+        mockStatic(Caching.class);
+        when(Caching.getCacheManagerFactory()).thenReturn(cacheManagerFactory);
+        mockStatic(PrivilegedCarbonContext.class);
+        when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(mock(PrivilegedCarbonContext.class));
+        mockStatic(IdentityUtil.class);
+    }
+
+    @Test
+    public void testGetAndHitRate() {
+
+        CertificateCache cache = new CertificateCache();
+        X509Certificate certificate = mock(X509Certificate.class);
+
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.DATABASE, "1"));
+        cache.put(TENANT_ID, CertificateCache.Type.DATABASE, "1", certificate);
+        assertSame(cache.get(TENANT_ID, CertificateCache.Type.DATABASE, "1"), certificate);
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.KEY_STORE, "1"), "Certificate of another type returned");
+        assertNull(cache.get(2, CertificateCache.Type.DATABASE, "1"), "Certificate of another tenant returned");
+
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 3);
+        assertEquals(cache.getHitRate(), 0.25);
+    }
+
+    @Test
+    public void testExpiryFromConfiguration() {
+
+        IdentityCacheConfig identityCacheConfig = new IdentityCacheConfig(new IdentityCacheConfigKey(
+                "IdentityApplicationManagementCacheManager", "CertificateCache"));
+        identityCacheConfig.setEnabled(true);
+        identityCacheConfig.setTimeout(60);
+        when(IdentityUtil.getIdentityCacheConfig(anyString(), anyString())).thenReturn(identityCacheConfig);
+
+        new CertificateCache().put(TENANT_ID, CertificateCache.Type.DATABASE, "1", mock(X509Certificate.class));
+
+        ArgumentCaptor<CacheConfiguration.Duration> duration =
+                ArgumentCaptor.forClass(CacheConfiguration.Duration.class);
+        verify(cacheBuilder).setExpiry(eq(CacheConfiguration.ExpiryType.MODIFIED), duration.capture());
+        assertEquals(duration.getValue().getTimeUnit(), TimeUnit.SECONDS);
+        assertEquals(duration.getValue().getDurationAmount(), 60);
+    }
+
+    @Test
+    public void testDisabledCache() {
+
+        IdentityCacheConfig identityCacheConfig = new IdentityCacheConfig(new IdentityCacheConfigKey(
+                "IdentityApplicationManagementCacheManager", "CertificateCache"));
+        identityCacheConfig.setEnabled(false);
+        when(IdentityUtil.getIdentityCacheConfig(anyString(), anyString())).thenReturn(identityCacheConfig);
+
+        CertificateCache cache = new CertificateCache();
+        cache.put(TENANT_ID, CertificateCache.Type.DATABASE, "1", mock(X509Certificate.class));
+
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.DATABASE, "1"));
+        assertEquals(cachedCertificates.size(), 0);
+    }
+
+    @Test
+    public void testInvalidate() {
+
+        CertificateCache cache = new CertificateCache();
+        cache.put(TENANT_ID, CertificateCache.Type.DATABASE, "1", mock(X509Certificate.class));
+        cache.put(TENANT_ID, CertificateCache.Type.KEY_STORE, "alias1", mock(X509Certificate.class));
+        cache.put(TENANT_ID, CertificateCache.Type.KEY_STORE, "alias2", mock(X509Certificate.class));
+        cache.put(2, CertificateCache.Type.KEY_STORE, "alias1", mock(X509Certificate.class));
+
+        cache.invalidate(TENANT_ID, CertificateCache.Type.DATABASE, "1");
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.DATABASE, "1"));
+
+        cache.invalidate(TENANT_ID, CertificateCache.Type.KEY_STORE);
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.KEY_STORE, "alias1"));
+        assertNull(cache.get(TENANT_ID, CertificateCache.Type.KEY_STORE, "alias2"));
+        assertEquals(cachedCertificates.size(), 1, "Certificates of another tenant are invalidated");
+    }
+
+    private static Cache mockCache(final Map<Object, Object> entries) {
+
+        Cache cache = mock(Cache.class);
+        when(cache.get(any())).thenAnswer(new Answer<Object>() {
+
+            @Override
+            public Object answer(InvocationOnMock invocation) {
+
+                return entries.get(invocation.getArguments()[0]);
+            }
+        });
+        when(cache.remove(any())).thenAnswer(new Answer<Boolean>() {
+
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+
+                return entries.remove(invocation.getArguments()[0]) != null;
+            }
+        });
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+
+                entries.put(invocation.getArguments()[0], invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(cache).put(any(), any());
+        return cache;
+    }
+}
@@ -31,6 +31,9 @@ import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import org.wso2.carbon.identity.base.IdentityException;
 import org.wso2.carbon.identity.core.IdentityRegistryResources;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCache;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCacheEntry;
+import org.wso2.carbon.identity.core.cache.SAMLSSOServiceProviderCacheKey;
 import org.wso2.carbon.identity.core.model.SAMLSSOServiceProviderDO;
 import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
 import org.wso2.carbon.identity.core.util.IdentityTenantUtil;
@@ -56,19 +59,22 @@ import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.powermock.api.mockito.PowerMockito.doAnswer;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
 /**
  * Test class for SAMLSSOServiceProviderDAO.
  */
-@PrepareForTest({Transaction.class, IdentityTenantUtil.class})
+@PrepareForTest({Transaction.class, IdentityTenantUtil.class, SAMLSSOServiceProviderCache.class})
 public class SAMLSSOServiceProviderDAOTest extends PowerMockTestCase {
 
     private SAMLSSOServiceProviderDAO objUnderTest;
@@ -79,9 +85,11 @@ public class SAMLSSOServiceProviderDAOTest extends PowerMockTestCase {
     private Map<String, List<String>> dummyBasicProperties;
     private Map<String, List<String>> dummyAdvProperties;
     private Map<String, List<String>> dummyPropertiesWithAnIssuerQualifier;
+    private Map<SAMLSSOServiceProviderCacheKey, SAMLSSOServiceProviderCacheEntry> cachedServiceProviders;
 
     @BeforeMethod
     public void setUp() throws Exception {
+        mockServiceProviderCache();
         mockStatic(Transaction.class);
         mockRegistry = mock(UserRegistry.class);
         when(Transaction.isStarted()).thenReturn(transactionStarted);
@@ -450,6 +458,76 @@ public class SAMLSSOServiceProviderDAOTest extends PowerMockTestCase {
         assertEquals(serviceProviderDO.getTenantDomain(), "test.com", "Retrieved resource's tenant domain mismatch");
     }
 
+    @Test
+    public void testGetServiceProviderFromCache() throws Exception {
+        mockTenantDomain();
+        Resource dummyResource = createDummyResource();
+        String issuer = dummyResource.getProperty(IdentityRegistryResources.PROP_SAML_SSO_ISSUER);
+        String path = getPath(issuer);
+        when(mockRegistry.resourceExists(path)).thenReturn(true);
+        when(mockRegistry.get(path)).thenReturn(dummyResource);
+
+        SAMLSSOServiceProviderDO serviceProviderDO = objUnderTest.getServiceProvider(issuer);
+        for (int i = 0; i < 1000; i++) {
+            SAMLSSOServiceProviderDO cachedServiceProviderDO =
+                    new SAMLSSOServiceProviderDAO(mockRegistry).getServiceProvider(issuer);
+            assertEquals(cachedServiceProviderDO.getIssuer(), serviceProviderDO.getIssuer());
+            assertEquals(cachedServiceProviderDO.getTenantDomain(), serviceProviderDO.getTenantDomain());
+        }
+        verify(mockRegistry, times(1)).get(path);
+
+        // Modifying a returned service provider does not modify the cached service provider.
+        SAMLSSOServiceProviderDO modifiedServiceProviderDO = objUnderTest.getServiceProvider(issuer);
+        assertNotSame(modifiedServiceProviderDO, serviceProviderDO, "Cached service provider should not be shared.");
+        modifiedServiceProviderDO.setTenantDomain("modified.com");
+        serviceProviderDO.setTenantDomain("modified.com");
+        assertEquals(objUnderTest.getServiceProvider(issuer).getTenantDomain(), "test.com");
+
+        // Service provider of the same issuer in another tenant is not shared.
+        UserRegistry otherTenantRegistry = mock(UserRegistry.class);
+        when(otherTenantRegistry.getTenantId()).thenReturn(1);
+        when(otherTenantRegistry.resourceExists(path)).thenReturn(false);
+        assertNull(new SAMLSSOServiceProviderDAO(otherTenantRegistry).getServiceProvider(issuer),
+                "Service provider of another tenant should not have been returned.");
+    }
+
+    @Test
+    public void testRemoveServiceProviderClearsCache() throws Exception {
+        mockTenantDomain();
+        Resource dummyResource = createDummyResource();
+        String issuer = dummyResource.getProperty(IdentityRegistryResources.PROP_SAML_SSO_ISSUER);
+        String path = getPath(issuer);
+        when(mockRegistry.resourceExists(path)).thenReturn(true);
+        when(mockRegistry.get(path)).thenReturn(dummyResource);
+
+        SAMLSSOServiceProviderDO serviceProviderDO = objUnderTest.getServiceProvider(issuer);
+        assertTrue(objUnderTest.removeServiceProvider(issuer));
+        assertTrue(cachedServiceProviders.isEmpty(), "Removed service provider should not remain in the cache.");
+        assertNotSame(objUnderTest.getServiceProvider(issuer), serviceProviderDO,
+                "Service provider should have been read from the registry.");
+        verify(mockRegistry, times(2)).get(path);
+    }
+
+    @Test
+    public void testAddAndUploadServiceProviderClearCache() throws Exception {
+        setUpResources();
+        Properties properties = new Properties();
+        properties.putAll(dummyBasicProperties);
+        Resource dummyResource = new ResourceImpl();
+        dummyResource.setProperties(properties);
+        SAMLSSOServiceProviderDO serviceProviderDO = objUnderTest.resourceToObject(dummyResource);
+        SAMLSSOServiceProviderCacheKey cacheKey = new SAMLSSOServiceProviderCacheKey(serviceProviderDO.getIssuer(),
+                0);
+
+        cachedServiceProviders.put(cacheKey, new SAMLSSOServiceProviderCacheEntry(new SAMLSSOServiceProviderDO()));
+        objUnderTest.addServiceProvider(serviceProviderDO);
+        assertFalse(cachedServiceProviders.containsKey(cacheKey), "Added service provider should not be cached.");
+
+        cachedServiceProviders.put(cacheKey, new SAMLSSOServiceProviderCacheEntry(new SAMLSSOServiceProviderDO()));
+        objUnderTest.uploadServiceProvider(serviceProviderDO);
+        assertFalse(cachedServiceProviders.containsKey(cacheKey), "Uploaded service provider should not be cached.");
+    }
+
     @Test
     public void testIsServiceProviderExists() throws Exception {
         String validSP = "ValidSP";
@@ -496,6 +574,43 @@ public class SAMLSSOServiceProviderDAOTest extends PowerMockTestCase {
         fail("Uploading an existing SP should have failed");
     }
 
+    private void mockServiceProviderCache() {
+        cachedServiceProviders = new HashMap<>();
+        SAMLSSOServiceProviderCache mockCache = mock(SAMLSSOServiceProviderCache.class);
+        mockStatic(SAMLSSOServiceProviderCache.class);
+        when(SAMLSSOServiceProviderCache.getInstance()).thenReturn(mockCache);
+        doAnswer(invocation -> cachedServiceProviders.get(invocation.getArguments()[0]))
+                .when(mockCache).getValueFromCache(any(SAMLSSOServiceProviderCacheKey.class));
+        doAnswer(invocation -> {
+            if (invocation.getArguments()[1] != null) {
+                cachedServiceProviders.put((SAMLSSOServiceProviderCacheKey) invocation.getArguments()[0],
+                        (SAMLSSOServiceProviderCacheEntry) invocation.getArguments()[1]);
+            }
+            return null;
+        }).when(mockCache).addToCache(any(SAMLSSOServiceProviderCacheKey.class),
+                any(SAMLSSOServiceProviderCacheEntry.class));
+        doAnswer(invocation -> cachedServiceProviders.remove(invocation.getArguments()[0]))
+                .when(mockCache).clearCacheEntry(any(SAMLSSOServiceProviderCacheKey.class));
+    }
+
+    private void mockTenantDomain() throws Exception {
+        mockStatic(IdentityTenantUtil.class);
+        RealmService mockRealmService = mock(RealmService.class);
+        TenantManager mockTenantManager = mock(TenantManager.class);
+        when(IdentityTenantUtil.getRealmService()).thenReturn(mockRealmService);
+        when(mockRealmService.getTenantManager()).thenReturn(mockTenantManager);
+        when(mockTenantManager.getDomain(anyInt())).thenReturn("test.com");
+    }
+
+    private Resource createDummyResource() throws Exception {
+        setUpResources();
+        Properties dummyResourceProperties = new Properties();
+        dummyResourceProperties.putAll(dummyBasicProperties);
+        Resource dummyResource = new ResourceImpl();
+        dummyResource.setProperties(dummyResourceProperties);
+        return dummyResource;
+    }
+
     private String getPath(String path) {
         String encodedStr = new String(Base64.encodeBase64(path.getBytes()));
         return IdentityRegistryResources.SAML_SSO_SERVICE_PROVIDERS + encodedStr.replace("=", "");
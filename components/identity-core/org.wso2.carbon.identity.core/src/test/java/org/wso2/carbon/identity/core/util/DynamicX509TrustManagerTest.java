@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.core.util;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.KeyStore;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.fail;
+import static org.wso2.carbon.identity.core.util.IdentityUtil.PROP_TRUST_STORE_UPDATE_REQUIRED;
+
+public class DynamicX509TrustManagerTest {
+
+    private static final Log log = LogFactory.getLog(DynamicX509TrustManagerTest.class);
+    private static final String TRUST_STORE_TYPE = "JKS";
+    private static final String TRUST_STORE_PASSWORD = "wso2carbon";
+    private static final String AUTH_TYPE = "RSA";
+    private static final int THREAD_COUNT = 8;
+    private static final int CHECKS_PER_THREAD = 500;
+
+    private Path trustStorePath;
+    private X509Certificate[] trustedChain;
+    private X509Certificate[] untrustedChain;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        trustStorePath = Files.createTempFile("client-truststore", ".jks");
+        Files.copy(getTrustStore("client-truststore.jks"), trustStorePath, StandardCopyOption.REPLACE_EXISTING);
+
+        KeyStore updatedTrustStore = KeyStore.getInstance(TRUST_STORE_TYPE);
+        try (InputStream inputStream = Files.newInputStream(getTrustStore("updated-client-truststore.jks"))) {
+            updatedTrustStore.load(inputStream, TRUST_STORE_PASSWORD.toCharArray());
+        }
+        trustedChain = new X509Certificate[]{(X509Certificate) updatedTrustStore.getCertificate("trusted")};
+        untrustedChain = new X509Certificate[]{(X509Certificate) updatedTrustStore.getCertificate("untrusted")};
+        System.setProperty(PROP_TRUST_STORE_UPDATE_REQUIRED, Boolean.FALSE.toString());
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        Files.deleteIfExists(trustStorePath);
+        System.clearProperty(PROP_TRUST_STORE_UPDATE_REQUIRED);
+    }
+
+    @Test
+    public void testConcurrentUntrustedChecksDoNotReloadUnchangedTrustStore() throws Exception {
+
+        DynamicX509TrustManager trustManager = createTrustManager(0);
+        trustManager.checkServerTrusted(trustedChain, AUTH_TYPE);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREAD_COUNT; i++) {
+                results.add(executorService.submit(() -> {
+                    startLatch.await();
+                    int failedChecks = 0;
+                    for (int j = 0; j < CHECKS_PER_THREAD; j++) {
+                        try {
+                            trustManager.checkServerTrusted(untrustedChain, AUTH_TYPE);
+                        } catch (CertificateException e) {
+                            failedChecks++;
+                        }
+                    }
+                    return failedChecks;
+                }));
+            }
+            long startTime = System.nanoTime();
+            startLatch.countDown();
+            int failedChecks = 0;
+            for (Future<Integer> result : results) {
+                failedChecks += result.get(60, TimeUnit.SECONDS);
+            }
+            long elapsedTime = System.nanoTime() - startTime;
+            log.info("Failed certificate checks per second: " +
+                    (failedChecks * TimeUnit.SECONDS.toNanos(1) / Math.max(elapsedTime, 1)));
+
+            assertEquals(failedChecks, THREAD_COUNT * CHECKS_PER_THREAD);
+            assertEquals(trustManager.getReloadCount(), 1, "Unchanged trust store was reloaded");
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testTrustStoreWithSameContentIsNotReloaded() throws Exception {
+
+        DynamicX509TrustManager trustManager = createTrustManager(0);
+        trustStorePath.toFile().setLastModified(trustStorePath.toFile().lastModified() + 10000);
+
+        assertUntrusted(trustManager);
+        assertEquals(trustManager.getReloadCount(), 1, "Trust store with the same content was reloaded");
+    }
+
+    @Test
+    public void testChangedTrustStoreIsReloadedOnFailedCheck() throws Exception {
+
+        DynamicX509TrustManager trustManager = createTrustManager(0);
+        assertUntrusted(trustManager);
+
+        updateTrustStore();
+        trustManager.checkServerTrusted(untrustedChain, AUTH_TYPE);
+        assertEquals(trustManager.getReloadCount(), 2);
+    }
+
+    @Test
+    public void testChangedTrustStoreIsNotReloadedWithinMinReloadInterval() throws Exception {
+
+        DynamicX509TrustManager trustManager = createTrustManager(TimeUnit.HOURS.toMillis(1));
+
+        updateTrustStore();
+        assertUntrusted(trustManager);
+        assertEquals(trustManager.getReloadCount(), 1, "Trust store was reloaded within the minimum interval");
+    }
+
+    @Test
+    public void testUpdateFlagForcesReload() throws Exception {
+
+        DynamicX509TrustManager trustManager = createTrustManager(TimeUnit.HOURS.toMillis(1));
+
+        updateTrustStore();
+        System.setProperty(PROP_TRUST_STORE_UPDATE_REQUIRED, Boolean.TRUE.toString());
+        trustManager.checkServerTrusted(untrustedChain, AUTH_TYPE);
+
+        assertEquals(trustManager.getReloadCount(), 2);
+        assertFalse(Boolean.parseBoolean(System.getProperty(PROP_TRUST_STORE_UPDATE_REQUIRED)),
+                "Trust store update flag was not reset");
+    }
+
+    private DynamicX509TrustManager createTrustManager(long minReloadIntervalInMillis) throws Exception {
+
+        DynamicX509TrustManager trustManager = new DynamicX509TrustManager(trustStorePath.toString(),
+                TRUST_STORE_TYPE, minReloadIntervalInMillis);
+        assertEquals(trustManager.getReloadCount(), 1);
+        return trustManager;
+    }
+
+    private void updateTrustStore() throws Exception {
+
+        Files.copy(getTrustStore("updated-client-truststore.jks"), trustStorePath,
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void assertUntrusted(DynamicX509TrustManager trustManager) {
+
+        try {
+            trustManager.checkServerTrusted(untrustedChain, AUTH_TYPE);
+            fail("Untrusted certificate was accepted");
+        } catch (CertificateException e) {
+            // Expected.
+        }
+    }
+
+    private Path getTrustStore(String fileName) {
+
+        return Paths.get(System.getProperty("user.dir"), "src", "test", "resources", "truststores", fileName);
+    }
+}
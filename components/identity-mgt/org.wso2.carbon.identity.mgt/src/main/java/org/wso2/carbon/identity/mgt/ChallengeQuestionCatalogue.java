@@ -0,0 +1,378 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.mgt.cache.ChallengeQuestionCache;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
+import org.wso2.carbon.identity.mgt.dto.ChallengeQuestionDTO;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Tenant wise catalogue of the challenge questions stored in the registry.
+ * <p>
+ * The questions of a tenant are read into an immutable snapshot, indexed by the question set id, which is kept in the
+ * {@link ChallengeQuestionCache} and served to the readers without locking. The snapshot is replaced, and invalidated
+ * across the cluster, when the questions are written through
+ * {@link #setQuestions(Registry, int, ChallengeQuestionDTO[])}, and it expires with the cache timeout otherwise. The
+ * write only touches the question resources which have changed.
+ * <p>
+ * The questions of a tenant are read and written holding a lock of the tenant, so a slow registry of one tenant does
+ * not hold back the other tenants.
+ */
+public class ChallengeQuestionCatalogue {
+
+    private static final Log log = LogFactory.getLog(ChallengeQuestionCatalogue.class);
+
+    private static final String QUESTION = "question";
+    private static final String IS_PROMOTE_QUESTION = "isPromoteQuestion";
+    private static final String QUESTION_SET_ID = "questionSetId";
+
+    private static final ChallengeQuestionCatalogue instance = new ChallengeQuestionCatalogue();
+
+    private final ConcurrentMap<Integer, Object> tenantLocks = new ConcurrentHashMap<>();
+    // Held for reading while the questions of a tenant are read or written, and for writing while all the snapshots
+    // are invalidated, so a snapshot read before the invalidation is not cached after it.
+    private final ReadWriteLock invalidationLock = new ReentrantReadWriteLock();
+
+    ChallengeQuestionCatalogue() {
+    }
+
+    public static ChallengeQuestionCatalogue getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the challenge questions of the tenant.
+     *
+     * @param registry config system registry of the tenant
+     * @param tenantId tenant id
+     * @return challenge questions in the stored order
+     * @throws RegistryException if the questions cannot be read
+     */
+    public List<ChallengeQuestionDTO> getQuestions(Registry registry, int tenantId) throws RegistryException {
+
+        return toDTOs(getSnapshot(registry, tenantId).questions.values());
+    }
+
+    /**
+     * Get the challenge questions of a question set of the tenant.
+     *
+     * @param registry      config system registry of the tenant
+     * @param tenantId      tenant id
+     * @param questionSetId question set id
+     * @return challenge questions of the set in the stored order
+     * @throws RegistryException if the questions cannot be read
+     */
+    public List<ChallengeQuestionDTO> getQuestions(Registry registry, int tenantId, String questionSetId)
+            throws RegistryException {
+
+        Snapshot snapshot = getSnapshot(registry, tenantId);
+        return getQuestionSet(snapshot, questionSetId);
+    }
+
+    /**
+     * Get the challenge questions of a question set of the tenant as they are currently stored in the registry, rather
+     * than from the cached snapshot. This should be used when the questions are validated before they are persisted.
+     *
+     * @param registry      config system registry of the tenant
+     * @param tenantId      tenant id
+     * @param questionSetId question set id
+     * @return challenge questions of the set in the stored order
+     * @throws RegistryException if the questions cannot be read
+     */
+    public List<ChallengeQuestionDTO> getStoredQuestions(Registry registry, int tenantId, String questionSetId)
+            throws RegistryException {
+
+        invalidationLock.readLock().lock();
+        try {
+            synchronized (getTenantLock(tenantId)) {
+                return getQuestionSet(loadSnapshot(registry, tenantId), questionSetId);
+            }
+        } finally {
+            invalidationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the challenge questions of the tenant. Only the question resources which differ from the stored ones are
+     * written, and stored questions beyond the given ones are deleted.
+     *
+     * @param registry     config system registry of the tenant
+     * @param tenantId     tenant id
+     * @param questionDTOs challenge questions
+     * @throws RegistryException if the questions cannot be written
+     */
+    public void setQuestions(Registry registry, int tenantId, ChallengeQuestionDTO[] questionDTOs)
+            throws RegistryException {
+
+        invalidationLock.readLock().lock();
+        try {
+            synchronized (getTenantLock(tenantId)) {
+                writeQuestions(registry, tenantId, questionDTOs);
+            }
+        } finally {
+            invalidationLock.readLock().unlock();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Challenge questions of tenant: " + tenantId + " are updated");
+        }
+    }
+
+    /**
+     * Invalidate the snapshots of all the tenants, so the questions are read again from the registry.
+     */
+    public void invalidateAll() {
+
+        invalidationLock.writeLock().lock();
+        try {
+            ChallengeQuestionCache.getInstance().clear();
+        } finally {
+            invalidationLock.writeLock().unlock();
+        }
+    }
+
+    private void writeQuestions(Registry registry, int tenantId, ChallengeQuestionDTO[] questionDTOs)
+            throws RegistryException {
+
+        Map<String, Question> questions = null;
+        try {
+            // Compare with the stored questions rather than the snapshot, as they may have been changed by another
+            // node.
+            Map<String, Question> storedQuestions = null;
+            if (registry.resourceExists(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS)) {
+                storedQuestions = readQuestions(registry);
+            }
+            if (storedQuestions == null) {
+                registry.put(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS, registry.newCollection());
+                storedQuestions = Collections.emptyMap();
+            }
+
+            Map<String, Question> writtenQuestions = new LinkedHashMap<>();
+            for (int i = 0; i < questionDTOs.length; i++) {
+                Question question = new Question(questionDTOs[i].getQuestion(),
+                        String.valueOf(questionDTOs[i].isPromoteQuestion()), questionDTOs[i].getQuestionSetId());
+                String name = QUESTION + i;
+                writtenQuestions.put(name, question);
+                if (!question.equals(storedQuestions.get(name))) {
+                    Resource resource = registry.newResource();
+                    resource.addProperty(QUESTION, question.question);
+                    resource.addProperty(IS_PROMOTE_QUESTION, question.promoteQuestion);
+                    resource.addProperty(QUESTION_SET_ID, question.questionSetId);
+                    registry.put(getQuestionPath(name), resource);
+                }
+            }
+            for (String name : storedQuestions.keySet()) {
+                if (!writtenQuestions.containsKey(name)) {
+                    registry.delete(getQuestionPath(name));
+                }
+            }
+            questions = writtenQuestions;
+        } finally {
+            // The snapshot is invalidated on the other nodes as well, and even when the questions have only been
+            // partially written.
+            ChallengeQuestionCache.getInstance().clearCacheEntry(tenantId);
+            if (questions != null) {
+                ChallengeQuestionCache.getInstance().addToCache(tenantId, new Snapshot(questions));
+            }
+        }
+    }
+
+    private Snapshot getSnapshot(Registry registry, int tenantId) throws RegistryException {
+
+        Snapshot snapshot = ChallengeQuestionCache.getInstance().getValueFromCache(tenantId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        invalidationLock.readLock().lock();
+        try {
+            synchronized (getTenantLock(tenantId)) {
+                // The snapshot may have been loaded while waiting for the lock.
+                snapshot = ChallengeQuestionCache.getInstance().getValueFromCache(tenantId);
+                if (snapshot != null) {
+                    return snapshot;
+                }
+                return loadSnapshot(registry, tenantId);
+            }
+        } finally {
+            invalidationLock.readLock().unlock();
+        }
+    }
+
+    private Object getTenantLock(int tenantId) {
+
+        return tenantLocks.computeIfAbsent(tenantId, key -> new Object());
+    }
+
+    /**
+     * Read the questions of the tenant from the registry and cache them. Should be called holding the lock of the
+     * tenant, so a write of this node is never read half way through, nor cached after it has been replaced.
+     */
+    private Snapshot loadSnapshot(Registry registry, int tenantId) throws RegistryException {
+
+        Map<String, Question> questions = null;
+        if (registry.resourceExists(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS)) {
+            questions = readQuestions(registry);
+        }
+        Snapshot snapshot = new Snapshot(questions != null ? questions : Collections.<String, Question>emptyMap());
+        ChallengeQuestionCache.getInstance().addToCache(tenantId, snapshot);
+        return snapshot;
+    }
+
+    private static List<ChallengeQuestionDTO> getQuestionSet(Snapshot snapshot, String questionSetId) {
+
+        List<Question> questions = snapshot.questionSets.get(questionSetId);
+        return toDTOs(questions != null ? questions : Collections.<Question>emptyList());
+    }
+
+    private Map<String, Question> readQuestions(Registry registry) throws RegistryException {
+
+        Resource questionCollection = registry.get(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS);
+        if (!(questionCollection instanceof Collection)) {
+            return null;
+        }
+        Map<String, Question> questions = new LinkedHashMap<>();
+        for (String child : ((Collection) questionCollection).getChildren()) {
+            Resource resource = registry.get(child);
+            String question = resource.getProperty(QUESTION);
+            if (question != null) {
+                questions.put(getName(child), new Question(question, resource.getProperty(IS_PROMOTE_QUESTION),
+                        resource.getProperty(QUESTION_SET_ID)));
+            }
+        }
+        return questions;
+    }
+
+    private static List<ChallengeQuestionDTO> toDTOs(Iterable<Question> questions) {
+
+        // DTOs are mutable, so each caller gets its own copies.
+        List<ChallengeQuestionDTO> questionDTOs = new ArrayList<>();
+        for (Question question : questions) {
+            ChallengeQuestionDTO questionDTO = new ChallengeQuestionDTO();
+            questionDTO.setQuestion(question.question);
+            if (question.questionSetId != null) {
+                questionDTO.setQuestionSetId(question.questionSetId);
+            }
+            // Stored questions have always been listed as not promoted.
+            questionDTO.setPromoteQuestion(false);
+            questionDTOs.add(questionDTO);
+        }
+        return questionDTOs;
+    }
+
+    private static String getQuestionPath(String name) {
+
+        return IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS + RegistryConstants.PATH_SEPARATOR + name;
+    }
+
+    private static String getName(String path) {
+
+        return StringUtils.substringAfterLast(StringUtils.removeEnd(path, RegistryConstants.PATH_SEPARATOR),
+                RegistryConstants.PATH_SEPARATOR);
+    }
+
+    /**
+     * Immutable view of the challenge questions of a tenant.
+     */
+    public static final class Snapshot implements Serializable {
+
+        private static final long serialVersionUID = 4180745392117026458L;
+
+        // Questions by the name of their resource, in the stored order.
+        private final Map<String, Question> questions;
+        private final Map<String, List<Question>> questionSets;
+
+        private Snapshot(Map<String, Question> questions) {
+
+            Map<String, List<Question>> questionSets = new LinkedHashMap<>();
+            for (Question question : questions.values()) {
+                if (question.questionSetId != null) {
+                    List<Question> questionSet = questionSets.get(question.questionSetId);
+                    if (questionSet == null) {
+                        questionSet = new ArrayList<>();
+                        questionSets.put(question.questionSetId, questionSet);
+                    }
+                    questionSet.add(question);
+                }
+            }
+            for (Map.Entry<String, List<Question>> questionSet : questionSets.entrySet()) {
+                questionSet.setValue(Collections.unmodifiableList(questionSet.getValue()));
+            }
+            this.questions = Collections.unmodifiableMap(new LinkedHashMap<>(questions));
+            this.questionSets = Collections.unmodifiableMap(questionSets);
+        }
+    }
+
+    /**
+     * A stored challenge question.
+     */
+    private static final class Question implements Serializable {
+
+        private static final long serialVersionUID = -2519471361848103457L;
+
+        private final String question;
+        private final String promoteQuestion;
+        private final String questionSetId;
+
+        private Question(String question, String promoteQuestion, String questionSetId) {
+            this.question = question;
+            this.promoteQuestion = promoteQuestion;
+            this.questionSetId = questionSetId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Question)) {
+                return false;
+            }
+            Question other = (Question) o;
+            return StringUtils.equals(question, other.question)
+                    && StringUtils.equals(promoteQuestion, other.promoteQuestion)
+                    && StringUtils.equals(questionSetId, other.questionSetId);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return (question != null ? question.hashCode() : 0) * 31 +
+                    (questionSetId != null ? questionSetId.hashCode() : 0);
+        }
+    }
+}
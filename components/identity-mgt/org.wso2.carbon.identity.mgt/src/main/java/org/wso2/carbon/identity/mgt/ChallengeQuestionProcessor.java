@@ -32,7 +32,6 @@ import org.wso2.carbon.identity.mgt.internal.IdentityMgtServiceComponent;
 import org.wso2.carbon.identity.mgt.util.Utils;
 import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
-import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.registry.core.Resource;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.user.core.UserCoreConstants;
@@ -57,39 +56,52 @@ public class ChallengeQuestionProcessor {
      */
     public List<ChallengeQuestionDTO> getAllChallengeQuestions() throws IdentityException {
 
-        List<ChallengeQuestionDTO> questionDTOs = new ArrayList<ChallengeQuestionDTO>();
         try {
             int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
             Registry registry = IdentityMgtServiceComponent.getRegistryService().
                     getConfigSystemRegistry(tenantId);
-            if (registry.resourceExists(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS)) {
-                Collection collection = (Collection) registry.
-                        get(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS);
-                String[] children = collection.getChildren();
-                for (String child : children) {
-                    Resource resource = registry.get(child);
-                    String question = resource.getProperty("question");
-                    String isPromoteQuestion = resource.getProperty("isPromoteQuestion");
-                    String questionSetId = resource.getProperty("questionSetId");
-                    if (question != null) {
-                        ChallengeQuestionDTO questionDTO = new ChallengeQuestionDTO();
-                        questionDTO.setQuestion(question);
-                        if (isPromoteQuestion != null) {
-                            questionDTO.setPromoteQuestion(Boolean.parseBoolean(isPromoteQuestion));
-                        }
-                        if (questionSetId != null) {
-                            questionDTO.setQuestionSetId(questionSetId);
-                        }
-                        questionDTO.setPromoteQuestion(false);
-                        questionDTOs.add(questionDTO);
-                    }
-                }
+            return ChallengeQuestionCatalogue.getInstance().getQuestions(registry, tenantId);
+        } catch (RegistryException e) {
+            throw IdentityException.error(e.getMessage(), e);
+        }
+    }
 
-            }
+    /**
+     * Get the challenge questions of a question set.
+     *
+     * @param questionSetId question set id
+     * @return challenge questions of the question set
+     * @throws IdentityException
+     */
+    public List<ChallengeQuestionDTO> getChallengeQuestions(String questionSetId) throws IdentityException {
+
+        try {
+            int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+            Registry registry = IdentityMgtServiceComponent.getRegistryService().
+                    getConfigSystemRegistry(tenantId);
+            return ChallengeQuestionCatalogue.getInstance().getQuestions(registry, tenantId, questionSetId);
+        } catch (RegistryException e) {
+            throw IdentityException.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Get the challenge questions of a question set as they are currently stored, bypassing the cached questions.
+     *
+     * @param questionSetId question set id
+     * @return challenge questions of the question set
+     * @throws IdentityException
+     */
+    public List<ChallengeQuestionDTO> getStoredChallengeQuestions(String questionSetId) throws IdentityException {
+
+        try {
+            int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+            Registry registry = IdentityMgtServiceComponent.getRegistryService().
+                    getConfigSystemRegistry(tenantId);
+            return ChallengeQuestionCatalogue.getInstance().getStoredQuestions(registry, tenantId, questionSetId);
         } catch (RegistryException e) {
             throw IdentityException.error(e.getMessage(), e);
         }
-        return questionDTOs;
     }
 
     /**
@@ -108,23 +120,7 @@ public class ChallengeQuestionProcessor {
             }
             Resource identityMgtResource = registry.get(IdentityMgtConstants.IDENTITY_MANAGEMENT_PATH);
             if (identityMgtResource != null) {
-                String questionCollectionPath = IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS;
-                if (registry.resourceExists(questionCollectionPath)) {
-                    registry.delete(questionCollectionPath);
-                }
-
-                Collection questionCollection = registry.newCollection();
-                registry.put(questionCollectionPath, questionCollection);
-
-                for (int i = 0; i < questionDTOs.length; i++) {
-                    Resource resource = registry.newResource();
-                    resource.addProperty("question", questionDTOs[i].getQuestion());
-                    resource.addProperty("isPromoteQuestion", String.valueOf(questionDTOs[i].isPromoteQuestion()));
-                    resource.addProperty("questionSetId", questionDTOs[i].getQuestionSetId());
-                    registry.put(IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS +
-                            RegistryConstants.PATH_SEPARATOR + "question" + i +
-                            RegistryConstants.PATH_SEPARATOR, resource);
-                }
+                ChallengeQuestionCatalogue.getInstance().setQuestions(registry, tenantId, questionDTOs);
             }
         } catch (RegistryException e) {
             throw IdentityException.error("Error while setting challenge question.", e);
@@ -104,6 +104,10 @@ public class IdentityMgtConfig {
 
     private long registryCleanUpPeriod;
 
+    private int registryCleanUpBatchSize = 100;
+
+    private int registryCleanUpRateLimit = 100;
+
     /*
      * Define the pattern of the configuration file. Assume following
      * pattern in config.
@@ -373,6 +377,18 @@ public class IdentityMgtConfig {
                 this.registryCleanUpPeriod = Long.parseLong(registryCleanUpPeriod);
             }
 
+            String registryCleanUpBatchSize = properties.getProperty(IdentityMgtConstants.PropertyConfig
+                    .REGISTRY_CLEANUP_BATCH_SIZE);
+            if (NumberUtils.isDigits(registryCleanUpBatchSize) && Integer.parseInt(registryCleanUpBatchSize) > 0) {
+                this.registryCleanUpBatchSize = Integer.parseInt(registryCleanUpBatchSize);
+            }
+
+            String registryCleanUpRateLimit = properties.getProperty(IdentityMgtConstants.PropertyConfig
+                    .REGISTRY_CLEANUP_RATE_LIMIT);
+            if (NumberUtils.isDigits(registryCleanUpRateLimit)) {
+                this.registryCleanUpRateLimit = Integer.parseInt(registryCleanUpRateLimit);
+            }
+
             String tempNotificationSendingThreadPoolSize = properties
                     .getProperty(IdentityMgtConstants.PropertyConfig.NOTIFICATION_SENDING_THREAD_POOL_SIZE);
 
@@ -616,6 +632,20 @@ public class IdentityMgtConfig {
         return registryCleanUpPeriod;
     }
 
+    /**
+     * @return maximum number of expired recovery data entries deleted in a single registry transaction
+     */
+    public int getRegistryCleanUpBatchSize() {
+        return registryCleanUpBatchSize;
+    }
+
+    /**
+     * @return maximum number of expired recovery data entries deleted per second, or 0 if not limited
+     */
+    public int getRegistryCleanUpRateLimit() {
+        return registryCleanUpRateLimit;
+    }
+
     /**
      * This method is used to load the policies declared in the configuration.
      *
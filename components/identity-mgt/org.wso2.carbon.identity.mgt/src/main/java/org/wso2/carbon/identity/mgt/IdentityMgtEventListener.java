@@ -215,7 +215,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
 
                         // If unlock time is specified then unlock the account.
                         if ((userIdentityDTO.getUnlockTime() != 0) && (System.currentTimeMillis() >= userIdentityDTO.getUnlockTime())) {
-                            userIdentityDTO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
+                            userIdentityDTO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
                             userIdentityDTO.setAccountLock(false);
                             userIdentityDTO.setUnlockTime(0);
 
@@ -447,7 +447,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                             if (log.isDebugEnabled()) {
                                 log.debug("Username :" + userName + "Exceeded the maximum login attempts. User locked, ErrorCode :" + UserCoreConstants.ErrorCode.USER_IS_LOCKED);
                             }
-                            userIdentityDTO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
+                            userIdentityDTO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
                                     IdentityMgtConstants.LockedReason.MAX_ATTEMTS_EXCEEDED.toString());
                             userIdentityDTO.setAccountLock(true);
                             userIdentityDTO.setFailAttempts(0);
@@ -484,7 +484,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                     // if the account was locked due to account verification process,
                     // the unlock the account and reset the number of failedAttempts
                     if (userIdentityDTO.isAccountLocked() || userIdentityDTO.getFailAttempts() > 0 || userIdentityDTO.getAccountLock()) {
-                        userIdentityDTO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
+                        userIdentityDTO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
                         userIdentityDTO.setAccountLock(false);
                         userIdentityDTO.setFailAttempts(0);
                         userIdentityDTO.setUnlockTime(0);
@@ -630,7 +630,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                     }
 
                     // store identity data
-                    userIdentityClaimsDO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
+                    userIdentityClaimsDO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON, "");
                     userIdentityClaimsDO.setAccountLock(false);
                     try {
                         module.store(userIdentityClaimsDO, userStoreManager);
@@ -669,7 +669,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                 // No account recoveries are defined, no email will be sent.
                 if (config.isAuthPolicyAccountLockOnCreation()) {
                     // accounts are locked. Admin should unlock
-                    userIdentityClaimsDO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
+                    userIdentityClaimsDO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
                             IdentityMgtConstants.LockedReason.UNVERIFIED.toString());
                     userIdentityClaimsDO.setAccountLock(true);
                     try {
@@ -981,7 +981,7 @@ public class IdentityMgtEventListener extends AbstractIdentityUserOperationEvent
                         String value = claim.getValue();
                         if (UserIdentityDataStore.ACCOUNT_LOCK.equals(key) && (Boolean.TRUE.toString()).
                                 equalsIgnoreCase(value)) {
-                            identityDTO.getUserDataMap().put(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
+                            identityDTO.setUserIdentityDataClaim(UserIdentityDataStore.ACCOUNT_LOCKED_REASON,
                                     IdentityMgtConstants.LockedReason.ADMIN_INITIATED.toString());
                         }
 
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.cache;
+
+import org.wso2.carbon.identity.mgt.ChallengeQuestionCatalogue;
+
+/**
+ * Cache of the challenge question snapshots of the tenants read by {@link ChallengeQuestionCatalogue}, keyed by the
+ * tenant id.
+ */
+public class ChallengeQuestionCache extends BaseCache<Integer, ChallengeQuestionCatalogue.Snapshot> {
+
+    private static final String CHALLENGE_QUESTION_CACHE_NAME = "ChallengeQuestionCache";
+    private static volatile ChallengeQuestionCache instance;
+
+    private ChallengeQuestionCache() {
+
+        super(CHALLENGE_QUESTION_CACHE_NAME);
+    }
+
+    public static ChallengeQuestionCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ChallengeQuestionCache.class) {
+                if (instance == null) {
+                    instance = new ChallengeQuestionCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
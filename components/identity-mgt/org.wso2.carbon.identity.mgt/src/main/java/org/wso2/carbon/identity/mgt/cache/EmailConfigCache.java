@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.cache;
+
+import java.util.Properties;
+
+/**
+ * Cache of the email configurations of the tenants loaded by {@link org.wso2.carbon.identity.mgt.config.ConfigBuilder},
+ * keyed by the tenant id. The cached properties are shared, so they should be copied before they are modified.
+ */
+public class EmailConfigCache extends BaseCache<Integer, Properties> {
+
+    private static final String EMAIL_CONFIG_CACHE_NAME = "EmailConfigCache";
+    private static volatile EmailConfigCache instance;
+
+    private EmailConfigCache() {
+
+        super(EMAIL_CONFIG_CACHE_NAME);
+    }
+
+    public static EmailConfigCache getInstance() {
+
+        if (instance == null) {
+            synchronized (EmailConfigCache.class) {
+                if (instance == null) {
+                    instance = new EmailConfigCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
@@ -23,6 +23,7 @@ import org.apache.axiom.om.impl.builder.StAXOMBuilder;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.mgt.IdentityMgtConfigException;
+import org.wso2.carbon.identity.mgt.cache.EmailConfigCache;
 import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
 import org.wso2.carbon.utils.CarbonUtils;
 
@@ -36,19 +37,27 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Iterator;
+import java.util.Properties;
 
 /**
  * This Singleton is used to load and save tenant specific configurations.
+ * <p>
+ * Loaded email configurations are cached per tenant in the {@link EmailConfigCache}, since they are read on every
+ * notification. The cached configuration of a tenant is invalidated when it is saved through this class, and all
+ * cached configurations are invalidated by {@link ConfigRegistryHandler} when the configuration resources are changed
+ * in the registry. Invalidations are propagated to the other nodes of the cluster by the cache.
  */
 public class ConfigBuilder {
 
     private static final String EMAIL_TEMPLATE_PATH = "identity/config/emailTemplate";
     private static final Log log = LogFactory.getLog(ConfigBuilder.class);
     private static ConfigBuilder instance = null;
-    private ConfigManager cm = null;
+    private final Object cacheLock = new Object();
+    // Incremented on every invalidation, so a configuration read before an invalidation is not cached after it.
+    // Guarded by the cache lock.
+    private long cacheVersion;
 
     private ConfigBuilder() {
-        cm = new ConfigManagerImpl();
     }
 
     public static ConfigBuilder getInstance() {
@@ -73,16 +82,35 @@ public class ConfigBuilder {
 
         switch (stype) {
             case REGISTRY:
-                cm.setReader(new RegistryConfigReader());
-
                 switch (configType) {
                     case EMAIL:
+                        Properties cachedProperties = EmailConfigCache.getInstance().getValueFromCache(tenantId);
+                        if (cachedProperties != null) {
+                            if (log.isDebugEnabled()) {
+                                log.debug("Email configuration of tenant: " + tenantId + " is loaded from the cache");
+                            }
+                            // Callers may modify the returned configuration.
+                            config = createEmailConfig(cachedProperties);
+                            break;
+                        }
+                        long version;
+                        synchronized (cacheLock) {
+                            version = cacheVersion;
+                        }
+                        ConfigManager cm = new ConfigManagerImpl();
+                        cm.setReader(new RegistryConfigReader());
                         cm.setConfig(new EmailNotificationConfig());
                         cm.setResourcePath(EMAIL_TEMPLATE_PATH);
                         config = cm.loadConfig(tenantId);
                         if (config == null) {
                             config = loadEmailConfigFile();
                         }
+                        synchronized (cacheLock) {
+                            if (version == cacheVersion) {
+                                EmailConfigCache.getInstance().addToCache(tenantId,
+                                        createEmailConfig(config.getProperties()).getProperties());
+                            }
+                        }
                         break;
                     case CREDENTIALMGT:
                         break;
@@ -101,6 +129,30 @@ public class ConfigBuilder {
         return config;
     }
 
+    /**
+     * Invalidates the cached configurations of the tenant, so they are read again on the next load.
+     *
+     * @param tenantId tenant id
+     */
+    public void invalidateConfiguration(int tenantId) {
+
+        synchronized (cacheLock) {
+            cacheVersion++;
+            EmailConfigCache.getInstance().clearCacheEntry(tenantId);
+        }
+    }
+
+    /**
+     * Invalidates the cached configurations of all the tenants.
+     */
+    public void invalidateAllConfigurations() {
+
+        synchronized (cacheLock) {
+            cacheVersion++;
+            EmailConfigCache.getInstance().clear();
+        }
+    }
+
     /**
      * Save the tenant specific configuration.
      *
@@ -113,11 +165,16 @@ public class ConfigBuilder {
 
         switch (stype) {
             case REGISTRY:
-                cm.setWriter(new RegistryConfigWriter());
                 if (config instanceof EmailNotificationConfig) {
+                    ConfigManager cm = new ConfigManagerImpl();
+                    cm.setWriter(new RegistryConfigWriter());
                     cm.setConfig(new EmailNotificationConfig());
                     cm.setResourcePath(EMAIL_TEMPLATE_PATH);
-                    cm.saveConfig(config, tenantId);
+                    try {
+                        cm.saveConfig(config, tenantId);
+                    } finally {
+                        invalidateConfiguration(tenantId);
+                    }
                 } else {
                     throw new IdentityMgtConfigException("Configuration type not supported");
                 }
@@ -187,6 +244,15 @@ public class ConfigBuilder {
     }
 
 
+    private Config createEmailConfig(Properties properties) {
+
+        Config config = new EmailNotificationConfig();
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        config.setProperties(copy);
+        return config;
+    }
+
     private String loadEmailConfig(OMElement configElement) {
         StringBuilder emailTemplate = new StringBuilder();
         Iterator it = configElement.getChildElements();
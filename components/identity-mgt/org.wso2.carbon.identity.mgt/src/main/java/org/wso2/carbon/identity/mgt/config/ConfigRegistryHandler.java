@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.config;
+
+import org.wso2.carbon.identity.mgt.ChallengeQuestionCatalogue;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.jdbc.handlers.Handler;
+import org.wso2.carbon.registry.core.jdbc.handlers.RequestContext;
+
+/**
+ * Registry handler which invalidates the configurations cached by {@link ConfigBuilder} and the challenge questions
+ * cached by {@link ChallengeQuestionCatalogue} when they are changed directly in the registry. It is engaged by the
+ * identity management service component on the email template and the challenge question collection paths.
+ */
+public class ConfigRegistryHandler extends Handler {
+
+    @Override
+    public void put(RequestContext requestContext) throws RegistryException {
+
+        super.put(requestContext);
+        ConfigBuilder.getInstance().invalidateAllConfigurations();
+        ChallengeQuestionCatalogue.getInstance().invalidateAll();
+    }
+
+    @Override
+    public void delete(RequestContext requestContext) throws RegistryException {
+
+        super.delete(requestContext);
+        ConfigBuilder.getInstance().invalidateAllConfigurations();
+        ChallengeQuestionCatalogue.getInstance().invalidateAll();
+    }
+}
@@ -30,6 +30,8 @@ public class IdentityMgtConstants {
 
     public static final String IDENTITY_MANAGEMENT_DATA = IDENTITY_MANAGEMENT_PATH + "/data";
 
+    public static final String IDENTITY_MANAGEMENT_DATA_EXPIRY_INDEX = IDENTITY_MANAGEMENT_PATH + "/dataExpiryIndex";
+
     public static final String IDENTITY_MANAGEMENT_QUESTIONS = IDENTITY_MANAGEMENT_PATH + "/questionCollection";
 
     public static final String IDENTITY_MANAGEMENT_CHALLENGES = IDENTITY_MANAGEMENT_PATH + "/challenges";
@@ -193,6 +195,10 @@ public class IdentityMgtConstants {
 
         public static final String REGISTRY_CLEANUP_PERIOD = "Identity.Mgt.Registry.CleanUpPeriod";
 
+        public static final String REGISTRY_CLEANUP_BATCH_SIZE = "Identity.Mgt.Registry.CleanUpBatchSize";
+
+        public static final String REGISTRY_CLEANUP_RATE_LIMIT = "Identity.Mgt.Registry.CleanUpRateLimit";
+
         private PropertyConfig(){
         }
     }
@@ -25,7 +25,9 @@ import org.wso2.carbon.user.core.UserCoreConstants;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * This encapsulates the user's data that is related user's login information
@@ -51,6 +53,9 @@ public class UserIdentityClaimsDO implements Serializable {
     private Map<String, String> userIdentityDataMap = new HashMap<String, String>();
     private char[] temporaryPassword = null;
     private String confirmationCode = null;
+    private Map<String, String> persistedUserDataMap = null;
+    // Keys of the user data values set since the persisted state was last recorded.
+    private Set<String> setUserDataKeys = new HashSet<String>();
 
     public UserIdentityClaimsDO(String userName) {
         this.userName = userName;
@@ -124,7 +129,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setUnlockTime(long unlockTime) {
         this.unlockTime = unlockTime;
-        this.userIdentityDataMap.put(UserIdentityDataStore.UNLOCKING_TIME,
+        putUserData(UserIdentityDataStore.UNLOCKING_TIME,
                 Long.toString(unlockTime));
     }
 
@@ -138,7 +143,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setLastLogonTime(long lastLogonTime) {
         this.lastLogonTime = lastLogonTime;
-        this.userIdentityDataMap.put(UserIdentityDataStore.LAST_LOGON_TIME,
+        putUserData(UserIdentityDataStore.LAST_LOGON_TIME,
                 Long.toString(lastLogonTime));
     }
 
@@ -148,7 +153,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setLastFailAttemptTime(long lastFailAttemptTime) {
         this.lastFailAttemptTime = lastFailAttemptTime;
-        this.userIdentityDataMap.put(UserIdentityDataStore.LAST_FAILED_LOGIN_ATTEMPT_TIME,
+        putUserData(UserIdentityDataStore.LAST_FAILED_LOGIN_ATTEMPT_TIME,
                 Long.toString(lastFailAttemptTime));
     }
 
@@ -158,13 +163,13 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setFailAttempts(int failAttempts) {
         this.failedAttempts = failAttempts;
-        this.userIdentityDataMap.put(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS,
+        putUserData(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS,
                 Integer.toString(failAttempts));
     }
 
     public void setFailAttempts() {
         this.failedAttempts++;
-        this.userIdentityDataMap.put(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS,
+        putUserData(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS,
                 Integer.toString(failedAttempts));
     }
 
@@ -174,7 +179,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setOneTimeLogin(boolean oneTimeLogin) {
         this.oneTimeLogin = oneTimeLogin;
-        this.userIdentityDataMap.put(UserIdentityDataStore.ONE_TIME_PASSWORD,
+        putUserData(UserIdentityDataStore.ONE_TIME_PASSWORD,
                 Boolean.toString(oneTimeLogin));
     }
 
@@ -184,7 +189,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setPasswordChangeRequired(boolean passwordChangeRequired) {
         this.passwordChangeRequired = passwordChangeRequired;
-        this.userIdentityDataMap.put(UserIdentityDataStore.PASSWORD_CHANGE_REQUIRED,
+        putUserData(UserIdentityDataStore.PASSWORD_CHANGE_REQUIRED,
                 Boolean.toString(passwordChangeRequired));
     }
 
@@ -201,7 +206,7 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public UserIdentityClaimsDO setAccountLock(boolean accountLock) {
         this.accountLock = accountLock;
-        this.userIdentityDataMap.put(UserIdentityDataStore.ACCOUNT_LOCK,
+        putUserData(UserIdentityDataStore.ACCOUNT_LOCK,
                 Boolean.toString(accountLock));
         return this;
     }
@@ -215,6 +220,9 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setUserDataMap(Map<String, String> userDataMap) {
         this.userIdentityDataMap = userDataMap;
+        if (userDataMap != null) {
+            setUserDataKeys.addAll(userDataMap.keySet());
+        }
     }
 
     /**
@@ -224,7 +232,7 @@ public class UserIdentityClaimsDO implements Serializable {
      * @param value
      */
     public void setUserIdentityDataClaim(String claim, String value) {
-        userIdentityDataMap.put(claim, value);
+        putUserData(claim, value);
         if(StringUtils.isBlank(value)){
             return;
         } else if (UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS.equalsIgnoreCase(claim)) {
@@ -246,6 +254,11 @@ public class UserIdentityClaimsDO implements Serializable {
         }
     }
 
+    private void putUserData(String key, String value) {
+        userIdentityDataMap.put(key, value);
+        setUserDataKeys.add(key);
+    }
+
     public int getTenantId() {
         return tenantId;
     }
@@ -281,7 +294,50 @@ public class UserIdentityClaimsDO implements Serializable {
 
     public void setAccountDisabled(boolean isAccountDisabled) {
         this.isAccountDisabled = isAccountDisabled;
-        this.userIdentityDataMap.put(UserIdentityDataStore.ACCOUNT_DISABLED, Boolean.toString(isAccountDisabled));
+        putUserData(UserIdentityDataStore.ACCOUNT_DISABLED, Boolean.toString(isAccountDisabled));
+    }
+
+    /**
+     * Returns the user data values which are known to be persisted in the identity data store.
+     *
+     * @return persisted user data or null if the persisted state is not known
+     */
+    public Map<String, String> getPersistedUserDataMap() {
+        return persistedUserDataMap;
+    }
+
+    /**
+     * Records the user data values which are persisted in the identity data store. The values set before this call
+     * are considered to be persisted.
+     *
+     * @param persistedUserDataMap persisted user data
+     */
+    public void setPersistedUserDataMap(Map<String, String> persistedUserDataMap) {
+        this.persistedUserDataMap = persistedUserDataMap;
+        setUserDataKeys.clear();
+    }
+
+    /**
+     * Returns the user data values which have been set since the persisted state was recorded, along with the values
+     * which differ from the persisted state. Values which have been set are returned even if they equal the recorded
+     * state, as the recorded state may be stale if the data was written through another node. If the persisted state
+     * is not known, all user data values are returned.
+     *
+     * @return modified user data
+     */
+    public Map<String, String> getModifiedUserDataMap() {
+        Map<String, String> userDataMap = getUserDataMap();
+        if (persistedUserDataMap == null) {
+            return userDataMap;
+        }
+        Map<String, String> modifiedUserDataMap = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry : userDataMap.entrySet()) {
+            if (setUserDataKeys.contains(entry.getKey()) || !persistedUserDataMap.containsKey(entry.getKey()) ||
+                    !StringUtils.equals(persistedUserDataMap.get(entry.getKey()), entry.getValue())) {
+                modifiedUserDataMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return modifiedUserDataMap;
     }
 
     /**
@@ -295,7 +351,7 @@ public class UserIdentityClaimsDO implements Serializable {
             // question claim then update
             if (dto.getClaimUri() != null && dto.getClaimValue() != null &&
                     dto.getClaimUri().contains(UserCoreConstants.ClaimTypeURIs.CHALLENGE_QUESTION_URI)) {
-                userIdentityDataMap.put(dto.getClaimUri(), dto.getClaimValue());
+                putUserData(dto.getClaimUri(), dto.getClaimValue());
             }
         }
     }
@@ -342,7 +398,7 @@ public class UserIdentityClaimsDO implements Serializable {
                     dto.getClaimValue() != null &&
                     !dto.getClaimUri().contains(UserCoreConstants.ClaimTypeURIs.CHALLENGE_QUESTION_URI) &&
                     !dto.getClaimUri().contains(UserCoreConstants.ClaimTypeURIs.IDENTITY_CLAIM_URI)) {
-                userIdentityDataMap.put(dto.getClaimUri(), dto.getClaimValue());
+                putUserData(dto.getClaimUri(), dto.getClaimValue());
             }
         }
     }
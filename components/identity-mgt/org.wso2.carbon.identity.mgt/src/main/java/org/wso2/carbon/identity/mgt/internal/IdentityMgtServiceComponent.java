@@ -42,6 +42,7 @@ import org.wso2.carbon.identity.mgt.IdentityMgtEventListener;
 import org.wso2.carbon.identity.mgt.RecoveryProcessor;
 import org.wso2.carbon.identity.mgt.config.Config;
 import org.wso2.carbon.identity.mgt.config.ConfigBuilder;
+import org.wso2.carbon.identity.mgt.config.ConfigRegistryHandler;
 import org.wso2.carbon.identity.mgt.config.EmailNotificationConfig;
 import org.wso2.carbon.identity.mgt.config.StorageType;
 import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
@@ -56,7 +57,9 @@ import org.wso2.carbon.identity.notification.mgt.NotificationSender;
 import org.wso2.carbon.registry.common.AttributeSearchService;
 import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.jdbc.handlers.filters.URLMatcher;
 import org.wso2.carbon.registry.core.service.RegistryService;
 import org.wso2.carbon.stratos.common.listeners.TenantMgtListener;
 import org.wso2.carbon.user.core.listener.UserOperationEventListener;
@@ -84,6 +87,7 @@ public class IdentityMgtServiceComponent {
     private static NotificationSender notificationSender;
     private static AttributeSearchService attributeSearchService;
     private static UserSessionManagementService userSessionManagementService;
+    private ConfigRegistryHandler configRegistryHandler;
 
     public static RealmService getRealmService() {
         return realmService;
@@ -176,6 +180,7 @@ public class IdentityMgtServiceComponent {
         context.getBundleContext().registerService(AxisObserver.class.getName(),
                 new IdentityMgtDeploymentInterceptor(), props);
         init();
+        registerConfigRegistryHandler();
 
         if (log.isDebugEnabled()) {
             log.debug("Identity Management Listener is enabled");
@@ -245,9 +250,47 @@ public class IdentityMgtServiceComponent {
 
     @Deactivate
     protected void deactivate(ComponentContext context) {
+        unregisterConfigRegistryHandler();
         log.debug("Identity Management bundle is de-activated");
     }
 
+    /**
+     * Engage the registry handler which invalidates the cached email configurations and challenge questions when
+     * they are changed directly in the registry.
+     */
+    private void registerConfigRegistryHandler() {
+
+        String pattern = RegistryConstants.CONFIG_REGISTRY_BASE_PATH + RegistryConstants.PATH_SEPARATOR
+                + IdentityMgtConstants.EMAIL_TEMPLATE_PATH + ".*|" + RegistryConstants.CONFIG_REGISTRY_BASE_PATH
+                + IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS + ".*";
+        try {
+            URLMatcher urlMatcher = new URLMatcher();
+            urlMatcher.setPutPattern(pattern);
+            urlMatcher.setDeletePattern(pattern);
+            configRegistryHandler = new ConfigRegistryHandler();
+            getRegistryService().getConfigSystemRegistry().getRegistryContext().getHandlerManager()
+                    .addHandler(null, urlMatcher, configRegistryHandler);
+        } catch (RegistryException e) {
+            configRegistryHandler = null;
+            log.error("Error while engaging the registry handler of the identity management configurations", e);
+        }
+    }
+
+    private void unregisterConfigRegistryHandler() {
+
+        if (configRegistryHandler == null || getRegistryService() == null) {
+            return;
+        }
+        try {
+            getRegistryService().getConfigSystemRegistry().getRegistryContext().getHandlerManager()
+                    .removeHandler(configRegistryHandler);
+        } catch (RegistryException e) {
+            log.error("Error while removing the registry handler of the identity management configurations", e);
+        } finally {
+            configRegistryHandler = null;
+        }
+    }
+
     protected void unsetRegistryService(RegistryService registryService) {
         log.debug("UnSetting the Registry Service");
         IdentityMgtServiceComponent.registryService = null;
@@ -374,8 +417,8 @@ public class IdentityMgtServiceComponent {
             UserOperationEventListener userOperationEventListenerService) {
 
         if (userOperationEventListenerService != null) {
-            IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListeners().remove(
-                    userOperationEventListenerService.getExecutionOrderId());
+            IdentityMgtServiceDataHolder.getInstance().removeUserOperationEventListener(
+                    userOperationEventListenerService);
         }
     }
 }
@@ -20,9 +20,21 @@ package org.wso2.carbon.identity.mgt.internal;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.AbstractIdentityUserOperationEventListener;
+import org.wso2.carbon.identity.mgt.listener.IdentityUserIdResolverListener;
+import org.wso2.carbon.identity.mgt.listener.IdentityUserNameResolverListener;
+import org.wso2.carbon.user.core.common.AbstractUserOperationEventListener;
+import org.wso2.carbon.user.core.listener.UniqueIDUserOperationEventListener;
 import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 public class IdentityMgtServiceDataHolder {
@@ -33,8 +45,18 @@ public class IdentityMgtServiceDataHolder {
 
     private boolean userSessionMappingEnabled;
 
+    private static final UserOperationEventListener[] EMPTY_LISTENER_CHAIN = new UserOperationEventListener[0];
+
     private static Map<Integer, UserOperationEventListener> userOperationEventListeners = new TreeMap<>();
 
+    /*
+     * Listener chains are rebuilt whenever a listener is bound or unbound and replaced as a whole, so that readers
+     * never observe a partially built chain.
+     */
+    private static volatile UserOperationEventListener[] userOperationEventListenerChain = EMPTY_LISTENER_CHAIN;
+    private static volatile Map<String, UserOperationEventListener[]> userOperationEventListenerChains =
+            Collections.emptyMap();
+
     private IdentityMgtServiceDataHolder() {
 
     }
@@ -81,6 +103,7 @@ public class IdentityMgtServiceDataHolder {
             Map<Integer, UserOperationEventListener> userOperationEventListeners) {
 
         IdentityMgtServiceDataHolder.userOperationEventListeners = userOperationEventListeners;
+        rebuildUserOperationEventListenerChains();
     }
 
     public void addUserOperationEventListener(
@@ -88,5 +111,103 @@ public class IdentityMgtServiceDataHolder {
 
         userOperationEventListeners.put(userOperationEventListener.getExecutionOrderId(),
                 userOperationEventListener);
+        rebuildUserOperationEventListenerChains();
+    }
+
+    public void removeUserOperationEventListener(
+            UserOperationEventListener userOperationEventListener) {
+
+        userOperationEventListeners.remove(userOperationEventListener.getExecutionOrderId());
+        rebuildUserOperationEventListenerChains();
+    }
+
+    /**
+     * Get the enabled user operation event listeners, other than the user name and user id resolver listeners, in
+     * the order of their execution order ids.
+     *
+     * @return Listener chain. The returned array must not be modified.
+     */
+    public UserOperationEventListener[] getUserOperationEventListenerChain() {
+
+        return userOperationEventListenerChain;
+    }
+
+    /**
+     * Get the listener chain for a user operation. The chain only contains the listeners of
+     * {@link #getUserOperationEventListenerChain()} which override the given operation.
+     *
+     * @param operation Name of the listener method of the operation. Ex: doPreAuthenticate.
+     * @return Listener chain of the operation. The returned array must not be modified.
+     */
+    public UserOperationEventListener[] getUserOperationEventListenerChain(String operation) {
+
+        UserOperationEventListener[] listenerChain = userOperationEventListenerChains.get(operation);
+        if (listenerChain == null) {
+            // Not a known listener operation. Hence fall back to the full chain.
+            return userOperationEventListenerChain;
+        }
+        return listenerChain;
+    }
+
+    private static synchronized void rebuildUserOperationEventListenerChains() {
+
+        List<UserOperationEventListener> enabledListeners = new ArrayList<>();
+        for (UserOperationEventListener listener : userOperationEventListeners.values()) {
+            if (listener instanceof IdentityUserIdResolverListener ||
+                    listener instanceof IdentityUserNameResolverListener) {
+                continue;
+            }
+            if (listener instanceof AbstractIdentityUserOperationEventListener &&
+                    !((AbstractIdentityUserOperationEventListener) listener).isEnable()) {
+                if (log.isDebugEnabled()) {
+                    log.debug("User operation event listener: " + listener.getClass().getName() + " is disabled. " +
+                            "Hence not added to the listener chains.");
+                }
+                continue;
+            }
+            enabledListeners.add(listener);
+        }
+
+        Set<String> operations = new HashSet<>();
+        for (Method method : UserOperationEventListener.class.getMethods()) {
+            operations.add(method.getName());
+        }
+        for (Method method : UniqueIDUserOperationEventListener.class.getMethods()) {
+            operations.add(method.getName());
+        }
+
+        Map<String, UserOperationEventListener[]> listenerChains = new HashMap<>();
+        for (String operation : operations) {
+            List<UserOperationEventListener> operationListeners = new ArrayList<>();
+            for (UserOperationEventListener listener : enabledListeners) {
+                if (isOperationOverridden(listener.getClass(), operation)) {
+                    operationListeners.add(listener);
+                }
+            }
+            listenerChains.put(operation, operationListeners.toArray(EMPTY_LISTENER_CHAIN));
+        }
+
+        userOperationEventListenerChain = enabledListeners.toArray(EMPTY_LISTENER_CHAIN);
+        userOperationEventListenerChains = Collections.unmodifiableMap(listenerChains);
+    }
+
+    /**
+     * Check whether a listener class overrides the no-op implementation of an operation provided by
+     * {@link AbstractUserOperationEventListener}. Listeners which do not extend it are always considered to override.
+     */
+    private static boolean isOperationOverridden(Class<?> listenerClass, String operation) {
+
+        if (!AbstractUserOperationEventListener.class.isAssignableFrom(listenerClass)) {
+            return true;
+        }
+        for (Class<?> clazz = listenerClass; clazz != null && clazz != AbstractUserOperationEventListener.class;
+             clazz = clazz.getSuperclass()) {
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.getName().equals(operation) && !method.isSynthetic()) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 }
@@ -42,7 +42,6 @@ import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -80,12 +79,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreAuthenticateWithID(userID, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAuthenticateWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreAuthenticateWithID(userID, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -114,12 +111,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             authenticationResult = new AuthenticationResult(AuthenticationResult.AuthenticationStatus.FAIL);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostAuthenticateWithID(userID, authenticationResult, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAuthenticateWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostAuthenticateWithID(userID, authenticationResult, userStoreManager)) {
+                return false;
             }
         }
 
@@ -134,12 +129,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreAddUserWithID(userName, credential, roleList, claims, profile, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreAddUserWithID(userName, credential, roleList, claims, profile, userStoreManager)) {
+                return false;
             }
         }
 
@@ -159,13 +152,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostAddUserWithID(user, credential, roleList, claims, profile,
-                                userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostAddUserWithID(user, credential, roleList, claims, profile,
+                            userStoreManager)) {
+                return false;
             }
         }
 
@@ -185,12 +176,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreUpdateCredentialWithID(userID, newCredential, oldCredential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateCredentialWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreUpdateCredentialWithID(userID, newCredential, oldCredential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -210,12 +199,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostUpdateCredentialWithID(userID, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateCredentialWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostUpdateCredentialWithID(userID, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -235,12 +222,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreUpdateCredentialByAdminWithID(userID, newCredential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateCredentialByAdminWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreUpdateCredentialByAdminWithID(userID, newCredential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -260,12 +245,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostUpdateCredentialByAdminWithID(userID, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateCredentialByAdminWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostUpdateCredentialByAdminWithID(userID, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -286,11 +269,9 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         // Setting the thread-local to keep userID for doPostDeleteUserWithID listener.
         IdentityUtil.threadLocalProperties.get().put(DO_PRE_DELETE_USER_USER_ID, userID);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener).doPreDeleteUserWithID(userID, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener).doPreDeleteUserWithID(userID, userStoreManager)) {
+                return false;
             }
         }
 
@@ -308,12 +289,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             // Getting the userName from thread-local which has been set from doPreDeleteUserWithID.
             String userID = (String) IdentityUtil.threadLocalProperties.get().get(DO_PRE_DELETE_USER_USER_ID);
 
-            for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-                if (isNotAResolverListener(listener)) {
-                    if (!((UniqueIDUserOperationEventListener) listener)
-                            .doPostDeleteUserWithID(userID, userStoreManager)) {
-                        return false;
-                    }
+            for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUserWithID")) {
+                if (!((UniqueIDUserOperationEventListener) listener)
+                        .doPostDeleteUserWithID(userID, userStoreManager)) {
+                    return false;
                 }
             }
         } finally {
@@ -338,10 +317,8 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         }
 
         for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                return ((UniqueIDUserOperationEventListener) listener)
-                        .doPreSetUserClaimValueWithID(userID, claimURI, claimValue, profileName, userStoreManager);
-            }
+            return ((UniqueIDUserOperationEventListener) listener)
+                    .doPreSetUserClaimValueWithID(userID, claimURI, claimValue, profileName, userStoreManager);
         }
 
         return true;
@@ -360,12 +337,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostSetUserClaimValueWithID(userID, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostSetUserClaimValueWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostSetUserClaimValueWithID(userID, userStoreManager)) {
+                return false;
             }
         }
 
@@ -385,12 +360,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreSetUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreSetUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreSetUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -410,12 +383,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostSetUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostSetUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostSetUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -435,12 +406,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreDeleteUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreDeleteUserClaimValuesWithID(userID, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -460,12 +429,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostDeleteUserClaimValuesWithID(userID, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostDeleteUserClaimValuesWithID(userID, userStoreManager)) {
+                return false;
             }
         }
 
@@ -485,12 +452,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreDeleteUserClaimValueWithID(userID, claimURI, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUserClaimValueWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreDeleteUserClaimValueWithID(userID, claimURI, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -511,12 +476,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostDeleteUserClaimValueWithID(userID, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUserClaimValueWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostDeleteUserClaimValueWithID(userID, userStoreManager)) {
+                return false;
             }
         }
 
@@ -543,13 +506,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreAddRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreAddRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -576,12 +536,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostAddRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostAddRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -608,12 +566,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreAddInternalRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddInternalRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreAddInternalRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -640,12 +596,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostAddInternalRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddInternalRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostAddInternalRoleWithID(roleName, userIDs, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -684,12 +638,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreUpdateUserListOfRoleWithID(roleName, deletedUserIDs, newUserIDs, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateUserListOfRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreUpdateUserListOfRoleWithID(roleName, deletedUserIDs, newUserIDs, userStoreManager)) {
+                return false;
             }
         }
 
@@ -728,12 +680,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostUpdateUserListOfRoleWithID(roleName, deletedUserIDs, newUserIDs, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateUserListOfRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostUpdateUserListOfRoleWithID(roleName, deletedUserIDs, newUserIDs, userStoreManager)) {
+                return false;
             }
         }
 
@@ -753,12 +703,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreUpdateRoleListOfUserWithID(userID, deletedRoles, newRoles, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateRoleListOfUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreUpdateRoleListOfUserWithID(userID, deletedRoles, newRoles, userStoreManager)) {
+                return false;
             }
         }
 
@@ -778,12 +726,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostUpdateRoleListOfUserWithID(userID, deletedRoles, newRoles, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateRoleListOfUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostUpdateRoleListOfUserWithID(userID, deletedRoles, newRoles, userStoreManager)) {
+                return false;
             }
         }
 
@@ -803,12 +749,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreGetUserClaimValueWithID(userID, claim, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserClaimValueWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreGetUserClaimValueWithID(userID, claim, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -829,12 +773,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreGetUserClaimValuesWithID(userID, claims, profileName, claimMap, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreGetUserClaimValuesWithID(userID, claims, profileName, claimMap, userStoreManager)) {
+                return false;
             }
         }
 
@@ -854,12 +796,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserClaimValueWithID(userID, claim, claimValue, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserClaimValueWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserClaimValueWithID(userID, claim, claimValue, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -880,12 +820,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserClaimValuesWithID(userID, claims, profileName, claimMap, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserClaimValuesWithID(userID, claims, profileName, claimMap, userStoreManager)) {
+                return false;
             }
         }
 
@@ -902,12 +840,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreGetUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreGetUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -923,13 +859,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreGetUserListWithID(condition, domain, profileName, limit, offset, sortBy, sortOrder,
-                                userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreGetUserListWithID(condition, domain, profileName, limit, offset, sortBy, sortOrder,
+                            userStoreManager)) {
+                return false;
             }
         }
 
@@ -947,13 +881,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPreGetUserListWithID(claimUri, claimValue, limit, offset, returnUsersList,
-                                userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPreGetUserListWithID(claimUri, claimValue, limit, offset, returnUsersList,
+                            userStoreManager)) {
+                return false;
             }
         }
 
@@ -970,12 +902,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -992,13 +922,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserListWithID(claimUri, claimValue, returnUsersList, limit, offset,
-                                userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserListWithID(claimUri, claimValue, returnUsersList, limit, offset,
+                            userStoreManager)) {
+                return false;
             }
         }
 
@@ -1018,13 +946,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager,
                 Arrays.asList(returnUserNameList));
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserListWithID(condition, domain, profileName, limit, offset, sortBy, sortOrder,
-                                returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserListWithID(condition, domain, profileName, limit, offset, sortBy, sortOrder,
+                            returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1063,12 +989,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetPaginatedUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetPaginatedUserListWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetPaginatedUserListWithID(claimUri, claimValue, returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1085,12 +1009,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
 
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager, returnUserNameList);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostListUsersWithID(filter, limit, offset, returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostListUsersWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostListUsersWithID(filter, limit, offset, returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1110,12 +1032,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
             return handleUserIDResolveFailure(userName, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetRoleListOfUserWithID(userID, filter, roleList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetRoleListOfUserWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetRoleListOfUserWithID(userID, filter, roleList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1133,12 +1053,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         List<User> returnUsersList = getUsersFromNames((AbstractUserStoreManager) userStoreManager,
                 Arrays.asList(getDomainLessNames(returnUserNameList)));
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUserListOfRoleWithID(roleName, returnUsersList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserListOfRoleWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUserListOfRoleWithID(roleName, returnUsersList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1156,12 +1074,10 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         List<String> userIDsList = ((AbstractUserStoreManager) userStoreManager)
                 .getUserIDsFromUserNames(Arrays.asList(userNames));
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetRoleListOfUsersWithID(userIDsList, rolesOfUsersMap, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetRoleListOfUsersWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetRoleListOfUsersWithID(userIDsList, rolesOfUsersMap, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1185,13 +1101,11 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
                 ((AbstractUserStoreManager) userStoreManager)
                         .getUniqueIDUserClaimSearchEntries(userClaimSearchEntries);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!((UniqueIDUserOperationEventListener) listener)
-                        .doPostGetUsersClaimValuesWithID(userIDsList, claimsList, profileName,
-                                uniqueIDUserClaimSearchEntriesList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUsersClaimValuesWithID")) {
+            if (!((UniqueIDUserOperationEventListener) listener)
+                    .doPostGetUsersClaimValuesWithID(userIDsList, claimsList, profileName,
+                            uniqueIDUserClaimSearchEntriesList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1230,16 +1144,14 @@ public class IdentityUserIdResolverListener extends AbstractIdentityUserOperatio
         return domainNameProperty;
     }
 
-    private Collection<UserOperationEventListener> getUserStoreManagerListeners() {
+    private UserOperationEventListener[] getUserStoreManagerListeners() {
 
-        Map<Integer, UserOperationEventListener> userOperationEventListeners =
-                IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListeners();
-        return userOperationEventListeners.values();
+        return IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListenerChain();
     }
 
-    private boolean isNotAResolverListener(UserOperationEventListener listener) {
+    private UserOperationEventListener[] getUserStoreManagerListeners(String operation) {
 
-        return !(listener instanceof IdentityUserNameResolverListener)
-                && !(listener instanceof IdentityUserIdResolverListener);
+        return IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListenerChain(operation);
     }
+
 }
@@ -40,7 +40,6 @@ import org.wso2.carbon.user.core.model.UserClaimSearchEntry;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -78,11 +77,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAuthenticate(userName, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAuthenticate")) {
+            if (!listener.doPreAuthenticate(userName, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -107,11 +104,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             userName = getUserNameFromUserID(userID, (AbstractUserStoreManager) userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAuthenticate")) {
+            if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
+                return false;
             }
         }
 
@@ -126,11 +121,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAddUser(userName, credential, roleList, claims, profile, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddUser")) {
+            if (!listener.doPreAddUser(userName, credential, roleList, claims, profile, userStoreManager)) {
+                return false;
             }
         }
 
@@ -150,11 +143,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(user.getUserID(), userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAddUser(userName, credential, roleList, claims, profile, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddUser")) {
+            if (!listener.doPostAddUser(userName, credential, roleList, claims, profile, userStoreManager)) {
+                return false;
             }
         }
 
@@ -174,11 +165,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreUpdateCredential(userName, newCredential, oldCredential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateCredential")) {
+            if (!listener.doPreUpdateCredential(userName, newCredential, oldCredential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -198,12 +187,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostUpdateCredential(userName, credential, userStoreManager)) {
-                    return false;
-                }
-
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateCredential")) {
+            if (!listener.doPostUpdateCredential(userName, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -223,11 +209,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreUpdateCredentialByAdmin(userName, newCredential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateCredentialByAdmin")) {
+            if (!listener.doPreUpdateCredentialByAdmin(userName, newCredential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -247,11 +231,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostUpdateCredentialByAdmin(userName, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateCredentialByAdmin")) {
+            if (!listener.doPostUpdateCredentialByAdmin(userName, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -273,11 +255,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         // Setting the thread-local to keep userName for doPostDeleteUserWithID listener.
         IdentityUtil.threadLocalProperties.get().put(DO_PRE_DELETE_USER_USER_NAME, userName);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreDeleteUser(userName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUser")) {
+            if (!listener.doPreDeleteUser(userName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -295,11 +275,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             // Getting the userName from thread-local which has been set from doPreDeleteUserWithID.
             String userName = (String) IdentityUtil.threadLocalProperties.get().get(DO_PRE_DELETE_USER_USER_NAME);
 
-            for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-                if (isNotAResolverListener(listener)) {
-                    if (!listener.doPostDeleteUser(userName, userStoreManager)) {
-                        return false;
-                    }
+            for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUser")) {
+                if (!listener.doPostDeleteUser(userName, userStoreManager)) {
+                    return false;
                 }
             }
         } finally {
@@ -323,11 +301,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreSetUserClaimValue(userName, claimURI, claimValue, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreSetUserClaimValue")) {
+            if (!listener.doPreSetUserClaimValue(userName, claimURI, claimValue, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -347,11 +323,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostSetUserClaimValue(userName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostSetUserClaimValue")) {
+            if (!listener.doPostSetUserClaimValue(userName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -371,11 +345,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreSetUserClaimValues(userName, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreSetUserClaimValues")) {
+            if (!listener.doPreSetUserClaimValues(userName, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -395,11 +367,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostSetUserClaimValues(userName, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostSetUserClaimValues")) {
+            if (!listener.doPostSetUserClaimValues(userName, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -419,11 +389,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreDeleteUserClaimValues(userName, claims, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUserClaimValues")) {
+            if (!listener.doPreDeleteUserClaimValues(userName, claims, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -443,11 +411,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostDeleteUserClaimValues(userName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUserClaimValues")) {
+            if (!listener.doPostDeleteUserClaimValues(userName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -467,11 +433,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreDeleteUserClaimValue(userName, claimURI, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreDeleteUserClaimValue")) {
+            if (!listener.doPreDeleteUserClaimValue(userName, claimURI, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -491,11 +455,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostDeleteUserClaimValue(userName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostDeleteUserClaimValue")) {
+            if (!listener.doPostDeleteUserClaimValue(userName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -512,11 +474,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         String[] userNames = getUserNamesFromUserIDs(userIDList, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAddRole(roleName, userNames, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddRole")) {
+            if (!listener.doPreAddRole(roleName, userNames, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -533,11 +493,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         String[] userNames = getUserNamesFromUserIDs(userIDList, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAddRole(roleName, userNames, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddRole")) {
+            if (!listener.doPostAddRole(roleName, userNames, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -554,11 +512,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         String[] userNames = getUserNamesFromUserIDs(userIDList, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAddInternalRole(roleName, userNames, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAddInternalRole")) {
+            if (!listener.doPreAddInternalRole(roleName, userNames, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -575,11 +531,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         String[] userNames = getUserNamesFromUserIDs(userIDList, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAddInternalRole(roleName, userNames, permissions, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAddInternalRole")) {
+            if (!listener.doPostAddInternalRole(roleName, userNames, permissions, userStoreManager)) {
+                return false;
             }
         }
 
@@ -598,11 +552,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
                 (AbstractUserStoreManager) userStoreManager);
         String[] newUserNames = getUserNamesFromUserIDs(newUserIDs, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreUpdateUserListOfRole(roleName, deletedUserNames, newUserNames, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateUserListOfRole")) {
+            if (!listener.doPreUpdateUserListOfRole(roleName, deletedUserNames, newUserNames, userStoreManager)) {
+                return false;
             }
         }
 
@@ -621,11 +573,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
                 (AbstractUserStoreManager) userStoreManager);
         String[] newUserNames = getUserNamesFromUserIDs(newUserIDs, (AbstractUserStoreManager) userStoreManager);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostUpdateUserListOfRole(roleName, deletedUserNames, newUserNames, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateUserListOfRole")) {
+            if (!listener.doPostUpdateUserListOfRole(roleName, deletedUserNames, newUserNames, userStoreManager)) {
+                return false;
             }
         }
 
@@ -645,11 +595,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreUpdateRoleListOfUser(userName, deletedRoles, newRoles, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreUpdateRoleListOfUser")) {
+            if (!listener.doPreUpdateRoleListOfUser(userName, deletedRoles, newRoles, userStoreManager)) {
+                return false;
             }
         }
 
@@ -669,11 +617,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostUpdateRoleListOfUser(userName, deletedRoles, newRoles, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostUpdateRoleListOfUser")) {
+            if (!listener.doPostUpdateRoleListOfUser(userName, deletedRoles, newRoles, userStoreManager)) {
+                return false;
             }
         }
 
@@ -693,11 +639,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreGetUserClaimValue(userName, claim, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserClaimValue")) {
+            if (!listener.doPreGetUserClaimValue(userName, claim, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -718,11 +662,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreGetUserClaimValues(userName, claims, profileName, claimMap, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserClaimValues")) {
+            if (!listener.doPreGetUserClaimValues(userName, claims, profileName, claimMap, userStoreManager)) {
+                return false;
             }
         }
 
@@ -743,11 +685,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetUserClaimValue(userName, claim, claimValue, profileName, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserClaimValue")) {
+            if (!listener.doPostGetUserClaimValue(userName, claim, claimValue, profileName, userStoreManager)) {
+                return false;
             }
         }
 
@@ -768,11 +708,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetUserClaimValues(userName, claims, profileName, claimMap, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserClaimValues")) {
+            if (!listener.doPostGetUserClaimValues(userName, claims, profileName, claimMap, userStoreManager)) {
+                return false;
             }
         }
 
@@ -789,11 +727,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreGetUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserList")) {
+            if (!listener.doPreGetUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -812,10 +748,8 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
         for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                return listener
-                        .doPreGetUserList(claimUri, claimValue, limit, offset, returnUserNamesList, userStoreManager);
-            }
+            return listener
+                    .doPreGetUserList(claimUri, claimValue, limit, offset, returnUserNamesList, userStoreManager);
         }
 
         return true;
@@ -831,11 +765,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserList")) {
+            if (!listener.doPostGetUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -853,10 +785,8 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
         for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                return listener
-                        .doPostGetUserList(claimUri, claimValue, returnUserNamesList, limit, offset, userStoreManager);
-            }
+            return listener
+                    .doPostGetUserList(claimUri, claimValue, returnUserNamesList, limit, offset, userStoreManager);
         }
 
         return true;
@@ -872,11 +802,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetPaginatedUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetPaginatedUserList")) {
+            if (!listener.doPostGetPaginatedUserList(claimUri, claimValue, returnUserNamesList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -893,11 +821,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         List<String> returnUserNamesList = returnUsersList.stream().map(User::getUsername).collect(Collectors.toList());
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostListUsers(filter, limit, offset, returnUserNamesList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostListUsers")) {
+            if (!listener.doPostListUsers(filter, limit, offset, returnUserNamesList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -917,11 +843,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return handleUserNameResolveFailure(userID, userStoreManager);
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetRoleListOfUser(userName, filter, roleList, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetRoleListOfUser")) {
+            if (!listener.doPostGetRoleListOfUser(userName, filter, roleList, userStoreManager)) {
+                return false;
             }
         }
 
@@ -937,12 +861,10 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreGetUserList(condition, domain, profileName, limit, offset, sortBy, sortOrder,
-                        userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreGetUserList")) {
+            if (!listener.doPreGetUserList(condition, domain, profileName, limit, offset, sortBy, sortOrder,
+                    userStoreManager)) {
+                return false;
             }
         }
 
@@ -963,11 +885,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         String[] userNames = userNamesList.toArray(new String[0]);
 
         for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                return listener
-                        .doPostGetUserList(condition, domain, profileName, limit, offset, sortBy, sortOrder, userNames,
-                                userStoreManager);
-            }
+            return listener
+                    .doPostGetUserList(condition, domain, profileName, limit, offset, sortBy, sortOrder, userNames,
+                            userStoreManager);
         }
 
         return true;
@@ -984,11 +904,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         List<String> returnUserNamesList = userList.stream().map(User::getUsername).collect(Collectors.toList());
         String[] returnUserNames = returnUserNamesList.toArray(new String[0]);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetUserListOfRole(roleName, returnUserNames, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUserListOfRole")) {
+            if (!listener.doPostGetUserListOfRole(roleName, returnUserNames, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1010,12 +928,10 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         List<UserClaimSearchEntry> userClaimSearchEntries = ((AbstractUserStoreManager) userStoreManager)
                 .getUserClaimSearchEntries(uniqueIDUserClaimSearchEntries);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetUsersClaimValues(userNames, claims.toArray(new String[0]), profileName,
-                        userClaimSearchEntries.toArray(new UserClaimSearchEntry[0]))) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetUsersClaimValues")) {
+            if (!listener.doPostGetUsersClaimValues(userNames, claims.toArray(new String[0]), profileName,
+                    userClaimSearchEntries.toArray(new UserClaimSearchEntry[0]))) {
+                return false;
             }
         }
 
@@ -1039,11 +955,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAuthenticate(userName, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAuthenticate")) {
+            if (!listener.doPreAuthenticate(userName, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1073,11 +987,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             }
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAuthenticate")) {
+            if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1094,11 +1006,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         String username = ((AbstractUserStoreManager) userStoreManager).getUsernameByClaims(loginIdentifiers);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPreAuthenticate(username, credential, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPreAuthenticate")) {
+            if (!listener.doPreAuthenticate(username, credential, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1123,11 +1033,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
             return true;
         }
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostAuthenticate")) {
+            if (!listener.doPostAuthenticate(userName, authenticated, userStoreManager)) {
+                return false;
             }
         }
 
@@ -1144,11 +1052,9 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
 
         List<String> userNamesList = ((AbstractUserStoreManager) userStoreManager).getUserNamesFromUserIDs(userIDs);
 
-        for (UserOperationEventListener listener : getUserStoreManagerListeners()) {
-            if (isNotAResolverListener(listener)) {
-                if (!listener.doPostGetRoleListOfUsers(userNamesList.toArray(new String[0]), rolesOfUsersMap)) {
-                    return false;
-                }
+        for (UserOperationEventListener listener : getUserStoreManagerListeners("doPostGetRoleListOfUsers")) {
+            if (!listener.doPostGetRoleListOfUsers(userNamesList.toArray(new String[0]), rolesOfUsersMap)) {
+                return false;
             }
         }
 
@@ -1186,11 +1092,14 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         return userNamesList.toArray(new String[0]);
     }
 
-    private Collection<UserOperationEventListener> getUserStoreManagerListeners() {
+    private UserOperationEventListener[] getUserStoreManagerListeners() {
+
+        return IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListenerChain();
+    }
+
+    private UserOperationEventListener[] getUserStoreManagerListeners(String operation) {
 
-        Map<Integer, UserOperationEventListener> userOperationEventListeners =
-                IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListeners();
-        return userOperationEventListeners.values();
+        return IdentityMgtServiceDataHolder.getInstance().getUserOperationEventListenerChain(operation);
     }
 
     private List<String> getDomainLessNamesAsList(String[] names) {
@@ -1201,12 +1110,6 @@ public class IdentityUserNameResolverListener extends AbstractIdentityUserOperat
         return java.util.Arrays.stream(names).map(UserCoreUtil::removeDomainFromName).collect(Collectors.toList());
     }
 
-    private boolean isNotAResolverListener(UserOperationEventListener listener) {
-
-        return !(listener instanceof IdentityUserIdResolverListener)
-                && !(listener instanceof IdentityUserNameResolverListener);
-    }
-
     private String getUserNameFromUserID(String userID, AbstractUserStoreManager userStoreManager) throws
             UserStoreException {
 
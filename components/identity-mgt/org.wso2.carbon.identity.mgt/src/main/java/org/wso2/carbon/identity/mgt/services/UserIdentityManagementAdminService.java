@@ -442,12 +442,13 @@ public class UserIdentityManagementAdminService {
                 getRecoveryProcessor().getQuestionProcessor();
 
         try {
-            List<ChallengeQuestionDTO> challengeQuestionDTOs = processor.getAllChallengeQuestions();
             for (UserChallengesDTO userChallengesDTO : challengesDTOs){
                 boolean found = false ;
+                // Validate against the stored questions, as the cached ones may not reflect a recent change.
+                List<ChallengeQuestionDTO> challengeQuestionDTOs =
+                        processor.getStoredChallengeQuestions(userChallengesDTO.getId());
                 for (ChallengeQuestionDTO challengeQuestionDTO :challengeQuestionDTOs ){
-                    if(challengeQuestionDTO.getQuestion().equals(userChallengesDTO.getQuestion()) &&
-                            challengeQuestionDTO.getQuestionSetId().equals(userChallengesDTO.getId())){
+                    if(challengeQuestionDTO.getQuestion().equals(userChallengesDTO.getQuestion())){
                         found = true ;
                         break ;
                     }
@@ -34,8 +34,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * //TODO remove method when user is deleted
@@ -68,108 +72,152 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
             throw IdentityException.error("Error while getting tenant Id.", e);
         }
         userIdentityDTO.setTenantId(tenantId);
-        super.store(userIdentityDTO, userStoreManager);
 
-        Map<String, String> data = userIdentityDTO.getUserDataMap();
+        // Only the claims which differ from the persisted state are written back.
+        Map<String, String> modifiedData = userIdentityDTO.getModifiedUserDataMap();
+        if (modifiedData.isEmpty()) {
+            if (log.isDebugEnabled()) {
+                log.debug("No modified identity data to persist for:" + tenantId + ":" + userName);
+            }
+            super.store(userIdentityDTO, userStoreManager);
+            return;
+        }
 
-        for (Map.Entry<String, String> entry : data.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            boolean isUserExists = false;
-            try {
-                isUserExists = isExistingUserDataValue(userName, tenantId, key);
-            } catch (SQLException e) {
-                throw IdentityException.error("Error occurred while checking if user existing", e);
+        Map<String, String> persistedData = userIdentityDTO.getPersistedUserDataMap();
+        try {
+            persistUserDataValues(userName, tenantId, modifiedData,
+                    persistedData == null ? null : persistedData.keySet());
+        } catch (SQLException e) {
+            // Persisted state may be stale if the user data was written through another node. Hence resolve the
+            // existing data keys from the database and retry.
+            if (log.isDebugEnabled()) {
+                log.debug("Error while persisting identity data for:" + tenantId + ":" + userName +
+                        " based on the cached state. Retrying with the existing data keys from the database.", e);
             }
             try {
-                if (isUserExists) {
-                    updateUserDataValue(userName, tenantId, key, value);
-                } else {
-                    addUserDataValue(userName, tenantId, key, value);
-                }
-            } catch (SQLException e) {
-                throw IdentityException.error("Error occurred while persisting user data", e);
+                persistUserDataValues(userName, tenantId, modifiedData, null);
+            } catch (SQLException e1) {
+                super.remove(userName, userStoreManager);
+                throw IdentityException.error("Error occurred while persisting user data", e1);
             }
         }
+
+        Map<String, String> newPersistedData = new HashMap<String, String>();
+        if (persistedData != null) {
+            newPersistedData.putAll(persistedData);
+        }
+        newPersistedData.putAll(modifiedData);
+        userIdentityDTO.setPersistedUserDataMap(newPersistedData);
+
+        // Write through to the cache once the data is persisted.
+        super.store(userIdentityDTO, userStoreManager);
     }
 
-    private boolean isExistingUserDataValue(String userName, int tenantId, String key) throws SQLException {
+    /**
+     * Persist the given user data values using a single connection. Values of existing data keys are updated and the
+     * rest are inserted, each as a JDBC batch. Values whose update does not find their row, since it was deleted
+     * after the existing keys were resolved, are inserted as well.
+     *
+     * @param userName     domain qualified user name
+     * @param tenantId     tenant id of the user
+     * @param data         user data values to persist
+     * @param existingKeys data keys which exist in the database, or null to resolve them from the database
+     * @throws SQLException if an error occurs while persisting the values
+     */
+    private void persistUserDataValues(String userName, int tenantId, Map<String, String> data,
+                                       Set<String> existingKeys) throws SQLException {
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection(false);
-        PreparedStatement prepStmt = null;
-        ResultSet results;
+        Connection connection = IdentityDatabaseUtil.getDBConnection();
+        PreparedStatement addPrepStmt = null;
+        PreparedStatement updatePrepStmt = null;
         boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
         try {
-            String query;
+            if (existingKeys == null) {
+                existingKeys = getExistingUserDataKeys(connection, userName, tenantId, isUsernameCaseSensitive);
+            }
+
+            String updateQuery;
             if (isUsernameCaseSensitive) {
-                query = SQLQuery.CHECK_EXIST_USER_DATA;
+                updateQuery = SQLQuery.UPDATE_USER_DATA;
             } else {
-                query = SQLQuery.CHECK_EXIST_USER_DATA_CASE_INSENSITIVE;
+                updateQuery = SQLQuery.UPDATE_USER_DATA_CASE_INSENSITIVE;
             }
-            prepStmt = connection.prepareStatement(query);
-            prepStmt.setInt(1, tenantId);
-            prepStmt.setString(2, userName);
-            prepStmt.setString(3, key);
-            results = prepStmt.executeQuery();
-            if (results.next()) {
-                return true;
-            }
-        } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeConnection(connection);
-        }
-        return false;
-    }
-
 
-    private void addUserDataValue(String userName, int tenantId, String key, String value) throws SQLException {
+            List<Map.Entry<String, String>> updatedEntries = new ArrayList<Map.Entry<String, String>>();
+            List<Map.Entry<String, String>> addedEntries = new ArrayList<Map.Entry<String, String>>();
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                if (existingKeys.contains(entry.getKey())) {
+                    updatedEntries.add(entry);
+                } else {
+                    addedEntries.add(entry);
+                }
+            }
 
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
-        PreparedStatement prepStmt = null;
+            if (!updatedEntries.isEmpty()) {
+                updatePrepStmt = connection.prepareStatement(updateQuery);
+                for (Map.Entry<String, String> entry : updatedEntries) {
+                    updatePrepStmt.setString(1, entry.getValue());
+                    updatePrepStmt.setInt(2, tenantId);
+                    updatePrepStmt.setString(3, userName);
+                    updatePrepStmt.setString(4, entry.getKey());
+                    updatePrepStmt.addBatch();
+                }
+                int[] updateCounts = updatePrepStmt.executeBatch();
+                for (int i = 0; i < updateCounts.length && i < updatedEntries.size(); i++) {
+                    if (updateCounts[i] == 0) {
+                        // The row was deleted meanwhile, e.g. through another node. Hence insert the value.
+                        addedEntries.add(updatedEntries.get(i));
+                    }
+                }
+            }
 
-        try {
-            prepStmt = connection.prepareStatement(SQLQuery.STORE_USER_DATA);
-            prepStmt.setInt(1, tenantId);
-            prepStmt.setString(2, userName);
-            prepStmt.setString(3, key);
-            prepStmt.setString(4, value);
-            prepStmt.execute();
+            if (!addedEntries.isEmpty()) {
+                addPrepStmt = connection.prepareStatement(SQLQuery.STORE_USER_DATA);
+                for (Map.Entry<String, String> entry : addedEntries) {
+                    addPrepStmt.setInt(1, tenantId);
+                    addPrepStmt.setString(2, userName);
+                    addPrepStmt.setString(3, entry.getKey());
+                    addPrepStmt.setString(4, entry.getValue());
+                    addPrepStmt.addBatch();
+                }
+                addPrepStmt.executeBatch();
+            }
             IdentityDatabaseUtil.commitTransaction(connection);
         } catch (SQLException e) {
             IdentityDatabaseUtil.rollbackTransaction(connection);
+            throw e;
         } finally {
-            IdentityDatabaseUtil.closeStatement(prepStmt);
+            IdentityDatabaseUtil.closeStatement(updatePrepStmt);
+            IdentityDatabaseUtil.closeStatement(addPrepStmt);
             IdentityDatabaseUtil.closeConnection(connection);
         }
     }
 
+    private Set<String> getExistingUserDataKeys(Connection connection, String userName, int tenantId,
+                                                boolean isUsernameCaseSensitive) throws SQLException {
 
-    private void updateUserDataValue(String userName, int tenantId, String key, String value) throws SQLException {
-
-        Connection connection = IdentityDatabaseUtil.getDBConnection();
         PreparedStatement prepStmt = null;
-        boolean isUsernameCaseSensitive = IdentityUtil.isUserStoreInUsernameCaseSensitive(userName, tenantId);
+        ResultSet results = null;
+        Set<String> existingKeys = new HashSet<String>();
         try {
             String query;
             if (isUsernameCaseSensitive) {
-                query = SQLQuery.UPDATE_USER_DATA;
+                query = SQLQuery.LOAD_USER_DATA;
             } else {
-                query = SQLQuery.UPDATE_USER_DATA_CASE_INSENSITIVE;
+                query = SQLQuery.LOAD_USER_DATA_CASE_INSENSITIVE;
             }
             prepStmt = connection.prepareStatement(query);
-            prepStmt.setString(1, value);
-            prepStmt.setInt(2, tenantId);
-            prepStmt.setString(3, userName);
-            prepStmt.setString(4, key);
-            prepStmt.executeUpdate();
-            IdentityDatabaseUtil.commitTransaction(connection);
-        } catch (SQLException e) {
-            IdentityDatabaseUtil.rollbackTransaction(connection);
+            prepStmt.setInt(1, tenantId);
+            prepStmt.setString(2, userName);
+            results = prepStmt.executeQuery();
+            while (results.next()) {
+                existingKeys.add(results.getString(1));
+            }
         } finally {
+            IdentityDatabaseUtil.closeResultSet(results);
             IdentityDatabaseUtil.closeStatement(prepStmt);
-            IdentityDatabaseUtil.closeConnection(connection);
         }
-
+        return existingKeys;
     }
 
     @Override
@@ -211,8 +259,10 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
                     log.debug(dataEntry.getKey() + " : " + dataEntry.getValue());
                 }
             }
+            Map<String, String> persistedData = new HashMap<String, String>(data);
             dto = new UserIdentityClaimsDO(userName, data);
             dto.setTenantId(tenantId);
+            dto.setPersistedUserDataMap(persistedData);
             try {
                 super.store(dto, userStoreManager);
             } catch (IdentityException e) {
@@ -269,11 +319,6 @@ public class JDBCIdentityDataStore extends InMemoryIdentityDataStore {
      * The primary key is tenantId, userName, DatKey combination
      */
     private static class SQLQuery {
-        public static final String CHECK_EXIST_USER_DATA = "SELECT DATA_VALUE FROM IDN_IDENTITY_USER_DATA WHERE " +
-                "TENANT_ID = ? AND USER_NAME = ? AND DATA_KEY = ?";
-        public static final String CHECK_EXIST_USER_DATA_CASE_INSENSITIVE = "SELECT DATA_VALUE FROM " +
-                "IDN_IDENTITY_USER_DATA WHERE TENANT_ID = ? AND LOWER(USER_NAME) = LOWER(?) AND DATA_KEY = ?";
-
         public static final String STORE_USER_DATA = "INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, USER_NAME, " +
                 "DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)";
 
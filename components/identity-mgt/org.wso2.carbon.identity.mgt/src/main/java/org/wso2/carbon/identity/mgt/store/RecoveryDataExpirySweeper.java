@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.store;
+
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Deletes the expired user recovery data entries of a tenant registry using an expiry index.
+ * <p>
+ * The index is kept next to the recovery data, at {@link IdentityMgtConstants#IDENTITY_MANAGEMENT_DATA_EXPIRY_INDEX}.
+ * Each entry is indexed under the bucket of its expiry time, and a sweep only visits the buckets which have fully
+ * expired. So the cost of a sweep depends on the number of expired entries rather than the number of stored ones.
+ * The entries are deleted in batches of a bounded size, each within a registry transaction, and the batches are
+ * spaced out to keep the deletions under the configured rate.
+ */
+public class RecoveryDataExpirySweeper {
+
+    private static final Log log = LogFactory.getLog(RecoveryDataExpirySweeper.class);
+
+    // Width of the expiry time range covered by an index bucket, in milliseconds.
+    static final long BUCKET_WIDTH = 60 * 1000L;
+
+    private final int batchSize;
+    private final int rateLimit;
+
+    /**
+     * @param batchSize maximum number of entries deleted in a single registry transaction
+     * @param rateLimit maximum number of entries deleted per second, or 0 to delete without a limit
+     */
+    public RecoveryDataExpirySweeper(int batchSize, int rateLimit) {
+
+        this.batchSize = batchSize > 0 ? batchSize : 1;
+        this.rateLimit = rateLimit;
+    }
+
+    /**
+     * Add a recovery data entry to the expiry index. This should be called within the registry transaction which
+     * stores the entry.
+     *
+     * @param registry   config system registry of the tenant
+     * @param code       code of the entry, relative to {@link IdentityMgtConstants#IDENTITY_MANAGEMENT_DATA}
+     * @param expireTime expiry time of the entry in milliseconds
+     * @throws RegistryException if the index entry cannot be stored
+     */
+    public static void addIndexEntry(Registry registry, String code, String expireTime) throws RegistryException {
+
+        if (!NumberUtils.isDigits(expireTime)) {
+            if (log.isDebugEnabled()) {
+                log.debug("Recovery data entry: " + code + " is not indexed as its expiry time: " + expireTime +
+                        " is not valid.");
+            }
+            return;
+        }
+        Resource indexEntry = registry.newResource();
+        indexEntry.setProperty(UserRecoveryDataStore.EXPIRE_TIME, expireTime);
+        indexEntry.setVersionableChange(false);
+        registry.put(getBucketPath(Long.parseLong(expireTime)) + RegistryConstants.PATH_SEPARATOR + code, indexEntry);
+    }
+
+    /**
+     * Check whether a recovery data entry is in the expiry index.
+     *
+     * @param registry   config system registry of the tenant
+     * @param code       code of the entry, relative to {@link IdentityMgtConstants#IDENTITY_MANAGEMENT_DATA}
+     * @param expireTime expiry time of the entry in milliseconds
+     * @return true if the entry is indexed
+     * @throws RegistryException if the index cannot be read
+     */
+    public static boolean isIndexed(Registry registry, String code, String expireTime) throws RegistryException {
+
+        return NumberUtils.isDigits(expireTime) && registry.resourceExists(getBucketPath(Long.parseLong(expireTime)) +
+                RegistryConstants.PATH_SEPARATOR + code);
+    }
+
+    /**
+     * Delete the expired recovery data entries of the registry.
+     *
+     * @param registry config system registry of the tenant
+     * @return number of deleted entries
+     * @throws RegistryException if the index or the entries cannot be read or deleted
+     */
+    public int sweep(Registry registry) throws RegistryException {
+
+        return sweep(registry, System.currentTimeMillis());
+    }
+
+    int sweep(Registry registry, long currentTime) throws RegistryException {
+
+        if (!registry.resourceExists(IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA_EXPIRY_INDEX)) {
+            return 0;
+        }
+        Resource index = registry.get(IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA_EXPIRY_INDEX);
+        if (!(index instanceof Collection)) {
+            return 0;
+        }
+
+        // Order the buckets by their start time, so the sweep can stop at the first bucket which has not expired.
+        TreeMap<Long, String> buckets = new TreeMap<>();
+        for (String bucketPath : ((Collection) index).getChildren()) {
+            String bucketName = bucketPath.substring(bucketPath.lastIndexOf(RegistryConstants.PATH_SEPARATOR) + 1);
+            if (NumberUtils.isDigits(bucketName)) {
+                buckets.put(Long.parseLong(bucketName), bucketPath);
+            }
+        }
+
+        int deletedCount = 0;
+        long batchStartTime = System.currentTimeMillis();
+        int batchCount = 0;
+        for (String bucketPath : buckets.headMap(currentTime - BUCKET_WIDTH, true).values()) {
+            List<String> codes = new ArrayList<>();
+            collectCodes(registry, bucketPath, bucketPath.length() + 1, codes);
+            for (int i = 0; i < codes.size(); i += batchSize) {
+                if (batchCount > 0) {
+                    throttle(batchCount, batchStartTime);
+                }
+                List<String> batch = codes.subList(i, Math.min(i + batchSize, codes.size()));
+                deletedCount += deleteExpiredEntries(registry, batch, currentTime);
+                batchCount = batch.size();
+                batchStartTime = System.currentTimeMillis();
+            }
+            // Every entry of the bucket is processed, so the bucket can be dropped along with its index entries.
+            registry.delete(bucketPath);
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Deleted " + deletedCount + " expired recovery data entries.");
+        }
+        return deletedCount;
+    }
+
+    /**
+     * Wait until the last batch can be counted within the rate limit.
+     *
+     * @param batchCount     number of entries processed in the last batch
+     * @param batchStartTime time the last batch was started at
+     */
+    void throttle(int batchCount, long batchStartTime) {
+
+        if (rateLimit <= 0) {
+            return;
+        }
+        long waitTime = batchCount * 1000L / rateLimit - (System.currentTimeMillis() - batchStartTime);
+        if (waitTime > 0) {
+            try {
+                Thread.sleep(waitTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int deleteExpiredEntries(Registry registry, List<String> codes, long currentTime)
+            throws RegistryException {
+
+        int deletedCount = 0;
+        boolean isTransactionSucceeded = false;
+        try {
+            registry.beginTransaction();
+            for (String code : codes) {
+                String dataPath = IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA + RegistryConstants.PATH_SEPARATOR +
+                        code;
+                if (!registry.resourceExists(dataPath)) {
+                    // Already invalidated after it was used.
+                    continue;
+                }
+                // The stored entry is checked again, in case it was replaced with a new expiry time after indexing.
+                String expireTime = registry.get(dataPath).getProperty(UserRecoveryDataStore.EXPIRE_TIME);
+                if (NumberUtils.isDigits(expireTime) && Long.parseLong(expireTime) < currentTime) {
+                    registry.delete(dataPath);
+                    deletedCount++;
+                }
+            }
+            isTransactionSucceeded = true;
+        } finally {
+            if (isTransactionSucceeded) {
+                registry.commitTransaction();
+            } else {
+                registry.rollbackTransaction();
+            }
+        }
+        return deletedCount;
+    }
+
+    private void collectCodes(Registry registry, String path, int prefixLength, List<String> codes)
+            throws RegistryException {
+
+        Resource resource = registry.get(path);
+        if (resource instanceof Collection) {
+            // Codes of the secondary user stores are nested in a collection of the user store.
+            for (String child : ((Collection) resource).getChildren()) {
+                collectCodes(registry, child, prefixLength, codes);
+            }
+        } else if (path.length() > prefixLength) {
+            codes.add(path.substring(prefixLength));
+        }
+    }
+
+    private static String getBucketPath(long expireTime) {
+
+        return IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA_EXPIRY_INDEX + RegistryConstants.PATH_SEPARATOR +
+                (expireTime - expireTime % BUCKET_WIDTH);
+    }
+}
@@ -21,6 +21,8 @@ package org.wso2.carbon.identity.mgt.store;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.mgt.IdentityMgtConfig;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
 import org.wso2.carbon.identity.mgt.internal.IdentityMgtServiceComponent;
 import org.wso2.carbon.registry.api.Resource;
 import org.wso2.carbon.registry.core.Collection;
@@ -31,6 +33,8 @@ import org.wso2.carbon.user.api.Tenant;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -60,18 +64,32 @@ public class RegistryCleanUpService {
         if(delayBetweenRuns == 0){
             return;
         }
-        Runnable registryCleanUpTask = new RegistryCleanUpTask();
+        Runnable registryCleanUpTask = new RegistryCleanUpTask(new RecoveryDataExpirySweeper(
+                IdentityMgtConfig.getInstance().getRegistryCleanUpBatchSize(),
+                IdentityMgtConfig.getInstance().getRegistryCleanUpRateLimit()));
         scheduler.scheduleWithFixedDelay(registryCleanUpTask, initialDelay, delayBetweenRuns,
                 TimeUnit.MINUTES);
 
     }
 
+    /**
+     * Deletes the expired confirmation codes of all the tenants. Until all the stored codes of a tenant are scanned
+     * successfully, each run iterates over them, so the codes stored before the expiry index was introduced are
+     * either deleted or indexed. The following runs only visit the expired codes of the tenant through the expiry
+     * index.
+     */
     private static final class RegistryCleanUpTask implements Runnable {
 
-        private static final String CONFIRMATION_REGISTRY_RESOURCE_PATH = "/repository/components/org.wso2.carbon" +
-                ".identity.mgt/data";
+        private static final String CONFIRMATION_REGISTRY_RESOURCE_PATH = IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA;
         private static final String EXPIRE_TIME_PROPERTY = "expireTime";
 
+        private final RecoveryDataExpirySweeper sweeper;
+        private final Set<Integer> indexedTenants = ConcurrentHashMap.newKeySet();
+
+        private RegistryCleanUpTask(RecoveryDataExpirySweeper sweeper) {
+            this.sweeper = sweeper;
+        }
+
         @Override
         public void run() {
 
@@ -97,6 +115,11 @@ public class RegistryCleanUpService {
                     try {
                         registry = IdentityMgtServiceComponent.getRegistryService().
                             getConfigSystemRegistry(PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId());
+                        if (indexedTenants.contains(tenant.getId())) {
+                            sweeper.sweep(registry);
+                            continue;
+                        }
+                        boolean isScanned = true;
                         String[] identityResourcesPaths = new String[0];
                         if (registry.resourceExists(CONFIRMATION_REGISTRY_RESOURCE_PATH)) {
                             identityDataResource = (Collection) registry.get(CONFIRMATION_REGISTRY_RESOURCE_PATH);
@@ -116,24 +139,25 @@ public class RegistryCleanUpService {
                                 }
                             } catch (RegistryException e) {
                                 log.error("Error while retrieving resource at " + identityResourcesPaths[j], e);
+                                isScanned = false;
                             }
                         }
+                        if (isScanned) {
+                            indexedTenants.add(tenant.getId());
+                        }
                     } catch (ResourceNotFoundException e) {
                         if(log.isDebugEnabled()){
                             log.debug("No resource found for tenant " + tenant.getDomain(), e);
                         }
                     } catch (RegistryException e) {
-                        if(log.isDebugEnabled()){
-                            log.debug("Error while deleting the expired confirmation code.", e);
-                        }
+                        log.error("Error while deleting the expired confirmation codes of tenant " +
+                                tenant.getDomain(), e);
                     } finally {
                         PrivilegedCarbonContext.endTenantFlow();
                     }
                 }
             } catch (UserStoreException e) {
-                if(log.isDebugEnabled()){
-                    log.debug("Error while getting the tenant manager.", e);
-                }
+                log.error("Error while getting the tenants to delete the expired confirmation codes.", e);
             }
             if (log.isDebugEnabled()) {
                 log.debug("Finished running the Identity-Management registry Data cleanup task.");
@@ -141,7 +165,7 @@ public class RegistryCleanUpService {
         }
 
         /**
-         * Check if resource has expired and delete.
+         * Check if resource has expired and delete. Resources which have not expired are added to the expiry index.
          *
          * @param registry Registry instance to use.
          * @param resourcePath Path of resource to be deleted.
@@ -156,6 +180,12 @@ public class RegistryCleanUpService {
             if (currentEpochTime > resourceExpireTime) {
 
                 registry.delete(resource.getId());
+            } else if (resourcePath.startsWith(CONFIRMATION_REGISTRY_RESOURCE_PATH + "/")) {
+                String code = resourcePath.substring(CONFIRMATION_REGISTRY_RESOURCE_PATH.length() + 1);
+                String expireTime = resource.getProperty(EXPIRE_TIME_PROPERTY);
+                if (!RecoveryDataExpirySweeper.isIndexed(registry, code, expireTime)) {
+                    RecoveryDataExpirySweeper.addIndexEntry(registry, code, expireTime);
+                }
             }
         }
 
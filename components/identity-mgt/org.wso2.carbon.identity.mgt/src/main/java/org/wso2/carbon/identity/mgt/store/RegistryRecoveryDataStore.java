@@ -79,6 +79,9 @@ public class RegistryRecoveryDataStore implements UserRecoveryDataStore {
             String confirmationKeyPath = IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA + "/" + recoveryDataDO.getCode
                     ().toLowerCase();
             registry.put(confirmationKeyPath, resource);
+            // Index the entry by its expiry time, so it can be deleted once expired without scanning all the entries.
+            RecoveryDataExpirySweeper.addIndexEntry(registry, recoveryDataDO.getCode().toLowerCase(),
+                    recoveryDataDO.getExpireTime());
         } catch (RegistryException e) {
             log.error(e);
             throw IdentityException.error("Error while persisting user recovery data for user : " +
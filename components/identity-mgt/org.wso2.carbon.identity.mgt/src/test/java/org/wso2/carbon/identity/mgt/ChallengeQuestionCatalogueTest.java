@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.mgt;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.mgt.cache.ChallengeQuestionCache;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
+import org.wso2.carbon.identity.mgt.dto.ChallengeQuestionDTO;
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests for the challenge question snapshots and the diff based writes of {@link ChallengeQuestionCatalogue}.
+ */
+@PrepareForTest(ChallengeQuestionCache.class)
+public class ChallengeQuestionCatalogueTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = 1;
+    private static final String QUESTIONS_PATH = IdentityMgtConstants.IDENTITY_MANAGEMENT_QUESTIONS;
+
+    private final Map<String, Resource> resources = new TreeMap<>();
+    private final AtomicInteger readCount = new AtomicInteger();
+    private final AtomicInteger writeCount = new AtomicInteger();
+    private final AtomicInteger deleteCount = new AtomicInteger();
+    private final Map<Integer, ChallengeQuestionCatalogue.Snapshot> cachedSnapshots = new ConcurrentHashMap<>();
+
+    private Registry registry;
+    private ChallengeQuestionCatalogue catalogue;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        resources.clear();
+        readCount.set(0);
+        writeCount.set(0);
+        deleteCount.set(0);
+        mockChallengeQuestionCache();
+        registry = mock(Registry.class);
+        when(registry.newResource()).thenAnswer(invocation -> new ResourceImpl());
+        when(registry.newCollection()).thenAnswer(invocation -> new CollectionImpl());
+        when(registry.resourceExists(anyString())).thenAnswer(invocation -> {
+            synchronized (resources) {
+                return resources.containsKey(invocation.getArguments()[0]);
+            }
+        });
+        when(registry.get(anyString())).thenAnswer(invocation -> {
+            String path = (String) invocation.getArguments()[0];
+            synchronized (resources) {
+                if (QUESTIONS_PATH.equals(path)) {
+                    List<String> children = new ArrayList<>();
+                    for (String resourcePath : resources.keySet()) {
+                        if (resourcePath.startsWith(QUESTIONS_PATH + "/")) {
+                            children.add(resourcePath);
+                        }
+                    }
+                    Resource collection = new CollectionImpl();
+                    collection.setContent(children.toArray(new String[children.size()]));
+                    return collection;
+                }
+                readCount.incrementAndGet();
+                return resources.get(path);
+            }
+        });
+        when(registry.put(anyString(), any(Resource.class))).thenAnswer(invocation -> {
+            synchronized (resources) {
+                resources.put((String) invocation.getArguments()[0], (Resource) invocation.getArguments()[1]);
+            }
+            writeCount.incrementAndGet();
+            return invocation.getArguments()[0];
+        });
+        doAnswer(invocation -> {
+            synchronized (resources) {
+                resources.remove(invocation.getArguments()[0]);
+            }
+            deleteCount.incrementAndGet();
+            return null;
+        }).when(registry).delete(anyString());
+
+        catalogue = new ChallengeQuestionCatalogue();
+    }
+
+    @Test
+    public void testQuestionsAreReadOnce() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{
+                createQuestion("City?", "set1"), createQuestion("Pet?", "set2")});
+        ChallengeQuestionCatalogue reader = new ChallengeQuestionCatalogue();
+
+        List<ChallengeQuestionDTO> questions = reader.getQuestions(registry, TENANT_ID);
+        assertEquals(questions.size(), 2);
+        assertEquals(questions.get(0).getQuestion(), "City?");
+        assertEquals(questions.get(1).getQuestionSetId(), "set2");
+        reader.getQuestions(registry, TENANT_ID);
+        assertEquals(readCount.get(), 2, "Each question should be read from the registry once");
+
+        // Returned questions are copies.
+        questions.get(0).setQuestion("Changed");
+        assertEquals(reader.getQuestions(registry, TENANT_ID).get(0).getQuestion(), "City?");
+    }
+
+    @Test
+    public void testQuestionsByQuestionSet() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{
+                createQuestion("City?", "set1"), createQuestion("Pet?", "set2"), createQuestion("School?", "set1")});
+
+        List<ChallengeQuestionDTO> questions = catalogue.getQuestions(registry, TENANT_ID, "set1");
+        assertEquals(questions.size(), 2);
+        assertEquals(questions.get(0).getQuestion(), "City?");
+        assertEquals(questions.get(1).getQuestion(), "School?");
+        assertTrue(catalogue.getQuestions(registry, TENANT_ID, "set3").isEmpty());
+    }
+
+    @Test
+    public void testOnlyChangedQuestionsAreWritten() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{
+                createQuestion("City?", "set1"), createQuestion("Pet?", "set2"), createQuestion("School?", "set1")});
+        writeCount.set(0);
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{
+                createQuestion("City?", "set1"), createQuestion("Car?", "set2")});
+        assertEquals(writeCount.get(), 1);
+        assertEquals(deleteCount.get(), 1);
+
+        List<ChallengeQuestionDTO> questions = new ChallengeQuestionCatalogue().getQuestions(registry, TENANT_ID);
+        assertEquals(questions.size(), 2);
+        assertEquals(questions.get(1).getQuestion(), "Car?");
+    }
+
+    @Test
+    public void testConcurrentReadersDuringRewrite() throws Exception {
+
+        final ChallengeQuestionDTO[] firstSet = new ChallengeQuestionDTO[]{
+                createQuestion("A1?", "a"), createQuestion("A2?", "a"), createQuestion("A3?", "a")};
+        final ChallengeQuestionDTO[] secondSet = new ChallengeQuestionDTO[]{
+                createQuestion("B1?", "b"), createQuestion("B2?", "b"), createQuestion("B3?", "b"),
+                createQuestion("B4?", "b"), createQuestion("B5?", "b")};
+        catalogue.setQuestions(registry, TENANT_ID, firstSet);
+
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        List<Future<?>> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            readers.add(executor.submit(() -> {
+                while (writing.get()) {
+                    List<ChallengeQuestionDTO> questions = catalogue.getQuestions(registry, TENANT_ID);
+                    String questionSetId = questions.get(0).getQuestionSetId();
+                    // A reader should never see a half written question list.
+                    assertEquals(questions.size(), "a".equals(questionSetId) ? 3 : 5);
+                    for (ChallengeQuestionDTO question : questions) {
+                        assertEquals(question.getQuestionSetId(), questionSetId);
+                    }
+                    assertEquals(catalogue.getQuestions(registry, TENANT_ID, "c").size(), 0);
+                }
+                return null;
+            }));
+        }
+        Future<?> writer = executor.submit(() -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    catalogue.setQuestions(registry, TENANT_ID, i % 2 == 0 ? secondSet : firstSet);
+                }
+            } finally {
+                writing.set(false);
+            }
+            return null;
+        });
+
+        writer.get(30, TimeUnit.SECONDS);
+        for (Future<?> reader : readers) {
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            fail("Readers did not complete");
+        }
+        assertEquals(catalogue.getQuestions(registry, TENANT_ID).size(), 3);
+    }
+
+    @Test
+    public void testFailedWriteInvalidatesQuestions() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{
+                createQuestion("City?", "set1"), createQuestion("Pet?", "set2")});
+        catalogue.getQuestions(registry, TENANT_ID);
+        assertTrue(cachedSnapshots.containsKey(TENANT_ID));
+
+        Registry failingRegistry = mock(Registry.class);
+        when(failingRegistry.resourceExists(anyString())).thenAnswer(invocation ->
+                registry.resourceExists((String) invocation.getArguments()[0]));
+        when(failingRegistry.get(anyString())).thenAnswer(invocation ->
+                registry.get((String) invocation.getArguments()[0]));
+        when(failingRegistry.newResource()).thenAnswer(invocation -> new ResourceImpl());
+        when(failingRegistry.put(anyString(), any(Resource.class))).thenAnswer(invocation -> {
+            String path = (String) invocation.getArguments()[0];
+            if (path.endsWith("question1")) {
+                throw new RegistryException("Failed to write " + path);
+            }
+            return registry.put(path, (Resource) invocation.getArguments()[1]);
+        });
+        try {
+            catalogue.setQuestions(failingRegistry, TENANT_ID, new ChallengeQuestionDTO[]{
+                    createQuestion("Car?", "set1"), createQuestion("School?", "set2")});
+            fail("Write failure was not reported");
+        } catch (RegistryException e) {
+            // Expected.
+        }
+
+        // The partially written questions should be read again from the registry.
+        assertFalse(cachedSnapshots.containsKey(TENANT_ID));
+        List<ChallengeQuestionDTO> questions = catalogue.getQuestions(registry, TENANT_ID);
+        assertEquals(questions.get(0).getQuestion(), "Car?");
+        assertEquals(questions.get(1).getQuestion(), "Pet?");
+    }
+
+    @Test
+    public void testStoredQuestionsAreNotReadFromCache() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{createQuestion("City?", "set1")});
+        assertEquals(catalogue.getQuestions(registry, TENANT_ID, "set1").size(), 1);
+
+        // Questions added by another node, which has not yet invalidated the cached snapshot.
+        ResourceImpl resource = new ResourceImpl();
+        resource.addProperty("question", "Pet?");
+        resource.addProperty("questionSetId", "set1");
+        synchronized (resources) {
+            resources.put(QUESTIONS_PATH + "/question1", resource);
+        }
+
+        assertEquals(catalogue.getQuestions(registry, TENANT_ID, "set1").size(), 1);
+        assertEquals(catalogue.getStoredQuestions(registry, TENANT_ID, "set1").size(), 2);
+        assertEquals(catalogue.getQuestions(registry, TENANT_ID, "set1").size(), 2);
+    }
+
+    @Test
+    public void testSlowTenantDoesNotBlockOtherTenants() throws Exception {
+
+        catalogue.setQuestions(registry, TENANT_ID, new ChallengeQuestionDTO[]{createQuestion("City?", "set1")});
+        cachedSnapshots.clear();
+
+        final CountDownLatch slowReadStarted = new CountDownLatch(1);
+        final CountDownLatch releaseSlowRead = new CountDownLatch(1);
+        Registry slowRegistry = mock(Registry.class);
+        when(slowRegistry.resourceExists(anyString())).thenAnswer(invocation -> {
+            slowReadStarted.countDown();
+            releaseSlowRead.await(30, TimeUnit.SECONDS);
+            return false;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ChallengeQuestionDTO>> slowReader = executor.submit(() ->
+                    catalogue.getQuestions(slowRegistry, TENANT_ID + 1));
+            assertTrue(slowReadStarted.await(30, TimeUnit.SECONDS));
+
+            // The questions of the other tenant are read while the slow tenant holds its lock.
+            Future<List<ChallengeQuestionDTO>> reader = executor.submit(() ->
+                    catalogue.getQuestions(registry, TENANT_ID));
+            assertEquals(reader.get(5, TimeUnit.SECONDS).size(), 1);
+
+            releaseSlowRead.countDown();
+            assertTrue(slowReader.get(30, TimeUnit.SECONDS).isEmpty());
+        } finally {
+            releaseSlowRead.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private void mockChallengeQuestionCache() {
+
+        cachedSnapshots.clear();
+        ChallengeQuestionCache challengeQuestionCache = mock(ChallengeQuestionCache.class);
+        mockStatic(ChallengeQuestionCache.class);
+        when(ChallengeQuestionCache.getInstance()).thenReturn(challengeQuestionCache);
+        doAnswer(invocation -> cachedSnapshots.get(invocation.getArguments()[0]))
+                .when(challengeQuestionCache).getValueFromCache(anyInt());
+        doAnswer(invocation -> cachedSnapshots.put((Integer) invocation.getArguments()[0],
+                (ChallengeQuestionCatalogue.Snapshot) invocation.getArguments()[1])).when(challengeQuestionCache)
+                .addToCache(anyInt(), any(ChallengeQuestionCatalogue.Snapshot.class));
+        doAnswer(invocation -> cachedSnapshots.remove(invocation.getArguments()[0]))
+                .when(challengeQuestionCache).clearCacheEntry(anyInt());
+        doAnswer(invocation -> {
+            cachedSnapshots.clear();
+            return null;
+        }).when(challengeQuestionCache).clear();
+    }
+
+    private ChallengeQuestionDTO createQuestion(String question, String questionSetId) {
+
+        ChallengeQuestionDTO questionDTO = new ChallengeQuestionDTO();
+        questionDTO.setQuestion(question);
+        questionDTO.setQuestionSetId(questionSetId);
+        questionDTO.setPromoteQuestion(true);
+        return questionDTO;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.config;
+
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.mgt.cache.ChallengeQuestionCache;
+import org.wso2.carbon.identity.mgt.cache.EmailConfigCache;
+import org.wso2.carbon.identity.mgt.internal.IdentityMgtServiceComponent;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.service.RegistryService;
+import org.wso2.carbon.registry.core.session.UserRegistry;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for the tenant wise caching of the configurations loaded by {@link ConfigBuilder}.
+ */
+@PrepareForTest({EmailConfigCache.class, ChallengeQuestionCache.class})
+public class ConfigBuilderTest extends PowerMockTestCase {
+
+    private static final int TENANT_ID = 1;
+    private static final String EMAIL_TEMPLATE_PATH = "identity/config/emailTemplate";
+
+    private UserRegistry userRegistry;
+    private Map<Integer, Properties> cachedConfigurations;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        mockCaches();
+
+        Properties properties = new Properties();
+        properties.put("passwordReset", Collections.singletonList("Reset|Body|Footer"));
+        Resource resource = mock(Resource.class);
+        when(resource.getProperties()).thenReturn(properties);
+
+        userRegistry = mock(UserRegistry.class);
+        when(userRegistry.get(EMAIL_TEMPLATE_PATH)).thenReturn(resource);
+        when(userRegistry.newResource()).thenReturn(mock(Resource.class));
+        RegistryService registryService = mock(RegistryService.class);
+        when(registryService.getConfigSystemRegistry(TENANT_ID)).thenReturn(userRegistry);
+        setRegistryService(registryService);
+        ConfigBuilder.getInstance().invalidateAllConfigurations();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        ConfigBuilder.getInstance().invalidateAllConfigurations();
+        setRegistryService(null);
+    }
+
+    @Test
+    public void testConfigurationIsReadOnce() throws Exception {
+
+        Config config = ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY,
+                TENANT_ID);
+        assertEquals(config.getProperty("passwordReset"), "Reset|Body|Footer");
+
+        // Changes to a loaded configuration should not leak into the cache.
+        config.setProperty("passwordReset", "Changed");
+        config = ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY, TENANT_ID);
+        assertEquals(config.getProperty("passwordReset"), "Reset|Body|Footer");
+        verify(userRegistry, times(1)).get(EMAIL_TEMPLATE_PATH);
+        assertEquals(cachedConfigurations.get(TENANT_ID).getProperty("passwordReset"), "Reset|Body|Footer");
+    }
+
+    @Test
+    public void testSaveInvalidatesConfiguration() throws Exception {
+
+        ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY, TENANT_ID);
+        ConfigBuilder.getInstance().saveConfiguration(StorageType.REGISTRY, TENANT_ID,
+                new EmailNotificationConfig());
+        ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY, TENANT_ID);
+
+        verify(userRegistry, times(1)).put(anyString(), any(Resource.class));
+        verify(userRegistry, times(2)).get(EMAIL_TEMPLATE_PATH);
+    }
+
+    @Test
+    public void testRegistryHandlerInvalidatesConfiguration() throws Exception {
+
+        ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY, TENANT_ID);
+        new ConfigRegistryHandler().put(null);
+        ConfigBuilder.getInstance().loadConfiguration(ConfigType.EMAIL, StorageType.REGISTRY, TENANT_ID);
+
+        verify(userRegistry, times(2)).get(EMAIL_TEMPLATE_PATH);
+    }
+
+    private void mockCaches() {
+
+        cachedConfigurations = new HashMap<>();
+        EmailConfigCache emailConfigCache = mock(EmailConfigCache.class);
+        mockStatic(EmailConfigCache.class);
+        when(EmailConfigCache.getInstance()).thenReturn(emailConfigCache);
+        doAnswer(invocation -> cachedConfigurations.get(invocation.getArguments()[0]))
+                .when(emailConfigCache).getValueFromCache(anyInt());
+        doAnswer(invocation -> cachedConfigurations.put((Integer) invocation.getArguments()[0],
+                (Properties) invocation.getArguments()[1])).when(emailConfigCache)
+                .addToCache(anyInt(), any(Properties.class));
+        doAnswer(invocation -> cachedConfigurations.remove(invocation.getArguments()[0]))
+                .when(emailConfigCache).clearCacheEntry(anyInt());
+        doAnswer(invocation -> {
+            cachedConfigurations.clear();
+            return null;
+        }).when(emailConfigCache).clear();
+
+        // Challenge questions are also invalidated by the registry handler.
+        mockStatic(ChallengeQuestionCache.class);
+        when(ChallengeQuestionCache.getInstance()).thenReturn(mock(ChallengeQuestionCache.class));
+    }
+
+    private void setRegistryService(RegistryService registryService) throws Exception {
+
+        Field field = IdentityMgtServiceComponent.class.getDeclaredField("registryService");
+        field.setAccessible(true);
+        field.set(null, registryService);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.internal;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.common.AbstractUserOperationEventListener;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+/**
+ * Tests for the user operation event listener chains of {@link IdentityMgtServiceDataHolder}.
+ */
+public class IdentityMgtServiceDataHolderTest {
+
+    private final List<UserOperationEventListener> addedListeners = new ArrayList<>();
+
+    @AfterMethod
+    public void tearDown() {
+
+        for (UserOperationEventListener listener : addedListeners) {
+            IdentityMgtServiceDataHolder.getInstance().removeUserOperationEventListener(listener);
+        }
+        addedListeners.clear();
+    }
+
+    @Test
+    public void testListenerChainsAreFilteredByOperation() {
+
+        UserOperationEventListener preAuthListener = new PreAuthenticateListener(1001);
+        UserOperationEventListener postAuthListener = new PostAuthenticateListener(1000);
+        addListener(preAuthListener);
+        addListener(postAuthListener);
+
+        UserOperationEventListener[] preAuthChain = IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain("doPreAuthenticate");
+        assertEquals(preAuthChain.length, 1);
+        assertSame(preAuthChain[0], preAuthListener);
+
+        UserOperationEventListener[] postAuthChain = IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain("doPostAuthenticate");
+        assertEquals(postAuthChain.length, 1);
+        assertSame(postAuthChain[0], postAuthListener);
+
+        assertEquals(IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain("doPreDeleteUser").length, 0);
+
+        // The full chain is ordered by the execution order id.
+        UserOperationEventListener[] chain = IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain();
+        assertEquals(chain.length, 2);
+        assertSame(chain[0], postAuthListener);
+        assertSame(chain[1], preAuthListener);
+    }
+
+    @Test
+    public void testListenerChainsAreRebuiltOnRemove() {
+
+        UserOperationEventListener preAuthListener = new PreAuthenticateListener(1001);
+        UserOperationEventListener subclassListener = new PreAuthenticateListener(1002) {
+        };
+        addListener(preAuthListener);
+        addListener(subclassListener);
+        assertEquals(IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain("doPreAuthenticate").length, 2);
+
+        IdentityMgtServiceDataHolder.getInstance().removeUserOperationEventListener(preAuthListener);
+        UserOperationEventListener[] preAuthChain = IdentityMgtServiceDataHolder.getInstance()
+                .getUserOperationEventListenerChain("doPreAuthenticate");
+        assertEquals(preAuthChain.length, 1);
+        assertSame(preAuthChain[0], subclassListener);
+    }
+
+    private void addListener(UserOperationEventListener listener) {
+
+        IdentityMgtServiceDataHolder.getInstance().addUserOperationEventListener(listener);
+        addedListeners.add(listener);
+    }
+
+    private static class PreAuthenticateListener extends AbstractUserOperationEventListener {
+
+        private final int orderId;
+
+        PreAuthenticateListener(int orderId) {
+
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int getExecutionOrderId() {
+
+            return orderId;
+        }
+
+        @Override
+        public boolean doPreAuthenticate(String userName, Object credential, UserStoreManager userStoreManager)
+                throws UserStoreException {
+
+            return true;
+        }
+    }
+
+    private static class PostAuthenticateListener extends AbstractUserOperationEventListener {
+
+        private final int orderId;
+
+        PostAuthenticateListener(int orderId) {
+
+            this.orderId = orderId;
+        }
+
+        @Override
+        public int getExecutionOrderId() {
+
+            return orderId;
+        }
+
+        @Override
+        public boolean doPostAuthenticate(String userName, boolean authenticated, UserStoreManager userStoreManager)
+                throws UserStoreException {
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.store;
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.testng.PowerMockTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.identity.core.util.IdentityDatabaseUtil;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.mgt.dto.UserIdentityClaimsDO;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserStoreManager;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.Cache;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.powermock.api.mockito.PowerMockito.mockStatic;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+
+/**
+ * H2 backed tests for the write-through identity data caching and batched persistence of
+ * {@link JDBCIdentityDataStore}.
+ */
+@PrepareForTest({IdentityDatabaseUtil.class, IdentityUtil.class, PrivilegedCarbonContext.class})
+public class JDBCIdentityDataStoreTest extends PowerMockTestCase {
+
+    private static final String DB_URL = "jdbc:h2:mem:identityUserData;DB_CLOSE_DELAY=-1";
+    private static final String USER_NAME = "testUser";
+    private static final int TENANT_ID = -1234;
+
+    private final AtomicInteger queryCount = new AtomicInteger();
+    private final AtomicInteger writeCount = new AtomicInteger();
+    private final Map<String, UserIdentityClaimsDO> cacheEntries = new HashMap<>();
+
+    private Connection dbHolder;
+    private UserStoreManager userStoreManager;
+    private JDBCIdentityDataStore identityDataStore;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        dbHolder = DriverManager.getConnection(DB_URL);
+        dbHolder.createStatement().executeUpdate("CREATE TABLE IDN_IDENTITY_USER_DATA (" +
+                "TENANT_ID INTEGER DEFAULT -1234, USER_NAME VARCHAR(255) NOT NULL, DATA_KEY VARCHAR(255) NOT NULL, " +
+                "DATA_VALUE VARCHAR(2048), PRIMARY KEY (TENANT_ID, USER_NAME, DATA_KEY))");
+
+        mockStatic(IdentityDatabaseUtil.class);
+        Answer<Connection> connectionAnswer = new Answer<Connection>() {
+            @Override
+            public Connection answer(InvocationOnMock invocation) throws Throwable {
+                return countingConnection(DriverManager.getConnection(DB_URL));
+            }
+        };
+        when(IdentityDatabaseUtil.getDBConnection()).thenAnswer(connectionAnswer);
+        when(IdentityDatabaseUtil.getDBConnection(anyBoolean())).thenAnswer(connectionAnswer);
+
+        mockStatic(IdentityUtil.class);
+        when(IdentityUtil.isUserStoreInUsernameCaseSensitive(anyString(), anyInt())).thenReturn(true);
+        when(IdentityUtil.isUserStoreCaseSensitive(any(UserStoreManager.class))).thenReturn(true);
+
+        mockStatic(PrivilegedCarbonContext.class);
+        when(PrivilegedCarbonContext.getThreadLocalCarbonContext()).thenReturn(mock(PrivilegedCarbonContext.class));
+
+        RealmConfiguration realmConfiguration = mock(RealmConfiguration.class);
+        when(realmConfiguration.getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME))
+                .thenReturn(UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME);
+        userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.getRealmConfiguration()).thenReturn(realmConfiguration);
+        when(userStoreManager.getTenantId()).thenReturn(TENANT_ID);
+
+        final Cache<String, UserIdentityClaimsDO> cache = mockCache();
+        identityDataStore = new JDBCIdentityDataStore() {
+            @Override
+            protected Cache<String, UserIdentityClaimsDO> getCache() {
+                return cache;
+            }
+        };
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        dbHolder.createStatement().executeUpdate("DROP TABLE IDN_IDENTITY_USER_DATA");
+        dbHolder.close();
+        cacheEntries.clear();
+    }
+
+    @Test
+    public void testLoginDatabaseOperations() throws Exception {
+
+        // First login loads from the database and writes all the claims in a single batch.
+        UserIdentityClaimsDO userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        assertNotNull(userIdentityDO);
+        userIdentityDO.setFailAttempts(0);
+        userIdentityDO.setAccountLock(false);
+        userIdentityDO.setLastLogonTime(1000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(queryCount.get(), 1);
+        assertEquals(writeCount.get(), 1);
+        assertEquals(getPersistedValue(UserIdentityDataStore.LAST_LOGON_TIME), "1000");
+
+        // Subsequent pre and post authenticate calls share the cached claims and write the claims set in a batch.
+        resetCounts();
+        userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        userIdentityDO.setFailAttempts(0);
+        userIdentityDO.setAccountLock(false);
+        userIdentityDO.setLastLogonTime(2000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(queryCount.get(), 0);
+        assertEquals(writeCount.get(), 1);
+        assertEquals(getPersistedValue(UserIdentityDataStore.LAST_LOGON_TIME), "2000");
+        assertEquals(getPersistedValue(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS), "0");
+
+        // Storing unchanged claims does not touch the database.
+        resetCounts();
+        identityDataStore.store(identityDataStore.load(USER_NAME, userStoreManager), userStoreManager);
+        assertEquals(queryCount.get(), 0);
+        assertEquals(writeCount.get(), 0);
+    }
+
+    @Test
+    public void testStoreWithStalePersistedState() throws Exception {
+
+        UserIdentityClaimsDO userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        assertNotNull(userIdentityDO);
+
+        // Simulate a write through another node which is not reflected in the cached claims.
+        PreparedStatement prepStmt = dbHolder.prepareStatement("INSERT INTO IDN_IDENTITY_USER_DATA (TENANT_ID, " +
+                "USER_NAME, DATA_KEY, DATA_VALUE) VALUES (?,?,?,?)");
+        prepStmt.setInt(1, TENANT_ID);
+        prepStmt.setString(2, USER_NAME);
+        prepStmt.setString(3, UserIdentityDataStore.LAST_LOGON_TIME);
+        prepStmt.setString(4, "1000");
+        prepStmt.execute();
+
+        userIdentityDO.setLastLogonTime(3000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(getPersistedValue(UserIdentityDataStore.LAST_LOGON_TIME), "3000");
+
+        // Persisted state is reconciled, hence the next change is written without a lookup.
+        resetCounts();
+        userIdentityDO.setLastLogonTime(4000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(queryCount.get(), 0);
+        assertEquals(writeCount.get(), 1);
+        assertEquals(getPersistedValue(UserIdentityDataStore.LAST_LOGON_TIME), "4000");
+    }
+
+    @Test
+    public void testSetClaimIsWrittenWhenCachedStateIsStale() throws Exception {
+
+        UserIdentityClaimsDO userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        userIdentityDO.setFailAttempts(0);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+
+        // Simulate failed login attempts through another node which are not reflected in the cached claims.
+        PreparedStatement prepStmt = dbHolder.prepareStatement("UPDATE IDN_IDENTITY_USER_DATA SET DATA_VALUE = ? " +
+                "WHERE TENANT_ID = ? AND USER_NAME = ? AND DATA_KEY = ?");
+        prepStmt.setString(1, "3");
+        prepStmt.setInt(2, TENANT_ID);
+        prepStmt.setString(3, USER_NAME);
+        prepStmt.setString(4, UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS);
+        prepStmt.executeUpdate();
+
+        // Resetting the attempts on a successful login should be written, although it matches the cached state.
+        userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        userIdentityDO.setFailAttempts(0);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(getPersistedValue(UserIdentityDataStore.FAIL_LOGIN_ATTEMPTS), "0");
+    }
+
+    @Test
+    public void testValueIsWrittenWhenRowWasDeletedMeanwhile() throws Exception {
+
+        UserIdentityClaimsDO userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        userIdentityDO.setLastLogonTime(1000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+
+        // Simulate the deletion of the user data through another node, which is not reflected in the cached claims.
+        PreparedStatement prepStmt = dbHolder.prepareStatement("DELETE FROM IDN_IDENTITY_USER_DATA WHERE " +
+                "TENANT_ID = ? AND USER_NAME = ?");
+        prepStmt.setInt(1, TENANT_ID);
+        prepStmt.setString(2, USER_NAME);
+        prepStmt.executeUpdate();
+
+        // The update based on the cached state finds no row, hence the value is inserted.
+        userIdentityDO = identityDataStore.load(USER_NAME, userStoreManager);
+        userIdentityDO.setLastLogonTime(2000L);
+        identityDataStore.store(userIdentityDO, userStoreManager);
+        assertEquals(getPersistedValue(UserIdentityDataStore.LAST_LOGON_TIME), "2000");
+    }
+
+    private void resetCounts() {
+
+        queryCount.set(0);
+        writeCount.set(0);
+    }
+
+    private String getPersistedValue(String key) throws SQLException {
+
+        PreparedStatement prepStmt = dbHolder.prepareStatement("SELECT DATA_VALUE FROM IDN_IDENTITY_USER_DATA " +
+                "WHERE TENANT_ID = ? AND USER_NAME = ? AND DATA_KEY = ?");
+        prepStmt.setInt(1, TENANT_ID);
+        prepStmt.setString(2, USER_NAME);
+        prepStmt.setString(3, key);
+        ResultSet resultSet = prepStmt.executeQuery();
+        return resultSet.next() ? resultSet.getString(1) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<String, UserIdentityClaimsDO> mockCache() {
+
+        Cache<String, UserIdentityClaimsDO> cache = mock(Cache.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                cacheEntries.put((String) invocation.getArguments()[0],
+                        (UserIdentityClaimsDO) invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(cache).put(anyString(), any(UserIdentityClaimsDO.class));
+        when(cache.get(anyString())).thenAnswer(new Answer<UserIdentityClaimsDO>() {
+            @Override
+            public UserIdentityClaimsDO answer(InvocationOnMock invocation) {
+                return cacheEntries.get(invocation.getArguments()[0]);
+            }
+        });
+        when(cache.remove(anyString())).thenAnswer(new Answer<Boolean>() {
+            @Override
+            public Boolean answer(InvocationOnMock invocation) {
+                return cacheEntries.remove(invocation.getArguments()[0]) != null;
+            }
+        });
+        return cache;
+    }
+
+    /**
+     * Wraps a connection so that the statement executions against the database are counted.
+     */
+    private Connection countingConnection(final Connection connection) {
+
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        Object result = method.invoke(connection, args);
+                        if (result instanceof PreparedStatement) {
+                            return countingStatement((PreparedStatement) result);
+                        }
+                        return result;
+                    }
+                });
+    }
+
+    private PreparedStatement countingStatement(final PreparedStatement prepStmt) {
+
+        return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{PreparedStatement.class}, new InvocationHandler() {
+                    @Override
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        if ("executeQuery".equals(method.getName())) {
+                            queryCount.incrementAndGet();
+                        } else if (method.getName().startsWith("execute")) {
+                            writeCount.incrementAndGet();
+                        }
+                        return method.invoke(prepStmt, args);
+                    }
+                });
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.identity.mgt.store;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.mgt.constants.IdentityMgtConstants;
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the index driven deletion of the expired recovery data by {@link RecoveryDataExpirySweeper}.
+ */
+public class RecoveryDataExpirySweeperTest {
+
+    private static final long CURRENT_TIME = 1500000030000L;
+    private static final long VALID_EXPIRE_TIME = CURRENT_TIME + 60 * 60 * 1000L;
+    private static final long EXPIRED_EXPIRE_TIME = CURRENT_TIME - 10 * 60 * 1000L;
+
+    // Leaf resources by their path. Collections are implied by the paths of their children.
+    private final Map<String, Resource> resources = new TreeMap<>();
+    private final AtomicInteger readCount = new AtomicInteger();
+    private final AtomicInteger dataReadCount = new AtomicInteger();
+
+    private Registry registry;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        resources.clear();
+        readCount.set(0);
+        dataReadCount.set(0);
+        registry = mock(Registry.class);
+        when(registry.newResource()).thenAnswer(invocation -> new ResourceImpl());
+        when(registry.resourceExists(anyString())).thenAnswer(invocation -> {
+            String path = (String) invocation.getArguments()[0];
+            return resources.containsKey(path) || !getChildren(path).isEmpty();
+        });
+        when(registry.get(anyString())).thenAnswer(invocation -> {
+            String path = (String) invocation.getArguments()[0];
+            readCount.incrementAndGet();
+            if (resources.containsKey(path)) {
+                if (path.startsWith(IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA + "/")) {
+                    dataReadCount.incrementAndGet();
+                }
+                return resources.get(path);
+            }
+            List<String> children = getChildren(path);
+            if (children.isEmpty()) {
+                throw new ResourceNotFoundException(path);
+            }
+            Resource collection = new CollectionImpl();
+            collection.setContent(children.toArray(new String[children.size()]));
+            return collection;
+        });
+        when(registry.put(anyString(), any(Resource.class))).thenAnswer(invocation -> {
+            resources.put((String) invocation.getArguments()[0], (Resource) invocation.getArguments()[1]);
+            return invocation.getArguments()[0];
+        });
+        doAnswer(invocation -> {
+            String path = (String) invocation.getArguments()[0];
+            Iterator<String> iterator = resources.keySet().iterator();
+            while (iterator.hasNext()) {
+                String resourcePath = iterator.next();
+                if (resourcePath.equals(path) || resourcePath.startsWith(path + "/")) {
+                    iterator.remove();
+                }
+            }
+            return null;
+        }).when(registry).delete(anyString());
+    }
+
+    @Test
+    public void testOnlyExpiredCodesAreDeleted() throws Exception {
+
+        for (int i = 0; i < 20; i++) {
+            store("valid" + i, VALID_EXPIRE_TIME);
+            store("expired" + i, EXPIRED_EXPIRE_TIME);
+        }
+        store("secondary/expired", EXPIRED_EXPIRE_TIME);
+        // Expires within the current bucket, which is only swept once the whole bucket has expired.
+        store("expiring", CURRENT_TIME - 1);
+        // Stored again with a later expiry time, so its old index entry is stale.
+        store("renewed", EXPIRED_EXPIRE_TIME);
+        store("renewed", VALID_EXPIRE_TIME);
+        // Already invalidated after it was used.
+        store("used", EXPIRED_EXPIRE_TIME);
+        resources.remove(getDataPath("used"));
+
+        RecoveryDataExpirySweeper sweeper = new RecoveryDataExpirySweeper(7, 0);
+        assertEquals(sweeper.sweep(registry, CURRENT_TIME), 21);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(resources.containsKey(getDataPath("valid" + i)));
+            assertFalse(resources.containsKey(getDataPath("expired" + i)));
+        }
+        assertFalse(resources.containsKey(getDataPath("secondary/expired")));
+        assertTrue(resources.containsKey(getDataPath("renewed")));
+        assertTrue(resources.containsKey(getDataPath("expiring")));
+
+        assertEquals(sweeper.sweep(registry, CURRENT_TIME + RecoveryDataExpirySweeper.BUCKET_WIDTH), 1);
+        assertFalse(resources.containsKey(getDataPath("expiring")));
+        assertTrue(resources.containsKey(getDataPath("renewed")));
+
+        assertEquals(sweeper.sweep(registry, VALID_EXPIRE_TIME + RecoveryDataExpirySweeper.BUCKET_WIDTH), 21);
+        for (String path : resources.keySet()) {
+            assertFalse(path.startsWith(IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA + "/"), path);
+        }
+    }
+
+    @Test
+    public void testSweepCostScalesWithExpiredCodes() throws Exception {
+
+        List<Integer> readCounts = new ArrayList<>();
+        for (int validCount : new int[]{10, 1000}) {
+            setUp();
+            for (int i = 0; i < validCount; i++) {
+                store("valid" + i, VALID_EXPIRE_TIME + i * 1000L);
+            }
+            for (int i = 0; i < 10; i++) {
+                store("expired" + i, EXPIRED_EXPIRE_TIME);
+            }
+            readCount.set(0);
+            assertEquals(new RecoveryDataExpirySweeper(100, 0).sweep(registry, CURRENT_TIME), 10);
+            assertEquals(dataReadCount.get(), 10);
+            readCounts.add(readCount.get());
+        }
+        assertEquals(readCounts.get(1), readCounts.get(0), "Sweep should not read the codes which have not expired");
+    }
+
+    @Test
+    public void testExpiredCodesAreDeletedInRateLimitedBatches() throws Exception {
+
+        for (int i = 0; i < 25; i++) {
+            store("expired" + i, EXPIRED_EXPIRE_TIME);
+        }
+        final List<Integer> throttledBatches = new ArrayList<>();
+        RecoveryDataExpirySweeper sweeper = new RecoveryDataExpirySweeper(10, 5) {
+
+            @Override
+            void throttle(int batchCount, long batchStartTime) {
+                throttledBatches.add(batchCount);
+            }
+        };
+
+        assertEquals(sweeper.sweep(registry, CURRENT_TIME), 25);
+        verify(registry, times(3)).beginTransaction();
+        verify(registry, times(3)).commitTransaction();
+        assertEquals(throttledBatches.size(), 2);
+        assertEquals(throttledBatches.get(0).intValue(), 10);
+        assertEquals(throttledBatches.get(1).intValue(), 10);
+    }
+
+    private void store(String code, long expireTime) throws Exception {
+
+        Resource resource = registry.newResource();
+        resource.setProperty(UserRecoveryDataStore.EXPIRE_TIME, String.valueOf(expireTime));
+        registry.put(getDataPath(code), resource);
+        RecoveryDataExpirySweeper.addIndexEntry(registry, code, String.valueOf(expireTime));
+    }
+
+    private List<String> getChildren(String path) {
+
+        List<String> children = new ArrayList<>();
+        for (String resourcePath : resources.keySet()) {
+            if (resourcePath.startsWith(path + "/")) {
+                int end = resourcePath.indexOf('/', path.length() + 1);
+                String child = end < 0 ? resourcePath : resourcePath.substring(0, end);
+                if (!children.contains(child)) {
+                    children.add(child);
+                }
+            }
+        }
+        return children;
+    }
+
+    private static String getDataPath(String code) {
+
+        return IdentityMgtConstants.IDENTITY_MANAGEMENT_DATA + "/" + code;
+    }
+}
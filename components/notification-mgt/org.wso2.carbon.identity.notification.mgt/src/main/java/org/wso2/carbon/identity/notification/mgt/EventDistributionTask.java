@@ -21,30 +21,83 @@ package org.wso2.carbon.identity.notification.mgt;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.notification.mgt.EventJournal.JournalEntry;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration;
 import org.wso2.carbon.identity.notification.mgt.bean.PublisherEvent;
 import org.wso2.carbon.identity.notification.mgt.internal.NotificationManagementServiceDataHolder;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This has a queue inside. All publishers add events to this queue and this event distribution task is responsible
- * for distributing these events to Notification sending modules
+ * for distributing these events to Notification sending modules.
+ * <p>
+ * Events are recorded in an {@link EventJournal} before they are queued, and events which were not completed before
+ * the last shutdown are queued again on start up. An event which is waiting for a subscribed module that is not
+ * registered yet is held back until a module is registered, and is moved to the dead letter file of the journal if the
+ * module is not registered within the hold timeout. A module which fails to send an event is retried with an
+ * exponentially growing delay, and the event is moved to the dead letter file of the journal once the retries are
+ * exhausted.
  */
 public class EventDistributionTask implements Runnable {
 
     private static final Log log = LogFactory.getLog(NotificationSender.class);
 
+    /**
+     * Maximum number of times the retry delay is doubled.
+     */
+    private static final int MAX_BACKOFF_EXPONENT = 16;
+
+    /**
+     * Module name recorded in the dead letter file for an event which no registered module was subscribed to.
+     */
+    private static final String UNSUBSCRIBED_MODULE = "unsubscribed";
+
     /**
      * Queue used to add events by publishers.
      */
-    private BlockingDeque<PublisherEvent> eventQueue;
+    private BlockingDeque<JournalEntry> eventQueue;
     /**
      * Registered message sending modules.
      */
     private List<NotificationSendingModule> notificationSendingModules;
+    /**
+     * Journal of the queued events.
+     */
+    private EventJournal eventJournal;
+    /**
+     * Events waiting for a subscribed module which is not registered.
+     */
+    private final List<JournalEntry> heldEvents = new ArrayList<JournalEntry>();
+    /**
+     * Incremented whenever a module is registered, to detect registrations while an event is being distributed.
+     */
+    private final AtomicLong moduleRegistrations = new AtomicLong();
+    /**
+     * Scheduler used to resubmit failed notifications after the retry delay, and to expire the held back events.
+     */
+    private ScheduledExecutorService retryScheduler;
+    /**
+     * Number of times a failed notification is retried.
+     */
+    private int retryCount;
+    /**
+     * Delay in milliseconds before the first retry of a failed notification.
+     */
+    private long retryDelay;
+    /**
+     * Time in milliseconds an event is held back waiting for a module to be registered.
+     */
+    private long holdTimeout;
     /**
      * Condition to break event distribution task
      */
@@ -57,13 +110,88 @@ public class EventDistributionTask implements Runnable {
      * @param threadPoolSize             Size of thread pool for notification sending components
      */
     public EventDistributionTask(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize) {
+        this(notificationSendingModules, threadPoolSize, (File) null, NotificationMgtConstants.RETRY_COUNT_DEFAULT,
+                NotificationMgtConstants.RETRY_DELAY_DEFAULT);
+    }
+
+    /**
+     * Overridden constructor to initiate notification sending modules, thread pool size, event journal and retries.
+     * Events which are left in the journal are queued again.
+     *
+     * @param notificationSendingModules List of notification sending modules registered
+     * @param threadPoolSize             Size of thread pool for notification sending components
+     * @param journalDirectory           Directory of the event journal, or null to keep the events in memory only
+     * @param retryCount                 Number of times a failed notification is retried
+     * @param retryDelay                 Delay in milliseconds before the first retry of a failed notification
+     */
+    public EventDistributionTask(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                                 File journalDirectory, int retryCount, long retryDelay) {
+        this(notificationSendingModules, threadPoolSize, new JournalConfiguration(journalDirectory), retryCount,
+                retryDelay);
+    }
+
+    /**
+     * Overridden constructor to initiate notification sending modules, thread pool size, event journal and retries.
+     * Events which are left in the journal are queued again.
+     *
+     * @param notificationSendingModules List of notification sending modules registered
+     * @param threadPoolSize             Size of thread pool for notification sending components
+     * @param journalConfiguration       Configuration of the event journal
+     * @param retryCount                 Number of times a failed notification is retried
+     * @param retryDelay                 Delay in milliseconds before the first retry of a failed notification
+     */
+    public EventDistributionTask(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                                 JournalConfiguration journalConfiguration, int retryCount, long retryDelay) {
+        this(notificationSendingModules, threadPoolSize, new EventJournal(journalConfiguration), retryCount,
+                retryDelay, journalConfiguration.getHoldTimeout());
+    }
+
+    EventDistributionTask(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                          EventJournal eventJournal, int retryCount, long retryDelay) {
+        this(notificationSendingModules, threadPoolSize, eventJournal, retryCount, retryDelay,
+                NotificationMgtConstants.JOURNAL_HOLD_TIMEOUT_DEFAULT);
+    }
+
+    EventDistributionTask(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                          EventJournal eventJournal, int retryCount, long retryDelay, long holdTimeout) {
         this.notificationSendingModules = notificationSendingModules;
-        this.eventQueue = new LinkedBlockingDeque<PublisherEvent>();
+        this.eventQueue = new LinkedBlockingDeque<JournalEntry>();
+        this.eventJournal = eventJournal;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor();
+        this.retryCount = retryCount;
+        this.retryDelay = retryDelay;
+        this.holdTimeout = holdTimeout;
         NotificationManagementServiceDataHolder.getInstance().setThreadPool(Executors.newFixedThreadPool(threadPoolSize));
+        this.eventQueue.addAll(eventJournal.replay());
+        if (holdTimeout > 0) {
+            long expiryPeriod = Math.max(holdTimeout / 4, 1);
+            retryScheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        expireHeldEvents();
+                    } catch (RuntimeException e) {
+                        log.error("Error while expiring the held back notification events", e);
+                    }
+                }
+            }, expiryPeriod, expiryPeriod, TimeUnit.MILLISECONDS);
+        }
     }
 
     public void addEventToQueue(PublisherEvent publisherEvent) {
-        this.eventQueue.add(publisherEvent);
+        this.eventQueue.add(eventJournal.append(publisherEvent));
+    }
+
+    /**
+     * Queue again the events which are waiting for a module which was not registered. Should be called after a
+     * module is added to the notification sending modules.
+     */
+    public void notificationSendingModuleAdded() {
+        synchronized (heldEvents) {
+            moduleRegistrations.incrementAndGet();
+            eventQueue.addAll(heldEvents);
+            heldEvents.clear();
+        }
     }
 
     @Override
@@ -72,41 +200,194 @@ public class EventDistributionTask implements Runnable {
         // Run forever until stop the bundle. Will stop in eventQueue.take()
         while (running) {
             try {
-                final PublisherEvent event = eventQueue.take();
-                for (final NotificationSendingModule module : notificationSendingModules) {
-                    // If the module is subscribed to the event, module will be executed.
-                    try {
-                        if (module.isSubscribed(event)) {
-                            // Create a runnable and submit to the thread pool for sending message.
-                            Runnable msgSender = new Runnable() {
-                                @Override
-                                public void run() {
-                                    if (log.isDebugEnabled()) {
-                                        log.debug("Executing " + module.getModuleName() + " on event" + event.
-                                                getEventName());
-                                    }
-                                    try {
-                                        module.sendMessage(event);
-                                    } catch (NotificationManagementException e) {
-                                        log.error("Error while invoking notification sending module " + module.
-                                                getModuleName(), e);
-                                    }
-                                }
-                            };
-                            NotificationManagementServiceDataHolder.getInstance().getThreadPool().submit(msgSender);
-                        }
-                    } catch (NotificationManagementException e) {
-                        log.error("Error while getting subscription status from notification module " + module.
-                                getModuleName(), e);
-                    }
-                }
+                distribute(eventQueue.take());
             } catch (InterruptedException e) {
-                log.error("Error while picking up event from event queue", e);
+                if (running) {
+                    log.error("Error while picking up event from event queue", e);
+                }
             }
         }
     }
 
     public void shutdown() {
         this.running = false;
+        retryScheduler.shutdownNow();
+        NotificationManagementServiceDataHolder.getInstance().getThreadPool().shutdown();
+        eventJournal.close();
+    }
+
+    /**
+     * Submit the event to all the subscribed modules which are not done with it yet. The modules subscribed to the
+     * event are recorded when it is first distributed.
+     *
+     * @param entry Journal entry of the event
+     */
+    private void distribute(final JournalEntry entry) {
+
+        long registrations = moduleRegistrations.get();
+        if (entry.getTargetModules() == null) {
+            List<String> subscribedModules = new ArrayList<String>();
+            for (NotificationSendingModule module : notificationSendingModules) {
+                // If the module is subscribed to the event, module will be executed.
+                try {
+                    if (module.isSubscribed(entry.getEvent())) {
+                        subscribedModules.add(module.getModuleName());
+                    }
+                } catch (NotificationManagementException e) {
+                    log.error("Error while getting subscription status from notification module " + module.
+                            getModuleName(), e);
+                }
+            }
+            if (subscribedModules.isEmpty()) {
+                if (entry.isReplayed()) {
+                    // The modules the event was published for may not be registered yet.
+                    hold(entry, registrations);
+                } else {
+                    eventJournal.markCompleted(entry);
+                }
+                return;
+            }
+            eventJournal.markSubscribed(entry, subscribedModules);
+        }
+
+        boolean isWaitingForModule = false;
+        for (String moduleName : entry.getTargetModules()) {
+            if (entry.getFinishedModules().contains(moduleName)) {
+                continue;
+            }
+            NotificationSendingModule module = getModule(moduleName);
+            if (module == null) {
+                isWaitingForModule = true;
+            } else if (entry.getDispatchedModules().add(moduleName)) {
+                submit(entry, module, 0);
+            }
+        }
+        if (isWaitingForModule) {
+            hold(entry, registrations);
+        } else {
+            eventJournal.markCompletedIfFinished(entry);
+        }
+    }
+
+    /**
+     * Hold back an event until a module is registered. The event is queued again straight away if a module has been
+     * registered since the event was picked up.
+     *
+     * @param entry         Journal entry of the event
+     * @param registrations Number of module registrations when the event was picked up
+     */
+    private void hold(JournalEntry entry, long registrations) {
+        synchronized (heldEvents) {
+            if (moduleRegistrations.get() != registrations) {
+                eventQueue.add(entry);
+            } else {
+                if (log.isDebugEnabled()) {
+                    log.debug("Holding back event " + entry.getEvent().getEventName() + " until its notification " +
+                            "sending modules are registered");
+                }
+                if (entry.getHeldSince() == 0) {
+                    entry.setHeldSince(System.currentTimeMillis());
+                }
+                heldEvents.add(entry);
+            }
+        }
+    }
+
+    /**
+     * Move the events which were held back for longer than the hold timeout to the dead letter file, for the modules
+     * which were not registered. Modules which are still sending the event complete it when they are done.
+     */
+    void expireHeldEvents() {
+
+        List<JournalEntry> expiredEvents = new ArrayList<JournalEntry>();
+        long now = System.currentTimeMillis();
+        synchronized (heldEvents) {
+            Iterator<JournalEntry> iterator = heldEvents.iterator();
+            while (iterator.hasNext()) {
+                JournalEntry entry = iterator.next();
+                if (now - entry.getHeldSince() >= holdTimeout) {
+                    expiredEvents.add(entry);
+                    iterator.remove();
+                }
+            }
+        }
+        for (JournalEntry entry : expiredEvents) {
+            log.warn("Moving event " + entry.getEvent().getEventName() + " to the dead letter file, as its " +
+                    "notification sending modules were not registered within " + holdTimeout + "ms.");
+            if (entry.getTargetModules() == null) {
+                eventJournal.markDeadLetter(entry, UNSUBSCRIBED_MODULE);
+                eventJournal.markCompleted(entry);
+                continue;
+            }
+            for (String moduleName : entry.getTargetModules()) {
+                if (!entry.getFinishedModules().contains(moduleName) &&
+                        !entry.getDispatchedModules().contains(moduleName)) {
+                    eventJournal.markDeadLetter(entry, moduleName);
+                }
+            }
+            eventJournal.markCompletedIfFinished(entry);
+        }
+    }
+
+    private NotificationSendingModule getModule(String moduleName) {
+        for (NotificationSendingModule module : notificationSendingModules) {
+            if (moduleName.equals(module.getModuleName())) {
+                return module;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a runnable and submit to the thread pool for sending message.
+     *
+     * @param entry   Journal entry of the event
+     * @param module  Module to send the message
+     * @param attempt Number of failed attempts so far
+     */
+    private void submit(final JournalEntry entry, final NotificationSendingModule module, final int attempt) {
+
+        Runnable msgSender = new Runnable() {
+            @Override
+            public void run() {
+                if (log.isDebugEnabled()) {
+                    log.debug("Executing " + module.getModuleName() + " on event" + entry.getEvent().
+                            getEventName());
+                }
+                try {
+                    module.sendMessage(entry.getEvent());
+                    eventJournal.markDelivered(entry, module.getModuleName());
+                } catch (NotificationManagementException | RuntimeException e) {
+                    if (attempt < retryCount) {
+                        long delay = retryDelay << Math.min(attempt, MAX_BACKOFF_EXPONENT);
+                        log.warn("Error while invoking notification sending module " + module.getModuleName() +
+                                ". Retrying in " + delay + "ms.", e);
+                        scheduleRetry(entry, module, attempt + 1, delay);
+                        return;
+                    }
+                    log.error("Error while invoking notification sending module " + module.getModuleName() +
+                            ". Moving event " + entry.getEvent().getEventName() + " to the dead letter file.", e);
+                    eventJournal.markDeadLetter(entry, module.getModuleName());
+                }
+                entry.getDispatchedModules().remove(module.getModuleName());
+                eventJournal.markCompletedIfFinished(entry);
+            }
+        };
+        NotificationManagementServiceDataHolder.getInstance().getThreadPool().submit(msgSender);
+    }
+
+    private void scheduleRetry(final JournalEntry entry, final NotificationSendingModule module, final int attempt,
+                               long delay) {
+
+        if (!running) {
+            // The event stays in the journal and is retried on the next start.
+            return;
+        }
+        retryScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                submit(entry, module, attempt);
+            }
+        }, delay, TimeUnit.MILLISECONDS);
     }
 }
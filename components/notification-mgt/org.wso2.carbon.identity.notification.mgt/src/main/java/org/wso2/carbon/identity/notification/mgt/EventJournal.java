@@ -0,0 +1,701 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.notification.mgt;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration.SyncMode;
+import org.wso2.carbon.identity.notification.mgt.bean.PublisherEvent;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append only journal of the events handed over to the notification sending modules. An event is recorded before it
+ * is dispatched, and each module which has received the event, or given up on it, is recorded after that. Events
+ * which are not completed when the server stops are read back on the next start, so each event reaches each
+ * subscribed module at least once.
+ * <p>
+ * The modules subscribed to an event are recorded when it is first dispatched, and an event is only completed once
+ * all of them are done with it. An event read back on start up therefore waits for the modules it was meant for,
+ * even if they are registered after the events are replayed.
+ * <p>
+ * The journal is written to numbered segment files. A new segment is started once the current one grows beyond
+ * {@link #SEGMENT_SIZE}, and a segment is deleted once all the events recorded in it are completed. Events a module
+ * failed to send after all the retries are copied to a separate dead letter file, which is rotated once it grows
+ * beyond {@link #DEAD_LETTER_FILE_SIZE}. Events are encrypted with an {@link EventJournalCipher} in both files.
+ * <p>
+ * How the events are synced to the disk depends on the {@link SyncMode} of the journal. With the group sync, a
+ * background flusher syncs the segment once the sync interval has passed or enough events are recorded, so the events
+ * are not synced one by one while the journal is locked.
+ * <p>
+ * If no journal directory is given, or the journal key cannot be loaded, events are only tracked in memory.
+ */
+class EventJournal {
+
+    private static final Log log = LogFactory.getLog(EventJournal.class);
+
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+    private static final long DEAD_LETTER_FILE_SIZE = 10 * 1024 * 1024;
+    private static final int DEAD_LETTER_FILE_COUNT = 5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final long SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private static final String EVENT_RECORD = "E";
+    private static final String SUBSCRIBED_RECORD = "S";
+    private static final String DELIVERED_RECORD = "D";
+    private static final String DEAD_LETTER_RECORD = "X";
+    private static final String COMPLETED_RECORD = "C";
+    private static final String FIELD_SEPARATOR = "\t";
+    private static final String PROPERTY_SEPARATOR = ",";
+    private static final String KEY_VALUE_SEPARATOR = ":";
+
+    private File directory;
+    private EventJournalCipher cipher;
+    private final SyncMode syncMode;
+    private final long syncInterval;
+    private final int syncRecordCount;
+    private ScheduledExecutorService flusher;
+    /**
+     * Number of events recorded in the current segment since it was last synced.
+     */
+    private int unsyncedRecords;
+    /**
+     * Number of events which are not completed yet, by segment number.
+     */
+    private final Map<Long, Integer> pendingEventCounts = new TreeMap<Long, Integer>();
+    private long nextEventId = 1;
+    private long segmentNumber;
+    private File segmentFile;
+    private FileOutputStream segmentStream;
+    private Writer segmentWriter;
+
+    /**
+     * @param directory directory to write the journal into, or null to keep the events in memory only
+     */
+    EventJournal(File directory) {
+        this(new JournalConfiguration(directory), null);
+    }
+
+    /**
+     * @param directory directory to write the journal into, or null to keep the events in memory only
+     * @param cipher    cipher to encrypt the events with, or null to use the key of the journal directory
+     */
+    EventJournal(File directory, EventJournalCipher cipher) {
+        this(new JournalConfiguration(directory), cipher);
+    }
+
+    /**
+     * @param configuration configuration of the journal
+     */
+    EventJournal(JournalConfiguration configuration) {
+        this(configuration, null);
+    }
+
+    /**
+     * @param configuration configuration of the journal
+     * @param cipher        cipher to encrypt the events with, or null to use the key of the journal directory
+     */
+    EventJournal(JournalConfiguration configuration, EventJournalCipher cipher) {
+        this.directory = configuration.getDirectory();
+        this.cipher = cipher;
+        this.syncMode = configuration.getSyncMode() != null ? configuration.getSyncMode() : SyncMode.GROUP;
+        this.syncInterval = configuration.getSyncInterval();
+        this.syncRecordCount = configuration.getSyncRecordCount();
+    }
+
+    /**
+     * Read the events which were not completed from the existing segments, and start a new segment.
+     *
+     * @return events which were not completed, in the order they were recorded
+     */
+    synchronized List<JournalEntry> replay() {
+
+        if (directory == null) {
+            return Collections.emptyList();
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            log.error("Cannot create notification journal directory " + directory.getAbsolutePath() + ". Events " +
+                    "will only be kept in memory.");
+            directory = null;
+            return Collections.emptyList();
+        }
+        if (cipher == null) {
+            try {
+                cipher = EventJournalCipher.load(directory);
+            } catch (NotificationManagementException e) {
+                log.error("Events will only be kept in memory, as the notification journal key cannot be loaded.", e);
+                directory = null;
+                return Collections.emptyList();
+            }
+        }
+
+        Map<Long, JournalEntry> entries = new LinkedHashMap<Long, JournalEntry>();
+        for (Map.Entry<Long, File> segment : getSegments().entrySet()) {
+            readSegment(segment.getKey(), segment.getValue(), entries);
+            segmentNumber = segment.getKey();
+        }
+        for (JournalEntry entry : entries.values()) {
+            entry.setReplayed(true);
+            incrementPendingCount(entry.getSegment());
+        }
+        for (Map.Entry<Long, File> segment : getSegments().entrySet()) {
+            if (!pendingEventCounts.containsKey(segment.getKey())) {
+                deleteSegment(segment.getValue());
+            }
+        }
+        try {
+            // Never append to an existing segment, its last record may be incomplete.
+            startSegment(segmentNumber + 1);
+            if (syncMode == SyncMode.GROUP) {
+                startFlusher();
+            }
+        } catch (IOException e) {
+            log.error("Error while starting a notification journal segment in " + directory.getAbsolutePath(), e);
+        }
+        if (!entries.isEmpty()) {
+            log.info("Replaying " + entries.size() + " notification events from the journal.");
+        }
+        return new ArrayList<JournalEntry>(entries.values());
+    }
+
+    /**
+     * Record a new event.
+     *
+     * @param event event to be dispatched
+     * @return journal entry of the event
+     */
+    synchronized JournalEntry append(PublisherEvent event) {
+
+        JournalEntry entry = new JournalEntry(nextEventId++, event, segmentNumber);
+        incrementPendingCount(entry.getSegment());
+        if (segmentWriter != null) {
+            try {
+                write(EVENT_RECORD + FIELD_SEPARATOR + entry.getId() + FIELD_SEPARATOR + cipher.encrypt(encode(event)),
+                        true);
+            } catch (NotificationManagementException e) {
+                log.error("Error while recording event " + event.getEventName() + " in the notification journal. " +
+                        "The event is only kept in memory.", e);
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Record the modules subscribed to the event. The event is completed once all of them are done with it.
+     *
+     * @param entry       journal entry of the event
+     * @param moduleNames names of the subscribed modules
+     */
+    synchronized void markSubscribed(JournalEntry entry, Collection<String> moduleNames) {
+
+        List<String> encodedNames = new ArrayList<String>();
+        for (String moduleName : moduleNames) {
+            encodedNames.add(encode(moduleName));
+        }
+        entry.setTargetModules(new HashSet<String>(moduleNames));
+        write(SUBSCRIBED_RECORD + FIELD_SEPARATOR + entry.getId() + FIELD_SEPARATOR +
+                StringUtils.join(encodedNames, PROPERTY_SEPARATOR), false);
+    }
+
+    /**
+     * Record that a module has sent the event.
+     *
+     * @param entry      journal entry of the event
+     * @param moduleName name of the module
+     */
+    synchronized void markDelivered(JournalEntry entry, String moduleName) {
+
+        entry.getFinishedModules().add(moduleName);
+        write(DELIVERED_RECORD + FIELD_SEPARATOR + entry.getId() + FIELD_SEPARATOR + encode(moduleName), false);
+    }
+
+    /**
+     * Record that a module has failed to send the event after all the retries, and copy the event to the dead letter
+     * file.
+     *
+     * @param entry      journal entry of the event
+     * @param moduleName name of the module
+     */
+    synchronized void markDeadLetter(JournalEntry entry, String moduleName) {
+
+        entry.getFinishedModules().add(moduleName);
+        if (directory != null) {
+            File deadLetterFile = new File(directory, DEAD_LETTER_FILE);
+            Writer writer = null;
+            try {
+                String record = System.currentTimeMillis() + FIELD_SEPARATOR + encode(moduleName) + FIELD_SEPARATOR +
+                        cipher.encrypt(encode(entry.getEvent())) + "\n";
+                if (deadLetterFile.length() >= DEAD_LETTER_FILE_SIZE) {
+                    rotateDeadLetterFiles();
+                }
+                writer = new OutputStreamWriter(new FileOutputStream(deadLetterFile, true), StandardCharsets.UTF_8);
+                writer.write(record);
+            } catch (IOException | NotificationManagementException e) {
+                log.error("Error while writing event " + entry.getEvent().getEventName() + " of module " +
+                        moduleName + " to " + deadLetterFile.getAbsolutePath(), e);
+            } finally {
+                closeQuietly(writer);
+            }
+        }
+        write(DEAD_LETTER_RECORD + FIELD_SEPARATOR + entry.getId() + FIELD_SEPARATOR + encode(moduleName), false);
+    }
+
+    /**
+     * Record that all the subscribed modules are done with the event. The segment of the event is deleted if it has
+     * no other pending events.
+     *
+     * @param entry journal entry of the event
+     */
+    synchronized void markCompleted(JournalEntry entry) {
+
+        Integer pending = pendingEventCounts.get(entry.getSegment());
+        if (entry.isCompleted() || pending == null) {
+            return;
+        }
+        entry.setCompleted(true);
+        if (pending > 1) {
+            pendingEventCounts.put(entry.getSegment(), pending - 1);
+        } else {
+            pendingEventCounts.remove(entry.getSegment());
+        }
+        write(COMPLETED_RECORD + FIELD_SEPARATOR + entry.getId(), false);
+        if (pending <= 1 && entry.getSegment() != segmentNumber && directory != null) {
+            deleteSegment(getSegmentFile(entry.getSegment()));
+        }
+    }
+
+    /**
+     * Complete the event if all the modules subscribed to it are done with it.
+     *
+     * @param entry journal entry of the event
+     * @return true if the event is completed
+     */
+    synchronized boolean markCompletedIfFinished(JournalEntry entry) {
+
+        Set<String> targetModules = entry.getTargetModules();
+        if (targetModules == null || !entry.getFinishedModules().containsAll(targetModules)) {
+            return false;
+        }
+        markCompleted(entry);
+        return true;
+    }
+
+    /**
+     * @return number of events which are not completed yet
+     */
+    synchronized int getPendingEventCount() {
+
+        int count = 0;
+        for (Integer pending : pendingEventCounts.values()) {
+            count += pending;
+        }
+        return count;
+    }
+
+    /**
+     * Close the current segment. Pending events stay in the journal for the next start.
+     */
+    synchronized void close() {
+
+        if (flusher != null) {
+            flusher.shutdownNow();
+            flusher = null;
+        }
+        if (segmentWriter != null) {
+            try {
+                syncSegment();
+            } catch (IOException e) {
+                log.error("Error while syncing notification journal segment " + segmentFile.getAbsolutePath(), e);
+            }
+        }
+        closeQuietly(segmentWriter);
+        segmentWriter = null;
+        segmentStream = null;
+    }
+
+    /**
+     * Sync the events recorded since the last sync to the disk. Called by the flusher with the group sync, outside
+     * the lock of the journal, so that the events are recorded while the segment is synced.
+     */
+    void sync() {
+
+        FileOutputStream stream;
+        synchronized (this) {
+            if (segmentStream == null || unsyncedRecords == 0) {
+                return;
+            }
+            stream = segmentStream;
+            unsyncedRecords = 0;
+        }
+        try {
+            stream.getFD().sync();
+        } catch (IOException e) {
+            synchronized (this) {
+                // A segment which was closed in the meantime was synced before it was closed.
+                if (stream == segmentStream) {
+                    log.error("Error while syncing notification journal segment " + segmentFile.getAbsolutePath(),
+                            e);
+                }
+            }
+        }
+    }
+
+    private void write(String record, boolean sync) {
+
+        if (segmentWriter == null) {
+            return;
+        }
+        try {
+            segmentWriter.write(record + "\n");
+            segmentWriter.flush();
+            if (sync) {
+                requestSync();
+            }
+            if (segmentFile.length() >= SEGMENT_SIZE) {
+                long completedSegment = segmentNumber;
+                startSegment(segmentNumber + 1);
+                if (!pendingEventCounts.containsKey(completedSegment)) {
+                    deleteSegment(getSegmentFile(completedSegment));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error while writing to notification journal segment " + segmentFile.getAbsolutePath(), e);
+        }
+    }
+
+    private void rotateDeadLetterFiles() {
+
+        File oldest = new File(directory, DEAD_LETTER_FILE + "." + DEAD_LETTER_FILE_COUNT);
+        if (oldest.exists() && !oldest.delete()) {
+            log.warn("Cannot delete notification dead letter file " + oldest.getAbsolutePath());
+        }
+        for (int i = DEAD_LETTER_FILE_COUNT - 1; i >= 0; i--) {
+            File file = new File(directory, i == 0 ? DEAD_LETTER_FILE : DEAD_LETTER_FILE + "." + i);
+            if (file.exists() && !file.renameTo(new File(directory, DEAD_LETTER_FILE + "." + (i + 1)))) {
+                log.warn("Cannot rotate notification dead letter file " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    private void requestSync() throws IOException {
+
+        if (syncMode == SyncMode.ALWAYS) {
+            segmentStream.getFD().sync();
+        } else if (syncMode == SyncMode.GROUP && ++unsyncedRecords == syncRecordCount && flusher != null) {
+            flusher.execute(new Runnable() {
+                @Override
+                public void run() {
+                    sync();
+                }
+            });
+        }
+    }
+
+    private void syncSegment() throws IOException {
+
+        if (syncMode != SyncMode.NONE) {
+            segmentStream.getFD().sync();
+        }
+        unsyncedRecords = 0;
+    }
+
+    private void startFlusher() {
+
+        flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "NotificationJournalFlusher");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                sync();
+            }
+        }, Math.max(syncInterval, 1), Math.max(syncInterval, 1), TimeUnit.MILLISECONDS);
+    }
+
+    private void startSegment(long number) throws IOException {
+
+        if (segmentWriter != null) {
+            // The flusher may be syncing the segment which is closed here, so it is synced before it is closed.
+            syncSegment();
+        }
+        closeQuietly(segmentWriter);
+        segmentNumber = number;
+        segmentFile = getSegmentFile(number);
+        segmentStream = new FileOutputStream(segmentFile, true);
+        segmentWriter = new OutputStreamWriter(segmentStream, StandardCharsets.UTF_8);
+    }
+
+    private void readSegment(long number, File file, Map<Long, JournalEntry> entries) {
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    readRecord(number, line.split(FIELD_SEPARATOR, -1), entries);
+                } catch (IllegalArgumentException | NotificationManagementException e) {
+                    log.warn("Ignoring unreadable record in notification journal segment " + file.getAbsolutePath(),
+                            e);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Error while reading notification journal segment " + file.getAbsolutePath(), e);
+        } finally {
+            closeQuietly(reader);
+        }
+    }
+
+    private void readRecord(long number, String[] fields, Map<Long, JournalEntry> entries)
+            throws NotificationManagementException {
+
+        if (fields.length < 2) {
+            throw new IllegalArgumentException("Invalid journal record");
+        }
+        long id = Long.parseLong(fields[1]);
+        nextEventId = Math.max(nextEventId, id + 1);
+        if (EVENT_RECORD.equals(fields[0]) && fields.length == 3) {
+            String[] event = cipher.decrypt(fields[2]).split(FIELD_SEPARATOR, -1);
+            if (event.length != 2) {
+                throw new IllegalArgumentException("Invalid event in journal record");
+            }
+            entries.put(id, new JournalEntry(id, decodeEvent(event[0], event[1]), number));
+        } else if (SUBSCRIBED_RECORD.equals(fields[0]) && fields.length == 3) {
+            JournalEntry entry = entries.get(id);
+            if (entry != null) {
+                Set<String> moduleNames = new HashSet<String>();
+                for (String moduleName : fields[2].split(PROPERTY_SEPARATOR)) {
+                    moduleNames.add(decode(moduleName));
+                }
+                entry.setTargetModules(moduleNames);
+            }
+        } else if ((DELIVERED_RECORD.equals(fields[0]) || DEAD_LETTER_RECORD.equals(fields[0]))
+                && fields.length == 3) {
+            JournalEntry entry = entries.get(id);
+            if (entry != null) {
+                entry.getFinishedModules().add(decode(fields[2]));
+            }
+        } else if (COMPLETED_RECORD.equals(fields[0])) {
+            entries.remove(id);
+        } else {
+            throw new IllegalArgumentException("Invalid journal record of type " + fields[0]);
+        }
+    }
+
+    private Map<Long, File> getSegments() {
+
+        Map<Long, File> segments = new TreeMap<Long, File>();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return segments;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                            name.length() - SEGMENT_SUFFIX.length())), file);
+                } catch (NumberFormatException e) {
+                    log.warn("Ignoring unknown file " + file.getAbsolutePath() + " in notification journal");
+                }
+            }
+        }
+        return segments;
+    }
+
+    private File getSegmentFile(long number) {
+
+        return new File(directory, SEGMENT_PREFIX + String.format("%019d", number) + SEGMENT_SUFFIX);
+    }
+
+    private void deleteSegment(File file) {
+
+        if (file.exists() && !file.delete()) {
+            log.warn("Cannot delete completed notification journal segment " + file.getAbsolutePath());
+        }
+    }
+
+    private void incrementPendingCount(long segment) {
+
+        Integer pending = pendingEventCounts.get(segment);
+        pendingEventCounts.put(segment, pending == null ? 1 : pending + 1);
+    }
+
+    private static String encode(PublisherEvent event) {
+
+        List<String> properties = new ArrayList<String>();
+        for (String key : event.getEventProperties().stringPropertyNames()) {
+            properties.add(encode(key) + KEY_VALUE_SEPARATOR + encode(event.getEventProperties().getProperty(key)));
+        }
+        return encode(event.getEventName()) + FIELD_SEPARATOR + StringUtils.join(properties, PROPERTY_SEPARATOR);
+    }
+
+    private static PublisherEvent decodeEvent(String name, String properties) throws NotificationManagementException {
+
+        PublisherEvent event = new PublisherEvent(decode(name));
+        if (StringUtils.isNotEmpty(properties)) {
+            for (String property : properties.split(PROPERTY_SEPARATOR)) {
+                String[] keyValue = property.split(KEY_VALUE_SEPARATOR, -1);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Invalid event property in journal record");
+                }
+                event.addEventProperty(decode(keyValue[0]), decode(keyValue[1]));
+            }
+        }
+        return event;
+    }
+
+    private static String encode(String value) {
+
+        return Base64.getEncoder().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String value) {
+
+        return new String(Base64.getDecoder().decode(value), StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                log.error("Error while closing notification journal file", e);
+            }
+        }
+    }
+
+    /**
+     * An event recorded in the journal, with the modules which are done with it.
+     */
+    static class JournalEntry {
+
+        private final long id;
+        private final PublisherEvent event;
+        private final long segment;
+        private final Set<String> finishedModules = Collections.synchronizedSet(new HashSet<String>());
+        private final Set<String> dispatchedModules = Collections.synchronizedSet(new HashSet<String>());
+        private volatile Set<String> targetModules;
+        private volatile boolean replayed;
+        private volatile long heldSince;
+        private boolean completed;
+
+        JournalEntry(long id, PublisherEvent event, long segment) {
+            this.id = id;
+            this.event = event;
+            this.segment = segment;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        PublisherEvent getEvent() {
+            return event;
+        }
+
+        long getSegment() {
+            return segment;
+        }
+
+        Set<String> getFinishedModules() {
+            return finishedModules;
+        }
+
+        /**
+         * @return modules which the event is being sent to
+         */
+        Set<String> getDispatchedModules() {
+            return dispatchedModules;
+        }
+
+        /**
+         * @return modules subscribed to the event, or null if they are not recorded yet
+         */
+        Set<String> getTargetModules() {
+            return targetModules;
+        }
+
+        void setTargetModules(Set<String> targetModules) {
+            this.targetModules = Collections.unmodifiableSet(targetModules);
+        }
+
+        /**
+         * @return whether the event was read back from the journal on start up
+         */
+        boolean isReplayed() {
+            return replayed;
+        }
+
+        void setReplayed(boolean replayed) {
+            this.replayed = replayed;
+        }
+
+        /**
+         * @return time the event was first held back waiting for a module, or 0 if it was never held back
+         */
+        long getHeldSince() {
+            return heldSince;
+        }
+
+        void setHeldSince(long heldSince) {
+            this.heldSince = heldSince;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+
+        void setCompleted(boolean completed) {
+            this.completed = completed;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.notification.mgt;
+
+import org.wso2.carbon.core.util.CryptoException;
+import org.wso2.carbon.core.util.CryptoUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Encrypts the events written to the notification journal, as the event properties may hold personal data. The
+ * events are encrypted with an AES key of the journal, which is kept in the journal directory encrypted with the
+ * carbon crypto provider.
+ */
+class EventJournalCipher {
+
+    private static final String KEY_FILE = "journal.key";
+    private static final String KEY_ALGORITHM = "AES";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int KEY_SIZE = 128;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH = 128;
+
+    private final SecretKey key;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param key AES key to encrypt the events with
+     */
+    EventJournalCipher(SecretKey key) {
+        this.key = key;
+    }
+
+    /**
+     * Load the key of the journal in the given directory, creating it if the journal has no key yet.
+     *
+     * @param directory Directory of the journal
+     * @return Cipher of the journal
+     * @throws NotificationManagementException If the key cannot be read or created
+     */
+    static EventJournalCipher load(File directory) throws NotificationManagementException {
+
+        File keyFile = new File(directory, KEY_FILE);
+        try {
+            if (keyFile.exists()) {
+                byte[] encodedKey = CryptoUtil.getDefaultCryptoUtil().decrypt(Files.readAllBytes(keyFile.toPath()));
+                return new EventJournalCipher(new SecretKeySpec(encodedKey, KEY_ALGORITHM));
+            }
+            SecretKey key = generateKey();
+            Files.write(keyFile.toPath(), CryptoUtil.getDefaultCryptoUtil().encrypt(key.getEncoded()));
+            return new EventJournalCipher(key);
+        } catch (IOException | CryptoException | GeneralSecurityException e) {
+            throw new NotificationManagementException("Error while loading the notification journal key " +
+                    keyFile.getAbsolutePath(), e);
+        }
+    }
+
+    /**
+     * @return A new key to encrypt the events with
+     * @throws GeneralSecurityException If AES is not supported
+     */
+    static SecretKey generateKey() throws GeneralSecurityException {
+
+        KeyGenerator keyGenerator = KeyGenerator.getInstance(KEY_ALGORITHM);
+        keyGenerator.init(KEY_SIZE);
+        return keyGenerator.generateKey();
+    }
+
+    /**
+     * @param plainText Text to be encrypted
+     * @return Base64 encoded initialization vector and cipher text
+     * @throws NotificationManagementException If the text cannot be encrypted
+     */
+    String encrypt(String plainText) throws NotificationManagementException {
+
+        byte[] iv = new byte[IV_LENGTH];
+        random.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, iv));
+            byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + cipherText.length).put(iv)
+                    .put(cipherText).array());
+        } catch (GeneralSecurityException e) {
+            throw new NotificationManagementException("Error while encrypting notification journal record", e);
+        }
+    }
+
+    /**
+     * @param encrypted Base64 encoded initialization vector and cipher text
+     * @return Decrypted text
+     * @throws NotificationManagementException If the text cannot be decrypted
+     */
+    String decrypt(String encrypted) throws NotificationManagementException {
+
+        byte[] bytes = Base64.getDecoder().decode(encrypted);
+        if (bytes.length < IV_LENGTH) {
+            throw new NotificationManagementException("Invalid encrypted notification journal record");
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH, bytes, 0, IV_LENGTH));
+            return new String(cipher.doFinal(bytes, IV_LENGTH, bytes.length - IV_LENGTH), StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException e) {
+            throw new NotificationManagementException("Error while decrypting notification journal record", e);
+        }
+    }
+}
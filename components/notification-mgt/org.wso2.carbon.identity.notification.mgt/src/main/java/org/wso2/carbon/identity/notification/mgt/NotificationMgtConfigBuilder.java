@@ -63,6 +63,38 @@ public class NotificationMgtConfigBuilder {
      * Thread pool size for message sending task
      */
     private String threadPoolSize;
+    /**
+     * Whether events are journaled before they are distributed
+     */
+    private String journalEnable;
+    /**
+     * Directory of the event journal
+     */
+    private String journalDirectory;
+    /**
+     * How the event journal is synced to the disk
+     */
+    private String journalSync;
+    /**
+     * Maximum time in milliseconds an event waits to be synced to the disk with the group sync
+     */
+    private String journalSyncInterval;
+    /**
+     * Number of events after which the event journal is synced to the disk with the group sync
+     */
+    private String journalSyncRecords;
+    /**
+     * Time in minutes an event waits for a notification sending module to be registered
+     */
+    private String journalHoldTimeout;
+    /**
+     * Number of times a failed notification is retried
+     */
+    private String retryCount;
+    /**
+     * Delay in milliseconds before the first retry of a failed notification
+     */
+    private String retryDelay;
 
     /**
      * Load properties file and set Module properties
@@ -73,6 +105,7 @@ public class NotificationMgtConfigBuilder {
     public NotificationMgtConfigBuilder(BundleContext bundleContext) throws NotificationManagementException {
         notificationMgtConfigProperties = loadProperties(bundleContext);
         setThreadPoolSize();
+        setDispatchConfigs();
         resolveSecrets();
         moduleConfiguration = new HashMap<String, ModuleConfiguration>();
         build();
@@ -86,6 +119,25 @@ public class NotificationMgtConfigBuilder {
                 THREAD_POOL_SIZE);
     }
 
+    /**
+     * Sets the event journal and retry configurations read from configurations
+     */
+    private void setDispatchConfigs() {
+        journalEnable = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.
+                JOURNAL_ENABLE);
+        journalDirectory = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.
+                JOURNAL_DIRECTORY);
+        journalSync = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.JOURNAL_SYNC);
+        journalSyncInterval = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.
+                JOURNAL_SYNC_INTERVAL);
+        journalSyncRecords = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.
+                JOURNAL_SYNC_RECORDS);
+        journalHoldTimeout = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.
+                JOURNAL_HOLD_TIMEOUT);
+        retryCount = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.RETRY_COUNT);
+        retryDelay = (String) notificationMgtConfigProperties.remove(NotificationMgtConstants.Configs.RETRY_DELAY);
+    }
+
     /**
      * Load properties which are defined in msg-mgt.properties file
      *
@@ -231,6 +283,38 @@ public class NotificationMgtConfigBuilder {
         return threadPoolSize;
     }
 
+    public String getJournalEnable() {
+        return journalEnable;
+    }
+
+    public String getJournalDirectory() {
+        return journalDirectory;
+    }
+
+    public String getJournalSync() {
+        return journalSync;
+    }
+
+    public String getJournalSyncInterval() {
+        return journalSyncInterval;
+    }
+
+    public String getJournalSyncRecords() {
+        return journalSyncRecords;
+    }
+
+    public String getJournalHoldTimeout() {
+        return journalHoldTimeout;
+    }
+
+    public String getRetryCount() {
+        return retryCount;
+    }
+
+    public String getRetryDelay() {
+        return retryDelay;
+    }
+
     /**
      * There can be sensitive information like passwords in configuration file. If they are encrypted using secure
      * vault, this method will resolve them and replace with original values.
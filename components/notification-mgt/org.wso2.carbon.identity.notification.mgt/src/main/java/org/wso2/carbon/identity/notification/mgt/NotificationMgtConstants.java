@@ -26,6 +26,12 @@ public class NotificationMgtConstants {
 
     public static final String MODULE_CONFIG_FILE = "msg-mgt.properties";
     public static final int THREAD_POOL_DEFAULT_SIZE = 5;
+    public static final String JOURNAL_DEFAULT_DIRECTORY = "notification-journal";
+    public static final int RETRY_COUNT_DEFAULT = 3;
+    public static final long RETRY_DELAY_DEFAULT = 1000;
+    public static final long JOURNAL_SYNC_INTERVAL_DEFAULT = 100;
+    public static final int JOURNAL_SYNC_RECORD_COUNT_DEFAULT = 256;
+    public static final long JOURNAL_HOLD_TIMEOUT_DEFAULT = 60 * 60 * 1000L;
 
     private NotificationMgtConstants() {
     }
@@ -34,6 +40,14 @@ public class NotificationMgtConstants {
         public static final String MODULE_NAME = "module.name";
         public static final String SUBSCRIPTION = "subscription";
         public static final String THREAD_POOL_SIZE = "threadPool.size";
+        public static final String JOURNAL_ENABLE = "journal.enable";
+        public static final String JOURNAL_DIRECTORY = "journal.directory";
+        public static final String JOURNAL_SYNC = "journal.sync";
+        public static final String JOURNAL_SYNC_INTERVAL = "journal.sync.interval";
+        public static final String JOURNAL_SYNC_RECORDS = "journal.sync.records";
+        public static final String JOURNAL_HOLD_TIMEOUT = "journal.hold.timeout";
+        public static final String RETRY_COUNT = "retry.count";
+        public static final String RETRY_DELAY = "retry.delay";
 
         private Configs() {
         }
@@ -20,8 +20,10 @@ package org.wso2.carbon.identity.notification.mgt;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration;
 import org.wso2.carbon.identity.notification.mgt.bean.PublisherEvent;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -37,6 +39,10 @@ public class NotificationSender {
      * Task for event distribution towards notification sending modules.
      */
     private EventDistributionTask eventDistributionTask;
+    /**
+     * Thread running the event distribution task.
+     */
+    private Thread eventDistributionThread;
 
     /**
      * Overridden to initiate event distribution task towards notification sending modules.
@@ -44,11 +50,46 @@ public class NotificationSender {
      * @param notificationSendingModules Set of notification sending modules registered
      */
     public NotificationSender(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize) {
-        this.eventDistributionTask = new EventDistributionTask(notificationSendingModules, threadPoolSize);
+        this(new EventDistributionTask(notificationSendingModules, threadPoolSize));
+    }
+
+    /**
+     * Overridden to initiate event distribution task with an event journal and retries of failed notifications.
+     *
+     * @param notificationSendingModules Set of notification sending modules registered
+     * @param threadPoolSize             Size of thread pool for notification sending components
+     * @param journalDirectory           Directory of the event journal, or null to keep the events in memory only
+     * @param retryCount                 Number of times a failed notification is retried
+     * @param retryDelay                 Delay in milliseconds before the first retry of a failed notification
+     */
+    public NotificationSender(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                              File journalDirectory, int retryCount, long retryDelay) {
+        this(new EventDistributionTask(notificationSendingModules, threadPoolSize, journalDirectory, retryCount,
+                retryDelay));
+    }
+
+    /**
+     * Overridden to initiate event distribution task with an event journal and retries of failed notifications.
+     *
+     * @param notificationSendingModules Set of notification sending modules registered
+     * @param threadPoolSize             Size of thread pool for notification sending components
+     * @param journalConfiguration       Configuration of the event journal
+     * @param retryCount                 Number of times a failed notification is retried
+     * @param retryDelay                 Delay in milliseconds before the first retry of a failed notification
+     */
+    public NotificationSender(List<NotificationSendingModule> notificationSendingModules, int threadPoolSize,
+                              JournalConfiguration journalConfiguration, int retryCount, long retryDelay) {
+        this(new EventDistributionTask(notificationSendingModules, threadPoolSize, journalConfiguration, retryCount,
+                retryDelay));
+    }
+
+    private NotificationSender(EventDistributionTask eventDistributionTask) {
+        this.eventDistributionTask = eventDistributionTask;
         if (log.isDebugEnabled()) {
             log.debug("Starting event distribution task from Notification Management component");
         }
-        new Thread(eventDistributionTask).start();
+        eventDistributionThread = new Thread(eventDistributionTask);
+        eventDistributionThread.start();
     }
 
     /**
@@ -70,8 +111,17 @@ public class NotificationSender {
         eventDistributionTask.addEventToQueue(event);
     }
 
+    /**
+     * Notify that a notification sending module is registered, so that the events waiting for it are sent.
+     */
+    public void notificationSendingModuleAdded() {
+        eventDistributionTask.notificationSendingModuleAdded();
+    }
+
     public void stopService() {
         eventDistributionTask.shutdown();
+        // Wake up the task if it is waiting for an event.
+        eventDistributionThread.interrupt();
     }
 
 }
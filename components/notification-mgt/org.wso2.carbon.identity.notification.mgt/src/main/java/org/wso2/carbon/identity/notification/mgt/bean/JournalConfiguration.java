@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.notification.mgt.bean;
+
+import org.wso2.carbon.identity.notification.mgt.NotificationMgtConstants;
+
+import java.io.File;
+
+/**
+ * Configuration bean of the journal of the notification events.
+ */
+public class JournalConfiguration {
+
+    /**
+     * How the journal is written to the disk before an event is dispatched.
+     */
+    public enum SyncMode {
+        /**
+         * Each event is synced to the disk before it is dispatched.
+         */
+        ALWAYS,
+        /**
+         * Events are synced to the disk together, once the sync interval has passed or the sync record count is
+         * reached. Events recorded within the last sync interval may be lost if the server goes down.
+         */
+        GROUP,
+        /**
+         * Events are only written to the operating system, which syncs them to the disk when it chooses to.
+         */
+        NONE
+    }
+
+    /**
+     * Directory of the journal, or null to keep the events in memory only
+     */
+    private File directory;
+    private SyncMode syncMode = SyncMode.GROUP;
+    /**
+     * Maximum time in milliseconds an event waits to be synced in the group sync mode
+     */
+    private long syncInterval = NotificationMgtConstants.JOURNAL_SYNC_INTERVAL_DEFAULT;
+    /**
+     * Number of events after which the journal is synced in the group sync mode
+     */
+    private int syncRecordCount = NotificationMgtConstants.JOURNAL_SYNC_RECORD_COUNT_DEFAULT;
+    /**
+     * Time in milliseconds an event waits for a notification sending module to be registered
+     */
+    private long holdTimeout = NotificationMgtConstants.JOURNAL_HOLD_TIMEOUT_DEFAULT;
+
+    /**
+     * @param directory Directory of the journal, or null to keep the events in memory only
+     */
+    public JournalConfiguration(File directory) {
+        this.directory = directory;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public SyncMode getSyncMode() {
+        return syncMode;
+    }
+
+    public void setSyncMode(SyncMode syncMode) {
+        this.syncMode = syncMode;
+    }
+
+    public long getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(long syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public int getSyncRecordCount() {
+        return syncRecordCount;
+    }
+
+    public void setSyncRecordCount(int syncRecordCount) {
+        this.syncRecordCount = syncRecordCount;
+    }
+
+    public long getHoldTimeout() {
+        return holdTimeout;
+    }
+
+    public void setHoldTimeout(long holdTimeout) {
+        this.holdTimeout = holdTimeout;
+    }
+}
@@ -32,11 +32,16 @@ import org.wso2.carbon.identity.notification.mgt.NotificationMgtConfigBuilder;
 import org.wso2.carbon.identity.notification.mgt.NotificationMgtConstants;
 import org.wso2.carbon.identity.notification.mgt.NotificationSender;
 import org.wso2.carbon.identity.notification.mgt.NotificationSendingModule;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration;
 import org.wso2.carbon.identity.notification.mgt.bean.ModuleConfiguration;
+import org.wso2.carbon.utils.CarbonUtils;
 
 import javax.mail.MessageRemovedException;
-import java.util.ArrayList;
+import java.io.File;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("unused")
 @Component(
@@ -64,7 +69,8 @@ public class NotificationManagementServiceComponent {
     /**
      * Since Message Sending modules are dynamically registered a List is used
      */
-    private List<NotificationSendingModule> notificationSendingModules = new ArrayList<NotificationSendingModule>();
+    private List<NotificationSendingModule> notificationSendingModules =
+            new CopyOnWriteArrayList<NotificationSendingModule>();
 
     @Activate
     protected void activate(ComponentContext context) {
@@ -96,7 +102,12 @@ public class NotificationManagementServiceComponent {
                 log.debug("Notification mgt thread pool size " + threadPoolSize);
             }
             // Register Notification sender as the service class
-            notificationSender = new NotificationSender(notificationSendingModules, threadPoolSize);
+            int retryCount = (int) getDispatchConfig(configBuilder != null ? configBuilder.getRetryCount() : null,
+                    NotificationMgtConstants.Configs.RETRY_COUNT, NotificationMgtConstants.RETRY_COUNT_DEFAULT);
+            long retryDelay = getDispatchConfig(configBuilder != null ? configBuilder.getRetryDelay() : null,
+                    NotificationMgtConstants.Configs.RETRY_DELAY, NotificationMgtConstants.RETRY_DELAY_DEFAULT);
+            notificationSender = new NotificationSender(notificationSendingModules, threadPoolSize,
+                    getJournalConfiguration(), retryCount, retryDelay);
             context.getBundleContext().registerService(NotificationSender.class.getName(), notificationSender, null);
             if (log.isDebugEnabled()) {
                 log.debug("Notification Management bundle is activated");
@@ -115,6 +126,81 @@ public class NotificationManagementServiceComponent {
         notificationSender.stopService();
     }
 
+    /**
+     * Returns the configuration of the event journal. Unless configured otherwise, the journal is synced to the disk
+     * with the group sync.
+     *
+     * @return Configuration of the event journal
+     */
+    private JournalConfiguration getJournalConfiguration() {
+        JournalConfiguration journalConfiguration = new JournalConfiguration(getJournalDirectory());
+        if (configBuilder == null) {
+            return journalConfiguration;
+        }
+        if (StringUtils.isNotBlank(configBuilder.getJournalSync())) {
+            try {
+                journalConfiguration.setSyncMode(JournalConfiguration.SyncMode.valueOf(
+                        configBuilder.getJournalSync().trim().toUpperCase(Locale.ENGLISH)));
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid " + NotificationMgtConstants.Configs.JOURNAL_SYNC + " configuration " +
+                        configBuilder.getJournalSync() + ", setting default value :" +
+                        journalConfiguration.getSyncMode());
+            }
+        }
+        journalConfiguration.setSyncInterval(getDispatchConfig(configBuilder.getJournalSyncInterval(),
+                NotificationMgtConstants.Configs.JOURNAL_SYNC_INTERVAL,
+                NotificationMgtConstants.JOURNAL_SYNC_INTERVAL_DEFAULT));
+        journalConfiguration.setSyncRecordCount((int) getDispatchConfig(configBuilder.getJournalSyncRecords(),
+                NotificationMgtConstants.Configs.JOURNAL_SYNC_RECORDS,
+                NotificationMgtConstants.JOURNAL_SYNC_RECORD_COUNT_DEFAULT));
+        // The hold timeout is configured in minutes.
+        journalConfiguration.setHoldTimeout(TimeUnit.MINUTES.toMillis(getDispatchConfig(
+                configBuilder.getJournalHoldTimeout(), NotificationMgtConstants.Configs.JOURNAL_HOLD_TIMEOUT,
+                TimeUnit.MILLISECONDS.toMinutes(NotificationMgtConstants.JOURNAL_HOLD_TIMEOUT_DEFAULT))));
+        return journalConfiguration;
+    }
+
+    /**
+     * Returns the directory of the event journal. Unless configured otherwise, events are journaled under the carbon
+     * data directory. A relative directory is resolved against the carbon home.
+     *
+     * @return Directory of the event journal, or null if journaling is disabled
+     */
+    private File getJournalDirectory() {
+        if (configBuilder != null && "false".equalsIgnoreCase(configBuilder.getJournalEnable())) {
+            return null;
+        }
+        if (configBuilder != null && StringUtils.isNotBlank(configBuilder.getJournalDirectory())) {
+            File journalDirectory = new File(configBuilder.getJournalDirectory().trim());
+            if (!journalDirectory.isAbsolute()) {
+                journalDirectory = new File(CarbonUtils.getCarbonHome(), journalDirectory.getPath());
+            }
+            return journalDirectory;
+        }
+        return new File(CarbonUtils.getCarbonHome() + File.separator + "repository" + File.separator + "data",
+                NotificationMgtConstants.JOURNAL_DEFAULT_DIRECTORY);
+    }
+
+    /**
+     * Parses a numeric event dispatch configuration. If not present in configurations default value is used.
+     *
+     * @param value        Configured value
+     * @param name         Name of the configuration
+     * @param defaultValue Default value
+     * @return Configured value or the default value
+     */
+    private long getDispatchConfig(String value, String name, long defaultValue) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("Error while parsing " + name + " configuration, setting default value :" + defaultValue);
+            return defaultValue;
+        }
+    }
+
     /**
      * Will register message sending modules dynamically. This method is used to bind the notification sending
      * modules in to msg mgt component
@@ -146,6 +232,9 @@ public class NotificationManagementServiceComponent {
         try {
             module.init(moduleConfiguration);
             notificationSendingModules.add(module);
+            if (notificationSender != null) {
+                notificationSender.notificationSendingModuleAdded();
+            }
         } catch (NotificationManagementException e) {
             log.error("Error while initializing Notification sending module " + module.getModuleName(), e);
         }
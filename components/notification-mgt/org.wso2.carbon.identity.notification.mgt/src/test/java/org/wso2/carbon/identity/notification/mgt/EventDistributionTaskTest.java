@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.notification.mgt;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.notification.mgt.bean.JournalConfiguration;
+import org.wso2.carbon.identity.notification.mgt.bean.PublisherEvent;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+
+/**
+ * Tests for the delivery of the journaled events through {@link EventDistributionTask}.
+ */
+public class EventDistributionTaskTest {
+
+    private static final String EVENT_ID = "id";
+    private static final int EVENT_COUNT = 5000;
+
+    private File journalDirectory;
+    private SecretKey journalKey;
+    private EventDistributionTask task;
+    private Thread taskThread;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        journalDirectory = Files.createTempDirectory("notification-journal").toFile();
+        journalKey = EventJournalCipher.generateKey();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        stopTask();
+        File[] files = journalDirectory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                Files.delete(file.toPath());
+            }
+        }
+        Files.delete(journalDirectory.toPath());
+    }
+
+    @Test
+    public void testEventsAreDeliveredAcrossRestarts() throws Exception {
+
+        RecordingModule flakyModule = new RecordingModule("flaky", 0.2);
+        RecordingModule reliableModule = new RecordingModule("reliable", 0);
+        List<NotificationSendingModule> modules = new CopyOnWriteArrayList<NotificationSendingModule>();
+        modules.add(flakyModule);
+        modules.add(reliableModule);
+
+        startTask(modules, createJournal());
+        for (int i = 0; i < EVENT_COUNT / 2; i++) {
+            task.addEventToQueue(createEvent(i));
+        }
+        // Restart while events are still being sent. The events which are not completed are sent after the restart.
+        stopTask();
+        EventJournal journal = createJournal();
+        startTask(modules, journal);
+        for (int i = EVENT_COUNT / 2; i < EVENT_COUNT; i++) {
+            task.addEventToQueue(createEvent(i));
+        }
+
+        waitUntil(() -> journal.getPendingEventCount() == 0);
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            Assert.assertTrue(flakyModule.delivered.contains(String.valueOf(i)), "Event " + i + " was not sent");
+            Assert.assertTrue(reliableModule.delivered.contains(String.valueOf(i)), "Event " + i + " was not sent");
+        }
+        stopTask();
+        Assert.assertTrue(createJournal().replay().isEmpty(), "Completed events were replayed");
+    }
+
+    @Test
+    public void testReplayedEventWaitsForItsModule() throws Exception {
+
+        BlockingModule blockingModule = new BlockingModule("module");
+        List<NotificationSendingModule> modules = new CopyOnWriteArrayList<NotificationSendingModule>();
+        modules.add(blockingModule);
+        startTask(modules, createJournal());
+        task.addEventToQueue(createEvent(1));
+        Assert.assertTrue(blockingModule.invoked.await(30, TimeUnit.SECONDS));
+        stopTask();
+        blockingModule.release.countDown();
+
+        // The module is registered only after the events are replayed.
+        List<NotificationSendingModule> restartedModules = new CopyOnWriteArrayList<NotificationSendingModule>();
+        EventJournal journal = createJournal();
+        startTask(restartedModules, journal);
+        Thread.sleep(200);
+        Assert.assertEquals(journal.getPendingEventCount(), 1, "Event was completed without its module");
+
+        RecordingModule module = new RecordingModule("module", 0);
+        restartedModules.add(module);
+        task.notificationSendingModuleAdded();
+        waitUntil(() -> journal.getPendingEventCount() == 0);
+        Assert.assertTrue(module.delivered.contains("1"));
+    }
+
+    @Test
+    public void testHeldEventIsMovedToDeadLetterAfterHoldTimeout() throws Exception {
+
+        BlockingModule blockingModule = new BlockingModule("module");
+        List<NotificationSendingModule> modules = new CopyOnWriteArrayList<NotificationSendingModule>();
+        modules.add(blockingModule);
+        startTask(modules, createJournal());
+        task.addEventToQueue(createEvent(1));
+        Assert.assertTrue(blockingModule.invoked.await(30, TimeUnit.SECONDS));
+        stopTask();
+        blockingModule.release.countDown();
+
+        // The module is never registered after the restart.
+        EventJournal journal = createJournal();
+        startTask(new CopyOnWriteArrayList<NotificationSendingModule>(), journal, 100);
+        waitUntil(() -> journal.getPendingEventCount() == 0);
+        stopTask();
+
+        Assert.assertTrue(new File(journalDirectory, "dead-letter.log").length() > 0,
+                "Expired event was not moved to the dead letter file");
+        Assert.assertTrue(createJournal().replay().isEmpty(), "Expired event was replayed");
+    }
+
+    @Test
+    public void testGroupSyncedEventsAreReplayed() throws Exception {
+
+        JournalConfiguration configuration = new JournalConfiguration(journalDirectory);
+        configuration.setSyncMode(JournalConfiguration.SyncMode.GROUP);
+        configuration.setSyncInterval(TimeUnit.MINUTES.toMillis(1));
+        configuration.setSyncRecordCount(10);
+        EventJournal journal = new EventJournal(configuration, new EventJournalCipher(journalKey));
+        journal.replay();
+        for (int i = 0; i < 25; i++) {
+            journal.append(createEvent(i));
+        }
+        journal.sync();
+        journal.close();
+
+        List<EventJournal.JournalEntry> entries = createJournal().replay();
+        Assert.assertEquals(entries.size(), 25);
+        for (int i = 0; i < entries.size(); i++) {
+            Assert.assertEquals(entries.get(i).getEvent().getEventProperties().getProperty(EVENT_ID),
+                    String.valueOf(i));
+        }
+    }
+
+    @Test
+    public void testEventsAreEncryptedInJournal() throws Exception {
+
+        BlockingModule blockingModule = new BlockingModule("module");
+        List<NotificationSendingModule> modules = new CopyOnWriteArrayList<NotificationSendingModule>();
+        modules.add(blockingModule);
+        startTask(modules, createJournal());
+        PublisherEvent event = createEvent(1);
+        event.addEventProperty("email", "alice@example.com");
+        task.addEventToQueue(event);
+        Assert.assertTrue(blockingModule.invoked.await(30, TimeUnit.SECONDS));
+        stopTask();
+        blockingModule.release.countDown();
+
+        File[] files = journalDirectory.listFiles();
+        Assert.assertNotNull(files);
+        for (File file : files) {
+            String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            Assert.assertFalse(content.contains("alice@example.com"));
+            Assert.assertFalse(content.contains(Base64.getEncoder().encodeToString(
+                    "alice@example.com".getBytes(StandardCharsets.UTF_8))));
+        }
+        List<EventJournal.JournalEntry> entries = createJournal().replay();
+        Assert.assertEquals(entries.size(), 1);
+        Assert.assertEquals(entries.get(0).getEvent().getEventProperties().getProperty("email"), "alice@example.com");
+    }
+
+    private EventJournal createJournal() {
+
+        return new EventJournal(journalDirectory, new EventJournalCipher(journalKey));
+    }
+
+    private void startTask(List<NotificationSendingModule> modules, EventJournal journal) {
+
+        startTask(modules, journal, TimeUnit.MINUTES.toMillis(60));
+    }
+
+    private void startTask(List<NotificationSendingModule> modules, EventJournal journal, long holdTimeout) {
+
+        task = new EventDistributionTask(modules, 8, journal, 10, 1, holdTimeout);
+        taskThread = new Thread(task);
+        taskThread.start();
+    }
+
+    private void stopTask() throws InterruptedException {
+
+        if (task != null) {
+            task.shutdown();
+            taskThread.interrupt();
+            taskThread.join(TimeUnit.SECONDS.toMillis(30));
+            task = null;
+        }
+    }
+
+    private static PublisherEvent createEvent(int id) throws NotificationManagementException {
+
+        PublisherEvent event = new PublisherEvent("event");
+        event.addEventProperty(EVENT_ID, String.valueOf(id));
+        return event;
+    }
+
+    private static void waitUntil(Condition condition) throws InterruptedException {
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(60);
+        while (!condition.isMet() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(condition.isMet(), "Events were not completed in time");
+    }
+
+    private interface Condition {
+
+        boolean isMet();
+    }
+
+    private static class RecordingModule extends AbstractNotificationSendingModule {
+
+        private final String name;
+        private final double failureRate;
+        private final Random random = new Random(1);
+        private final Set<String> delivered = ConcurrentHashMap.newKeySet();
+
+        private RecordingModule(String name, double failureRate) {
+
+            this.name = name;
+            this.failureRate = failureRate;
+        }
+
+        @Override
+        public void sendMessage(PublisherEvent publisherEvent) throws NotificationManagementException {
+
+            synchronized (random) {
+                if (random.nextDouble() < failureRate) {
+                    throw new NotificationManagementException("Failed to send event");
+                }
+            }
+            delivered.add(publisherEvent.getEventProperties().getProperty(EVENT_ID));
+        }
+
+        @Override
+        public String getModuleName() {
+
+            return name;
+        }
+    }
+
+    private static class BlockingModule extends AbstractNotificationSendingModule {
+
+        private final String name;
+        private final CountDownLatch invoked = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private BlockingModule(String name) {
+
+            this.name = name;
+        }
+
+        @Override
+        public void sendMessage(PublisherEvent publisherEvent) {
+
+            invoked.countDown();
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public String getModuleName() {
+
+            return name;
+        }
+    }
+}
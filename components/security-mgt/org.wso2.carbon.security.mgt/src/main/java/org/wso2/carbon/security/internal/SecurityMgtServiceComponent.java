@@ -43,6 +43,7 @@ import org.wso2.carbon.security.SecurityServiceHolder;
 import org.wso2.carbon.security.keystore.KeyStoreManagementService;
 import org.wso2.carbon.security.keystore.KeyStoreManagementServiceImpl;
 import org.wso2.carbon.user.core.service.RealmService;
+import org.wso2.carbon.utils.Axis2ConfigurationContextObserver;
 import org.wso2.carbon.utils.ConfigurationContextService;
 
 @Component(
@@ -66,6 +67,8 @@ public class SecurityMgtServiceComponent {
             BundleContext bundleCtx = ctxt.getBundleContext();
             bundleCtx.registerService(KeyStoreManagementService.class.getName(), new KeyStoreManagementServiceImpl(),
                     null);
+            bundleCtx.registerService(Axis2ConfigurationContextObserver.class.getName(),
+                    new KeyStoreSnapshotCacheObserver(), null);
             try {
                 addKeystores();
             } catch (Exception e) {
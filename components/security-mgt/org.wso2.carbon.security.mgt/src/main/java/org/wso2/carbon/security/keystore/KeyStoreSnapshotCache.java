@@ -0,0 +1,295 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.security.keystore;
+
+import java.security.Key;
+import java.security.KeyStore;
+import java.security.KeyStoreException;
+import java.security.NoSuchAlgorithmException;
+import java.security.UnrecoverableKeyException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of keystore snapshots used by {@link KeyStoreAdmin} to list the entries of keystores without loading and
+ * walking the whole keystore on each request. A snapshot is tied to a version of its keystore, such as the last
+ * modified time of the keystore file or registry resource, and is not returned once the version changes.
+ * <p>
+ * Snapshots hold the keystores with their private keys, so only a bounded number of the most recently used snapshots
+ * are kept, each for a bounded time, and the snapshots of a tenant are removed when the tenant is unloaded.
+ */
+public class KeyStoreSnapshotCache {
+
+    private static final int MAX_SNAPSHOT_COUNT = 100;
+    private static final long MAX_SNAPSHOT_AGE = TimeUnit.MINUTES.toMillis(15);
+
+    private static final KeyStoreSnapshotCache instance = new KeyStoreSnapshotCache(MAX_SNAPSHOT_COUNT,
+            MAX_SNAPSHOT_AGE);
+
+    private final Map<String, CachedSnapshot> snapshots;
+    private final long maxSnapshotAge;
+
+    /**
+     * @param maxSnapshotCount maximum number of snapshots kept, beyond which the least recently used are removed
+     * @param maxSnapshotAge   time in milliseconds after which a snapshot is removed
+     */
+    KeyStoreSnapshotCache(final int maxSnapshotCount, long maxSnapshotAge) {
+
+        this.maxSnapshotAge = maxSnapshotAge;
+        this.snapshots = new LinkedHashMap<String, CachedSnapshot>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSnapshot> eldest) {
+
+                return size() > maxSnapshotCount;
+            }
+        };
+    }
+
+    public static KeyStoreSnapshotCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the snapshot of a keystore.
+     *
+     * @param tenantId     tenant id
+     * @param keyStoreName name of the keystore
+     * @param version      current version of the keystore
+     * @return snapshot or null if there is no snapshot of the given version
+     */
+    public KeyStoreSnapshot get(int tenantId, String keyStoreName, String version) {
+
+        if (version == null) {
+            return null;
+        }
+        String key = getKey(tenantId, keyStoreName);
+        synchronized (snapshots) {
+            CachedSnapshot cachedSnapshot = snapshots.get(key);
+            if (cachedSnapshot == null) {
+                return null;
+            }
+            if (System.currentTimeMillis() - cachedSnapshot.cachedTime > maxSnapshotAge) {
+                snapshots.remove(key);
+                return null;
+            }
+            if (version.equals(cachedSnapshot.snapshot.getVersion())) {
+                return cachedSnapshot.snapshot;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Add the snapshot of a keystore. Snapshots without a version are not cached.
+     *
+     * @param tenantId     tenant id
+     * @param keyStoreName name of the keystore
+     * @param snapshot     snapshot of the keystore
+     */
+    public void put(int tenantId, String keyStoreName, KeyStoreSnapshot snapshot) {
+
+        if (snapshot.getVersion() != null) {
+            CachedSnapshot cachedSnapshot = new CachedSnapshot(snapshot, System.currentTimeMillis());
+            synchronized (snapshots) {
+                snapshots.put(getKey(tenantId, keyStoreName), cachedSnapshot);
+            }
+        }
+    }
+
+    /**
+     * Remove the snapshot of a keystore.
+     *
+     * @param tenantId     tenant id
+     * @param keyStoreName name of the keystore
+     */
+    public void invalidate(int tenantId, String keyStoreName) {
+
+        synchronized (snapshots) {
+            snapshots.remove(getKey(tenantId, keyStoreName));
+        }
+    }
+
+    /**
+     * Remove the snapshots of all the keystores of a tenant.
+     *
+     * @param tenantId tenant id
+     */
+    public void invalidate(int tenantId) {
+
+        String keyPrefix = getKey(tenantId, "");
+        synchronized (snapshots) {
+            Iterator<String> iterator = snapshots.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().startsWith(keyPrefix)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private String getKey(int tenantId, String keyStoreName) {
+
+        return tenantId + ":" + keyStoreName;
+    }
+
+    private static final class CachedSnapshot {
+
+        private final KeyStoreSnapshot snapshot;
+        private final long cachedTime;
+
+        private CachedSnapshot(KeyStoreSnapshot snapshot, long cachedTime) {
+
+            this.snapshot = snapshot;
+            this.cachedTime = cachedTime;
+        }
+    }
+
+    /**
+     * Immutable view of the entries of a keystore, sorted by alias.
+     */
+    public static class KeyStoreSnapshot {
+
+        private final String version;
+        private final String keyStoreType;
+        private final List<String> aliases;
+        private final List<Entry> certificateEntries;
+        private final List<Entry> keyEntries;
+        // Kept only to read the private key on demand, never modified.
+        private final KeyStore keyStore;
+
+        private KeyStoreSnapshot(String version, String keyStoreType, List<String> aliases,
+                                 List<Entry> certificateEntries, List<Entry> keyEntries, KeyStore keyStore) {
+
+            this.version = version;
+            this.keyStoreType = keyStoreType;
+            this.aliases = Collections.unmodifiableList(aliases);
+            this.certificateEntries = Collections.unmodifiableList(certificateEntries);
+            this.keyEntries = Collections.unmodifiableList(keyEntries);
+            this.keyStore = keyStore;
+        }
+
+        /**
+         * Build a snapshot of the given keystore.
+         *
+         * @param keyStore     keystore
+         * @param keyStoreType type of the keystore
+         * @param version      version of the keystore, or null if the snapshot should not be cached
+         * @return snapshot of the keystore
+         * @throws KeyStoreException if reading the keystore fails
+         */
+        public static KeyStoreSnapshot build(KeyStore keyStore, String keyStoreType, String version)
+                throws KeyStoreException {
+
+            List<String> aliases = new ArrayList<>();
+            List<Entry> certificateEntries = new ArrayList<>();
+            List<Entry> keyEntries = new ArrayList<>();
+            Enumeration<String> enumeration = keyStore.aliases();
+            while (enumeration.hasMoreElements()) {
+                String alias = enumeration.nextElement();
+                aliases.add(alias);
+                if (keyStore.isCertificateEntry(alias)) {
+                    certificateEntries.add(new Entry(alias, (X509Certificate) keyStore.getCertificate(alias)));
+                } else if (keyStore.isKeyEntry(alias)) {
+                    keyEntries.add(new Entry(alias, (X509Certificate) keyStore.getCertificate(alias)));
+                }
+            }
+            Collections.sort(aliases);
+            Comparator<Entry> byAlias = Comparator.comparing(Entry::getAlias);
+            certificateEntries.sort(byAlias);
+            keyEntries.sort(byAlias);
+            return new KeyStoreSnapshot(version, keyStoreType, aliases, certificateEntries, keyEntries, keyStore);
+        }
+
+        public String getVersion() {
+
+            return version;
+        }
+
+        public String getKeyStoreType() {
+
+            return keyStoreType;
+        }
+
+        public List<String> getAliases() {
+
+            return aliases;
+        }
+
+        public List<Entry> getCertificateEntries() {
+
+            return certificateEntries;
+        }
+
+        public List<Entry> getKeyEntries() {
+
+            return keyEntries;
+        }
+
+        /**
+         * Read the key of the given key entry.
+         *
+         * @param alias    alias of the key entry
+         * @param password password of the key
+         * @return key
+         * @throws KeyStoreException         if the keystore is not loaded
+         * @throws NoSuchAlgorithmException  if the algorithm of the key is not supported
+         * @throws UnrecoverableKeyException if the password is wrong
+         */
+        public Key getKey(String alias, char[] password) throws KeyStoreException, NoSuchAlgorithmException,
+                UnrecoverableKeyException {
+
+            return keyStore.getKey(alias, password);
+        }
+    }
+
+    /**
+     * Alias and certificate of a keystore entry.
+     */
+    public static class Entry {
+
+        private final String alias;
+        private final X509Certificate certificate;
+
+        private Entry(String alias, X509Certificate certificate) {
+
+            this.alias = alias;
+            this.certificate = certificate;
+        }
+
+        public String getAlias() {
+
+            return alias;
+        }
+
+        public X509Certificate getCertificate() {
+
+            return certificate;
+        }
+    }
+}
@@ -35,15 +35,21 @@ import org.wso2.carbon.security.keystore.service.PaginatedKeyStoreData;
 import org.wso2.carbon.utils.CarbonUtils;
 
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.KeyStore;
+import java.util.concurrent.TimeUnit;
 
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.powermock.api.mockito.PowerMockito.mockStatic;
 import static org.powermock.api.mockito.PowerMockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 @PrepareForTest({CarbonUtils.class, IdentityTenantUtil.class, IdentityUtil.class, KeyStoreManager.class,
         ServerConfiguration.class, KeyStoreUtil.class})
@@ -51,6 +57,8 @@ public class KeyStoreAdminTest extends PowerMockIdentityBaseTest {
 
     public static final String SERVER_TRUSTSTORE_FILE = "Security.TrustStore.Location";
     public static final String SERVER_TRUSTSTORE_PASSWORD = "Security.TrustStore.Password";
+    public static final String SERVER_TRUSTSTORE_TYPE = "Security.TrustStore.Type";
+    private static final String TRUST_STORE_NAME = "client-truststore.jks";
     @Mock
     ServerConfiguration serverConfiguration;
     @Mock
@@ -96,6 +104,119 @@ public class KeyStoreAdminTest extends PowerMockIdentityBaseTest {
 
     }
 
+    @Test
+    public void testGetPaginatedKeystoreInfoOfTrustStore() throws Exception {
+
+        Path trustStorePath = createTrustStoreCopy("wso2carbon.jks");
+        mockTrustStore(trustStorePath);
+
+        keyStoreAdmin = new KeyStoreAdmin(tenantID, registry);
+        PaginatedKeyStoreData result = keyStoreAdmin.getPaginatedKeystoreInfo(TRUST_STORE_NAME, 0);
+        CertData[] certDataSet = result.getPaginatedCertData().getCertDataSet();
+        assertEquals(findCertDataSetSize(certDataSet), 35, "Incorrect certificate numbers");
+        for (int i = 1; i < certDataSet.length && certDataSet[i] != null; i++) {
+            assertTrue(certDataSet[i - 1].getAlias().compareTo(certDataSet[i].getAlias()) < 0,
+                    "Certificates are not sorted by alias");
+        }
+        assertEquals(findCertDataSetSize(result.getPaginatedKeyData().getCertDataSet()), 3,
+                "Incorrect key numbers");
+    }
+
+    @Test
+    public void testStoreEntriesReloadedWhenTrustStoreModified() throws Exception {
+
+        Path trustStorePath = createTrustStoreCopy("wso2carbon.jks");
+        mockTrustStore(trustStorePath);
+
+        keyStoreAdmin = new KeyStoreAdmin(tenantID, registry);
+        String[] entries = keyStoreAdmin.getStoreEntries(TRUST_STORE_NAME);
+        assertEquals(entries.length, 38, "Incorrect store entries");
+        assertEquals(keyStoreAdmin.getStoreEntries(TRUST_STORE_NAME), entries, "Store entries changed");
+
+        // Modify the trust store outside of the keystore admin.
+        long lastModified = trustStorePath.toFile().lastModified();
+        KeyStore trustStore = getKeyStoreFromFile("wso2carbon.jks", "wso2carbon");
+        trustStore.deleteEntry(entries[0]);
+        try (FileOutputStream out = new FileOutputStream(trustStorePath.toFile())) {
+            trustStore.store(out, "wso2carbon".toCharArray());
+        }
+        assertTrue(trustStorePath.toFile().setLastModified(lastModified + 2000));
+
+        String[] reloadedEntries = keyStoreAdmin.getStoreEntries(TRUST_STORE_NAME);
+        assertEquals(reloadedEntries.length, 37, "Store entries are not reloaded after the trust store is modified");
+    }
+
+    @Test
+    public void testKeyStoreSnapshotCache() throws Exception {
+
+        KeyStoreSnapshotCache cache = KeyStoreSnapshotCache.getInstance();
+        KeyStoreSnapshotCache.KeyStoreSnapshot snapshot = KeyStoreSnapshotCache.KeyStoreSnapshot
+                .build(getKeyStoreFromFile("wso2carbon.jks", "wso2carbon"), "JKS", "1");
+        cache.put(tenantID, "snapshot.jks", snapshot);
+
+        assertSame(cache.get(tenantID, "snapshot.jks", "1"), snapshot);
+        assertNull(cache.get(tenantID, "snapshot.jks", "2"), "Snapshot of an older version is returned");
+        assertNull(cache.get(1, "snapshot.jks", "1"), "Snapshot of another tenant is returned");
+        cache.invalidate(tenantID, "snapshot.jks");
+        assertNull(cache.get(tenantID, "snapshot.jks", "1"), "Invalidated snapshot is returned");
+    }
+
+    @Test
+    public void testKeyStoreSnapshotCacheIsBounded() throws Exception {
+
+        KeyStoreSnapshotCache cache = new KeyStoreSnapshotCache(2, TimeUnit.MINUTES.toMillis(15));
+        KeyStoreSnapshotCache.KeyStoreSnapshot snapshot = KeyStoreSnapshotCache.KeyStoreSnapshot
+                .build(getKeyStoreFromFile("wso2carbon.jks", "wso2carbon"), "JKS", "1");
+        cache.put(tenantID, "first.jks", snapshot);
+        cache.put(tenantID, "second.jks", snapshot);
+        assertSame(cache.get(tenantID, "first.jks", "1"), snapshot);
+        cache.put(tenantID, "third.jks", snapshot);
+
+        assertSame(cache.get(tenantID, "first.jks", "1"), snapshot);
+        assertNull(cache.get(tenantID, "second.jks", "1"), "Least recently used snapshot is kept");
+        assertSame(cache.get(tenantID, "third.jks", "1"), snapshot);
+    }
+
+    @Test
+    public void testKeyStoreSnapshotCacheExpiryAndTenantUnload() throws Exception {
+
+        KeyStoreSnapshotCache.KeyStoreSnapshot snapshot = KeyStoreSnapshotCache.KeyStoreSnapshot
+                .build(getKeyStoreFromFile("wso2carbon.jks", "wso2carbon"), "JKS", "1");
+        KeyStoreSnapshotCache expiringCache = new KeyStoreSnapshotCache(10, 0);
+        expiringCache.put(tenantID, "snapshot.jks", snapshot);
+        Thread.sleep(5);
+        assertNull(expiringCache.get(tenantID, "snapshot.jks", "1"), "Expired snapshot is returned");
+
+        KeyStoreSnapshotCache cache = new KeyStoreSnapshotCache(10, TimeUnit.MINUTES.toMillis(15));
+        cache.put(1, "first.jks", snapshot);
+        cache.put(1, "second.jks", snapshot);
+        cache.put(11, "first.jks", snapshot);
+        cache.invalidate(1);
+        assertNull(cache.get(1, "first.jks", "1"), "Snapshot of an unloaded tenant is returned");
+        assertNull(cache.get(1, "second.jks", "1"), "Snapshot of an unloaded tenant is returned");
+        assertSame(cache.get(11, "first.jks", "1"), snapshot);
+    }
+
+    private void mockTrustStore(Path trustStorePath) {
+
+        mockStatic(ServerConfiguration.class);
+        when(ServerConfiguration.getInstance()).thenReturn(serverConfiguration);
+        when(serverConfiguration.getFirstProperty(SERVER_TRUSTSTORE_FILE)).thenReturn(trustStorePath.toString());
+        when(serverConfiguration.getFirstProperty(SERVER_TRUSTSTORE_PASSWORD)).thenReturn("wso2carbon");
+        when(serverConfiguration.getFirstProperty(SERVER_TRUSTSTORE_TYPE)).thenReturn("JKS");
+
+        mockStatic(KeyStoreUtil.class);
+        when(KeyStoreUtil.isPrimaryStore(any())).thenReturn(false);
+    }
+
+    private Path createTrustStoreCopy(String keystoreName) throws Exception {
+
+        Path trustStorePath = Files.createTempDirectory("truststore").resolve(TRUST_STORE_NAME);
+        Files.copy(createPath(keystoreName), trustStorePath);
+        trustStorePath.toFile().deleteOnExit();
+        return trustStorePath;
+    }
+
     private KeyStore getKeyStoreFromFile(String keystoreName, String password) throws Exception {
 
         Path tenantKeystorePath = createPath(keystoreName);
@@ -23,15 +23,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.identity.configuration.mgt.core.search.Condition;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.identity.template.mgt.TemplateMgtConstants;
 import org.wso2.carbon.identity.template.mgt.exception.TemplateManagementClientException;
 import org.wso2.carbon.identity.template.mgt.exception.TemplateManagementException;
 import org.wso2.carbon.identity.template.mgt.handler.ReadOnlyTemplateHandler;
 import org.wso2.carbon.identity.template.mgt.internal.TemplateManagerDataHolder;
 import org.wso2.carbon.identity.template.mgt.model.Template;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 import static org.wso2.carbon.identity.template.mgt.TemplateMgtConstants.ErrorMessages.ERROR_CODE_INVALID_ARGUMENTS_FOR_LIMIT;
 import static org.wso2.carbon.identity.template.mgt.TemplateMgtConstants.ErrorMessages.ERROR_CODE_INVALID_ARGUMENTS_FOR_OFFSET;
@@ -68,12 +68,27 @@ public class FileBasedTemplateHandler implements ReadOnlyTemplateHandler {
             offset = DEFAULT_SEARCH_OFFSET;
         }
 
-        return TemplateManagerDataHolder.getInstance().getFileBasedTemplates().entrySet().stream()
-                .filter(entry -> StringUtils.equals(entry.getValue().getTemplateType().toString(), (templateType)))
-                .skip(offset)
-                .limit(limit)
-                .map(Map.Entry::getValue)
-                .collect(Collectors.toList());
+        TemplateMgtConstants.TemplateType type = getTemplateType(templateType);
+        if (type == null) {
+            return new ArrayList<>();
+        }
+        // Templates of the type are kept sorted in the data holder, so a page is a view over them.
+        List<Template> templates = TemplateManagerDataHolder.getInstance().getFileBasedTemplates(type);
+        if (offset >= templates.size()) {
+            return new ArrayList<>();
+        }
+        int toIndex = (int) Math.min((long) offset + limit, templates.size());
+        return new ArrayList<>(templates.subList(offset, toIndex));
+    }
+
+    private TemplateMgtConstants.TemplateType getTemplateType(String templateType) {
+
+        for (TemplateMgtConstants.TemplateType type : TemplateMgtConstants.TemplateType.values()) {
+            if (StringUtils.equals(type.toString(), templateType)) {
+                return type;
+            }
+        }
+        return null;
     }
 
     /**
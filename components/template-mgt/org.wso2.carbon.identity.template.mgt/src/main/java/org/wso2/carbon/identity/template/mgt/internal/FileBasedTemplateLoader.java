@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.template.mgt.internal;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.wso2.carbon.identity.template.mgt.TemplateMgtConstants;
+import org.wso2.carbon.identity.template.mgt.model.Template;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads the default application and identity provider templates from the template directories into
+ * {@link TemplateManagerDataHolder}.
+ * <p>
+ * Once watching is started, the templates are reloaded whenever the content of the template directories changes. The
+ * changes made within the quiet period are reloaded together, and the templates are replaced in the data holder only
+ * after all of them are read, so the listings never see a partially loaded set of templates.
+ */
+public class FileBasedTemplateLoader {
+
+    private static final Log log = LogFactory.getLog(FileBasedTemplateLoader.class);
+    private static final long QUIET_PERIOD_MS = 500;
+
+    private final Path spTemplatesDirPath;
+    private final Path idpTemplatesDirPath;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+    /**
+     * @param spTemplatesDirPath  directory of the application templates
+     * @param idpTemplatesDirPath directory of the identity provider templates
+     */
+    public FileBasedTemplateLoader(Path spTemplatesDirPath, Path idpTemplatesDirPath) {
+
+        this.spTemplatesDirPath = spTemplatesDirPath;
+        this.idpTemplatesDirPath = idpTemplatesDirPath;
+    }
+
+    /**
+     * Load the templates in the template directories and replace the file based templates in the data holder.
+     */
+    public void load() {
+
+        Map<String, Template> templates = new HashMap<>();
+        loadTemplates(spTemplatesDirPath, TemplateMgtConstants.TemplateType.APPLICATION_TEMPLATE, templates);
+        loadTemplates(idpTemplatesDirPath, TemplateMgtConstants.TemplateType.IDP_TEMPLATE, templates);
+        TemplateManagerDataHolder.getInstance().setFileBasedTemplates(templates);
+        if (log.isDebugEnabled()) {
+            log.debug(templates.size() + " file based templates are loaded.");
+        }
+    }
+
+    /**
+     * Start reloading the templates when the content of the template directories changes.
+     *
+     * @throws IOException If the template directories cannot be watched.
+     */
+    public synchronized void startWatching() throws IOException {
+
+        if (watchService != null) {
+            return;
+        }
+        watchService = FileSystems.getDefault().newWatchService();
+        registerDirectories(watchService);
+        final WatchService service = watchService;
+        watcherThread = new Thread(() -> watch(service), "FileBasedTemplateWatcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+    /**
+     * Stop reloading the templates.
+     */
+    public synchronized void stopWatching() {
+
+        if (watchService == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.error("Error while closing the template directory watcher.", e);
+        }
+        watcherThread.interrupt();
+        watchService = null;
+        watcherThread = null;
+    }
+
+    private void watch(WatchService service) {
+
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = service.take();
+                // Wait until the changes settle, so that a directory being copied is reloaded once.
+                do {
+                    key.pollEvents();
+                    key.reset();
+                    key = service.poll(QUIET_PERIOD_MS, TimeUnit.MILLISECONDS);
+                } while (key != null);
+                if (log.isDebugEnabled()) {
+                    log.debug("Template directories have changed. Reloading the file based templates.");
+                }
+                // Directories created since the last load are watched as well.
+                try {
+                    registerDirectories(service);
+                } catch (IOException e) {
+                    // A directory may be removed while it is registered. The other directories are still reloaded.
+                    log.error("Error while watching the new template directories.", e);
+                }
+                load();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            if (log.isDebugEnabled()) {
+                log.debug("Stopped watching the template directories.");
+            }
+        }
+    }
+
+    private void registerDirectories(WatchService service) throws IOException {
+
+        for (Path path : new Path[]{spTemplatesDirPath, idpTemplatesDirPath}) {
+            if (!Files.isDirectory(path)) {
+                continue;
+            }
+            List<Path> directories;
+            try (Stream<Path> paths = Files.walk(path)) {
+                directories = paths.filter(Files::isDirectory).collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                // Files.walk reports the errors while walking the directory as unchecked exceptions.
+                throw e.getCause();
+            }
+            for (Path directory : directories) {
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+        }
+    }
+
+    private void loadTemplates(Path path, TemplateMgtConstants.TemplateType templateType,
+                               Map<String, Template> templates) {
+
+        if (!Files.isDirectory(path)) {
+            if (log.isDebugEnabled()) {
+                log.debug("No file-based " + templateType + " templates in: " + path);
+            }
+            return;
+        }
+        List<Path> filePaths;
+        try (Stream<Path> paths = Files.walk(path)) {
+            filePaths = paths.filter(filePath -> Files.isRegularFile(filePath) && filePath.toString()
+                    .endsWith(TemplateMgtConstants.FILE_EXT_JSON)).collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Error while reading templates.", e);
+            return;
+        }
+        for (Path filePath : filePaths) {
+            try {
+                Template template = readTemplate(filePath, templateType);
+                // Add file based templates to FileBasedTemplates map.
+                templates.put(template.getTemplateId(), template);
+            } catch (IOException | JSONException e) {
+                log.error("Error while reading the template: " + filePath, e);
+            }
+        }
+    }
+
+    private Template readTemplate(Path filePath, TemplateMgtConstants.TemplateType templateType)
+            throws IOException {
+
+        String templateJsonString = FileUtils.readFileToString(filePath.toFile());
+        JSONObject templateObj = new JSONObject(templateJsonString);
+        Template template = new Template();
+
+        template.setTemplateId(templateObj.getString(TemplateMgtConstants.ID));
+        template.setTemplateName(templateObj.getString(TemplateMgtConstants.NAME));
+        template.setDescription(templateObj.getString(TemplateMgtConstants.DESCRIPTION));
+        template.setImageUrl(templateObj.getString(TemplateMgtConstants.IMAGE));
+        template.setTemplateType(templateType);
+
+        if (templateType == TemplateMgtConstants.TemplateType.APPLICATION_TEMPLATE) {
+            template.setPropertiesMap(extractApplicationSpecificProperties(templateObj));
+            template.setTemplateScript(templateObj.getJSONObject(TemplateMgtConstants.APPLICATION).toString());
+        } else {
+            template.setPropertiesMap(extractIDPSpecificProperties(templateObj));
+            template.setTemplateScript(templateObj.getJSONObject(TemplateMgtConstants.IDP).toString());
+        }
+        return template;
+    }
+
+    private Map<String, String> extractApplicationSpecificProperties(JSONObject templateObj) {
+
+        Map<String, String> properties = new HashMap<>();
+        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.AUTHENTICATION_PROTOCOL))) {
+            properties.put(TemplateMgtConstants.PROPERTY_AUTHENTICATION_PROTOCOL,
+                    templateObj.getString(TemplateMgtConstants.AUTHENTICATION_PROTOCOL));
+        }
+        if (templateObj.getJSONArray(TemplateMgtConstants.TYPES) != null) {
+            JSONArray typesJSONArray = templateObj.getJSONArray(TemplateMgtConstants.TYPES);
+            List<String> types = new ArrayList<>();
+            if (typesJSONArray != null) {
+                for (int i = 0; i < typesJSONArray.length(); i++) {
+                    types.add(typesJSONArray.getString(i));
+                }
+            }
+            properties.put(TemplateMgtConstants.TYPES, String.join(",", types));
+        }
+        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.CATEGORY))) {
+            properties.put(TemplateMgtConstants.CATEGORY, templateObj.getString(TemplateMgtConstants.CATEGORY));
+        }
+        if (StringUtils.isNotEmpty(String.valueOf(templateObj.getInt(TemplateMgtConstants.DISPLAY_ORDER)))) {
+            properties.put(TemplateMgtConstants.PROPERTY_DISPLAY_ORDER, Integer.toString(templateObj.getInt
+                    (TemplateMgtConstants.DISPLAY_ORDER)));
+        }
+        return properties;
+    }
+
+    private Map<String, String> extractIDPSpecificProperties(JSONObject templateObj) {
+
+        Map<String, String> properties = new HashMap<>();
+        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.PROP_CATEGORY))) {
+            properties.put(TemplateMgtConstants.PROP_CATEGORY, templateObj.getString(TemplateMgtConstants
+                    .PROP_CATEGORY));
+        }
+        if (StringUtils.isNotEmpty(String.valueOf(templateObj.getInt(TemplateMgtConstants.PROP_DISPLAY_ORDER)))) {
+            properties.put(TemplateMgtConstants.PROP_DISPLAY_ORDER, Integer.toString(templateObj.getInt
+                    (TemplateMgtConstants.PROP_DISPLAY_ORDER)));
+        }
+        if (templateObj.getJSONArray(TemplateMgtConstants.PROP_SERVICES) != null) {
+            JSONArray servicesJSONArray = templateObj.getJSONArray(TemplateMgtConstants.PROP_SERVICES);
+            List<String> services = new ArrayList<>();
+            if (servicesJSONArray != null) {
+                for (int i = 0; i < servicesJSONArray.length(); i++) {
+                    services.add(servicesJSONArray.getString(i));
+                }
+            }
+            properties.put(TemplateMgtConstants.PROP_SERVICES, String.join(",", services));
+        }
+        return properties;
+    }
+}
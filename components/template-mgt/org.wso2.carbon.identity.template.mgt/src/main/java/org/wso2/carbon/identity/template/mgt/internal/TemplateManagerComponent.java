@@ -17,16 +17,13 @@
  */
 package org.wso2.carbon.identity.template.mgt.internal;
 
-import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.json.JSONArray;
-import org.json.JSONObject;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -39,17 +36,8 @@ import org.wso2.carbon.identity.template.mgt.handler.ReadOnlyTemplateHandler;
 import org.wso2.carbon.identity.template.mgt.handler.TemplateHandler;
 import org.wso2.carbon.identity.template.mgt.handler.impl.ConfigStoreBasedTemplateHandler;
 import org.wso2.carbon.identity.template.mgt.handler.impl.FileBasedTemplateHandler;
-import org.wso2.carbon.identity.template.mgt.model.Template;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
 
 /**
  * OSGi declarative services component which handles registration and un-registration of template management service.
@@ -61,6 +49,7 @@ import java.util.Map;
 public class TemplateManagerComponent {
 
     private static Log log = LogFactory.getLog(TemplateManagerComponent.class);
+    private FileBasedTemplateLoader fileBasedTemplateLoader;
 
     /**
      * Register Template Manager as an OSGi service.
@@ -89,6 +78,18 @@ public class TemplateManagerComponent {
         }
     }
 
+    @Deactivate
+    protected void deactivate(ComponentContext componentContext) {
+
+        if (fileBasedTemplateLoader != null) {
+            fileBasedTemplateLoader.stopWatching();
+            fileBasedTemplateLoader = null;
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Template Manager bundle is deactivated.");
+        }
+    }
+
     @Reference(
             name = "identityCoreInitializedEventService",
             service = IdentityCoreInitializedEvent.class,
@@ -150,108 +151,16 @@ public class TemplateManagerComponent {
         TemplateManagerDataHolder.getInstance().removeReadOnlyTemplateHandler(readOnlyTemplateHandler);
     }
 
-    private void loadDefaultTemplates() throws FileNotFoundException {
-
-        List<Path> paths = Arrays.asList(TemplateMgtConstants.SP_TEMPLATES_DIR_PATH, TemplateMgtConstants
-                .IDP_TEMPLATES_DIR_PATH);
-        for (Path path : paths) {
-            if (!Files.exists(path) || !Files.isDirectory(path)) {
-                if (log.isDebugEnabled()) {
-                    log.debug("No file-based idp/application templates");
-                }
-            } else {
-                try {
-                    Files.walk(path)
-                            .filter(filePath -> Files.isRegularFile(filePath) && filePath.toString().endsWith
-                                    (TemplateMgtConstants.FILE_EXT_JSON))
-                            .forEach(filePath -> {
-                                try {
-                                    String templateJsonString = FileUtils.readFileToString(filePath.toFile());
-                                    JSONObject templateObj = new JSONObject(templateJsonString);
-                                    Template template = new Template();
-
-                                    template.setTemplateId(templateObj.getString(TemplateMgtConstants.ID));
-                                    template.setTemplateName(templateObj.getString(TemplateMgtConstants.NAME));
-                                    template.setDescription(templateObj.getString(TemplateMgtConstants.DESCRIPTION));
-                                    template.setImageUrl(templateObj.getString(TemplateMgtConstants.IMAGE));
-
-                                    if (StringUtils.equals(TemplateMgtConstants.SP_TEMPLATES_DIR_PATH.toString(),
-                                            path.toString())) {
-                                        template.setTemplateType(TemplateMgtConstants.TemplateType
-                                                .APPLICATION_TEMPLATE);
-                                        template.setPropertiesMap(extractApplicationSpecificProperties(templateObj));
-                                        template.setTemplateScript(templateObj.getJSONObject(TemplateMgtConstants
-                                                .APPLICATION).toString());
-                                    } else if (StringUtils.equals(TemplateMgtConstants.IDP_TEMPLATES_DIR_PATH
-                                            .toString(), path.toString())) {
-                                        template.setTemplateType(TemplateMgtConstants.TemplateType.IDP_TEMPLATE);
-                                        template.setPropertiesMap(extractIDPSpecificProperties(templateObj));
-                                        template.setTemplateScript(templateObj.getJSONObject(TemplateMgtConstants
-                                                .IDP).toString());
-                                    }
-                                    // Add file based templates to FileBasedTemplates map.
-                                    TemplateManagerDataHolder.getInstance()
-                                            .addFileBasedTemplate(templateObj.getString(TemplateMgtConstants.ID),
-                                                    template);
-                                } catch (IOException e) {
-                                    log.error("Error while reading  templates.", e);
-                                }
-                            });
-                } catch (IOException e) {
-                    log.error("Error while reading templates.", e);
-                }
-            }
-        }
-    }
-
-    private Map<String, String> extractApplicationSpecificProperties(JSONObject templateObj) {
+    private void loadDefaultTemplates() {
 
-        Map<String, String> properties = new HashMap<>();
-        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.AUTHENTICATION_PROTOCOL))) {
-            properties.put(TemplateMgtConstants.PROPERTY_AUTHENTICATION_PROTOCOL,
-                    templateObj.getString(TemplateMgtConstants.AUTHENTICATION_PROTOCOL));
-        }
-        if (templateObj.getJSONArray(TemplateMgtConstants.TYPES) != null) {
-            JSONArray typesJSONArray = templateObj.getJSONArray(TemplateMgtConstants.TYPES);
-            List<String> types = new ArrayList<>();
-            if (typesJSONArray != null) {
-                for (int i = 0; i < typesJSONArray.length(); i++) {
-                    types.add(typesJSONArray.getString(i));
-                }
-            }
-            properties.put(TemplateMgtConstants.TYPES, String.join(",", types));
-        }
-        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.CATEGORY))) {
-            properties.put(TemplateMgtConstants.CATEGORY, templateObj.getString(TemplateMgtConstants.CATEGORY));
-        }
-        if (StringUtils.isNotEmpty(String.valueOf(templateObj.getInt(TemplateMgtConstants.DISPLAY_ORDER)))) {
-            properties.put(TemplateMgtConstants.PROPERTY_DISPLAY_ORDER, Integer.toString(templateObj.getInt
-                    (TemplateMgtConstants.DISPLAY_ORDER)));
-        }
-        return properties;
-    }
-
-    private Map<String, String> extractIDPSpecificProperties(JSONObject templateObj) {
-
-        Map<String, String> properties = new HashMap<>();
-        if (StringUtils.isNotEmpty(templateObj.getString(TemplateMgtConstants.PROP_CATEGORY))) {
-            properties.put(TemplateMgtConstants.PROP_CATEGORY, templateObj.getString(TemplateMgtConstants
-                    .PROP_CATEGORY));
-        }
-        if (StringUtils.isNotEmpty(String.valueOf(templateObj.getInt(TemplateMgtConstants.PROP_DISPLAY_ORDER)))) {
-            properties.put(TemplateMgtConstants.PROP_DISPLAY_ORDER, Integer.toString(templateObj.getInt
-                    (TemplateMgtConstants.PROP_DISPLAY_ORDER)));
-        }
-        if (templateObj.getJSONArray(TemplateMgtConstants.PROP_SERVICES) != null) {
-            JSONArray servicesJSONArray = templateObj.getJSONArray(TemplateMgtConstants.PROP_SERVICES);
-            List<String> services = new ArrayList<>();
-            if (servicesJSONArray != null) {
-                for (int i = 0; i < servicesJSONArray.length(); i++) {
-                    services.add(servicesJSONArray.getString(i));
-                }
-            }
-            properties.put(TemplateMgtConstants.PROP_SERVICES, String.join(",", services));
+        fileBasedTemplateLoader = new FileBasedTemplateLoader(TemplateMgtConstants.SP_TEMPLATES_DIR_PATH,
+                TemplateMgtConstants.IDP_TEMPLATES_DIR_PATH);
+        fileBasedTemplateLoader.load();
+        try {
+            fileBasedTemplateLoader.startWatching();
+        } catch (IOException e) {
+            log.error("Error while watching the template directories. Changes to the file based templates will " +
+                    "not be loaded until the server is restarted.", e);
         }
-        return properties;
     }
 }
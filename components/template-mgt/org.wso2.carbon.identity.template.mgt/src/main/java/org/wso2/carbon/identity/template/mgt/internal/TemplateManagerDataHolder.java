@@ -19,6 +19,7 @@
 package org.wso2.carbon.identity.template.mgt.internal;
 
 import org.wso2.carbon.identity.configuration.mgt.core.ConfigurationManager;
+import org.wso2.carbon.identity.template.mgt.TemplateMgtConstants;
 import org.wso2.carbon.identity.template.mgt.handler.ReadOnlyTemplateHandler;
 import org.wso2.carbon.identity.template.mgt.handler.TemplateHandler;
 import org.wso2.carbon.identity.template.mgt.handler.impl.ConfigStoreBasedTemplateHandler;
@@ -26,6 +27,8 @@ import org.wso2.carbon.identity.template.mgt.model.Template;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,7 +46,7 @@ public class TemplateManagerDataHolder {
 
     private List<ReadOnlyTemplateHandler> readOnlyTemplateHandlers = new ArrayList<>();
 
-    private Map<String, Template> fileBasedTemplates = new HashMap<>();
+    private volatile FileBasedTemplates fileBasedTemplates = new FileBasedTemplates(Collections.emptyMap());
 
     public static TemplateManagerDataHolder getInstance() {
 
@@ -127,11 +130,66 @@ public class TemplateManagerDataHolder {
      */
     public Map<String, Template> getFileBasedTemplates() {
 
-        return Collections.unmodifiableMap(fileBasedTemplates);
+        return fileBasedTemplates.templatesById;
     }
 
-    public void addFileBasedTemplate(String templateId, Template template) {
+    /**
+     * Get default templates of a type from file artifacts, sorted by the template name and then by the template id.
+     *
+     * @param templateType Template type.
+     * @return Unmodifiable list of the default templates of the type.
+     */
+    public List<Template> getFileBasedTemplates(TemplateMgtConstants.TemplateType templateType) {
+
+        List<Template> templates = fileBasedTemplates.templatesByType.get(templateType);
+        return templates != null ? templates : Collections.emptyList();
+    }
+
+    /**
+     * Replace all the default templates from file artifacts.
+     *
+     * @param templates Default templates in files, by the template id.
+     */
+    public synchronized void setFileBasedTemplates(Map<String, Template> templates) {
+
+        this.fileBasedTemplates = new FileBasedTemplates(templates);
+    }
+
+    public synchronized void addFileBasedTemplate(String templateId, Template template) {
 
-        this.fileBasedTemplates.put(templateId, template);
+        Map<String, Template> templates = new HashMap<>(fileBasedTemplates.templatesById);
+        templates.put(templateId, template);
+        this.fileBasedTemplates = new FileBasedTemplates(templates);
+    }
+
+    /**
+     * Immutable snapshot of the file based templates, partitioned by the template type when it is built so that the
+     * templates can be listed without going through the templates of the other types.
+     */
+    private static final class FileBasedTemplates {
+
+        private static final Comparator<Template> TEMPLATE_ORDER = Comparator
+                .comparing(Template::getTemplateName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Template::getTemplateId, Comparator.nullsLast(Comparator.naturalOrder()));
+
+        private final Map<String, Template> templatesById;
+        private final Map<TemplateMgtConstants.TemplateType, List<Template>> templatesByType;
+
+        private FileBasedTemplates(Map<String, Template> templates) {
+
+            this.templatesById = Collections.unmodifiableMap(new HashMap<>(templates));
+            Map<TemplateMgtConstants.TemplateType, List<Template>> partitions =
+                    new EnumMap<>(TemplateMgtConstants.TemplateType.class);
+            for (Template template : templates.values()) {
+                if (template.getTemplateType() != null) {
+                    partitions.computeIfAbsent(template.getTemplateType(), type -> new ArrayList<>()).add(template);
+                }
+            }
+            for (Map.Entry<TemplateMgtConstants.TemplateType, List<Template>> partition : partitions.entrySet()) {
+                partition.getValue().sort(TEMPLATE_ORDER);
+                partition.setValue(Collections.unmodifiableList(partition.getValue()));
+            }
+            this.templatesByType = partitions;
+        }
     }
 }
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.identity.template.mgt.handler.impl;
+
+import org.apache.commons.io.FileUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.identity.template.mgt.TemplateMgtConstants;
+import org.wso2.carbon.identity.template.mgt.internal.FileBasedTemplateLoader;
+import org.wso2.carbon.identity.template.mgt.internal.TemplateManagerDataHolder;
+import org.wso2.carbon.identity.template.mgt.model.Template;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Tests for listing the file based templates through {@link FileBasedTemplateHandler}.
+ */
+public class FileBasedTemplateHandlerTest {
+
+    private static final int TEMPLATE_COUNT = 50;
+    private static final String APPLICATION_TEMPLATE =
+            TemplateMgtConstants.TemplateType.APPLICATION_TEMPLATE.toString();
+
+    private Path templatesDirPath;
+    private Path spTemplatesDirPath;
+    private Path idpTemplatesDirPath;
+    private FileBasedTemplateLoader templateLoader;
+    private FileBasedTemplateHandler templateHandler;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+
+        templatesDirPath = Files.createTempDirectory("templates");
+        spTemplatesDirPath = Files.createDirectory(templatesDirPath.resolve("applications"));
+        idpTemplatesDirPath = Files.createDirectory(templatesDirPath.resolve("identity-providers"));
+        templateLoader = new FileBasedTemplateLoader(spTemplatesDirPath, idpTemplatesDirPath);
+        templateHandler = new FileBasedTemplateHandler();
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+
+        templateLoader.stopWatching();
+        TemplateManagerDataHolder.getInstance().setFileBasedTemplates(Collections.emptyMap());
+        FileUtils.deleteDirectory(templatesDirPath.toFile());
+    }
+
+    @Test
+    public void testTemplatesAreListedInStableOrderAcrossReloads() throws Exception {
+
+        List<Integer> indexes = new ArrayList<>();
+        for (int i = 0; i < TEMPLATE_COUNT; i++) {
+            indexes.add(i);
+        }
+        Collections.shuffle(indexes, new Random(1));
+        for (int i : indexes) {
+            writeApplicationTemplate("sp-" + i, "Application " + (i % 10), "app-" + i + ".json");
+        }
+        writeIdPTemplate("idp-1", "Identity Provider", "idp-1.json");
+        templateLoader.load();
+
+        List<String> templateIds = getTemplateIds(templateHandler.listTemplates(APPLICATION_TEMPLATE,
+                TEMPLATE_COUNT + 1, 0, null));
+        Assert.assertEquals(templateIds.size(), TEMPLATE_COUNT);
+        Assert.assertEquals(templateIds.get(0), "sp-0");
+        Assert.assertEquals(templateIds.get(1), "sp-10");
+        Assert.assertEquals(templateIds.get(TEMPLATE_COUNT - 1), "sp-9");
+
+        // Rewrite the templates in a different order under different file names.
+        FileUtils.cleanDirectory(spTemplatesDirPath.toFile());
+        Collections.shuffle(indexes, new Random(2));
+        for (int i : indexes) {
+            writeApplicationTemplate("sp-" + i, "Application " + (i % 10), "template-" + i + ".json");
+        }
+        for (int reload = 0; reload < 5; reload++) {
+            templateLoader.load();
+            Assert.assertEquals(getTemplateIds(templateHandler.listTemplates(APPLICATION_TEMPLATE,
+                    TEMPLATE_COUNT + 1, 0, null)), templateIds);
+        }
+    }
+
+    @Test
+    public void testPagesCoverTheTemplatesOfTheType() throws Exception {
+
+        for (int i = 0; i < TEMPLATE_COUNT; i++) {
+            writeApplicationTemplate("sp-" + i, String.format("Application %02d", i), "app-" + i + ".json");
+            writeIdPTemplate("idp-" + i, String.format("Identity Provider %02d", i), "idp-" + i + ".json");
+        }
+        templateLoader.load();
+
+        List<String> pagedTemplateIds = new ArrayList<>();
+        for (int offset = 0; offset < TEMPLATE_COUNT; offset += 7) {
+            List<Template> page = templateHandler.listTemplates(APPLICATION_TEMPLATE, 7, offset, null);
+            Assert.assertTrue(page.size() <= 7);
+            pagedTemplateIds.addAll(getTemplateIds(page));
+        }
+        List<String> expectedTemplateIds = new ArrayList<>();
+        for (int i = 0; i < TEMPLATE_COUNT; i++) {
+            expectedTemplateIds.add("sp-" + i);
+        }
+        Assert.assertEquals(pagedTemplateIds, expectedTemplateIds);
+
+        Assert.assertTrue(templateHandler.listTemplates(APPLICATION_TEMPLATE, 10, TEMPLATE_COUNT, null).isEmpty());
+        Assert.assertEquals(templateHandler.listTemplates(APPLICATION_TEMPLATE, Integer.MAX_VALUE,
+                TEMPLATE_COUNT - 1, null).size(), 1);
+        Assert.assertTrue(templateHandler.listTemplates("UNKNOWN_TEMPLATE", 10, 0, null).isEmpty());
+        Assert.assertEquals(templateHandler.listTemplates(TemplateMgtConstants.TemplateType.IDP_TEMPLATE.toString(),
+                1, 0, null).get(0).getTemplateId(), "idp-0");
+        Assert.assertEquals(templateHandler.getTemplateById("idp-0").getTemplateType(),
+                TemplateMgtConstants.TemplateType.IDP_TEMPLATE);
+    }
+
+    @Test
+    public void testTemplatesAreReloadedWhenDirectoryChanges() throws Exception {
+
+        writeApplicationTemplate("sp-b", "Application B", "app-b.json");
+        templateLoader.load();
+        templateLoader.startWatching();
+
+        writeApplicationTemplate("sp-a", "Application A", "app-a.json");
+        List<String> templateIds = Collections.emptyList();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+        while (templateIds.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+            templateIds = getTemplateIds(templateHandler.listTemplates(APPLICATION_TEMPLATE, 10, 0, null));
+        }
+        Assert.assertEquals(templateIds, Arrays.asList("sp-a", "sp-b"));
+    }
+
+    private List<String> getTemplateIds(List<Template> templates) {
+
+        return templates.stream().map(Template::getTemplateId).collect(Collectors.toList());
+    }
+
+    private void writeApplicationTemplate(String templateId, String templateName, String fileName)
+            throws IOException {
+
+        JSONObject templateObj = createTemplate(templateId, templateName);
+        templateObj.put(TemplateMgtConstants.AUTHENTICATION_PROTOCOL, "oidc");
+        templateObj.put(TemplateMgtConstants.TYPES, new JSONArray().put("web"));
+        templateObj.put(TemplateMgtConstants.CATEGORY, "DEFAULT");
+        templateObj.put(TemplateMgtConstants.DISPLAY_ORDER, 1);
+        templateObj.put(TemplateMgtConstants.APPLICATION, new JSONObject().put("name", templateName));
+        FileUtils.writeStringToFile(spTemplatesDirPath.resolve(fileName).toFile(), templateObj.toString());
+    }
+
+    private void writeIdPTemplate(String templateId, String templateName, String fileName) throws IOException {
+
+        JSONObject templateObj = createTemplate(templateId, templateName);
+        templateObj.put(TemplateMgtConstants.PROP_CATEGORY, "DEFAULT");
+        templateObj.put(TemplateMgtConstants.PROP_DISPLAY_ORDER, 1);
+        templateObj.put(TemplateMgtConstants.PROP_SERVICES, new JSONArray().put("authentication"));
+        templateObj.put(TemplateMgtConstants.IDP, new JSONObject().put("name", templateName));
+        FileUtils.writeStringToFile(idpTemplatesDirPath.resolve(fileName).toFile(), templateObj.toString());
+    }
+
+    private JSONObject createTemplate(String templateId, String templateName) {
+
+        JSONObject templateObj = new JSONObject();
+        templateObj.put(TemplateMgtConstants.ID, templateId);
+        templateObj.put(TemplateMgtConstants.NAME, templateName);
+        templateObj.put(TemplateMgtConstants.DESCRIPTION, "Description of " + templateName);
+        templateObj.put(TemplateMgtConstants.IMAGE, "images/" + templateId + ".svg");
+        return templateObj;
+    }
+}
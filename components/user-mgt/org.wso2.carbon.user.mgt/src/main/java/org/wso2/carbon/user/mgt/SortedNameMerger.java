@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.carbon.user.mgt;
+
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+/**
+ * Merges name arrays of several user store domains into pages of a single list sorted by name. Only the names of the
+ * requested page are selected from each array, in O(n log pageSize) instead of sorting the whole array, and the
+ * selected names are merged with a k-way merge.
+ */
+final class SortedNameMerger {
+
+    /**
+     * Case insensitive order of names without the user store domain, so that the names of all the domains are
+     * interleaved. Names which only differ by the domain are ordered by the domain qualified name. The display name
+     * appended to a name with {@link UserCoreConstants#NAME_COMBINER} is not considered.
+     */
+    static final Comparator<String> NAME_ORDER = Comparator
+            .comparing((String name) -> UserCoreUtil.removeDomainFromName(getName(name)), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(SortedNameMerger::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private SortedNameMerger() {
+
+    }
+
+    /**
+     * Select the page of the given names which follows the cursor. The given array is not modified, and names which
+     * are equal in {@link #NAME_ORDER} are selected once.
+     *
+     * @param names    names in any order, may be null
+     * @param cursor   last name of the previous page, or null to get the first page
+     * @param pageSize maximum number of names in the page
+     * @param accept   predicate the names of the page should match, or null to accept all names
+     * @return at most pageSize names after the cursor, sorted with {@link #NAME_ORDER}
+     */
+    static String[] selectPage(String[] names, String cursor, int pageSize, Predicate<String> accept) {
+
+        if (names == null || pageSize <= 0) {
+            return new String[0];
+        }
+        // Bounded set of the smallest names after the cursor. When it is full, a name is added only if it is smaller
+        // than the largest name of the set, which is then removed.
+        TreeSet<String> page = new TreeSet<>(NAME_ORDER);
+        for (String name : names) {
+            if (cursor != null && NAME_ORDER.compare(name, cursor) <= 0) {
+                continue;
+            }
+            if (page.size() == pageSize && NAME_ORDER.compare(name, page.last()) >= 0) {
+                continue;
+            }
+            if (accept != null && !accept.test(name)) {
+                continue;
+            }
+            if (page.add(name) && page.size() > pageSize) {
+                page.pollLast();
+            }
+        }
+        return page.toArray(new String[page.size()]);
+    }
+
+    /**
+     * Get a page of the merged names. Names which are equal in {@link #NAME_ORDER} are returned once.
+     *
+     * @param sortedNames name arrays, each selected with {@link #selectPage(String[], String, int, Predicate)}
+     * @param pageSize    maximum number of names in the page
+     * @return names of the page in {@link #NAME_ORDER}
+     */
+    static List<String> mergePage(final List<String[]> sortedNames, int pageSize) {
+
+        List<String> page = new ArrayList<>();
+        if (pageSize <= 0 || sortedNames.isEmpty()) {
+            return page;
+        }
+
+        // Each head holds the index of a name array and the position of the next name to merge from it. Equal names
+        // are taken in the order of the arrays.
+        PriorityQueue<int[]> heads = new PriorityQueue<>(sortedNames.size(),
+                (head1, head2) -> {
+                    int result = NAME_ORDER.compare(sortedNames.get(head1[0])[head1[1]],
+                            sortedNames.get(head2[0])[head2[1]]);
+                    return result != 0 ? result : Integer.compare(head1[0], head2[0]);
+                });
+        for (int i = 0; i < sortedNames.size(); i++) {
+            if (sortedNames.get(i).length > 0) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+
+        String previous = null;
+        while (!heads.isEmpty() && page.size() < pageSize) {
+            int[] head = heads.poll();
+            String[] names = sortedNames.get(head[0]);
+            String name = names[head[1]];
+            if (++head[1] < names.length) {
+                heads.add(head);
+            }
+            if (previous != null && NAME_ORDER.compare(previous, name) == 0) {
+                continue;
+            }
+            previous = name;
+            page.add(name);
+        }
+        return page;
+    }
+
+    /**
+     * Get the name of an entry without the appended display name.
+     *
+     * @param entry name, optionally followed by {@link UserCoreConstants#NAME_COMBINER} and the display name
+     * @return name
+     */
+    static String getName(String entry) {
+
+        int index = entry.indexOf(UserCoreConstants.NAME_COMBINER);
+        return index > 0 ? entry.substring(0, index) : entry;
+    }
+}
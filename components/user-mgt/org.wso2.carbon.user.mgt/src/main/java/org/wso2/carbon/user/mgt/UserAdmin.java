@@ -31,6 +31,7 @@ import org.wso2.carbon.user.api.AuthorizationManager;
 import org.wso2.carbon.user.api.UserRealmService;
 import org.wso2.carbon.user.core.UserRealm;
 import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.mgt.bulkimport.BulkImportProgress;
 import org.wso2.carbon.user.mgt.common.ClaimValue;
 import org.wso2.carbon.user.mgt.common.FlaggedName;
 import org.wso2.carbon.user.mgt.common.UIPermissionNode;
@@ -84,6 +85,20 @@ public class UserAdmin {
         return names;
     }
 
+    /**
+     * Get a page of the users of all user store domains, sorted by user name.
+     *
+     * @param filter   filter of the user names
+     * @param cursor   name of the last user of the previous page, or null to get the first page
+     * @param pageSize maximum number of users to return
+     * @return users of the page
+     * @throws UserAdminException
+     */
+    public FlaggedName[] listUsersPage(String filter, String cursor, int pageSize) throws UserAdminException {
+
+        return getUserAdminProxy().listUsersPage(filter, cursor, pageSize);
+    }
+
     /**
      * Get list of users which have given permission
      *
@@ -134,6 +149,19 @@ public class UserAdmin {
         return getUserAdminProxy().getAllRolesNames(filter, limit);
     }
 
+    /**
+     * Get a page of the roles of all user store domains, sorted by role name.
+     *
+     * @param filter   filter of the role names
+     * @param cursor   name of the last role of the previous page, or null to get the first page
+     * @param pageSize maximum number of roles to return
+     * @return roles of the page
+     * @throws UserAdminException
+     */
+    public FlaggedName[] getAllRolesNamesPage(String filter, String cursor, int pageSize) throws UserAdminException {
+        return getUserAdminProxy().getAllRolesNamesPage(filter, cursor, pageSize);
+    }
+
     /**
      * Get list of roles which have given permission
      *
@@ -385,6 +413,21 @@ public class UserAdmin {
         return getUserAdminProxy().getUsersOfRole(roleName, filter, limit);
     }
 
+    /**
+     * Get a page of the users of a role, sorted by user name.
+     *
+     * @param roleName name of the role
+     * @param filter   filter of the user names
+     * @param cursor   name of the last user of the previous page, or null to get the first page
+     * @param pageSize maximum number of users to return
+     * @return users of the page
+     * @throws UserAdminException
+     */
+    public FlaggedName[] getUsersOfRolePage(String roleName, String filter, String cursor, int pageSize)
+            throws UserAdminException {
+        return getUserAdminProxy().getUsersOfRolePage(roleName, filter, cursor, pageSize);
+    }
+
     /*
      * (non-Javadoc)
      * 
@@ -424,6 +467,21 @@ public class UserAdmin {
         return getUserAdminProxy().getRolesOfUser(userName, filter, limit);
     }
 
+    /**
+     * Get a page of the roles of a user, sorted by role name.
+     *
+     * @param userName name of the user
+     * @param filter   filter of the role names
+     * @param cursor   name of the last role of the previous page, or null to get the first page
+     * @param pageSize maximum number of roles to return
+     * @return roles of the page
+     * @throws UserAdminException
+     */
+    public FlaggedName[] getRolesOfUserPage(String userName, String filter, String cursor, int pageSize)
+            throws UserAdminException {
+        return getUserAdminProxy().getRolesOfUserPage(userName, filter, cursor, pageSize);
+    }
+
     // FIXME: Fix the documentation of this class including this.
     public FlaggedName[] getRolesOfCurrentUser() throws UserAdminException {
         return getRolesOfUser(CarbonContext.getThreadLocalCarbonContext().getUsername(), "*", -1);
@@ -505,6 +563,22 @@ public class UserAdmin {
 
     }
 
+    /**
+     * Get the progress of the last bulk user import to the given user store. The progress can be read while the
+     * import is running.
+     *
+     * @param userStoreDomain
+     * @return progress of the import or null if there is no import to the user store
+     * @throws UserAdminException
+     */
+    public BulkImportProgress getBulkImportProgress(String userStoreDomain) throws UserAdminException {
+
+        if (StringUtils.isEmpty(userStoreDomain)) {
+            userStoreDomain = IdentityUtil.getPrimaryDomainName();
+        }
+        return getUserAdminProxy().getBulkImportProgress(userStoreDomain);
+    }
+
     /**
      * @param oldPassword
      * @param newPassword
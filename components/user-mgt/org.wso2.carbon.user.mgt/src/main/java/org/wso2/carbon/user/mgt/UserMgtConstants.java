@@ -58,5 +58,11 @@ public class UserMgtConstants {
     public static final String AUDIT_LOG_FORMAT = "Initiator : %s | Action : %s | Target : %s | Data : %s | Result : %s";
     public static final String ERROR_MESSAGE = "Bulk User Import was completed with Errors. Success count : %d,  " +
             "Failed Count : %d, Duplicate Count : %d.";
+
+    // Bulk user import configurations in identity.xml
+    public static final String BULK_IMPORT_THREAD_COUNT = "UserBulkImport.ThreadCount";
+    public static final String BULK_IMPORT_BATCH_SIZE = "UserBulkImport.BatchSize";
+    public static final int DEFAULT_BULK_IMPORT_THREAD_COUNT = 4;
+    public static final int DEFAULT_BULK_IMPORT_BATCH_SIZE = 100;
     // component xml constants
 }
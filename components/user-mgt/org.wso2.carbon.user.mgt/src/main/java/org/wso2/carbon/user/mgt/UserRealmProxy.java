@@ -29,8 +29,6 @@ import org.wso2.carbon.identity.base.IdentityConstants;
 import org.wso2.carbon.identity.core.util.IdentityUtil;
 import org.wso2.carbon.registry.api.Registry;
 import org.wso2.carbon.registry.api.RegistryException;
-import org.wso2.carbon.registry.api.Resource;
-import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.user.api.Claim;
 import org.wso2.carbon.user.api.ClaimMapping;
@@ -46,6 +44,7 @@ import org.wso2.carbon.user.core.common.AbstractUserStoreManager;
 import org.wso2.carbon.user.core.jdbc.JDBCUserStoreManager;
 import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.user.mgt.bulkimport.BulkImportConfig;
+import org.wso2.carbon.user.mgt.bulkimport.BulkImportProgress;
 import org.wso2.carbon.user.mgt.bulkimport.CSVUserBulkImport;
 import org.wso2.carbon.user.mgt.bulkimport.ExcelUserBulkImport;
 import org.wso2.carbon.user.mgt.bulkimport.UserBulkImport;
@@ -57,6 +56,8 @@ import org.wso2.carbon.user.mgt.common.UserRealmInfo;
 import org.wso2.carbon.user.mgt.common.UserStoreInfo;
 import org.wso2.carbon.user.mgt.internal.UserMgtDSComponent;
 import org.wso2.carbon.user.mgt.permission.ManagementPermissionUtil;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTreeCache;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTreeCache.PermissionNode;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 
@@ -68,6 +69,8 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -75,14 +78,13 @@ public class UserRealmProxy {
 
     private static final Log log = LogFactory.getLog(UserRealmProxy.class);
 
-    private static final String APPLICATIONS_PATH = RegistryConstants.PATH_SEPARATOR
-            + CarbonConstants.UI_PERMISSION_NAME + RegistryConstants.PATH_SEPARATOR
-            + "applications";
     private static final String DISAPLAY_NAME_CLAIM = "http://wso2.org/claims/displayName";
 
     public static final String FALSE = "false";
     public static final String PERMISSION = "/permission";
     public static final String PERMISSION_ADMIN = "/permission/admin";
+    private static final int MAX_CACHED_FILTER_PATTERNS = 100;
+    private static final Map<String, Pattern> filterPatterns = new ConcurrentHashMap<>();
     private UserRealm realm = null;
 
     public UserRealmProxy(UserRealm userRealm) {
@@ -1107,8 +1109,7 @@ public class UserRealmProxy {
             Map<String, Integer> userCount = new HashMap<String, Integer>();
 
             if (limit == 0) {
-                filter = filter.replace("*", ".*");
-                Pattern pattern = Pattern.compile(filter, Pattern.CASE_INSENSITIVE);
+                Pattern pattern = getFilterPattern(filter);
                 List<FlaggedName> flaggedNames = new ArrayList<FlaggedName>();
                 for (String anUsersOfRole : usersOfRole) {
                     //check if display name is present in the user name
@@ -1320,9 +1321,7 @@ public class UserRealmProxy {
                 }
 
                 // filter with regexp
-                modifiedFilter = modifiedFilter.replace("*", ".*");
-
-                Pattern pattern = Pattern.compile(modifiedFilter, Pattern.CASE_INSENSITIVE);
+                Pattern pattern = getFilterPattern(modifiedFilter);
 
                 List<FlaggedName> flaggedNames = new ArrayList<>();
 
@@ -1989,54 +1988,14 @@ public class UserRealmProxy {
     public UIPermissionNode getAllUIPermissions(int tenantId)
             throws UserAdminException {
 
-        UIPermissionNode nodeRoot;
-        Collection regRoot;
-        Collection parent = null;
-        Registry tenentRegistry = null;
-
         try {
-            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
-            if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
-                if (CarbonContext.getThreadLocalCarbonContext().getTenantId() != MultitenantConstants.SUPER_TENANT_ID) {
-                    log.error("Illegal access attempt");
-                    throw new UserStoreException("Illegal access attempt");
-                }
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
-                String displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_PERMISSION_ROOT, displayName);
-            } else {
-
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
-
-                tenentRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
-                Collection appRoot;
-
-                if (tenentRegistry.resourceExists(APPLICATIONS_PATH)) {
-                    appRoot = (Collection) tenentRegistry.get(APPLICATIONS_PATH);
-                    parent = (Collection) tenentRegistry.newCollection();
-                    parent.setProperty(UserMgtConstants.DISPLAY_NAME, "All Permissions");
-                    parent.setChildren(new String[]{regRoot.getPath(), appRoot.getPath()});
-                }
-
-                String displayName = null;
-
-                if (parent != null) {
-                    displayName = parent.getProperty(UserMgtConstants.DISPLAY_NAME);
-                } else {
-                    displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                }
-
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT,
-                        displayName);
-            }
-
-            if (parent != null) {
-                buildUIPermissionNode(parent, nodeRoot, registry, tenentRegistry, null, null, null);
-            } else {
-                buildUIPermissionNode(regRoot, nodeRoot, registry, tenentRegistry, null, null, null);
+            if (tenantId == MultitenantConstants.SUPER_TENANT_ID &&
+                    CarbonContext.getThreadLocalCarbonContext().getTenantId() != MultitenantConstants.SUPER_TENANT_ID) {
+                log.error("Illegal access attempt");
+                throw new UserStoreException("Illegal access attempt");
             }
-
-            return nodeRoot;
+            PermissionNode permissionTree = UIPermissionTreeCache.getInstance().getPermissionTree(tenantId);
+            return buildUIPermissionNode(permissionTree, null, null);
         } catch (UserStoreException e) {
             // previously logged so logging not needed
             throw new UserAdminException(e.getMessage(), e);
@@ -2048,52 +2007,10 @@ public class UserRealmProxy {
 
     public UIPermissionNode getRolePermissions(String roleName, int tenantId)
             throws UserAdminException {
-        UIPermissionNode nodeRoot;
-        Collection regRoot;
-        Collection parent = null;
-        Registry tenentRegistry = null;
 
         try {
-            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
-            if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
-                String displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_PERMISSION_ROOT, displayName);
-            } else {
-
-                regRoot = (Collection) registry.get(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
-
-                tenentRegistry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
-                Collection appRoot;
-
-                if (tenentRegistry.resourceExists(APPLICATIONS_PATH)) {
-                    appRoot = (Collection) tenentRegistry.get(APPLICATIONS_PATH);
-                    parent = (Collection) tenentRegistry.newCollection();
-                    parent.setProperty(UserMgtConstants.DISPLAY_NAME, "All Permissions");
-                    parent.setChildren(new String[]{regRoot.getPath(), appRoot.getPath()});
-                }
-
-                String displayName = null;
-
-                if (parent != null) {
-                    displayName = parent.getProperty(UserMgtConstants.DISPLAY_NAME);
-                } else {
-                    displayName = regRoot.getProperty(UserMgtConstants.DISPLAY_NAME);
-                }
-
-                nodeRoot = new UIPermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT,
-                        displayName);
-            }
-
-            if (parent != null) {
-                buildUIPermissionNode(parent, nodeRoot, registry, tenentRegistry,
-                        realm.getAuthorizationManager(), roleName, null);
-            } else {
-                buildUIPermissionNode(regRoot, nodeRoot, registry, tenentRegistry,
-                        realm.getAuthorizationManager(), roleName, null);
-            }
-
-            return nodeRoot;
+            PermissionNode permissionTree = UIPermissionTreeCache.getInstance().getPermissionTree(tenantId);
+            return buildUIPermissionNode(permissionTree, realm.getAuthorizationManager(), roleName);
         } catch (UserStoreException e) {
             // previously logged so logging not needed
             throw new UserAdminException(e.getMessage(), e);
@@ -2163,6 +2080,10 @@ public class UserRealmProxy {
             if (StringUtils.isNotEmpty(userStoreDomain)) {
                 config.setUserStoreDomain(userStoreDomain);
             }
+            config.setThreadCount(getBulkImportProperty(UserMgtConstants.BULK_IMPORT_THREAD_COUNT,
+                    UserMgtConstants.DEFAULT_BULK_IMPORT_THREAD_COUNT));
+            config.setBatchSize(getBulkImportProperty(UserMgtConstants.BULK_IMPORT_BATCH_SIZE,
+                    UserMgtConstants.DEFAULT_BULK_IMPORT_BATCH_SIZE));
 
             UserStoreManager userStore = this.realm.getUserStoreManager();
             userStore = userStore.getSecondaryUserStoreManager(userStoreDomain);
@@ -2183,6 +2104,36 @@ public class UserRealmProxy {
 
     }
 
+    /**
+     * Get the progress of the last bulk user import to the given user store of the current tenant.
+     *
+     * @param userStoreDomain user store domain
+     * @return progress of the import or null if there is no import to the user store
+     */
+    public BulkImportProgress getBulkImportProgress(String userStoreDomain) {
+
+        String tenantDomain = CarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        return UserBulkImport.getProgress(tenantDomain, userStoreDomain);
+    }
+
+    private int getBulkImportProperty(String propertyName, int defaultValue) {
+
+        String value = IdentityUtil.getProperty(propertyName);
+        if (StringUtils.isNotBlank(value)) {
+            try {
+                int intValue = Integer.parseInt(value.trim());
+                if (intValue > 0) {
+                    return intValue;
+                }
+            } catch (NumberFormatException e) {
+                // Fall back to the default value below.
+            }
+            log.warn("Invalid value: " + value + " configured for " + propertyName + ". Using the default value: "
+                    + defaultValue);
+        }
+        return defaultValue;
+    }
+
 
     public void changePasswordByUser(String userName, String oldPassword, String newPassword)
             throws UserAdminException {
@@ -2214,106 +2165,224 @@ public class UserRealmProxy {
         }
     }
 
-    private void buildUIPermissionNode(Collection parent, UIPermissionNode parentNode,
-                                       Registry registry, Registry tenantRegistry, AuthorizationManager authMan,
-                                       String roleName, String userName)
-            throws RegistryException, UserStoreException {
-
-        boolean isSelected = false;
-        if (roleName != null) {
-            isSelected = authMan.isRoleAuthorized(roleName, parentNode.getResourcePath(),
-                    UserMgtConstants.EXECUTE_ACTION);
-        } else if (userName != null) {
-            isSelected = authMan.isUserAuthorized(userName, parentNode.getResourcePath(),
-                    UserMgtConstants.EXECUTE_ACTION);
-        }
+    /**
+     * Build the UI permission node of the given permission tree. When a role is given, only the nodes whose ancestors
+     * are not authorized are checked, since an authorized permission authorizes all the permissions below it.
+     */
+    private UIPermissionNode buildUIPermissionNode(PermissionNode permissionNode, AuthorizationManager authMan,
+                                                   String roleName) throws UserStoreException {
+
+        boolean isSelected = roleName != null && authMan.isRoleAuthorized(roleName,
+                permissionNode.getResourcePath(), UserMgtConstants.EXECUTE_ACTION);
         if (isSelected) {
-            buildUIPermissionNodeAllSelected(parent, parentNode, registry, tenantRegistry);
-            parentNode.setSelected(true);
-        } else {
-            buildUIPermissionNodeNotAllSelected(parent, parentNode, registry, tenantRegistry,
-                    authMan, roleName, userName);
+            return buildUIPermissionNodeAllSelected(permissionNode);
         }
+        UIPermissionNode uiPermissionNode = new UIPermissionNode(permissionNode.getResourcePath(),
+                permissionNode.getDisplayName(), false);
+        List<PermissionNode> children = permissionNode.getChildren();
+        UIPermissionNode[] childNodes = new UIPermissionNode[children.size()];
+        for (int i = 0; i < children.size(); i++) {
+            childNodes[i] = buildUIPermissionNode(children.get(i), authMan, roleName);
+        }
+        uiPermissionNode.setNodeList(childNodes);
+        return uiPermissionNode;
     }
 
-    private void buildUIPermissionNodeAllSelected(Collection parent, UIPermissionNode parentNode,
-                                                  Registry registry, Registry tenantRegistry) throws RegistryException,
-            UserStoreException {
+    private UIPermissionNode buildUIPermissionNodeAllSelected(PermissionNode permissionNode) {
 
-        String[] children = parent.getChildren();
-        UIPermissionNode[] childNodes = new UIPermissionNode[children.length];
-        for (int i = 0; i < children.length; i++) {
-            String child = children[i];
-            Resource resource = null;
+        UIPermissionNode uiPermissionNode = new UIPermissionNode(permissionNode.getResourcePath(),
+                permissionNode.getDisplayName(), true);
+        List<PermissionNode> children = permissionNode.getChildren();
+        UIPermissionNode[] childNodes = new UIPermissionNode[children.size()];
+        for (int i = 0; i < children.size(); i++) {
+            childNodes[i] = buildUIPermissionNodeAllSelected(children.get(i));
+        }
+        uiPermissionNode.setNodeList(childNodes);
+        return uiPermissionNode;
+    }
 
-            if (registry.resourceExists(child)) {
-                resource = registry.get(child);
-            } else if (tenantRegistry != null) {
-                resource = tenantRegistry.get(child);
-            } else {
-                throw new RegistryException("Permission resource not found in the registry.");
-            }
+    /**
+     * Gets logged in user of the server
+     *
+     * @return user name
+     */
+    private String getLoggedInUser() {
 
-            childNodes[i] = getUIPermissionNode(resource, true);
-            if (resource instanceof Collection) {
-                buildUIPermissionNodeAllSelected((Collection) resource, childNodes[i], registry,
-                        tenantRegistry);
-            }
-        }
-        parentNode.setNodeList(childNodes);
+        return CarbonContext.getThreadLocalCarbonContext().getUsername();
     }
 
-    private void buildUIPermissionNodeNotAllSelected(Collection parent, UIPermissionNode parentNode,
-                                                     Registry registry, Registry tenantRegistry,
-                                                     AuthorizationManager authMan, String roleName, String userName)
-            throws RegistryException, UserStoreException {
+    /**
+     * List a page of the users matching the filter, sorted by user name across all user store domains. The filter
+     * is applied by each user store and the sorted users of the domains are merged, so only the users of the
+     * requested page are mapped.
+     *
+     * @param filter   filter of the user names. A domain qualified filter lists the users of that domain only
+     * @param cursor   name of the last user of the previous page, or null to get the first page
+     * @param pageSize maximum number of users to return
+     * @return users of the page. A page with less than pageSize users is the last page
+     * @throws UserAdminException if listing the users fails
+     */
+    public FlaggedName[] listUsersPage(String filter, String cursor, int pageSize) throws UserAdminException {
 
-        String[] children = parent.getChildren();
-        UIPermissionNode[] childNodes = new UIPermissionNode[children.length];
+        try {
+            UserStoreManager userStoreManager = realm.getUserStoreManager();
+            List<String[]> sortedUsers = new ArrayList<>();
+            for (String domainFilter : getDomainFilters(filter, userStoreManager)) {
+                sortedUsers.add(SortedNameMerger.selectPage(userStoreManager.listUsers(domainFilter, -1), cursor,
+                        pageSize, null));
+            }
+            List<String> users = SortedNameMerger.mergePage(sortedUsers, pageSize);
+
+            FlaggedName[] flaggedNames = new FlaggedName[users.size()];
+            Map<String, Boolean> editableDomains = new HashMap<>();
+            for (int i = 0; i < users.size(); i++) {
+                FlaggedName fName = getUserFlaggedName(users.get(i));
+                fName.setEditable(isEditableDomain(getDomain(fName.getItemName()), false, editableDomains));
+                flaggedNames[i] = fName;
+            }
+            return flaggedNames;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw new UserAdminException(e.getMessage(), e);
+        }
+    }
 
-        for (int i = 0; i < children.length; i++) {
-            String child = children[i];
-            Resource resource = null;
+    /**
+     * List a page of the roles matching the filter, sorted by role name across all user store domains and the
+     * internal and application domains. The filter is applied by each user store and the sorted roles of the domains
+     * are merged, so only the roles of the requested page are mapped.
+     *
+     * @param filter   filter of the role names. A domain qualified filter lists the roles of that domain only
+     * @param cursor   name of the last role of the previous page, or null to get the first page
+     * @param pageSize maximum number of roles to return
+     * @return roles of the page. A page with less than pageSize roles is the last page
+     * @throws UserAdminException if listing the roles fails
+     */
+    public FlaggedName[] getAllRolesNamesPage(String filter, String cursor, int pageSize)
+            throws UserAdminException {
 
-            if (tenantRegistry != null && child.startsWith("/permission/applications")) {
-                resource = tenantRegistry.get(child);
-            } else if (registry.resourceExists(child)) {
-                resource = registry.get(child);
-            } else {
-                throw new RegistryException("Permission resource not found in the registry.");
+        try {
+            if (StringUtils.isEmpty(filter)) {
+                filter = "*";
+            }
+            AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) realm.getUserStoreManager();
+            String filteredDomain = getDomain(filter);
+            Predicate<String> acceptRole = role -> filteredDomain == null || !isHybridDomain(getDomain(role)) ||
+                    role.toLowerCase().startsWith(filteredDomain.toLowerCase());
+            List<String[]> sortedRoles = new ArrayList<>();
+            if (!isHybridDomain(filteredDomain)) {
+                for (String domainFilter : getDomainFilters(filter, userStoreManager)) {
+                    sortedRoles.add(SortedNameMerger.selectPage(userStoreManager.getRoleNames(domainFilter, -1, true,
+                            true, true), cursor, pageSize, acceptRole));
+                }
             }
 
-            boolean isSelected = false;
-            if (roleName != null) {
-                isSelected = authMan.isRoleAuthorized(roleName, child,
-                        UserMgtConstants.EXECUTE_ACTION);
-            } else if (userName != null) {
-                isSelected = authMan.isUserAuthorized(userName, child,
-                        UserMgtConstants.EXECUTE_ACTION);
+            String hybridFilter = filter;
+            if (UserCoreConstants.INTERNAL_DOMAIN.equalsIgnoreCase(filteredDomain)) {
+                hybridFilter = filter.substring(filter.indexOf(CarbonConstants.DOMAIN_SEPARATOR) + 1);
+            }
+            if (filteredDomain == null || isHybridDomain(filteredDomain)) {
+                sortedRoles.add(SortedNameMerger.selectPage(userStoreManager.getHybridRoles(hybridFilter), cursor,
+                        pageSize, acceptRole));
             }
-            childNodes[i] = getUIPermissionNode(resource, isSelected);
-            if (resource instanceof Collection) {
-                buildUIPermissionNodeNotAllSelected((Collection) resource, childNodes[i],
-                        registry, tenantRegistry, authMan, roleName, userName);
+            List<String> roles = SortedNameMerger.mergePage(sortedRoles, pageSize);
+
+            FlaggedName[] flaggedNames = new FlaggedName[roles.size()];
+            Map<String, Boolean> editableDomains = new HashMap<>();
+            for (int i = 0; i < roles.size(); i++) {
+                flaggedNames[i] = getRoleFlaggedName(roles.get(i), userStoreManager, editableDomains);
             }
+            return flaggedNames;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw new UserAdminException(e.getMessage(), e);
         }
-        parentNode.setNodeList(childNodes);
     }
 
-    private UIPermissionNode getUIPermissionNode(Resource resource,
-                                                 boolean isSelected) throws RegistryException {
-        String displayName = resource.getProperty(UserMgtConstants.DISPLAY_NAME);
-        return new UIPermissionNode(resource.getPath(), displayName, isSelected);
+    /**
+     * List a page of the users of a role matching the filter, sorted by user name. The filter is applied by the user
+     * store when it supports filtering the users of a role, and by a cached pattern otherwise.
+     *
+     * @param roleName name of the role
+     * @param filter   filter of the user names
+     * @param cursor   name of the last user of the previous page, or null to get the first page
+     * @param pageSize maximum number of users to return
+     * @return users of the page. A page with less than pageSize users is the last page
+     * @throws UserAdminException if listing the users of the role fails
+     */
+    public FlaggedName[] getUsersOfRolePage(String roleName, String filter, String cursor, int pageSize)
+            throws UserAdminException {
+
+        try {
+            if (StringUtils.isEmpty(filter)) {
+                filter = "*";
+            }
+            UserStoreManager usMan = realm.getUserStoreManager();
+            String domainFreeFilter = getDomainFreeFilter(filter);
+            String[] usersOfRole;
+            Pattern pattern = null;
+            if (canLimitAndFilterUsersFromUMLevel(roleName, usMan)) {
+                usersOfRole = ((AbstractUserStoreManager) usMan).getUserListOfRole(roleName, domainFreeFilter, -1);
+            } else {
+                usersOfRole = usMan.getUserListOfRole(roleName);
+                pattern = getFilterPattern(domainFreeFilter);
+            }
+            final Pattern userPattern = pattern;
+            List<String> users = Arrays.asList(SortedNameMerger.selectPage(usersOfRole, cursor, pageSize,
+                    user -> userPattern == null || userPattern.matcher(getMatchingUserName(user)).matches()));
+
+            boolean editable = isEditableDomain(getDomain(roleName), true, new HashMap<String, Boolean>());
+            FlaggedName[] flaggedNames = new FlaggedName[users.size()];
+            for (int i = 0; i < users.size(); i++) {
+                FlaggedName fName = getUserFlaggedName(users.get(i));
+                fName.setSelected(true);
+                fName.setEditable(editable);
+                flaggedNames[i] = fName;
+            }
+            return flaggedNames;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw new UserAdminException(e.getMessage(), e);
+        }
     }
 
     /**
-     * Gets logged in user of the server
+     * List a page of the roles of a user matching the filter, sorted by role name.
      *
-     * @return user name
+     * @param userName name of the user
+     * @param filter   filter of the role names. A domain qualified filter lists the roles of that domain only
+     * @param cursor   name of the last role of the previous page, or null to get the first page
+     * @param pageSize maximum number of roles to return
+     * @return roles of the page. A page with less than pageSize roles is the last page
+     * @throws UserAdminException if listing the roles of the user fails
      */
-    private String getLoggedInUser() {
+    public FlaggedName[] getRolesOfUserPage(String userName, String filter, String cursor, int pageSize)
+            throws UserAdminException {
 
-        return CarbonContext.getThreadLocalCarbonContext().getUsername();
+        try {
+            if (StringUtils.isEmpty(filter)) {
+                filter = "*";
+            }
+            AbstractUserStoreManager userStoreManager = (AbstractUserStoreManager) realm.getUserStoreManager();
+            final String filteredDomain = getDomain(filter);
+            final Pattern pattern = getFilterPattern(getDomainFreeFilter(filter));
+            List<String> roles = Arrays.asList(SortedNameMerger.selectPage(
+                    userStoreManager.getRoleListOfUser(userName), cursor, pageSize,
+                    role -> (filteredDomain == null || filteredDomain.equalsIgnoreCase(getDomain(role))) &&
+                            pattern.matcher(UserCoreUtil.removeDomainFromName(role)).matches()));
+
+            FlaggedName[] flaggedNames = new FlaggedName[roles.size()];
+            Map<String, Boolean> editableDomains = new HashMap<>();
+            for (int i = 0; i < roles.size(); i++) {
+                FlaggedName fName = getRoleFlaggedName(roles.get(i), userStoreManager, editableDomains);
+                fName.setSelected(true);
+                flaggedNames[i] = fName;
+            }
+            return flaggedNames;
+        } catch (Exception e) {
+            log.error(e.getMessage(), e);
+            throw new UserAdminException(e.getMessage(), e);
+        }
     }
 
     private void mapEntityName(String entityName, FlaggedName fName,
@@ -2407,4 +2476,130 @@ public class UserRealmProxy {
         }
         return userCountLimit;
     }
+
+    /**
+     * Get the compiled pattern of a filter with '*' wildcards. Patterns are cached since the same filters are used
+     * repeatedly while paging through users and roles.
+     */
+    private static Pattern getFilterPattern(String filter) {
+
+        Pattern pattern = filterPatterns.get(filter);
+        if (pattern == null) {
+            pattern = Pattern.compile(filter.replace("*", ".*"), Pattern.CASE_INSENSITIVE);
+            if (filterPatterns.size() >= MAX_CACHED_FILTER_PATTERNS) {
+                filterPatterns.clear();
+            }
+            filterPatterns.put(filter, pattern);
+        }
+        return pattern;
+    }
+
+    /**
+     * Get the domain qualified filters to list the entities of each user store domain separately. A filter which
+     * already has a domain is returned as it is.
+     */
+    private List<String> getDomainFilters(String filter, UserStoreManager userStoreManager) {
+
+        if (StringUtils.isEmpty(filter)) {
+            filter = "*";
+        }
+        if (getDomain(filter) != null) {
+            return Collections.singletonList(filter);
+        }
+        List<String> domainFilters = new ArrayList<>();
+        UserStoreManager domainManager = userStoreManager;
+        while (domainManager != null) {
+            String domainName = domainManager.getRealmConfiguration()
+                    .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
+            if (StringUtils.isBlank(domainName)) {
+                domainName = UserCoreConstants.PRIMARY_DEFAULT_DOMAIN_NAME;
+            }
+            domainFilters.add(domainName + CarbonConstants.DOMAIN_SEPARATOR + filter);
+            domainManager = domainManager.getSecondaryUserStoreManager();
+        }
+        return domainFilters;
+    }
+
+    /**
+     * Checks whether the entities of the given domain can be updated. The result is kept in the given map, so the user
+     * store of a domain is checked once per listing.
+     */
+    private boolean isEditableDomain(String domain, boolean checkWriteGroups, Map<String, Boolean> editableDomains)
+            throws UserStoreException {
+
+        if (isHybridDomain(domain)) {
+            return true;
+        }
+        String domainKey = domain == null ? StringUtils.EMPTY : domain.toUpperCase();
+        Boolean editable = editableDomains.get(domainKey);
+        if (editable == null) {
+            UserStoreManager userStoreManager = realm.getUserStoreManager();
+            UserStoreManager domainManager = domain == null ? userStoreManager :
+                    userStoreManager.getSecondaryUserStoreManager(domain);
+            editable = domainManager == null || !(domainManager.isReadOnly() || (checkWriteGroups &&
+                    FALSE.equals(domainManager.getRealmConfiguration()
+                            .getUserStoreProperty(UserCoreConstants.RealmConfig.WRITE_GROUPS_ENABLED))));
+            editableDomains.put(domainKey, editable);
+        }
+        return editable;
+    }
+
+    private FlaggedName getUserFlaggedName(String user) {
+
+        FlaggedName fName = new FlaggedName();
+        int index = user.indexOf(UserCoreConstants.NAME_COMBINER);
+        if (index > 0) {
+            fName.setItemName(user.substring(0, index));
+            fName.setItemDisplayName(user.substring(index + UserCoreConstants.NAME_COMBINER.length()));
+        } else {
+            fName.setItemName(user);
+            fName.setItemDisplayName(user);
+        }
+        return fName;
+    }
+
+    private FlaggedName getRoleFlaggedName(String role, UserStoreManager userStoreManager,
+                                           Map<String, Boolean> editableDomains) throws UserStoreException {
+
+        FlaggedName fName = new FlaggedName();
+        String domain = getDomain(role);
+        if (isHybridDomain(domain)) {
+            fName.setItemName(role);
+            if (UserCoreConstants.INTERNAL_DOMAIN.equalsIgnoreCase(domain)) {
+                fName.setRoleType(UserMgtConstants.INTERNAL_ROLE);
+            } else {
+                fName.setRoleType(UserMgtConstants.APPLICATION_DOMAIN);
+            }
+        } else {
+            mapEntityName(role, fName, userStoreManager);
+            fName.setRoleType(UserMgtConstants.EXTERNAL_ROLE);
+        }
+        fName.setEditable(isEditableDomain(domain, true, editableDomains));
+        return fName;
+    }
+
+    /**
+     * Get the part of a user name to match against a filter, which is the display name if it is appended to the user
+     * name and the domain free user name otherwise.
+     */
+    private String getMatchingUserName(String user) {
+
+        int index = user.indexOf(UserCoreConstants.NAME_COMBINER);
+        if (index > 0) {
+            return user.substring(index + UserCoreConstants.NAME_COMBINER.length());
+        }
+        return UserCoreUtil.removeDomainFromName(user);
+    }
+
+    private String getDomain(String name) {
+
+        int index = name != null ? name.indexOf(CarbonConstants.DOMAIN_SEPARATOR) : -1;
+        return index > 0 ? name.substring(0, index) : null;
+    }
+
+    private boolean isHybridDomain(String domain) {
+
+        return UserCoreConstants.INTERNAL_DOMAIN.equalsIgnoreCase(domain) ||
+                UserMgtConstants.APPLICATION_DOMAIN.equalsIgnoreCase(domain);
+    }
 }
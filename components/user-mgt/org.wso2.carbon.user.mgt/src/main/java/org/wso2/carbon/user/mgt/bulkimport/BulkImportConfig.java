@@ -18,6 +18,8 @@
 
 package org.wso2.carbon.user.mgt.bulkimport;
 
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+
 import java.io.InputStream;
 
 public class BulkImportConfig {
@@ -26,6 +28,8 @@ public class BulkImportConfig {
     private String userStoreDomain;
     private String fileName;
     private String defaultPassword;
+    private int threadCount = UserMgtConstants.DEFAULT_BULK_IMPORT_THREAD_COUNT;
+    private int batchSize = UserMgtConstants.DEFAULT_BULK_IMPORT_BATCH_SIZE;
 
     public BulkImportConfig(InputStream inStream, String fileName) {
         this.inStream = inStream;
@@ -63,4 +67,20 @@ public class BulkImportConfig {
     public void setInStream(InputStream inStream) {
         this.inStream = inStream;
     }
+
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
 }
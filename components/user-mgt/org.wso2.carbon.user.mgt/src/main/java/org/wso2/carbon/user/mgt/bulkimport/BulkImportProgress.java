@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.carbon.user.mgt.bulkimport;
+
+/**
+ * Progress of a bulk user import operation. The counts are updated while the import is running, so the progress
+ * of an import can be read while the import request is still being served.
+ */
+public class BulkImportProgress {
+
+    private String userStoreDomain;
+    private long startTime;
+    private long endTime;
+    private boolean completed;
+    private int readCount;
+    private int successCount;
+    private int failCount;
+    private int duplicateCount;
+
+    public BulkImportProgress() {
+    }
+
+    BulkImportProgress(String userStoreDomain) {
+        this.userStoreDomain = userStoreDomain;
+        this.startTime = System.currentTimeMillis();
+    }
+
+    public String getUserStoreDomain() {
+        return userStoreDomain;
+    }
+
+    public void setUserStoreDomain(String userStoreDomain) {
+        this.userStoreDomain = userStoreDomain;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public synchronized long getEndTime() {
+        return endTime;
+    }
+
+    public synchronized void setEndTime(long endTime) {
+        this.endTime = endTime;
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    public synchronized void setCompleted(boolean completed) {
+        this.completed = completed;
+    }
+
+    /**
+     * @return number of users read from the import file so far
+     */
+    public synchronized int getReadCount() {
+        return readCount;
+    }
+
+    public synchronized void setReadCount(int readCount) {
+        this.readCount = readCount;
+    }
+
+    public synchronized int getSuccessCount() {
+        return successCount;
+    }
+
+    public synchronized void setSuccessCount(int successCount) {
+        this.successCount = successCount;
+    }
+
+    public synchronized int getFailCount() {
+        return failCount;
+    }
+
+    public synchronized void setFailCount(int failCount) {
+        this.failCount = failCount;
+    }
+
+    public synchronized int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    public synchronized void setDuplicateCount(int duplicateCount) {
+        this.duplicateCount = duplicateCount;
+    }
+
+    synchronized void incrementReadCount() {
+        readCount++;
+    }
+
+    synchronized void addBatchCounts(int success, int fail, int duplicate) {
+        successCount += success;
+        failCount += fail;
+        duplicateCount += duplicate;
+    }
+
+    synchronized void complete() {
+        completed = true;
+        endTime = System.currentTimeMillis();
+    }
+}
@@ -18,34 +18,48 @@
 
 package org.wso2.carbon.user.mgt.bulkimport;
 
-import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.wso2.carbon.CarbonConstants;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
 import org.wso2.carbon.identity.core.util.IdentityIOStreamUtils;
-import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
-import org.wso2.carbon.user.core.util.UserCoreUtil;
-import org.wso2.carbon.user.mgt.UserMgtConstants;
-import org.wso2.carbon.user.mgt.bulkimport.util.JSONConverter;
 import org.wso2.carbon.user.mgt.common.UserAdminException;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
 
 /**
- * Class to import users from Excel format files.
+ * Class to import users from Excel format files. The sheets of xlsx files are parsed as a stream of SAX events, so
+ * the whole workbook is not loaded to the memory.
  */
 public class ExcelUserBulkImport extends UserBulkImport {
 
     private static final Log log = LogFactory.getLog(ExcelUserBulkImport.class);
+    private static final String EXTERNAL_GENERAL_ENTITIES_FEATURE =
+            "http://xml.org/sax/features/external-general-entities";
+    private static final String EXTERNAL_PARAMETER_ENTITIES_FEATURE =
+            "http://xml.org/sax/features/external-parameter-entities";
+    private static final String LOAD_EXTERNAL_DTD_FEATURE =
+            "http://apache.org/xml/features/nonvalidating/load-external-dtd";
     private BulkImportConfig config;
 
     public ExcelUserBulkImport(BulkImportConfig config) {
@@ -56,87 +70,102 @@ public class ExcelUserBulkImport extends UserBulkImport {
 
     public void addUserList(UserStoreManager userStore) throws UserAdminException {
 
+        if (config.getFileName().endsWith(".xlsx")) {
+            importUsers(config, userStore, this::readXlsxUsers);
+        } else {
+            importUsers(config, userStore, this::readXlsUsers);
+        }
+    }
+
+    /**
+     * Read the usernames in the first column of the first sheet of a xls file. The xls format is limited to 65536
+     * rows, so the workbook is loaded to the memory.
+     *
+     * @param rowConsumer : Consumer of the usernames read from the file.
+     * @throws UserAdminException : Throws if reading the file fails.
+     */
+    private void readXlsUsers(Consumer<String[]> rowConsumer) throws UserAdminException {
+
         Workbook wb = this.createWorkbook();
         Sheet sheet = wb.getSheet(wb.getSheetName(0));
-        userStoreDomain = config.getUserStoreDomain();
 
         if (sheet == null || sheet.getLastRowNum() == -1) {
             throw new UserAdminException("The first sheet is empty");
         }
         int limit = sheet.getLastRowNum();
-        boolean isDuplicate = false;
-        boolean fail = false;
         for (int i = 1; i < limit + 1; i++) {
             Row row = sheet.getRow(i);
+            if (row == null || row.getCell(0) == null) {
+                continue;
+            }
             Cell cell = row.getCell(0);
-            String userName = cell.getStringCellValue();
-
-            int index;
-            index = userName.indexOf(CarbonConstants.DOMAIN_SEPARATOR);
-            if (index > 0) {
-                String domainFreeName = userName.substring(index + 1);
-                userName = UserCoreUtil.addDomainToName(domainFreeName, userStoreDomain);
-            } else {
-                userName = UserCoreUtil.addDomainToName(userName, userStoreDomain);
+            rowConsumer.accept(new String[]{cell.getStringCellValue()});
+        }
+    }
+
+    /**
+     * Read the usernames in the first column of the first sheet of a xlsx file, without loading the workbook to the
+     * memory.
+     *
+     * @param rowConsumer : Consumer of the usernames read from the file.
+     * @throws UserAdminException : Throws if reading the file fails.
+     */
+    private void readXlsxUsers(Consumer<String[]> rowConsumer) throws UserAdminException {
+
+        InputStream ins = config.getInStream();
+        try {
+            OPCPackage opcPackage = OPCPackage.open(ins);
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(opcPackage);
+            Iterator<InputStream> sheets = xssfReader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new UserAdminException("The first sheet is empty");
             }
 
-            if (StringUtils.isNotBlank(userName)) {
-                try {
-                    if (!userStore.isExistingUser(userName)) {
-                        userStore.addUser(userName, null, null, null, null, true);
-                        successCount++;
-                        if (log.isDebugEnabled()) {
-                            log.debug("User import successful - Username : " + userName);
-                        }
-                    } else {
-                        duplicateCount++;
-                        duplicateUsers.add(userName);
-                        isDuplicate = true;
-                        log.error("User import unsuccessful - Username : " + userName + " - Error: Duplicate user");
-                        duplicateUsers.add(userName);
-                    }
-                } catch (UserStoreException e) {
-                    fail = true;
-                    failCount++;
-                    log.error("User import unsuccessful - Username : " + userName + " - Error: " +
-                            e.getMessage());
-                    errorUsersMap.put(userName, e.getMessage());
-                }
+            XMLReader sheetParser = createSAXParserFactory().newSAXParser().getXMLReader();
+            sheetParser.setContentHandler(new XSSFSheetXMLHandler(xssfReader.getStylesTable(), sharedStrings,
+                    new UserNameSheetHandler(rowConsumer), false));
+            try (InputStream sheet = sheets.next()) {
+                sheetParser.parse(new InputSource(sheet));
             }
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new UserAdminException("Error reading the xlsx file " + e.getMessage(), e);
+        } finally {
+            IdentityIOStreamUtils.closeInputStream(ins);
         }
+    }
 
-        String summeryLog = super.buildBulkImportSummary();
-        log.info(summeryLog);
-
-        JSONConverter jsonConverter = new JSONConverter();
-        String importedUsers = jsonConverter.xlsToJSON(sheet);
-        auditLog.info(String.format(UserMgtConstants.AUDIT_LOG_FORMAT, tenantUser, UserMgtConstants.OPERATION_NAME,
-                userStoreDomain, importedUsers, summeryLog));
+    private SAXParserFactory createSAXParserFactory() {
 
-        if (fail || isDuplicate) {
-            throw new UserAdminException(String.format(UserMgtConstants.ERROR_MESSAGE, successCount, failCount,
-                    duplicateCount));
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setXIncludeAware(false);
+        try {
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES_FEATURE, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES_FEATURE, false);
+            factory.setFeature(LOAD_EXTERNAL_DTD_FEATURE, false);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        } catch (SAXException | ParserConfigurationException e) {
+            log.error("Failed to load XML Processor Feature " + EXTERNAL_GENERAL_ENTITIES_FEATURE + " or " +
+                    EXTERNAL_PARAMETER_ENTITIES_FEATURE + " or " + LOAD_EXTERNAL_DTD_FEATURE +
+                    " or secure-processing.");
         }
+        return factory;
     }
 
     /**
-     * Generate a WorkBook object from the excel file.
+     * Generate a WorkBook object from the xls file.
      *
      * @return : The generated workbook
      * @throws UserAdminException : Throws if there is any error occurred in the process of creating the workbook.
      */
     private Workbook createWorkbook() throws UserAdminException {
 
-        String filename = config.getFileName();
         InputStream ins = config.getInStream();
         Workbook wb;
         try {
-            if (filename.endsWith(".xlsx")) {
-                wb = new XSSFWorkbook(ins);
-            } else {
-                POIFSFileSystem fs = new POIFSFileSystem(ins);
-                wb = new HSSFWorkbook(fs);
-            }
+            POIFSFileSystem fs = new POIFSFileSystem(ins);
+            wb = new HSSFWorkbook(fs);
         } catch (IOException e) {
             throw new UserAdminException("Error reading the xls file " + e.getMessage(), e);
         } finally {
@@ -144,4 +173,47 @@ public class ExcelUserBulkImport extends UserBulkImport {
         }
         return wb;
     }
+
+    /**
+     * Sheet handler which passes the value of the first column of each row, except the header row, to the consumer.
+     */
+    private static class UserNameSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final Consumer<String[]> rowConsumer;
+        private int currentRow;
+        private String userName;
+
+        UserNameSheetHandler(Consumer<String[]> rowConsumer) {
+
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+
+            currentRow = rowNum;
+            userName = null;
+        }
+
+        @Override
+        public void endRow() {
+
+            if (currentRow > 0 && userName != null) {
+                rowConsumer.accept(new String[]{userName});
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue) {
+
+            if (cellReference != null && new CellReference(cellReference).getCol() == 0) {
+                userName = formattedValue;
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Headers and footers of the sheet are not needed.
+        }
+    }
 }
@@ -21,33 +21,54 @@ package org.wso2.carbon.user.mgt.bulkimport;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import org.apache.commons.lang.StringUtils;
 import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.core.UserStoreException;
 import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.core.util.UserCoreUtil;
 import org.wso2.carbon.user.mgt.UserMgtConstants;
 import org.wso2.carbon.user.mgt.common.UserAdminException;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Class to import multiple users to the Identity user store.
  * The users can be added in the format of CSV or Excel format.
+ * <p>
+ * The rows read from the file are grouped into batches and added to the user store by a bounded pool of worker
+ * threads. When all the workers are busy and the queue is full, the reading thread adds the batch itself, so only a
+ * bounded number of rows is held in memory.
  */
 public abstract class UserBulkImport {
 
     static final Log auditLog = CarbonConstants.AUDIT_LOG;
-    static final Map<String, String> errorUsersMap = new HashMap<>();
-    static final List<String> duplicateUsers = new ArrayList<>();
+    private static final Log log = LogFactory.getLog(UserBulkImport.class);
+    private static final Map<String, BulkImportProgress> importProgress = new ConcurrentHashMap<>();
+
+    final Map<String, String> errorUsersMap = Collections.synchronizedMap(new LinkedHashMap<>());
+    final List<String> duplicateUsers = Collections.synchronizedList(new ArrayList<>());
     String userStoreDomain = "";
-    int successCount = 0;
-    int failCount = 0;
-    int duplicateCount = 0;
     String tenantUser = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername() + "@"
             + PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+    private final String tenantDomain = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+    private final int tenantId = PrivilegedCarbonContext.getThreadLocalCarbonContext().getTenantId();
+    private final String username = PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername();
+    private BulkImportProgress progress = new BulkImportProgress();
 
     /**
      * Method to add users to the given user store.
@@ -57,6 +78,198 @@ public abstract class UserBulkImport {
      */
     public abstract void addUserList(UserStoreManager userStore) throws UserAdminException;
 
+    /**
+     * Get the progress of the last bulk user import to the given user store of a tenant.
+     *
+     * @param tenantDomain    : The tenant domain.
+     * @param userStoreDomain : The user store domain.
+     * @return : Progress of the import or null if there is no import to the user store.
+     */
+    public static BulkImportProgress getProgress(String tenantDomain, String userStoreDomain) {
+
+        return importProgress.get(getProgressKey(tenantDomain, userStoreDomain));
+    }
+
+    /**
+     * Read the users with the given reader and import them to the user store. Each row passed by the reader should
+     * contain the username, optionally followed by the password and the claims of the user.
+     *
+     * @param config    : The bulk import configuration.
+     * @param userStore : The UserStore that the users should be imported to.
+     * @param reader    : Reader of the users in the import file.
+     * @throws UserAdminException : Throws if reading the file fails or if some users are not imported.
+     */
+    void importUsers(BulkImportConfig config, UserStoreManager userStore, UserReader reader)
+            throws UserAdminException {
+
+        userStoreDomain = config.getUserStoreDomain();
+        progress = new BulkImportProgress(userStoreDomain);
+        importProgress.put(getProgressKey(tenantDomain, userStoreDomain), progress);
+
+        int threadCount = Math.max(1, config.getThreadCount());
+        int batchSize = Math.max(1, config.getBatchSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threadCount * 2), new ThreadPoolExecutor.CallerRunsPolicy());
+        JsonArray importedUsers = new JsonArray();
+        List<String[]> batch = new ArrayList<>(batchSize);
+        try {
+            reader.readUsers(row -> {
+                if (row == null || row.length == 0 || row[0] == null) {
+                    return;
+                }
+                importedUsers.add(new JsonPrimitive(row[0]));
+                progress.incrementReadCount();
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    List<String[]> rows = new ArrayList<>(batch);
+                    batch.clear();
+                    executor.execute(() -> importBatch(rows, userStore));
+                }
+            });
+            if (!batch.isEmpty()) {
+                List<String[]> rows = new ArrayList<>(batch);
+                executor.execute(() -> importBatch(rows, userStore));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Bulk user import to user store: " + userStoreDomain + " is in progress. Read count : "
+                            + progress.getReadCount() + ", success count : " + progress.getSuccessCount());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UserAdminException("Bulk user import was interrupted", e);
+        } finally {
+            executor.shutdownNow();
+            progress.complete();
+        }
+
+        String summaryLog = buildBulkImportSummary();
+        JsonObject usersJson = new JsonObject();
+        usersJson.add(UserMgtConstants.USERS, importedUsers);
+        auditLog.info(String.format(UserMgtConstants.AUDIT_LOG_FORMAT, tenantUser, UserMgtConstants.OPERATION_NAME,
+                userStoreDomain, usersJson.toString(), summaryLog));
+        log.info(summaryLog);
+
+        if (progress.getFailCount() > 0 || progress.getDuplicateCount() > 0) {
+            throw new UserAdminException(String.format(UserMgtConstants.ERROR_MESSAGE, progress.getSuccessCount(),
+                    progress.getFailCount(), progress.getDuplicateCount()));
+        }
+    }
+
+    /**
+     * Import a batch of users in the tenant flow of the user who initiated the import. The counts of the batch are
+     * added to the progress of the import once the batch is done.
+     *
+     * @param rows      : Rows of the users in the batch.
+     * @param userStore : The user store which the users should be imported to.
+     */
+    private void importBatch(List<String[]> rows, UserStoreManager userStore) {
+
+        int success = 0;
+        int fail = 0;
+        int duplicate = 0;
+        Set<String> batchUsers = new HashSet<>();
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
+            carbonContext.setTenantDomain(tenantDomain);
+            carbonContext.setTenantId(tenantId);
+            carbonContext.setUsername(username);
+
+            for (String[] row : rows) {
+                String userName = getDomainQualifiedUserName(row[0]);
+                if (StringUtils.isBlank(userName)) {
+                    continue;
+                }
+                try {
+                    // Users repeated within the batch are duplicates without checking the user store.
+                    if (!batchUsers.add(userName) || userStore.isExistingUser(userName)) {
+                        duplicate++;
+                        duplicateUsers.add(userName);
+                        log.error("User import unsuccessful - Username : " + userName + " - Error: Duplicate user");
+                        continue;
+                    }
+                    if (row.length == 1) {
+                        userStore.addUser(userName, null, null, null, null, true);
+                    } else {
+                        addUserWithClaims(userName, row, userStore);
+                    }
+                    success++;
+                    if (log.isDebugEnabled()) {
+                        log.debug("User import successful - Username : " + userName);
+                    }
+                } catch (UserStoreException | IllegalArgumentException e) {
+                    fail++;
+                    errorUsersMap.put(userName, e.getMessage());
+                    log.error("User import unsuccessful - Username : " + userName + " - Error: " +
+                            e.getMessage(), e);
+                }
+            }
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+            progress.addBatchCounts(success, fail, duplicate);
+        }
+    }
+
+    private String getDomainQualifiedUserName(String userName) {
+
+        int index = userName.indexOf(CarbonConstants.DOMAIN_SEPARATOR);
+        if (index > 0) {
+            String domainFreeName = userName.substring(index + 1);
+            return UserCoreUtil.addDomainToName(domainFreeName, userStoreDomain);
+        }
+        return UserCoreUtil.addDomainToName(userName, userStoreDomain);
+    }
+
+    /**
+     * Method to handle adding users with claim values.
+     *
+     * @param username : The name of the importing user.
+     * @param line : The line read from the import file.
+     * @param userStore : The user store which the user should be imported to.
+     * @throws UserStoreException : Throws when there is any error occurred while adding the user to user store.
+     */
+    private void addUserWithClaims(String username, String[] line, UserStoreManager userStore)
+            throws UserStoreException {
+        String roleString = null;
+        String[] roles = null;
+        String password = line[1];
+        Map<String, String> claims = new HashMap<>();
+        for (int i = 2; i < line.length; i++) {
+            if (StringUtils.isNotBlank(line[i])) {
+                String[] claimStrings = line[i].split("=");
+                if (claimStrings.length != 2) {
+                    throw new IllegalArgumentException("Claims and values are not in correct format");
+                } else {
+                    String claimURI = claimStrings[0];
+                    String claimValue = claimStrings[1];
+                    if (claimURI.contains("role")) {
+                        roleString = claimValue;
+                    } else {
+                        if (!claimURI.isEmpty()) {
+                            // Not trimming the claim values as we should not restrict the claim values not to have
+                            // leading or trailing whitespaces.
+                            claims.put(claimURI.trim(), claimValue);
+                        }
+                    }
+                }
+            }
+        }
+
+        if (StringUtils.isNotBlank(roleString)) {
+            roles = roleString.split(":");
+        }
+
+        userStore.addUser(username, password, roles, claims, null, true);
+    }
+
+    private static String getProgressKey(String tenantDomain, String userStoreDomain) {
+
+        return tenantDomain + ":" + StringUtils.upperCase(userStoreDomain);
+    }
+
     /**
      * Build the summery log for the bulk user import operation.
      * The structure of the summery would be as follows.
@@ -83,32 +296,35 @@ public abstract class UserBulkImport {
         summaryJson.addProperty(UserMgtConstants.PERFORMED_BY,
                 PrivilegedCarbonContext.getThreadLocalCarbonContext().getUsername());
         summaryJson.addProperty(UserMgtConstants.USER_STORE, userStoreDomain);
-        summaryJson.addProperty(UserMgtConstants.SUCCESS_COUNT, successCount);
+        summaryJson.addProperty(UserMgtConstants.SUCCESS_COUNT, progress.getSuccessCount());
 
-        if (duplicateCount > 0) {
+        if (progress.getDuplicateCount() > 0) {
             duplicateUsersJson = new JsonObject();
             duplicateUsersJsonArray = new JsonArray();
-            duplicateUsersJson.addProperty(UserMgtConstants.COUNT, duplicateCount);
+            duplicateUsersJson.addProperty(UserMgtConstants.COUNT, progress.getDuplicateCount());
 
-            for (String user : duplicateUsers) {
-                JsonPrimitive userJson = new JsonPrimitive(user);
-                duplicateUsersJsonArray.add(userJson);
+            synchronized (duplicateUsers) {
+                for (String user : duplicateUsers) {
+                    JsonPrimitive userJson = new JsonPrimitive(user);
+                    duplicateUsersJsonArray.add(userJson);
+                }
             }
 
             duplicateUsersJson.add(UserMgtConstants.USERS, duplicateUsersJsonArray);
             summaryJson.add(UserMgtConstants.DUPLICATE_USERS, duplicateUsersJson);
         }
 
-        if (failCount > 0) {
+        if (progress.getFailCount() > 0) {
             errorUsersJson = new JsonObject();
             errorUsersJsonArray = new JsonArray();
-            errorUsersJson.addProperty(UserMgtConstants.COUNT, failCount);
-            for (Object o : errorUsersMap.entrySet()) {
-                Map.Entry pair = (Map.Entry) o;
-                errorUserJson = new JsonObject();
-                errorUserJson.addProperty(UserMgtConstants.NAME, pair.getKey().toString());
-                errorUserJson.addProperty(UserMgtConstants.CAUSE, pair.getValue().toString());
-                errorUsersJsonArray.add(errorUserJson);
+            errorUsersJson.addProperty(UserMgtConstants.COUNT, progress.getFailCount());
+            synchronized (errorUsersMap) {
+                for (Map.Entry<String, String> pair : errorUsersMap.entrySet()) {
+                    errorUserJson = new JsonObject();
+                    errorUserJson.addProperty(UserMgtConstants.NAME, pair.getKey());
+                    errorUserJson.addProperty(UserMgtConstants.CAUSE, String.valueOf(pair.getValue()));
+                    errorUsersJsonArray.add(errorUserJson);
+                }
             }
             errorUsersJson.add(UserMgtConstants.USERS, errorUsersJsonArray);
             summaryJson.add(UserMgtConstants.FAILED_USERS, errorUsersJson);
@@ -116,4 +332,12 @@ public abstract class UserBulkImport {
 
         return summaryJson.toString();
     }
+
+    /**
+     * Reader of the users in an import file, which passes the rows of the file to the given consumer one at a time.
+     */
+    interface UserReader {
+
+        void readUsers(Consumer<String[]> rowConsumer) throws UserAdminException;
+    }
 }
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.wso2.carbon.identity.application.common.cache.BaseCache;
+
+/**
+ * Cache of the application permission trees of the tenants, keyed by the tenant id. Removals are propagated to the
+ * other nodes of the cluster, so an application permission change made on one node is seen by all the nodes.
+ */
+public class ApplicationPermissionTreeCache extends BaseCache<Integer, ApplicationPermissionTreeCacheEntry> {
+
+    private static final String CACHE_NAME = "ApplicationPermissionTreeCache";
+
+    private static volatile ApplicationPermissionTreeCache instance;
+
+    ApplicationPermissionTreeCache() {
+
+        super(CACHE_NAME);
+    }
+
+    public static ApplicationPermissionTreeCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ApplicationPermissionTreeCache.class) {
+                if (instance == null) {
+                    instance = new ApplicationPermissionTreeCache();
+                }
+            }
+        }
+        return instance;
+    }
+}
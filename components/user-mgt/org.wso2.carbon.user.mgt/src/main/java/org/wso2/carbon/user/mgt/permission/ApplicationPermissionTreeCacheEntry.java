@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.wso2.carbon.identity.application.common.cache.CacheEntry;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTreeCache.PermissionNode;
+
+/**
+ * Cache entry of the application permission tree of a tenant.
+ */
+public class ApplicationPermissionTreeCacheEntry extends CacheEntry {
+
+    private static final long serialVersionUID = 3915082776135208472L;
+
+    private final PermissionNode applications;
+
+    /**
+     * @param applications root node of the application permissions, or null if the tenant has no application
+     *                     permissions
+     */
+    public ApplicationPermissionTreeCacheEntry(PermissionNode applications) {
+
+        this.applications = applications;
+    }
+
+    public PermissionNode getApplications() {
+
+        return applications;
+    }
+}
@@ -99,12 +99,14 @@ public class ManagementPermissionsAdder implements BundleListener {
                     if (existingResource.getProperty(UserMgtConstants.DISPLAY_NAME) == null) {
                         existingResource.setProperty(UserMgtConstants.DISPLAY_NAME, uiPermission.getDisplayName());
                         registry.put(uiPermission.getResourceId(), existingResource);
+                        UIPermissionTreeCache.getInstance().refresh(uiPermission.getResourceId());
                     }
                     continue;
                 }
                 Collection resource = registry.newCollection();
                 resource.setProperty(UserMgtConstants.DISPLAY_NAME, uiPermission.getDisplayName());
                 registry.put(uiPermission.getResourceId(), resource);
+                UIPermissionTreeCache.getInstance().refresh(uiPermission.getResourceId());
             }
         }
     }
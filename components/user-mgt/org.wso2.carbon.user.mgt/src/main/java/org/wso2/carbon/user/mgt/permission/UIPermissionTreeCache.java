@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2020 WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.CarbonConstants;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.registry.api.Collection;
+import org.wso2.carbon.registry.api.Registry;
+import org.wso2.carbon.registry.api.RegistryException;
+import org.wso2.carbon.registry.api.Resource;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.internal.UserMgtDSComponent;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache of the UI permission tree. The management permissions of the super tenant registry are kept in this node as
+ * one immutable tree shared by all tenants. Changes made on this node refresh only the changed part of the tree, and
+ * the tree expires after a configured timeout so that changes made on other nodes are picked up. The application
+ * permissions are kept per tenant in the {@link ApplicationPermissionTreeCache}, whose invalidations are seen by all
+ * the nodes of the cluster.
+ */
+public class UIPermissionTreeCache {
+
+    private static final Log log = LogFactory.getLog(UIPermissionTreeCache.class);
+
+    private static final String CACHE_TIMEOUT = "UIPermissionTreeCache.Timeout";
+    private static final long DEFAULT_CACHE_TIMEOUT_IN_SECONDS = 300;
+    private static final String ALL_PERMISSIONS_DISPLAY_NAME = "All Permissions";
+    private static final String PERMISSION_PATH = CarbonConstants.UI_PERMISSION_COLLECTION;
+    private static final String APPLICATIONS_PATH = PERMISSION_PATH + RegistryConstants.PATH_SEPARATOR
+            + "applications";
+
+    private static final UIPermissionTreeCache instance = new UIPermissionTreeCache(
+            TimeUnit.SECONDS.toMillis(getConfiguredTimeout()));
+
+    private final long timeoutInMillis;
+    private final ApplicationPermissionTreeCache applicationTreeCache;
+    /**
+     * Number of times the application permissions of each tenant were invalidated in this node. A tree read from the
+     * registry is cached only if the count did not change while it was read.
+     */
+    private final ConcurrentMap<Integer, Long> applicationTreeGenerations = new ConcurrentHashMap<>();
+    private volatile CachedTree permissionTree;
+
+    private UIPermissionTreeCache(long timeoutInMillis) {
+
+        this(timeoutInMillis, ApplicationPermissionTreeCache.getInstance());
+    }
+
+    UIPermissionTreeCache(long timeoutInMillis, ApplicationPermissionTreeCache applicationTreeCache) {
+
+        this.timeoutInMillis = timeoutInMillis;
+        this.applicationTreeCache = applicationTreeCache;
+    }
+
+    public static UIPermissionTreeCache getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the UI permission tree of a tenant. The super tenant gets the whole permission tree and other tenants get
+     * the admin permissions and their application permissions.
+     *
+     * @param tenantId tenant id
+     * @return root node of the permission tree
+     * @throws RegistryException if reading the permissions from the registry fails
+     */
+    public PermissionNode getPermissionTree(int tenantId) throws RegistryException {
+
+        PermissionNode root = getManagementPermissionTree();
+        PermissionNode applications = getApplicationPermissionTree(tenantId);
+
+        if (tenantId == MultitenantConstants.SUPER_TENANT_ID) {
+            List<PermissionNode> children = new ArrayList<>(root.getChildren().size());
+            for (PermissionNode child : root.getChildren()) {
+                if (!APPLICATIONS_PATH.equals(child.getResourcePath())) {
+                    children.add(child);
+                } else if (applications != null) {
+                    children.add(applications);
+                }
+            }
+            return new PermissionNode(root.getResourcePath(), root.getDisplayName(), children);
+        }
+
+        PermissionNode adminRoot = root.getChild(CarbonConstants.UI_ADMIN_PERMISSION_COLLECTION);
+        if (adminRoot == null) {
+            throw new RegistryException("Permission resource not found in the registry: "
+                    + UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
+        }
+        if (applications == null) {
+            return new PermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT, adminRoot.getDisplayName(),
+                    adminRoot.getChildren());
+        }
+        return new PermissionNode(UserMgtConstants.UI_ADMIN_PERMISSION_ROOT, ALL_PERMISSIONS_DISPLAY_NAME,
+                Arrays.asList(adminRoot, applications));
+    }
+
+    /**
+     * Refresh the part of the cached management permission tree which contains the given permission, after the
+     * permission is added or updated in the super tenant registry. Only the changed permission and permissions which
+     * are not in the cached tree are read from the registry.
+     *
+     * @param resourcePath path of the permission resource
+     */
+    public synchronized void refresh(String resourcePath) {
+
+        CachedTree cachedTree = permissionTree;
+        if (cachedTree == null || StringUtils.isBlank(resourcePath)) {
+            return;
+        }
+        String path = StringUtils.removeEnd(resourcePath, RegistryConstants.PATH_SEPARATOR);
+        if (path.startsWith(APPLICATIONS_PATH)) {
+            invalidateApplicationPermissions(MultitenantConstants.SUPER_TENANT_ID);
+            return;
+        }
+        try {
+            Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
+            permissionTree = new CachedTree(refresh(cachedTree.root, path, registry), cachedTree.createdTime);
+        } catch (RegistryException e) {
+            log.error("Error while refreshing the cached UI permission: " + resourcePath, e);
+            permissionTree = null;
+        }
+    }
+
+    /**
+     * Remove the cached application permissions of a tenant.
+     *
+     * @param tenantId tenant id
+     */
+    public void invalidateApplicationPermissions(int tenantId) {
+
+        applicationTreeGenerations.merge(tenantId, 1L, Long::sum);
+        applicationTreeCache.clearCacheEntry(tenantId);
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidated the cached application permissions of tenant: " + tenantId);
+        }
+    }
+
+    private PermissionNode getManagementPermissionTree() throws RegistryException {
+
+        CachedTree cachedTree = permissionTree;
+        if (cachedTree != null && !cachedTree.isExpired(timeoutInMillis)) {
+            return cachedTree.root;
+        }
+        synchronized (this) {
+            cachedTree = permissionTree;
+            if (cachedTree == null || cachedTree.isExpired(timeoutInMillis)) {
+                Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry();
+                Resource resource = registry.get(UserMgtConstants.UI_PERMISSION_ROOT);
+                PermissionNode root = readNode(registry, resource, null);
+                cachedTree = new CachedTree(new PermissionNode(UserMgtConstants.UI_PERMISSION_ROOT,
+                        root.getDisplayName(), root.getChildren()), System.currentTimeMillis());
+                permissionTree = cachedTree;
+            }
+            return cachedTree.root;
+        }
+    }
+
+    private PermissionNode getApplicationPermissionTree(int tenantId) throws RegistryException {
+
+        ApplicationPermissionTreeCacheEntry cacheEntry = applicationTreeCache.getValueFromCache(tenantId);
+        if (cacheEntry != null) {
+            return cacheEntry.getApplications();
+        }
+        long generation = applicationTreeGenerations.getOrDefault(tenantId, 0L);
+        Registry registry = UserMgtDSComponent.getRegistryService().getGovernanceSystemRegistry(tenantId);
+        PermissionNode applications = null;
+        if (registry.resourceExists(APPLICATIONS_PATH)) {
+            applications = readTree(registry, registry.get(APPLICATIONS_PATH));
+        }
+        ApplicationPermissionTreeCacheEntry readEntry = new ApplicationPermissionTreeCacheEntry(applications);
+        // Do not cache the tree if the permissions were invalidated while it was read, since it may be stale.
+        applicationTreeGenerations.compute(tenantId, (key, current) -> {
+            if ((current == null ? 0L : current) == generation) {
+                applicationTreeCache.addToCache(tenantId, readEntry);
+            }
+            return current;
+        });
+        return applications;
+    }
+
+    private PermissionNode refresh(PermissionNode node, String path, Registry registry) throws RegistryException {
+
+        List<PermissionNode> children = node.getChildren();
+        for (int i = 0; i < children.size(); i++) {
+            PermissionNode child = children.get(i);
+            if (path.equals(child.getResourcePath()) ||
+                    path.startsWith(child.getResourcePath() + RegistryConstants.PATH_SEPARATOR)) {
+                PermissionNode refreshedChild = path.equals(child.getResourcePath()) ?
+                        readNode(registry, registry.get(path), child) : refresh(child, path, registry);
+                List<PermissionNode> refreshedChildren = new ArrayList<>(children);
+                refreshedChildren.set(i, refreshedChild);
+                return new PermissionNode(node.getResourcePath(), node.getDisplayName(), refreshedChildren);
+            }
+        }
+        // The permission is not in the cached tree, hence read the children of this node again.
+        Resource resource = registry.get(StringUtils.removeEnd(node.getResourcePath(),
+                RegistryConstants.PATH_SEPARATOR));
+        PermissionNode refreshedNode = readNode(registry, resource, node);
+        return new PermissionNode(node.getResourcePath(), refreshedNode.getDisplayName(),
+                refreshedNode.getChildren());
+    }
+
+    /**
+     * Read a permission resource, reusing the cached subtrees of the children which are already in the given node.
+     * The application permissions are not read, since they are cached per tenant.
+     */
+    private PermissionNode readNode(Registry registry, Resource resource, PermissionNode cachedNode)
+            throws RegistryException {
+
+        String displayName = resource.getProperty(UserMgtConstants.DISPLAY_NAME);
+        if (!(resource instanceof Collection)) {
+            return new PermissionNode(resource.getPath(), displayName, Collections.<PermissionNode>emptyList());
+        }
+
+        Map<String, PermissionNode> cachedChildren = new HashMap<>();
+        if (cachedNode != null) {
+            for (PermissionNode child : cachedNode.getChildren()) {
+                cachedChildren.put(child.getResourcePath(), child);
+            }
+        }
+        String[] childPaths = ((Collection) resource).getChildren();
+        List<PermissionNode> children = new ArrayList<>(childPaths.length);
+        for (String childPath : childPaths) {
+            PermissionNode child = cachedChildren.get(childPath);
+            if (child == null && APPLICATIONS_PATH.equals(childPath)) {
+                child = new PermissionNode(childPath, null, Collections.<PermissionNode>emptyList());
+            } else if (child == null) {
+                child = readNode(registry, registry.get(childPath), null);
+            }
+            children.add(child);
+        }
+        return new PermissionNode(resource.getPath(), displayName, children);
+    }
+
+    private PermissionNode readTree(Registry registry, Resource resource) throws RegistryException {
+
+        String displayName = resource.getProperty(UserMgtConstants.DISPLAY_NAME);
+        List<PermissionNode> children = new ArrayList<>();
+        if (resource instanceof Collection) {
+            for (String childPath : ((Collection) resource).getChildren()) {
+                children.add(readTree(registry, registry.get(childPath)));
+            }
+        }
+        return new PermissionNode(resource.getPath(), displayName, children);
+    }
+
+    private static long getConfiguredTimeout() {
+
+        String timeout = IdentityUtil.getProperty(CACHE_TIMEOUT);
+        if (StringUtils.isNotBlank(timeout)) {
+            try {
+                return Long.parseLong(timeout.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid value: " + timeout + " for " + CACHE_TIMEOUT + ". Using the default value: "
+                        + DEFAULT_CACHE_TIMEOUT_IN_SECONDS);
+            }
+        }
+        return DEFAULT_CACHE_TIMEOUT_IN_SECONDS;
+    }
+
+    /**
+     * Immutable node of the UI permission tree.
+     */
+    public static final class PermissionNode implements Serializable {
+
+        private static final long serialVersionUID = -4387152946631827305L;
+
+        private final String resourcePath;
+        private final String displayName;
+        private final List<PermissionNode> children;
+
+        public PermissionNode(String resourcePath, String displayName, List<PermissionNode> children) {
+
+            this.resourcePath = resourcePath;
+            this.displayName = displayName;
+            this.children = Collections.unmodifiableList(new ArrayList<>(children));
+        }
+
+        public String getResourcePath() {
+
+            return resourcePath;
+        }
+
+        public String getDisplayName() {
+
+            return displayName;
+        }
+
+        public List<PermissionNode> getChildren() {
+
+            return children;
+        }
+
+        /**
+         * @param childPath resource path of the child
+         * @return direct child with the given resource path, or null if there is no such child
+         */
+        public PermissionNode getChild(String childPath) {
+
+            for (PermissionNode child : children) {
+                if (child.resourcePath.equals(childPath)) {
+                    return child;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class CachedTree {
+
+        private final PermissionNode root;
+        private final long createdTime;
+
+        private CachedTree(PermissionNode root, long createdTime) {
+
+            this.root = root;
+            this.createdTime = createdTime;
+        }
+
+        private boolean isExpired(long timeoutInMillis) {
+
+            return System.currentTimeMillis() - createdTime > timeoutInMillis;
+        }
+    }
+}
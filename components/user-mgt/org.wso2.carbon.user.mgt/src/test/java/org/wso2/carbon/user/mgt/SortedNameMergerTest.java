@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.user.mgt;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.user.core.UserCoreConstants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+public class SortedNameMergerTest {
+
+    @Test
+    public void testMergePages() {
+        List<String[]> names = Arrays.asList(
+                new String[]{"delta", "Alpha", "foxtrot"},
+                new String[]{"SEC/bravo", "echo", "charlie"},
+                new String[0]);
+
+        List<String> mergedNames = new ArrayList<>();
+        String cursor = null;
+        List<String> page;
+        do {
+            page = getPage(names, cursor, 4, null);
+            Assert.assertTrue(page.size() <= 4);
+            mergedNames.addAll(page);
+            cursor = page.isEmpty() ? cursor : page.get(page.size() - 1);
+        } while (page.size() == 4);
+
+        Assert.assertEquals(mergedNames, Arrays.asList("Alpha", "SEC/bravo", "charlie", "delta", "echo", "foxtrot"));
+    }
+
+    @Test
+    public void testMergePageSkipsDuplicatesAndRejectedNames() {
+        List<String[]> names = Arrays.asList(
+                new String[]{"role1", "role2", "other"},
+                new String[]{"ROLE2", "role3"});
+
+        List<String> page = getPage(names, null, 10, name -> name.startsWith("role"));
+        Assert.assertEquals(page, Arrays.asList("role1", "role2", "role3"));
+    }
+
+    @Test
+    public void testMergePageKeepsNamesOfDifferentDomains() {
+        List<String[]> names = Arrays.asList(
+                new String[]{"bob", "carol"},
+                new String[]{"SEC/carol", "SEC/Bob"});
+
+        List<String> page = getPage(names, null, 3, null);
+        Assert.assertEquals(page, Arrays.asList("bob", "SEC/Bob", "carol"));
+        page = getPage(names, page.get(page.size() - 1), 3, null);
+        Assert.assertEquals(page, Arrays.asList("SEC/carol"));
+    }
+
+    @Test
+    public void testMergePageIgnoresDisplayNames() {
+        String[] names = new String[]{
+                "bob" + UserCoreConstants.NAME_COMBINER + "Alice Smith",
+                "alice" + UserCoreConstants.NAME_COMBINER + "Zed"};
+
+        List<String> page = getPage(Arrays.<String[]>asList(names), "alice", 10, null);
+        Assert.assertEquals(page.size(), 1);
+        Assert.assertEquals(SortedNameMerger.getName(page.get(0)), "bob");
+    }
+
+    @Test
+    public void testSelectPageKeepsSmallestDistinctNames() {
+        String[] names = new String[]{"echo", "Bob", "delta", "bob", "alice", "charlie", "foxtrot"};
+
+        Assert.assertEquals(SortedNameMerger.selectPage(names, null, 3, null),
+                new String[]{"alice", "Bob", "charlie"});
+        Assert.assertEquals(SortedNameMerger.selectPage(names, "charlie", 3, null),
+                new String[]{"delta", "echo", "foxtrot"});
+        Assert.assertEquals(names[0], "echo", "The names should not be modified");
+    }
+
+    private static List<String> getPage(List<String[]> names, String cursor, int pageSize,
+                                        Predicate<String> accept) {
+        List<String[]> selectedNames = new ArrayList<>();
+        for (String[] domainNames : names) {
+            selectedNames.add(SortedNameMerger.selectPage(domainNames, cursor, pageSize, accept));
+        }
+        return SortedNameMerger.mergePage(selectedNames, pageSize);
+    }
+}
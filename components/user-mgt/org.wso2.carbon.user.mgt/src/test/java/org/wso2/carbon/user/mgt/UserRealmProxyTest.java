@@ -246,6 +246,55 @@ public class UserRealmProxyTest {
         verify(userStoreManager).updateRoleName("testRole", "testNewRole");
     }
 
+    @Test
+    public void testListUsersPage() throws Exception {
+        UserRealm pagedRealm = mock(UserRealm.class);
+        UserStoreManager primaryManager = mock(UserStoreManager.class);
+        UserStoreManager secondaryManager = mock(UserStoreManager.class);
+        Mockito.when(pagedRealm.getUserStoreManager()).thenReturn(primaryManager);
+        Mockito.when(primaryManager.getRealmConfiguration()).thenReturn(getDomainRealmConfiguration("PRIMARY"));
+        Mockito.when(secondaryManager.getRealmConfiguration()).thenReturn(getDomainRealmConfiguration("SEC"));
+        Mockito.when(primaryManager.getSecondaryUserStoreManager()).thenReturn(secondaryManager);
+        Mockito.when(primaryManager.getSecondaryUserStoreManager("SEC")).thenReturn(secondaryManager);
+        Mockito.when(secondaryManager.isReadOnly()).thenReturn(true);
+        Mockito.when(primaryManager.listUsers("PRIMARY/*", -1)).thenReturn(new String[]{"carol", "alice"});
+        Mockito.when(primaryManager.listUsers("SEC/*", -1)).thenReturn(new String[]{"SEC/dave", "SEC/bob"});
+        UserRealmProxy pagedRealmProxy = new UserRealmProxy(pagedRealm);
+
+        FlaggedName[] firstPage = pagedRealmProxy.listUsersPage("*", null, 3);
+        Assert.assertEquals(firstPage.length, 3);
+        Assert.assertEquals(firstPage[0].getItemName(), "alice");
+        Assert.assertTrue(firstPage[0].isEditable());
+        Assert.assertEquals(firstPage[1].getItemName(), "SEC/bob");
+        Assert.assertFalse(firstPage[1].isEditable());
+        Assert.assertEquals(firstPage[2].getItemName(), "carol");
+
+        FlaggedName[] lastPage = pagedRealmProxy.listUsersPage("*", firstPage[2].getItemName(), 3);
+        Assert.assertEquals(lastPage.length, 1);
+        Assert.assertEquals(lastPage[0].getItemName(), "SEC/dave");
+    }
+
+    @Test
+    public void testGetUsersOfRolePage() throws Exception {
+        UserRealm pagedRealm = mock(UserRealm.class);
+        UserStoreManager pagedUserStoreManager = mock(UserStoreManager.class);
+        Mockito.when(pagedRealm.getUserStoreManager()).thenReturn(pagedUserStoreManager);
+        Mockito.when(pagedUserStoreManager.getRealmConfiguration()).thenReturn(getDomainRealmConfiguration("PRIMARY"));
+        Mockito.when(pagedUserStoreManager.getUserListOfRole("role1"))
+                .thenReturn(new String[]{"user3", "admin", "user1", "User2"});
+        UserRealmProxy pagedRealmProxy = new UserRealmProxy(pagedRealm);
+
+        FlaggedName[] firstPage = pagedRealmProxy.getUsersOfRolePage("role1", "user*", null, 2);
+        Assert.assertEquals(firstPage.length, 2);
+        Assert.assertEquals(firstPage[0].getItemName(), "user1");
+        Assert.assertEquals(firstPage[1].getItemName(), "User2");
+        Assert.assertTrue(firstPage[0].isSelected());
+
+        FlaggedName[] lastPage = pagedRealmProxy.getUsersOfRolePage("role1", "user*", "User2", 2);
+        Assert.assertEquals(lastPage.length, 1);
+        Assert.assertEquals(lastPage[0].getItemName(), "user3");
+    }
+
     private static void startTenantFlow(String tenantDomain) {
         String carbonHome = Paths.get(System.getProperty("user.dir"), "target").toString();
         System.setProperty("carbon.home", carbonHome);
@@ -269,6 +318,14 @@ public class UserRealmProxyTest {
         return realmConfig;
     }
 
+    private RealmConfiguration getDomainRealmConfiguration(String domainName) {
+        RealmConfiguration realmConfig = new RealmConfiguration();
+        Map<String, String> userStoreProperties = new HashMap<>();
+        userStoreProperties.put(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME, domainName);
+        realmConfig.setUserStoreProperties(userStoreProperties);
+        return realmConfig;
+    }
+
     private ClaimValue[] getSampleClaims() {
         Claim claim = new Claim();
         claim.setClaimUri("testURI");
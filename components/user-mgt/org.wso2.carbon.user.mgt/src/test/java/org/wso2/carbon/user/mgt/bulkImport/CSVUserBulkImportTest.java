@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * you may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.user.mgt.bulkImport;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.user.core.UserStoreManager;
+import org.wso2.carbon.user.mgt.bulkimport.BulkImportConfig;
+import org.wso2.carbon.user.mgt.bulkimport.BulkImportProgress;
+import org.wso2.carbon.user.mgt.bulkimport.CSVUserBulkImport;
+import org.wso2.carbon.user.mgt.bulkimport.UserBulkImport;
+import org.wso2.carbon.user.mgt.common.UserAdminException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyMap;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test cases for CSVUserBulkImport class.
+ */
+public class CSVUserBulkImportTest {
+
+    private static final String CSV_FILENAME = "users.csv";
+    private static final String TENANT_DOMAIN = "carbon.super";
+    private static final String USER_STORE_DOMAIN = "TEST";
+    private static final String RESOURCE_LOCATION = Paths.get(System.getProperty("user.dir"), "src", "test",
+            "resources").toString();
+
+    @BeforeClass
+    public void init() {
+        String carbonHome = Paths.get(System.getProperty("user.dir"), "target").toString();
+        System.setProperty("carbon.home", carbonHome);
+        PrivilegedCarbonContext.startTenantFlow();
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(TENANT_DOMAIN);
+        PrivilegedCarbonContext.getThreadLocalCarbonContext().setUsername("admin");
+    }
+
+    @AfterClass
+    public void tearDown() {
+        PrivilegedCarbonContext.endTenantFlow();
+    }
+
+    @Test(description = "Test importing users in parallel batches.")
+    public void testAddUserList() throws Exception {
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.isExistingUser(anyString())).thenReturn(false);
+
+        new CSVUserBulkImport(getConfig()).addUserList(userStoreManager);
+
+        verify(userStoreManager, times(3)).addUser(anyString(), anyString(), any(String[].class), anyMap(),
+                anyString(), eq(true));
+        verify(userStoreManager).addUser(eq(USER_STORE_DOMAIN + "/testUser2"), eq("testPassword2"),
+                any(String[].class), anyMap(), anyString(), eq(true));
+
+        BulkImportProgress progress = UserBulkImport.getProgress(TENANT_DOMAIN, USER_STORE_DOMAIN);
+        Assert.assertNotNull(progress);
+        Assert.assertTrue(progress.isCompleted());
+        Assert.assertEquals(progress.getReadCount(), 3);
+        Assert.assertEquals(progress.getSuccessCount(), 3);
+        Assert.assertEquals(progress.getFailCount(), 0);
+        Assert.assertEquals(progress.getDuplicateCount(), 0);
+    }
+
+    @Test(description = "Test importing users when a user already exists.")
+    public void testAddUserListWithDuplicateUser() throws Exception {
+        UserStoreManager userStoreManager = mock(UserStoreManager.class);
+        when(userStoreManager.isExistingUser(anyString())).thenReturn(false);
+        when(userStoreManager.isExistingUser(USER_STORE_DOMAIN + "/testUser2")).thenReturn(true);
+
+        try {
+            new CSVUserBulkImport(getConfig()).addUserList(userStoreManager);
+            Assert.fail("Bulk import with a duplicate user completed without errors.");
+        } catch (UserAdminException e) {
+            // Expected since a user in the file already exists.
+        }
+
+        verify(userStoreManager, never()).addUser(eq(USER_STORE_DOMAIN + "/testUser2"), anyString(),
+                any(String[].class), anyMap(), anyString(), eq(true));
+        BulkImportProgress progress = UserBulkImport.getProgress(TENANT_DOMAIN, USER_STORE_DOMAIN);
+        Assert.assertEquals(progress.getSuccessCount(), 2);
+        Assert.assertEquals(progress.getDuplicateCount(), 1);
+    }
+
+    private BulkImportConfig getConfig() throws FileNotFoundException {
+        InputStream inputStream = new FileInputStream(new File(RESOURCE_LOCATION + File.separatorChar +
+                CSV_FILENAME));
+        BulkImportConfig config = new BulkImportConfig(inputStream, CSV_FILENAME);
+        config.setUserStoreDomain(USER_STORE_DOMAIN);
+        config.setThreadCount(2);
+        config.setBatchSize(1);
+        return config;
+    }
+}
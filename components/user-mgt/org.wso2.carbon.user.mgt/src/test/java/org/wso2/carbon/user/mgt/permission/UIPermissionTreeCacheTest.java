@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.user.mgt.permission;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.service.RegistryService;
+import org.wso2.carbon.registry.core.session.UserRegistry;
+import org.wso2.carbon.user.mgt.UserMgtConstants;
+import org.wso2.carbon.user.mgt.internal.UserMgtDSComponent;
+import org.wso2.carbon.user.mgt.permission.UIPermissionTreeCache.PermissionNode;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class UIPermissionTreeCacheTest {
+
+    private static final int TENANT_ID = 1;
+    private static final String APPLICATIONS_PATH = "/permission/applications";
+
+    private UserRegistry registry;
+    private UserRegistry tenantRegistry;
+    private Collection adminCollection;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        registry = mock(UserRegistry.class);
+        tenantRegistry = mock(UserRegistry.class);
+        RegistryService registryService = mock(RegistryService.class);
+        Mockito.when(registryService.getGovernanceSystemRegistry()).thenReturn(registry);
+        Mockito.when(registryService.getGovernanceSystemRegistry(MultitenantConstants.SUPER_TENANT_ID))
+                .thenReturn(registry);
+        Mockito.when(registryService.getGovernanceSystemRegistry(TENANT_ID)).thenReturn(tenantRegistry);
+        setRegistryService(registryService);
+
+        Collection rootCollection = mockCollection("/permission", "All Permissions", "/permission/admin",
+                APPLICATIONS_PATH);
+        adminCollection = mockCollection("/permission/admin", "Admin", "/permission/admin/login");
+        Resource loginResource = mock(Resource.class);
+        Mockito.when(loginResource.getPath()).thenReturn("/permission/admin/login");
+        Mockito.when(loginResource.getProperty(UserMgtConstants.DISPLAY_NAME)).thenReturn("Login");
+        Mockito.when(registry.get(UserMgtConstants.UI_PERMISSION_ROOT)).thenReturn(rootCollection);
+        Mockito.when(registry.get("/permission/admin")).thenReturn(adminCollection);
+        Mockito.when(registry.get("/permission/admin/login")).thenReturn(loginResource);
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        setRegistryService(null);
+    }
+
+    @Test
+    public void testSuperTenantPermissionTree() throws Exception {
+        UIPermissionTreeCache cache = new UIPermissionTreeCache(60000, new InMemoryApplicationPermissionTreeCache());
+
+        PermissionNode root = cache.getPermissionTree(MultitenantConstants.SUPER_TENANT_ID);
+        Assert.assertEquals(root.getResourcePath(), UserMgtConstants.UI_PERMISSION_ROOT);
+        Assert.assertEquals(root.getChildren().size(), 1, "Missing application permissions should not be listed");
+        Assert.assertEquals(root.getChild("/permission/admin").getChild("/permission/admin/login")
+                .getDisplayName(), "Login");
+
+        cache.getPermissionTree(MultitenantConstants.SUPER_TENANT_ID);
+        verify(registry, times(1)).get("/permission/admin/login");
+    }
+
+    @Test
+    public void testTenantPermissionTreeWithApplications() throws Exception {
+        Collection applications = mockCollection(APPLICATIONS_PATH, "Applications", APPLICATIONS_PATH + "/app1");
+        Resource application = mock(Resource.class);
+        Mockito.when(application.getPath()).thenReturn(APPLICATIONS_PATH + "/app1");
+        Mockito.when(tenantRegistry.resourceExists(APPLICATIONS_PATH)).thenReturn(true);
+        Mockito.when(tenantRegistry.get(APPLICATIONS_PATH)).thenReturn(applications);
+        Mockito.when(tenantRegistry.get(APPLICATIONS_PATH + "/app1")).thenReturn(application);
+        UIPermissionTreeCache cache = new UIPermissionTreeCache(60000, new InMemoryApplicationPermissionTreeCache());
+
+        PermissionNode root = cache.getPermissionTree(TENANT_ID);
+        Assert.assertEquals(root.getResourcePath(), UserMgtConstants.UI_ADMIN_PERMISSION_ROOT);
+        Assert.assertEquals(root.getChildren().size(), 2);
+        Assert.assertEquals(root.getChild(APPLICATIONS_PATH).getChildren().size(), 1);
+
+        cache.getPermissionTree(TENANT_ID);
+        verify(tenantRegistry, times(1)).get(APPLICATIONS_PATH);
+
+        cache.invalidateApplicationPermissions(TENANT_ID);
+        cache.getPermissionTree(TENANT_ID);
+        verify(tenantRegistry, times(2)).get(APPLICATIONS_PATH);
+    }
+
+    @Test
+    public void testApplicationPermissionsInvalidatedWhileReadAreNotCached() throws Exception {
+        Collection applications = mockCollection(APPLICATIONS_PATH, "Applications");
+        Mockito.when(tenantRegistry.resourceExists(APPLICATIONS_PATH)).thenReturn(true);
+        UIPermissionTreeCache cache = new UIPermissionTreeCache(60000, new InMemoryApplicationPermissionTreeCache());
+        // The application permissions are changed while the first read is in progress.
+        Mockito.when(tenantRegistry.get(APPLICATIONS_PATH)).thenAnswer(invocation -> {
+            cache.invalidateApplicationPermissions(TENANT_ID);
+            return applications;
+        }).thenReturn(applications);
+
+        cache.getPermissionTree(TENANT_ID);
+        cache.getPermissionTree(TENANT_ID);
+        cache.getPermissionTree(TENANT_ID);
+        verify(tenantRegistry, times(2)).get(APPLICATIONS_PATH);
+    }
+
+    @Test
+    public void testRefreshReadsOnlyChangedPermissions() throws Exception {
+        UIPermissionTreeCache cache = new UIPermissionTreeCache(60000, new InMemoryApplicationPermissionTreeCache());
+        cache.getPermissionTree(MultitenantConstants.SUPER_TENANT_ID);
+
+        Collection manageCollection = mockCollection("/permission/admin/manage", "Manage");
+        Mockito.when(registry.get("/permission/admin/manage")).thenReturn(manageCollection);
+        Mockito.when(adminCollection.getChildren())
+                .thenReturn(new String[]{"/permission/admin/login", "/permission/admin/manage"});
+        cache.refresh("/permission/admin/manage");
+
+        PermissionNode admin = cache.getPermissionTree(MultitenantConstants.SUPER_TENANT_ID)
+                .getChild("/permission/admin");
+        Assert.assertEquals(admin.getChildren().size(), 2);
+        Assert.assertEquals(admin.getChild("/permission/admin/manage").getDisplayName(), "Manage");
+        verify(registry, times(1)).get("/permission/admin/login");
+        verify(registry, times(1)).get(UserMgtConstants.UI_PERMISSION_ROOT);
+    }
+
+    private Collection mockCollection(String path, String displayName, String... children) {
+        Collection collection = mock(Collection.class);
+        Mockito.when(collection.getPath()).thenReturn(path);
+        Mockito.when(collection.getProperty(UserMgtConstants.DISPLAY_NAME)).thenReturn(displayName);
+        try {
+            Mockito.when(collection.getChildren()).thenReturn(children);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return collection;
+    }
+
+    private void setRegistryService(RegistryService registryService) throws Exception {
+        Field field = UserMgtDSComponent.class.getDeclaredField("registryService");
+        field.setAccessible(true);
+        field.set(null, registryService);
+    }
+
+    private static class InMemoryApplicationPermissionTreeCache extends ApplicationPermissionTreeCache {
+
+        private final Map<Integer, ApplicationPermissionTreeCacheEntry> entries = new ConcurrentHashMap<>();
+
+        @Override
+        public void addToCache(Integer key, ApplicationPermissionTreeCacheEntry entry) {
+            entries.put(key, entry);
+        }
+
+        @Override
+        public ApplicationPermissionTreeCacheEntry getValueFromCache(Integer key) {
+            return entries.get(key);
+        }
+
+        @Override
+        public void clearCacheEntry(Integer key) {
+            entries.remove(key);
+        }
+    }
+}
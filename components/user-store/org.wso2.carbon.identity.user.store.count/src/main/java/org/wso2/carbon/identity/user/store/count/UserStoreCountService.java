@@ -20,16 +20,28 @@ package org.wso2.carbon.identity.user.store.count;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.identity.user.store.count.dto.PairDTO;
+import org.wso2.carbon.identity.user.store.count.dto.UserStoreCountDTO;
 import org.wso2.carbon.identity.user.store.count.exception.UserStoreCounterException;
 import org.wso2.carbon.identity.user.store.count.internal.UserStoreCountDSComponent;
+import org.wso2.carbon.identity.user.store.count.internal.UserStoreCountDataHolder;
+import org.wso2.carbon.identity.user.store.count.internal.UserStoreCountSummary;
 import org.wso2.carbon.identity.user.store.count.jdbc.internal.InternalStoreCountConstants;
 import org.wso2.carbon.identity.user.store.count.util.UserStoreCountUtils;
 import org.wso2.carbon.user.api.UserStoreException;
 import org.wso2.carbon.user.api.UserStoreManager;
 import org.wso2.carbon.user.core.UserCoreConstants;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Service class that expose count functionality for underline user stores on users, roles and claims.
@@ -37,64 +49,85 @@ import java.util.Set;
 public class UserStoreCountService {
 
     private static final Log log = LogFactory.getLog(UserStoreCountService.class);
+    private static final String ALL_FILTER = "*";
     int tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
 
     /**
      * Get the count of users having a matching user name for the filter
      *
      * @param filter the filter for the user name. Use '*' to have all.
-     * @return the number of users matching the filter by each domain
+     * @return the number of users matching the filter by each domain, -1 for domains which could not be counted
      */
     public PairDTO[] countUsers(String filter) throws UserStoreCounterException {
 
-        Set<String> userStoreDomains = UserStoreCountUtils.getCountEnabledUserStores();
-        PairDTO[] userCounts = new PairDTO[userStoreDomains.size()];
-        int i = 0;
+        return toPairs(countUsersWithStatus(filter));
+    }
 
-        for (String userStoreDomain : userStoreDomains) {
-            String filterWithDomain = getFilterWithDomain(userStoreDomain, filter);
-            long count = -1L;
-            try {
-                count = getUserCountWithClaims(UserStoreCountUtils.USERNAME_CLAIM, filterWithDomain);
-            } catch (UserStoreCounterException e) {
-                String errorMsg = "Error while getting user count from user store domain : " + userStoreDomain;
-                throw new UserStoreCounterException(errorMsg, e);
-            }
-            userCounts[i] = new PairDTO(userStoreDomain, Long.toString(count));
-            i++;
-        }
-        return userCounts;
+    /**
+     * Get the count of users having a matching user name for the filter. The user store domains are counted in
+     * parallel and the domains which could not be counted within the configured timeout are reported as such.
+     *
+     * @param filter the filter for the user name. Use '*' to have all.
+     * @return the number of users matching the filter by each domain along with the status of the count
+     */
+    public UserStoreCountDTO[] countUsersWithStatus(final String filter) throws UserStoreCounterException {
+
+        List<String> userStoreDomains = new ArrayList<>(UserStoreCountUtils.getCountEnabledUserStores());
+        return countInParallel(userStoreDomains, domain -> new UserStoreCountDTO(domain,
+                getUserCountWithClaims(UserStoreCountUtils.USERNAME_CLAIM, getFilterWithDomain(domain, filter)),
+                false, System.currentTimeMillis()));
     }
 
     /**
      * Get the count of roles having a matching role name for the filter
      *
      * @param filter the filter for the role name. Use '*' to have all.
-     * @return the number of roles matching the filter by each domain
+     * @return the number of roles matching the filter by each domain, -1 for domains which could not be counted
      */
     public PairDTO[] countRoles(String filter) throws UserStoreCounterException {
 
-        Set<String> userStoreDomains = UserStoreCountUtils.getCountEnabledUserStores();
-        // Add 2 more for the counts of Internal, Application domains.
-        PairDTO[] roleCounts = new PairDTO[userStoreDomains.size() + 2];
-        int i = 0;
+        return toPairs(countRolesWithStatus(filter));
+    }
 
-        for (String userStoreDomain : userStoreDomains) {
-            long count = -1L;
-            String filterWithDomain = getFilterWithDomain(userStoreDomain, filter);
-            count = getRoleCount(filterWithDomain);
-            roleCounts[i] = new PairDTO(userStoreDomain, Long.toString(count));
-            i++;
-        }
-        String internalDomainFilter = UserCoreConstants.INTERNAL_DOMAIN + UserCoreConstants.DOMAIN_SEPARATOR + filter;
-        String applicationDomainFilter = InternalStoreCountConstants.APPLICATION_DOMAIN +
-                UserCoreConstants.DOMAIN_SEPARATOR + filter;
-        roleCounts[i] = new PairDTO(UserCoreConstants.INTERNAL_DOMAIN, String.valueOf(
-                getRoleCount(internalDomainFilter)));
-        roleCounts[++i] = new PairDTO(InternalStoreCountConstants.APPLICATION_DOMAIN, String.valueOf(
-                getRoleCount(applicationDomainFilter)));
+    /**
+     * Get the count of roles having a matching role name for the filter. The user store domains are counted in
+     * parallel and the domains which could not be counted within the configured timeout are reported as such.
+     *
+     * @param filter the filter for the role name. Use '*' to have all.
+     * @return the number of roles matching the filter by each domain along with the status of the count
+     */
+    public UserStoreCountDTO[] countRolesWithStatus(final String filter) throws UserStoreCounterException {
+
+        List<String> userStoreDomains = getRoleDomains();
+        return countInParallel(userStoreDomains, domain -> new UserStoreCountDTO(domain,
+                getRoleCount(getFilterWithDomain(domain, filter)), false, System.currentTimeMillis()));
+    }
+
+    /**
+     * Get the total number of users in each domain. Unless an exact count is requested, counts which were reconciled
+     * within the configured interval are served from the summary, which is kept up to date by user operations.
+     *
+     * @param exact whether to count the users of each domain exactly
+     * @return the number of users by each domain along with the staleness of the count
+     */
+    public UserStoreCountDTO[] getUserCountSummary(final boolean exact) throws UserStoreCounterException {
 
-        return roleCounts;
+        List<String> userStoreDomains = new ArrayList<>(UserStoreCountUtils.getCountEnabledUserStores());
+        return countInParallel(userStoreDomains,
+                domain -> getSummarizedCount(domain, UserStoreCountSummary.CountType.USER, exact));
+    }
+
+    /**
+     * Get the total number of roles in each domain. Unless an exact count is requested, counts which were reconciled
+     * within the configured interval are served from the summary, which is kept up to date by role operations.
+     *
+     * @param exact whether to count the roles of each domain exactly
+     * @return the number of roles by each domain along with the staleness of the count
+     */
+    public UserStoreCountDTO[] getRoleCountSummary(final boolean exact) throws UserStoreCounterException {
+
+        return countInParallel(getRoleDomains(),
+                domain -> getSummarizedCount(domain, UserStoreCountSummary.CountType.ROLE, exact));
     }
 
     /**
@@ -102,27 +135,31 @@ public class UserStoreCountService {
      *
      * @param claimURI    the claim URI
      * @param valueFilter filter for the claim values
-     * @return the number of users matching the given claim and filter by each domain
+     * @return the number of users matching the given claim and filter by each domain, -1 for domains which could
+     * not be counted
      */
     public PairDTO[] countClaim(String claimURI, String valueFilter) throws UserStoreCounterException {
 
-        Set<String> userStoreDomains = UserStoreCountUtils.getCountEnabledUserStores();
-        PairDTO[] claimCounts = new PairDTO[userStoreDomains.size()];
-        int i = 0;
+        return toPairs(countClaimWithStatus(claimURI, valueFilter));
+    }
 
-        for (String userStoreDomain : userStoreDomains) {
-            long count = -1L;
-            String filterWithDomain = getFilterWithDomain(userStoreDomain, valueFilter);
-            try {
-                count = getUserCountWithClaims(claimURI, filterWithDomain);
-            } catch (UserStoreCounterException e) {
-                log.error("Error while getting user count with claim : " + claimURI + ", from user store domain : "
-                        + userStoreDomain, e);
-            }
-            claimCounts[i] = new PairDTO(userStoreDomain, Long.toString(count));
-            i++;
-        }
-        return claimCounts;
+    /**
+     * Get the count of users having claim values matching the given filter for the given claim URI. The user store
+     * domains are counted in parallel and the domains which could not be counted within the configured timeout are
+     * reported as such.
+     *
+     * @param claimURI    the claim URI
+     * @param valueFilter filter for the claim values
+     * @return the number of users matching the given claim and filter by each domain along with the status of the
+     * count
+     */
+    public UserStoreCountDTO[] countClaimWithStatus(final String claimURI, final String valueFilter)
+            throws UserStoreCounterException {
+
+        List<String> userStoreDomains = new ArrayList<>(UserStoreCountUtils.getCountEnabledUserStores());
+        return countInParallel(userStoreDomains, domain -> new UserStoreCountDTO(domain,
+                getUserCountWithClaims(claimURI, getFilterWithDomain(domain, valueFilter)), false,
+                System.currentTimeMillis()));
     }
 
     /**
@@ -231,6 +268,136 @@ public class UserStoreCountService {
         }
     }
 
+    /**
+     * Count the given domains in parallel, waiting for the counts until the configured timeout elapses. Domains
+     * which fail or do not complete in time are returned with a count of -1 and the corresponding status.
+     *
+     * @param domains user store domains to count
+     * @param counter counts a single domain
+     * @return counts in the order of the domains
+     */
+    private UserStoreCountDTO[] countInParallel(List<String> domains, DomainCounter counter) {
+
+        UserStoreCountDTO[] counts = new UserStoreCountDTO[domains.size()];
+        ExecutorService executorService = UserStoreCountDataHolder.getInstance().getCountExecutorService();
+        String tenantDomain = CarbonContext.getThreadLocalCarbonContext().getTenantDomain();
+        if (executorService == null) {
+            for (int i = 0; i < domains.size(); i++) {
+                try {
+                    counts[i] = countDomain(tenantDomain, domains.get(i), counter);
+                } catch (UserStoreCounterException e) {
+                    log.error("Error while counting user store domain : " + domains.get(i), e);
+                    counts[i] = getUncountedDomain(domains.get(i), UserStoreCountUtils.STATUS_FAILED);
+                }
+            }
+            return counts;
+        }
+
+        List<Future<UserStoreCountDTO>> futures = new ArrayList<>(domains.size());
+        for (String domain : domains) {
+            try {
+                futures.add(executorService.submit(() -> countDomain(tenantDomain, domain, counter)));
+            } catch (RejectedExecutionException e) {
+                log.warn("Too many pending count requests. Skipped counting user store domain : " + domain);
+                futures.add(null);
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + UserStoreCountUtils.getCountTimeout();
+        for (int i = 0; i < domains.size(); i++) {
+            String domain = domains.get(i);
+            Future<UserStoreCountDTO> future = futures.get(i);
+            if (future == null) {
+                counts[i] = getUncountedDomain(domain, UserStoreCountUtils.STATUS_FAILED);
+                continue;
+            }
+            try {
+                counts[i] = future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Counting user store domain : " + domain + " did not complete within "
+                        + UserStoreCountUtils.getCountTimeout() + " ms.");
+                counts[i] = getUncountedDomain(domain, UserStoreCountUtils.STATUS_TIMEOUT);
+            } catch (ExecutionException e) {
+                log.error("Error while counting user store domain : " + domain, e.getCause());
+                counts[i] = getUncountedDomain(domain, UserStoreCountUtils.STATUS_FAILED);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+                counts[i] = getUncountedDomain(domain, UserStoreCountUtils.STATUS_FAILED);
+            }
+        }
+        return counts;
+    }
+
+    private UserStoreCountDTO countDomain(String tenantDomain, String domain, DomainCounter counter)
+            throws UserStoreCounterException {
+
+        try {
+            PrivilegedCarbonContext.startTenantFlow();
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantId(tenantId);
+            PrivilegedCarbonContext.getThreadLocalCarbonContext().setTenantDomain(tenantDomain);
+            UserStoreCountDTO count = counter.count(domain);
+            count.setStatus(UserStoreCountUtils.STATUS_SUCCESS);
+            return count;
+        } finally {
+            PrivilegedCarbonContext.endTenantFlow();
+        }
+    }
+
+    private UserStoreCountDTO getUncountedDomain(String domain, String status) {
+
+        UserStoreCountDTO count = new UserStoreCountDTO(domain, -1L, false, 0L);
+        count.setStatus(status);
+        return count;
+    }
+
+    private PairDTO[] toPairs(UserStoreCountDTO[] counts) {
+
+        PairDTO[] pairs = new PairDTO[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            pairs[i] = new PairDTO(counts[i].getDomain(), Long.toString(counts[i].getCount()));
+        }
+        return pairs;
+    }
+
+    private List<String> getRoleDomains() throws UserStoreCounterException {
+
+        List<String> domains = new ArrayList<>(UserStoreCountUtils.getCountEnabledUserStores());
+        // Add the Internal and Application domains as well.
+        domains.add(UserCoreConstants.INTERNAL_DOMAIN);
+        domains.add(InternalStoreCountConstants.APPLICATION_DOMAIN);
+        return domains;
+    }
+
+    private UserStoreCountDTO getSummarizedCount(String domain, UserStoreCountSummary.CountType type, boolean exact)
+            throws UserStoreCounterException {
+
+        UserStoreCountSummary summary = UserStoreCountSummary.getInstance();
+        UserStoreCountSummary.CountEntry countEntry = summary.getCount(tenantId, domain, type);
+        if (!exact && countEntry != null && !countEntry.isReconcileRequired() &&
+                System.currentTimeMillis() - countEntry.getReconciledTime() <
+                        UserStoreCountUtils.getSummaryReconcileInterval()) {
+            // Counts served from the summary are approximate, as they do not reflect the changes made through
+            // other nodes or directly in the user store since they were reconciled.
+            return new UserStoreCountDTO(domain, countEntry.getCount(), true, countEntry.getReconciledTime());
+        }
+
+        long modificationCount = summary.getModificationCount(tenantId, domain, type);
+        String filterWithDomain = getFilterWithDomain(domain, ALL_FILTER);
+        long count;
+        if (type == UserStoreCountSummary.CountType.USER) {
+            count = getUserCountWithClaims(UserStoreCountUtils.USERNAME_CLAIM, filterWithDomain);
+        } else {
+            count = getRoleCount(filterWithDomain);
+        }
+        countEntry = summary.reconcile(tenantId, domain, type, count, modificationCount);
+        if (log.isDebugEnabled()) {
+            log.debug("Reconciled the " + type + " count of domain: " + domain + " in tenant: " + tenantId);
+        }
+        return new UserStoreCountDTO(domain, count, false, countEntry.getReconciledTime());
+    }
+
     private String getFilterWithDomain(String domain, String filter) {
 
         return domain + UserCoreConstants.DOMAIN_SEPARATOR + filter;
@@ -248,4 +415,12 @@ public class UserStoreCountService {
             throw new UserStoreCounterException("Error while retrieving userStoreManager");
         }
     }
+
+    /**
+     * Counts a single user store domain.
+     */
+    private interface DomainCounter {
+
+        UserStoreCountDTO count(String domain) throws UserStoreCounterException;
+    }
 }
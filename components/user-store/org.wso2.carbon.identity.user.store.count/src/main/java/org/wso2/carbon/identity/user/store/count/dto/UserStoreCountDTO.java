@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.user.store.count.dto;
+
+/**
+ * DTO to represent the user or role count of a user store domain along with its staleness.
+ */
+public class UserStoreCountDTO {
+    private String domain;
+    private long count;
+    private boolean approximate;
+    private long lastReconciledTime;
+    private String status;
+
+    public UserStoreCountDTO() {
+
+    }
+
+    public UserStoreCountDTO(String domain, long count, boolean approximate, long lastReconciledTime) {
+        this.domain = domain;
+        this.count = count;
+        this.approximate = approximate;
+        this.lastReconciledTime = lastReconciledTime;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+
+    public void setDomain(String domain) {
+        this.domain = domain;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    /**
+     * Whether the count is maintained incrementally since the last exact count, rather than being exact.
+     *
+     * @return true if the count is approximate
+     */
+    public boolean isApproximate() {
+        return approximate;
+    }
+
+    public void setApproximate(boolean approximate) {
+        this.approximate = approximate;
+    }
+
+    /**
+     * Time in milliseconds at which the count was last reconciled against an exact count of the user store.
+     *
+     * @return last reconciled time
+     */
+    public long getLastReconciledTime() {
+        return lastReconciledTime;
+    }
+
+    public void setLastReconciledTime(long lastReconciledTime) {
+        this.lastReconciledTime = lastReconciledTime;
+    }
+
+    /**
+     * Whether the domain was counted successfully, timed out or failed. The count is -1 unless successful.
+     *
+     * @return count status
+     */
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+}
@@ -32,8 +32,17 @@ import org.wso2.carbon.identity.user.store.count.AbstractCountRetrieverFactory;
 import org.wso2.carbon.identity.user.store.count.exception.UserStoreCounterException;
 import org.wso2.carbon.identity.user.store.count.jdbc.JDBCCountRetrieverFactory;
 import org.wso2.carbon.identity.user.store.count.jdbc.internal.InternalCountRetrieverFactory;
+import org.wso2.carbon.identity.user.store.count.util.UserStoreCountUtils;
+import org.wso2.carbon.user.core.listener.UserOperationEventListener;
 import org.wso2.carbon.user.core.service.RealmService;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * User store count OSGi service component.
  */
@@ -102,6 +111,29 @@ public class UserStoreCountDSComponent {
         } else {
             log.error("Identity User Store Count -  JDBCUserStoreCountRetriever could not be registered.");
         }
+
+        bundleContext.registerService(UserOperationEventListener.class.getName(), new UserStoreCountEventListener(),
+                null);
+        if (log.isDebugEnabled()) {
+            log.debug("Identity User Store Count - UserStoreCountEventListener registered.");
+        }
+
+        int poolSize = UserStoreCountUtils.getCountThreadPoolSize();
+        ThreadPoolExecutor countExecutorService = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(UserStoreCountUtils.getCountQueueSize()), new ThreadFactory() {
+
+                    private final AtomicInteger threadCount = new AtomicInteger();
+
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+
+                        Thread thread = new Thread(runnable, "UserStoreCountWorker-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+        countExecutorService.allowCoreThreadTimeOut(true);
+        UserStoreCountDataHolder.getInstance().setCountExecutorService(countExecutorService);
     }
 
     protected void deactivate(ComponentContext ctxt) {
@@ -109,6 +141,11 @@ public class UserStoreCountDSComponent {
             log.debug("User store count bundle is deactivated");
         }
 
+        ExecutorService countExecutorService = UserStoreCountDataHolder.getInstance().getCountExecutorService();
+        if (countExecutorService != null) {
+            countExecutorService.shutdownNow();
+            UserStoreCountDataHolder.getInstance().setCountExecutorService(null);
+        }
         UserStoreCountDataHolder.getInstance().setBundleContext(null);
     }
 
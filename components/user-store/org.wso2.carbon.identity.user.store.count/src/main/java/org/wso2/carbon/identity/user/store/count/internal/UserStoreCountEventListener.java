@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.user.store.count.internal;
+
+import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.identity.core.AbstractIdentityUserOperationEventListener;
+import org.wso2.carbon.identity.core.util.IdentityCoreConstants;
+import org.wso2.carbon.identity.core.util.IdentityUtil;
+import org.wso2.carbon.user.api.Permission;
+import org.wso2.carbon.user.core.UserCoreConstants;
+import org.wso2.carbon.user.core.UserStoreException;
+import org.wso2.carbon.user.core.UserStoreManager;
+
+import java.util.Map;
+
+/**
+ * User operation event listener which keeps the counts of {@link UserStoreCountSummary} up to date between
+ * reconciliations.
+ */
+public class UserStoreCountEventListener extends AbstractIdentityUserOperationEventListener {
+
+    private static final Log log = LogFactory.getLog(UserStoreCountEventListener.class);
+
+    @Override
+    public int getExecutionOrderId() {
+
+        int orderId = getOrderId();
+        if (orderId != IdentityCoreConstants.EVENT_LISTENER_ORDER_ID) {
+            return orderId;
+        }
+        return 120;
+    }
+
+    @Override
+    public boolean doPostAddUser(String userName, Object credential, String[] roleList, Map<String, String> claims,
+                                 String profile, UserStoreManager userStoreManager) throws UserStoreException {
+
+        if (!isEnable()) {
+            return true;
+        }
+        adjustCount(userName, userStoreManager, UserStoreCountSummary.CountType.USER, 1);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteUser(String userName, UserStoreManager userStoreManager) throws UserStoreException {
+
+        if (!isEnable()) {
+            return true;
+        }
+        adjustCount(userName, userStoreManager, UserStoreCountSummary.CountType.USER, -1);
+        return true;
+    }
+
+    @Override
+    public boolean doPostAddRole(String roleName, String[] userList, Permission[] permissions,
+                                 UserStoreManager userStoreManager) throws UserStoreException {
+
+        if (!isEnable()) {
+            return true;
+        }
+        adjustCount(roleName, userStoreManager, UserStoreCountSummary.CountType.ROLE, 1);
+        return true;
+    }
+
+    @Override
+    public boolean doPostDeleteRole(String roleName, UserStoreManager userStoreManager) throws UserStoreException {
+
+        if (!isEnable()) {
+            return true;
+        }
+        adjustCount(roleName, userStoreManager, UserStoreCountSummary.CountType.ROLE, -1);
+        return true;
+    }
+
+    private void adjustCount(String name, UserStoreManager userStoreManager, UserStoreCountSummary.CountType type,
+                             long delta) throws UserStoreException {
+
+        String domain = getDomain(name, userStoreManager);
+        UserStoreCountSummary.getInstance().adjust(userStoreManager.getTenantId(), domain, type, delta);
+        if (log.isDebugEnabled()) {
+            log.debug("Adjusted the " + type + " count of domain: " + domain + " by " + delta);
+        }
+    }
+
+    private String getDomain(String name, UserStoreManager userStoreManager) {
+
+        int index = name != null ? name.indexOf(UserCoreConstants.DOMAIN_SEPARATOR) : -1;
+        if (index > 0) {
+            return name.substring(0, index);
+        }
+        String domain = null;
+        if (userStoreManager.getRealmConfiguration() != null) {
+            domain = userStoreManager.getRealmConfiguration()
+                    .getUserStoreProperty(UserCoreConstants.RealmConfig.PROPERTY_DOMAIN_NAME);
+        }
+        if (StringUtils.isBlank(domain)) {
+            domain = IdentityUtil.getPrimaryDomainName();
+        }
+        return domain;
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.user.store.count.internal;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the user and role counts of user store domains per tenant. Counts are set from exact counts of the user
+ * stores and then maintained incrementally by {@link UserStoreCountEventListener} until they are reconciled again.
+ * <p>
+ * Every adjustment of a domain is recorded, whether or not the domain has been counted. A count which was adjusted
+ * while it was being counted is kept, but marked to be reconciled again, since the exact count may or may not include
+ * the adjustment.
+ */
+public class UserStoreCountSummary {
+
+    /**
+     * Type of the count.
+     */
+    public enum CountType {
+        USER, ROLE
+    }
+
+    private static UserStoreCountSummary instance = new UserStoreCountSummary();
+
+    private final Map<String, CountEntry> counts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> modifications = new ConcurrentHashMap<>();
+
+    UserStoreCountSummary() {
+
+    }
+
+    public static UserStoreCountSummary getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the count entry of a user store domain.
+     *
+     * @param tenantId tenant id
+     * @param domain   user store domain
+     * @param type     count type
+     * @return count entry or null if the domain has not been counted yet
+     */
+    public CountEntry getCount(int tenantId, String domain, CountType type) {
+        return counts.get(getKey(tenantId, domain, type));
+    }
+
+    /**
+     * Get the number of adjustments of a user store domain. This should be read before the domain is counted exactly,
+     * and passed to {@link #reconcile(int, String, CountType, long, long)}.
+     *
+     * @param tenantId tenant id
+     * @param domain   user store domain
+     * @param type     count type
+     * @return number of adjustments
+     */
+    public long getModificationCount(int tenantId, String domain, CountType type) {
+        AtomicLong modificationCount = modifications.get(getKey(tenantId, domain, type));
+        return modificationCount != null ? modificationCount.get() : 0;
+    }
+
+    /**
+     * Set the count of a user store domain from an exact count. If the domain has been adjusted since the given
+     * modification count was read, the count is marked to be reconciled again.
+     *
+     * @param tenantId          tenant id
+     * @param domain            user store domain
+     * @param type              count type
+     * @param count             exact count
+     * @param modificationCount number of adjustments of the domain before it was counted
+     * @return the new count entry
+     */
+    public CountEntry reconcile(int tenantId, String domain, CountType type, long count, long modificationCount) {
+        return counts.compute(getKey(tenantId, domain, type), (key, countEntry) ->
+                new CountEntry(count, System.currentTimeMillis(),
+                        getModificationCount(tenantId, domain, type) != modificationCount));
+    }
+
+    /**
+     * Adjust the count of a user store domain. Domains which have not been counted yet are ignored, since they
+     * will be counted exactly on the first request.
+     *
+     * @param tenantId tenant id
+     * @param domain   user store domain
+     * @param type     count type
+     * @param delta    value to add to the count
+     */
+    public void adjust(int tenantId, String domain, CountType type, long delta) {
+        String key = getKey(tenantId, domain, type);
+        // Recorded before the count is adjusted, so a concurrent reconciliation either sees the modification or is
+        // adjusted afterwards.
+        modifications.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+        counts.computeIfPresent(key, (k, countEntry) -> {
+            countEntry.adjust(delta);
+            return countEntry;
+        });
+    }
+
+    private String getKey(int tenantId, String domain, CountType type) {
+        return tenantId + ":" + type + ":" + domain.toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Count of a user store domain.
+     */
+    public static class CountEntry {
+        private final AtomicLong count;
+        private final long reconciledTime;
+        private final boolean reconcileRequired;
+
+        private CountEntry(long count, long reconciledTime, boolean reconcileRequired) {
+            this.count = new AtomicLong(count);
+            this.reconciledTime = reconciledTime;
+            this.reconcileRequired = reconcileRequired;
+        }
+
+        private void adjust(long delta) {
+            count.addAndGet(delta);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getReconciledTime() {
+            return reconciledTime;
+        }
+
+        /**
+         * Whether the domain was adjusted while it was being counted, in which case the count should be reconciled
+         * again before it is served.
+         *
+         * @return true if the count should be reconciled again
+         */
+        public boolean isReconcileRequired() {
+            return reconcileRequired;
+        }
+    }
+}
@@ -45,6 +45,17 @@ public class UserStoreCountUtils {
     public static final String COUNT_RETRIEVER_CLASS = "CountRetrieverClass";
     private static final Log log = LogFactory.getLog(UserStoreCountUtils.class);
     public static final String USERNAME_CLAIM = "http://wso2.org/claims/username";
+    public static final String SUMMARY_RECONCILE_INTERVAL = "UserStoreCount.SummaryReconcileInterval";
+    public static final String COUNT_THREAD_POOL_SIZE = "UserStoreCount.ThreadPoolSize";
+    public static final String COUNT_QUEUE_SIZE = "UserStoreCount.QueueSize";
+    public static final String COUNT_TIMEOUT = "UserStoreCount.CountTimeout";
+    public static final String STATUS_SUCCESS = "SUCCESS";
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+    public static final String STATUS_FAILED = "FAILED";
+    private static final long DEFAULT_SUMMARY_RECONCILE_INTERVAL = 300;
+    private static final long DEFAULT_COUNT_THREAD_POOL_SIZE = 10;
+    private static final long DEFAULT_COUNT_QUEUE_SIZE = 100;
+    private static final long DEFAULT_COUNT_TIMEOUT = 10000;
 
     /**
      * Get the available list of user store domains
@@ -236,4 +247,62 @@ public class UserStoreCountUtils {
         }
         return isEnabled;
     }
+
+    /**
+     * Get the interval in milliseconds after which the summarized counts are reconciled against exact counts.
+     *
+     * @return reconcile interval in milliseconds
+     */
+    public static long getSummaryReconcileInterval() {
+
+        return getPositiveProperty(SUMMARY_RECONCILE_INTERVAL, DEFAULT_SUMMARY_RECONCILE_INTERVAL) * 1000;
+    }
+
+    /**
+     * Get the number of threads used to count the user store domains in parallel.
+     *
+     * @return thread pool size
+     */
+    public static int getCountThreadPoolSize() {
+
+        return (int) getPositiveProperty(COUNT_THREAD_POOL_SIZE, DEFAULT_COUNT_THREAD_POOL_SIZE);
+    }
+
+    /**
+     * Get the maximum number of domain counts waiting for a thread.
+     *
+     * @return queue size
+     */
+    public static int getCountQueueSize() {
+
+        return (int) getPositiveProperty(COUNT_QUEUE_SIZE, DEFAULT_COUNT_QUEUE_SIZE);
+    }
+
+    /**
+     * Get the time in milliseconds a count request waits for all the user store domains to be counted.
+     *
+     * @return count timeout in milliseconds
+     */
+    public static long getCountTimeout() {
+
+        return getPositiveProperty(COUNT_TIMEOUT, DEFAULT_COUNT_TIMEOUT);
+    }
+
+    private static long getPositiveProperty(String name, long defaultValue) {
+
+        String value = IdentityUtil.getProperty(name);
+        if (StringUtils.isNotBlank(value)) {
+            try {
+                long parsedValue = Long.parseLong(value.trim());
+                if (parsedValue > 0) {
+                    return parsedValue;
+                }
+            } catch (NumberFormatException e) {
+                // Fall back to the default value below.
+            }
+            log.warn("Invalid value: " + value + " configured for " + name + ". Using the default value: "
+                    + defaultValue);
+        }
+        return defaultValue;
+    }
 }
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.wso2.carbon.identity.user.store.count.internal;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Tests for the incrementally maintained counts of {@link UserStoreCountSummary}.
+ */
+public class UserStoreCountSummaryTest {
+
+    private static final int TENANT_ID = 1;
+    private static final String DOMAIN = "PRIMARY";
+
+    private UserStoreCountSummary summary;
+
+    @BeforeMethod
+    public void setUp() {
+
+        summary = new UserStoreCountSummary();
+    }
+
+    @Test
+    public void testAdjustmentsOfUncountedDomainAreIgnored() {
+
+        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 1);
+        assertNull(summary.getCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER));
+    }
+
+    @Test
+    public void testCountIsAdjustedAfterReconcile() {
+
+        long modificationCount = summary.getModificationCount(TENANT_ID, DOMAIN,
+                UserStoreCountSummary.CountType.USER);
+        summary.reconcile(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 10, modificationCount);
+        summary.adjust(TENANT_ID, "primary", UserStoreCountSummary.CountType.USER, 1);
+        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 1);
+        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, -1);
+        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.ROLE, 1);
+
+        UserStoreCountSummary.CountEntry countEntry = summary.getCount(TENANT_ID, DOMAIN,
+                UserStoreCountSummary.CountType.USER);
+        assertEquals(countEntry.getCount(), 11);
+        assertFalse(countEntry.isReconcileRequired());
+        assertNull(summary.getCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.ROLE));
+        assertNull(summary.getCount(TENANT_ID + 1, DOMAIN, UserStoreCountSummary.CountType.USER));
+    }
+
+    @Test
+    public void testAdjustmentWhileCountingRequiresReconcile() {
+
+        long modificationCount = summary.getModificationCount(TENANT_ID, DOMAIN,
+                UserStoreCountSummary.CountType.USER);
+        // A user is added while the domain is being counted, so the exact count may or may not include it.
+        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 1);
+        UserStoreCountSummary.CountEntry countEntry = summary.reconcile(TENANT_ID, DOMAIN,
+                UserStoreCountSummary.CountType.USER, 10, modificationCount);
+        assertTrue(countEntry.isReconcileRequired());
+
+        modificationCount = summary.getModificationCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER);
+        countEntry = summary.reconcile(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 11,
+                modificationCount);
+        assertFalse(countEntry.isReconcileRequired());
+        assertEquals(countEntry.getCount(), 11);
+    }
+
+    @Test
+    public void testConcurrentAdjustments() throws Exception {
+
+        summary.reconcile(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 0,
+                summary.getModificationCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER));
+        int threads = 8;
+        int adjustments = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < adjustments; j++) {
+                        summary.adjust(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(summary.getCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER).getCount(),
+                threads * adjustments);
+        assertEquals(summary.getModificationCount(TENANT_ID, DOMAIN, UserStoreCountSummary.CountType.USER),
+                threads * adjustments);
+    }
+}
@@ -1613,6 +1613,10 @@ CREATE INDEX IDX_IDN_AUTH_SESSION_TIME ON IDN_AUTH_SESSION_STORE (TIME_CREATED)
 CREATE INDEX IDX_IDN_AUTH_TMP_SESSION_TIME ON IDN_AUTH_TEMP_SESSION_STORE (TIME_CREATED)
   /
 
+  -- IDN_AUTH_WAIT_STATUS --
+CREATE INDEX IDX_IDN_AUTH_WAIT_STATUS_EXP ON IDN_AUTH_WAIT_STATUS (EXPIRE_TIME)
+  /
+
   -- IDN_OIDC_SCOPE_CLAIM_MAPPING --
 CREATE INDEX IDX_AT_SI_ECI ON IDN_OIDC_SCOPE_CLAIM_MAPPING(SCOPE_ID, EXTERNAL_CLAIM_ID)
   /